@@ -0,0 +1,170 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.builder.impl.EvaluatingVisitor;
+import com.thoughtworks.qdox.model.JavaAnnotatedElement;
+import com.thoughtworks.qdox.model.JavaAnnotation;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaField;
+import com.thoughtworks.qdox.model.JavaMethod;
+import com.thoughtworks.qdox.model.JavaParameter;
+import com.thoughtworks.qdox.model.expression.AnnotationValue;
+import com.thoughtworks.qdox.model.expression.FieldRef;
+
+/**
+ * Measures evaluating every annotation value of the {@link CheckedInCorpus} with the {@link EvaluatingVisitor}: string
+ * concatenations, arithmetic and shifts of constants of another class, nested annotations and arrays of classes.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class AnnotationEvaluationBenchmark
+{
+    private final List<AnnotationValue> values = new ArrayList<AnnotationValue>();
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws IOException
+    {
+        JavaProjectBuilder builder = CheckedInCorpus.newBuilder( CheckedInCorpus.sources() );
+        for ( JavaClass cls : builder.getClasses() )
+        {
+            addValues( cls );
+            for ( JavaField field : cls.getFields() )
+            {
+                addValues( field );
+            }
+            for ( JavaMethod method : cls.getMethods() )
+            {
+                addValues( method );
+                for ( JavaParameter parameter : method.getParameters() )
+                {
+                    addValues( parameter );
+                }
+            }
+        }
+        evaluate();
+    }
+
+    private void addValues( JavaAnnotatedElement element )
+    {
+        for ( JavaAnnotation annotation : element.getAnnotations() )
+        {
+            values.addAll( annotation.getPropertyMap().values() );
+        }
+    }
+
+    @Benchmark
+    public int evaluate()
+    {
+        EvaluatingVisitor visitor = new ConstantEvaluatingVisitor();
+        int result = 0;
+        for ( AnnotationValue value : values )
+        {
+            if ( value.accept( visitor ) != null )
+            {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the value of the literal initializing a referenced constant, like the constants of the corpus. References
+     * which aren't resolved by QDox, like the constants of an enum in annotations of a top level class, are evaluated
+     * to their name, nested annotations to the values of their properties.
+     */
+    private static final class ConstantEvaluatingVisitor
+        extends EvaluatingVisitor
+    {
+        @Override
+        public Object visit( JavaAnnotation annotation )
+        {
+            Map<String, Object> result = new LinkedHashMap<String, Object>();
+            for ( Map.Entry<String, AnnotationValue> property : annotation.getPropertyMap().entrySet() )
+            {
+                result.put( property.getKey(), property.getValue().accept( this ) );
+            }
+            return result;
+        }
+
+        @Override
+        public Object visit( FieldRef fieldRef )
+        {
+            JavaField field = fieldRef.getField();
+            return field == null || field.isEnumConstant() ? fieldRef.getName() : super.visit( fieldRef );
+        }
+
+        @Override
+        protected Object getFieldReferenceValue( JavaField javaField )
+        {
+            String literal = javaField.getInitializationExpression().trim();
+            char last = literal.charAt( literal.length() - 1 );
+            if ( literal.charAt( 0 ) == '"' )
+            {
+                return literal.substring( 1, literal.length() - 1 );
+            }
+            else if ( literal.charAt( 0 ) == '\'' )
+            {
+                return literal.charAt( 1 );
+            }
+            else if ( "true".equals( literal ) || "false".equals( literal ) )
+            {
+                return Boolean.valueOf( literal );
+            }
+            else if ( last == 'L' )
+            {
+                return Long.valueOf( literal.substring( 0, literal.length() - 1 ) );
+            }
+            else if ( last == 'd' || literal.indexOf( '.' ) >= 0 )
+            {
+                return Double.valueOf( literal );
+            }
+            else
+            {
+                return Integer.valueOf( literal );
+            }
+        }
+    }
+}
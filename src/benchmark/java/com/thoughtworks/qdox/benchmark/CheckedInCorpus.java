@@ -0,0 +1,94 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+
+/**
+ * The checked in corpus of the benchmarks, below {@code src/benchmark/resources/corpus}. Unlike the generated
+ * {@link Corpus} it's written like real code: generics-heavy repositories, annotation-heavy entities whose annotations
+ * refer to constants, records with a sealed interface and a huge enum. All files compile with Java 17.
+ */
+public final class CheckedInCorpus
+{
+    private static final String[] FILES = { "Entity", "Limits", "Annotations", "Repository", "AbstractRepository",
+        "Customer", "PremiumCustomer", "CustomerRepository", "Shapes", "Opcode" };
+
+    private CheckedInCorpus()
+    {
+    }
+
+    /**
+     * @return the content of the java files by their path, in a fixed order
+     * @throws IOException if a file couldn't be read
+     */
+    public static Map<String, String> sources()
+        throws IOException
+    {
+        Map<String, String> result = new LinkedHashMap<String, String>();
+        for ( String file : FILES )
+        {
+            String path = "bench/corpus/" + file + ".java";
+            InputStream stream = CheckedInCorpus.class.getResourceAsStream( "/corpus/" + path );
+            if ( stream == null )
+            {
+                throw new IOException( "Missing corpus file " + path + ", run with -Pbenchmark" );
+            }
+            try
+            {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int length;
+                while ( ( length = stream.read( buffer ) ) >= 0 )
+                {
+                    out.write( buffer, 0, length );
+                }
+                result.put( path, new String( out.toByteArray(), StandardCharsets.UTF_8 ) );
+            }
+            finally
+            {
+                stream.close();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param sources the sources of the corpus
+     * @return a new builder with all sources of the corpus and the default classloaders
+     */
+    public static JavaProjectBuilder newBuilder( Map<String, String> sources )
+    {
+        JavaProjectBuilder builder = new JavaProjectBuilder();
+        for ( String source : sources.values() )
+        {
+            builder.addSource( new StringReader( source ) );
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,140 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.builder.Builder;
+import com.thoughtworks.qdox.builder.impl.ModelBuilder;
+import com.thoughtworks.qdox.library.ClassLoaderLibrary;
+import com.thoughtworks.qdox.model.impl.DefaultDocletTagFactory;
+import com.thoughtworks.qdox.parser.impl.BinaryClassParser;
+import com.thoughtworks.qdox.parser.impl.ClassFileParser;
+
+/**
+ * Measures building the models of the top level classes of <code>javax.swing</code>, by reflecting over the loaded
+ * classes or by reading their class files. The single shot mode runs in fresh JVMs, so it includes loading the
+ * classes for reflection.
+ */
+@State( Scope.Benchmark )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 2 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class ClassFileParserBenchmark
+{
+    @Param( { "reflection", "classfile" } )
+    public String parser;
+
+    private final ClassLoader classLoader = ClassFileParserBenchmark.class.getClassLoader();
+
+    private final ClassLoaderLibrary library = new ClassLoaderLibrary( null );
+
+    private List<String> names;
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws IOException
+    {
+        names = new ArrayList<String>();
+        FileSystem jrt = FileSystems.getFileSystem( URI.create( "jrt:/" ) );
+        DirectoryStream<Path> files = Files.newDirectoryStream( jrt.getPath( "/modules/java.desktop/javax/swing" ) );
+        try
+        {
+            for ( Path file : files )
+            {
+                String fileName = file.getFileName().toString();
+                if ( fileName.endsWith( ".class" ) && fileName.indexOf( '$' ) < 0 )
+                {
+                    names.add( "javax.swing." + fileName.substring( 0, fileName.length() - 6 ) );
+                }
+            }
+        }
+        finally
+        {
+            files.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode( Mode.AverageTime )
+    public int buildModels()
+        throws ClassNotFoundException
+    {
+        return build();
+    }
+
+    @Benchmark
+    @BenchmarkMode( Mode.SingleShotTime )
+    @Warmup( iterations = 0 )
+    @Measurement( iterations = 1 )
+    @Fork( 5 )
+    public int buildModelsCold()
+        throws ClassNotFoundException
+    {
+        return build();
+    }
+
+    private int build()
+        throws ClassNotFoundException
+    {
+        int result = 0;
+        for ( String name : names )
+        {
+            Builder builder = new ModelBuilder( library, new DefaultDocletTagFactory() );
+            boolean parsed;
+            if ( "reflection".equals( parser ) )
+            {
+                parsed = new BinaryClassParser( Class.forName( name, false, classLoader ), builder ).parse();
+            }
+            else
+            {
+                parsed = new ClassFileParser( classLoader, name, builder ).parse();
+            }
+            if ( parsed )
+            {
+                result += builder.getSource().getClasses().size();
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,132 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.ClassLoaderLibrary;
+import com.thoughtworks.qdox.library.ClassPathIndex;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaMethod;
+
+/**
+ * Measures answering whether classes exist with and without an index of the classpath: probing a fresh library for
+ * names which mostly don't exist, and resolving the method signatures of a source tree.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 2 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class ClassPathIndexBenchmark
+{
+    @Param( { "false", "true" } )
+    public boolean indexed;
+
+    private File directory;
+
+    private File sourceTree;
+
+    private ClassPathIndex classPathIndex;
+
+    private String[] names;
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws IOException
+    {
+        directory = Files.createTempDirectory( "qdox-classpath" ).toFile();
+        sourceTree = Corpus.generate( directory, 100 );
+        if ( indexed )
+        {
+            classPathIndex = new ClassPathIndex().addPlatformClasses();
+            classPathIndex.addClassPath( System.getProperty( "java.class.path" ) );
+        }
+        // the candidates of resolving a simple name against on-demand imports, nested classes and java.lang
+        String[] packages = { "java.util.", "java.io.", "java.lang.", "com.example.", "org.example.model." };
+        String[] simpleNames = { "List", "Entry", "Node", "Value", "String", "Handler", "Model", "Item" };
+        names = new String[packages.length * simpleNames.length * 25];
+        for ( int i = 0; i < names.length; i++ )
+        {
+            String simpleName = simpleNames[i % simpleNames.length];
+            names[i] = packages[( i / simpleNames.length ) % packages.length] + simpleName
+                + ( i < packages.length * simpleNames.length ? "" : Integer.toString( i ) );
+        }
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown()
+    {
+        Corpus.delete( directory );
+    }
+
+    @Benchmark
+    public int probeNames()
+    {
+        ClassLoaderLibrary library = new ClassLoaderLibrary( null );
+        library.addDefaultLoader();
+        library.setClassPathIndex( classPathIndex );
+        int result = 0;
+        for ( String name : names )
+        {
+            if ( library.hasClassReference( name ) )
+            {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int resolveSignatures()
+    {
+        JavaProjectBuilder builder = new JavaProjectBuilder();
+        builder.setClassPathIndex( classPathIndex );
+        builder.addSourceTree( sourceTree );
+        int result = 0;
+        for ( JavaClass cls : builder.getClasses() )
+        {
+            for ( JavaMethod method : cls.getMethods() )
+            {
+                result += method.getDeclarationSignature( true ).length();
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,96 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.model.JavaClass;
+
+/**
+ * Throughput of class lookups on a single {@link JavaProjectBuilder} shared by several threads.
+ * Run with {@code -t 1}, {@code -t 4}, ... to compare the scaling.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Threads( 4 )
+@Fork( 1 )
+public class ConcurrentLookupBenchmark
+{
+    private File sourceTree;
+
+    private JavaProjectBuilder builder;
+
+    private String[] names;
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws IOException
+    {
+        sourceTree = Corpus.generate( Files.createTempDirectory( "qdox-corpus" ).toFile(), 1000 );
+        builder = new JavaProjectBuilder();
+        builder.addSourceTree( sourceTree );
+        List<String> result = new ArrayList<String>();
+        for ( JavaClass cls : builder.getClasses() )
+        {
+            result.add( cls.getBinaryName() );
+        }
+        // include misses, which are answered by the classloaders
+        result.add( "java.util.List" );
+        result.add( "java.lang.String" );
+        names = result.toArray( new String[result.size()] );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown()
+    {
+        Corpus.delete( sourceTree );
+    }
+
+    @Benchmark
+    public JavaClass getClassByName()
+    {
+        JavaClass cls = builder.getClassByName( names[ThreadLocalRandom.current().nextInt( names.length )] );
+        return cls.getSuperJavaClass();
+    }
+}
@@ -0,0 +1,150 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Generates a synthetic source tree for the benchmarks.
+ * Every package contains an interface, a base class and a number of classes extending it, each with javadoc, fields,
+ * bean accessors and method bodies.
+ */
+public final class Corpus
+{
+    private Corpus()
+    {
+    }
+
+    /**
+     * Generate {@code files} java files below {@code directory}.
+     * 
+     * @param directory the root of the source tree
+     * @param files the number of files
+     * @return the root of the source tree
+     * @throws IOException if a file couldn't be written
+     */
+    public static File generate( File directory, int files )
+        throws IOException
+    {
+        int packages = Math.max( 1, files / 50 );
+        for ( int i = 0; i < files; i++ )
+        {
+            int p = i % packages;
+            String pckg = "corpus.p" + p;
+            File dir = new File( directory, pckg.replace( '.', File.separatorChar ) );
+            dir.mkdirs();
+            String name = i < packages ? "Base" : "Type" + i;
+            Writer writer = new FileWriter( new File( dir, name + ".java" ) );
+            try
+            {
+                writer.write( source( pckg, name, i < packages ) );
+            }
+            finally
+            {
+                writer.close();
+            }
+        }
+        return directory;
+    }
+
+    /**
+     * Generate {@code files} tiny java files below {@code directory}, a few lines each, so the costs of setting up a
+     * parse dominate the costs of parsing.
+     * 
+     * @param directory the root of the source tree
+     * @param files the number of files
+     * @return the root of the source tree
+     * @throws IOException if a file couldn't be written
+     */
+    public static File generateTiny( File directory, int files )
+        throws IOException
+    {
+        int packages = Math.max( 1, files / 1000 );
+        for ( int i = 0; i < files; i++ )
+        {
+            String pckg = "tiny.p" + ( i % packages );
+            File dir = new File( directory, pckg.replace( '.', File.separatorChar ) );
+            dir.mkdirs();
+            String name = "Tiny" + i;
+            Writer writer = new FileWriter( new File( dir, name + ".java" ) );
+            try
+            {
+                writer.write( tinySource( pckg, name ) );
+            }
+            finally
+            {
+                writer.close();
+            }
+        }
+        return directory;
+    }
+
+    static String tinySource( String pckg, String name )
+    {
+        return "package " + pckg + ";\n\n/** Tiny type " + name + ". */\npublic class " + name
+            + "\n{\n    private int value;\n\n    public int getValue()\n    {\n        return value;\n    }\n}\n";
+    }
+
+    static String source( String pckg, String name, boolean base )
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append( "package " ).append( pckg ).append( ";\n\n" );
+        sb.append( "import java.util.List;\nimport java.util.Map;\nimport java.io.Serializable;\n\n" );
+        sb.append( "/**\n * Generated type " ).append( name ).append( ".\n *\n * @author corpus\n * @since 1.0\n */\n" );
+        sb.append( "public class " ).append( name );
+        sb.append( base ? " implements Serializable" : " extends Base" ).append( "\n{\n" );
+        for ( int f = 0; f < 10; f++ )
+        {
+            sb.append( "    /** field " ).append( f ).append( " */\n" );
+            sb.append( "    private Map<String, List<Integer>> field" ).append( f ).append( ";\n\n" );
+            sb.append( "    /**\n     * @return the field\n     */\n" );
+            sb.append( "    public Map<String, List<Integer>> getField" ).append( f ).append( "()\n    {\n" );
+            sb.append( "        return field" ).append( f ).append( ";\n    }\n\n" );
+            sb.append( "    /**\n     * @param value the new value\n     * @throws IllegalArgumentException if null\n     */\n" );
+            sb.append( "    @Deprecated\n" );
+            sb.append( "    public void setField" ).append( f ).append( "( Map<String, List<Integer>> value )\n    {\n" );
+            sb.append( "        if ( value == null ) { throw new IllegalArgumentException( \"null\" ); }\n" );
+            sb.append( "        this.field" ).append( f ).append( " = value;\n    }\n\n" );
+        }
+        sb.append( "}\n" );
+        return sb.toString();
+    }
+
+    /**
+     * Delete a directory recursively.
+     * 
+     * @param file the file or directory
+     */
+    public static void delete( File file )
+    {
+        File[] children = file.listFiles();
+        if ( children != null )
+        {
+            for ( File child : children )
+            {
+                delete( child );
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,98 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.library.ClassNameLibrary;
+import com.thoughtworks.qdox.library.SourceLibrary;
+import com.thoughtworks.qdox.type.TypeResolver;
+
+/**
+ * Measures resolving the types used by a source with hundreds of imports, like generated code. Most types are
+ * single-type imports, a few come from the on-demand imports listed after them. The imported types are sources of the
+ * library, so the measurement isn't dominated by probing classloaders.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class ImportResolutionBenchmark
+{
+    @Param( { "250" } )
+    public int imports;
+
+    private SourceLibrary library;
+
+    private List<String> importList;
+
+    private List<String> typeNames;
+
+    @Setup( Level.Trial )
+    public void setUp()
+    {
+        library = new SourceLibrary( new ClassNameLibrary() );
+        importList = new ArrayList<String>();
+        typeNames = new ArrayList<String>();
+        for ( int i = 0; i < imports; i++ )
+        {
+            String pckg = "gen.model" + ( i % 10 );
+            library.addSource( new StringReader( "package " + pckg + "; public class Type" + i + " { }" ) );
+            importList.add( pckg + ".Type" + i );
+            typeNames.add( "Type" + i );
+        }
+        library.addSource( new StringReader( "package gen.util; public class Helper { public class Nested { } }" ) );
+        importList.add( "gen.util.*" );
+        importList.add( "static gen.util.Helper.*" );
+        typeNames.add( "Helper" );
+        typeNames.add( "Nested" );
+        typeNames.add( "Helper.Nested" );
+    }
+
+    @Benchmark
+    public int resolveTypes()
+    {
+        TypeResolver typeResolver = TypeResolver.byPackageName( "gen.client", library, importList );
+        int result = 0;
+        for ( String typeName : typeNames )
+        {
+            result += typeResolver.resolveType( typeName ).length();
+        }
+        return result;
+    }
+}
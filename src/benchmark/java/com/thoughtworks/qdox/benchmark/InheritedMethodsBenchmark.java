@@ -0,0 +1,114 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.model.JavaClass;
+
+/**
+ * Measures inherited method lookups in a deep hierarchy, like the ones of application frameworks:
+ * every level extends the previous one, implements an interface of its own and declares a few methods.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class InheritedMethodsBenchmark
+{
+    @Param( { "20" } )
+    public int depth;
+
+    @Param( { "10" } )
+    public int methods;
+
+    private List<JavaClass> classes;
+
+    @Setup( Level.Trial )
+    public void setUp()
+    {
+        JavaProjectBuilder builder = new JavaProjectBuilder();
+        classes = new ArrayList<JavaClass>();
+        for ( int level = 0; level < depth; level++ )
+        {
+            StringBuilder sb = new StringBuilder( "package framework;\n" );
+            sb.append( "public interface Aware" ).append( level ).append( " {\n" );
+            sb.append( "  void setAware" ).append( level ).append( "(java.util.List<String> value);\n}\n" );
+            builder.addSource( new StringReader( sb.toString() ) );
+
+            sb = new StringBuilder( "package framework;\n" );
+            sb.append( "public abstract class Level" ).append( level );
+            if ( level > 0 )
+            {
+                sb.append( " extends Level" ).append( level - 1 );
+            }
+            sb.append( " implements Aware" ).append( level ).append( " {\n" );
+            for ( int m = 0; m < methods; m++ )
+            {
+                sb.append( "  public String get" ).append( level ).append( '_' ).append( m ).append( "() { return null; }\n" );
+                sb.append( "  public void handle(Level" ).append( level ).append( " source, int" ).append( m ).append( " count) {}\n" );
+            }
+            sb.append( "}\n" );
+            builder.addSource( new StringReader( sb.toString() ) );
+            classes.add( builder.getClassByName( "framework.Level" + level ) );
+        }
+    }
+
+    @Benchmark
+    public int getMethods()
+    {
+        int result = 0;
+        for ( JavaClass cls : classes )
+        {
+            result += cls.getMethods( true ).size();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int getBeanProperties()
+    {
+        int result = 0;
+        for ( JavaClass cls : classes )
+        {
+            result += cls.getBeanProperties( true ).size();
+        }
+        return result;
+    }
+}
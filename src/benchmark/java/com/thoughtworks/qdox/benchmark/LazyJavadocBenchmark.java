@@ -0,0 +1,118 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaMethod;
+
+/**
+ * Compares eager and lazy javadoc parsing, for a signature-only workload and for one which reads all javadoc. The
+ * signatures are read without resolving their types, which would dominate the measurement.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class LazyJavadocBenchmark
+{
+    @Param( { "false", "true" } )
+    public boolean lazy;
+
+    @Param( { "1000" } )
+    public int files;
+
+    private File directory;
+
+    private File sourceTree;
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws IOException
+    {
+        directory = Files.createTempDirectory( "qdox-javadoc" ).toFile();
+        sourceTree = Corpus.generate( directory, files );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown()
+    {
+        Corpus.delete( directory );
+    }
+
+    @Benchmark
+    public int signatures()
+    {
+        int result = 0;
+        for ( JavaClass cls : addSourceTree().getClasses() )
+        {
+            for ( JavaMethod method : cls.getMethods() )
+            {
+                result += method.getName().length() + method.getParameters().size();
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int signaturesAndJavadoc()
+    {
+        int result = 0;
+        for ( JavaClass cls : addSourceTree().getClasses() )
+        {
+            result += cls.getTags().size();
+            for ( JavaMethod method : cls.getMethods() )
+            {
+                result += method.getName().length() + method.getParameters().size();
+                result += method.getComment() != null ? method.getComment().length() : 0;
+                result += method.getTags().size();
+            }
+        }
+        return result;
+    }
+
+    private JavaProjectBuilder addSourceTree()
+    {
+        JavaProjectBuilder builder = new JavaProjectBuilder().setLazyJavadoc( lazy );
+        builder.addSourceTree( sourceTree );
+        return builder;
+    }
+}
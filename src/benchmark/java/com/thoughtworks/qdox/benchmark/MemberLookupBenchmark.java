@@ -0,0 +1,100 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.model.JavaClass;
+
+/**
+ * Measures the first inherited member lookups of the classes of the {@link CheckedInCorpus}:
+ * {@code getMethods(true)} and {@code getBeanProperties(true)}. The results are cached by the model, so every
+ * invocation gets a new model of the corpus; building it isn't measured.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class MemberLookupBenchmark
+{
+    private Map<String, String> sources;
+
+    private List<JavaClass> classes;
+
+    @Setup( Level.Trial )
+    public void setUpTrial()
+        throws IOException
+    {
+        sources = CheckedInCorpus.sources();
+    }
+
+    @Setup( Level.Invocation )
+    public void setUp()
+    {
+        JavaProjectBuilder builder = CheckedInCorpus.newBuilder( sources );
+        classes = new ArrayList<JavaClass>();
+        for ( JavaClass cls : builder.getClasses() )
+        {
+            classes.add( cls );
+            classes.addAll( cls.getNestedClasses() );
+        }
+    }
+
+    @Benchmark
+    public int getMethods()
+    {
+        int result = 0;
+        for ( JavaClass cls : classes )
+        {
+            result += cls.getMethods( true ).size();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int getBeanProperties()
+    {
+        int result = 0;
+        for ( JavaClass cls : classes )
+        {
+            result += cls.getBeanProperties( true ).size();
+        }
+        return result;
+    }
+}
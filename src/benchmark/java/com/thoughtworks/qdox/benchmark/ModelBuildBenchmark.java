@@ -0,0 +1,89 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.builder.impl.ModelBuilder;
+import com.thoughtworks.qdox.library.ClassNameLibrary;
+import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.model.impl.DefaultDocletTagFactory;
+import com.thoughtworks.qdox.parser.impl.JFlexLexer;
+import com.thoughtworks.qdox.parser.impl.Parser;
+
+/**
+ * Measures building the models of the {@link CheckedInCorpus} with the {@link Parser} and a {@link ModelBuilder},
+ * including lexing but without registering the sources in a library.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class ModelBuildBenchmark
+{
+    private final List<char[]> sources = new ArrayList<char[]>();
+
+    private ClassNameLibrary classLibrary;
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws IOException
+    {
+        for ( String source : CheckedInCorpus.sources().values() )
+        {
+            sources.add( source.toCharArray() );
+        }
+        classLibrary = new ClassNameLibrary();
+    }
+
+    @Benchmark
+    public int buildModels()
+    {
+        int result = 0;
+        for ( char[] source : sources )
+        {
+            ModelBuilder builder = new ModelBuilder( classLibrary, new DefaultDocletTagFactory() );
+            Parser parser = new Parser( new JFlexLexer( source, source.length ), builder );
+            if ( parser.parse() )
+            {
+                JavaSource javaSource = builder.getSource();
+                result += javaSource.getClasses().size();
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+
+/**
+ * Measures how {@link JavaProjectBuilder#addSourceTree(File, int)} scales with the number of threads.
+ * A {@code threads} value of {@code 0} uses the sequential {@link JavaProjectBuilder#addSourceTree(File)}.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class ParallelSourceTreeBenchmark
+{
+    @Param( { "0", "1", "2", "4", "8" } )
+    public int threads;
+
+    @Param( { "2000" } )
+    public int files;
+
+    private File sourceTree;
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws IOException
+    {
+        sourceTree = Corpus.generate( Files.createTempDirectory( "qdox-corpus" ).toFile(), files );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown()
+    {
+        Corpus.delete( sourceTree );
+    }
+
+    @Benchmark
+    public JavaProjectBuilder addSourceTree()
+    {
+        JavaProjectBuilder builder = new JavaProjectBuilder();
+        if ( threads == 0 )
+        {
+            builder.addSourceTree( sourceTree );
+        }
+        else
+        {
+            builder.addSourceTree( sourceTree, threads );
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,129 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.PlatformIndex;
+import com.thoughtworks.qdox.model.JavaClass;
+
+/**
+ * Measures the JDK warm-up of a new builder: resolving the public classes of java.lang, java.util and java.io with
+ * their superclasses, from the classloaders or from the shared index of the JDK.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class PlatformLibraryBenchmark
+{
+    @Param( { "false", "true" } )
+    public boolean indexed;
+
+    private File directory;
+
+    private PlatformIndex platformIndex;
+
+    private final List<String> names = new ArrayList<String>();
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws IOException
+    {
+        directory = Files.createTempDirectory( "qdox-platform" ).toFile();
+        if ( indexed )
+        {
+            platformIndex = PlatformIndex.getInstance( new File( directory, "platform.idx" ) );
+        }
+        FileSystem jrt = FileSystems.getFileSystem( URI.create( "jrt:/" ) );
+        for ( String packagePath : new String[] { "java/lang", "java/util", "java/io" } )
+        {
+            DirectoryStream<Path> files = Files.newDirectoryStream( jrt.getPath( "/modules/java.base/" + packagePath ) );
+            try
+            {
+                for ( Path file : files )
+                {
+                    String fileName = file.getFileName().toString();
+                    if ( fileName.endsWith( ".class" ) && fileName.indexOf( '$' ) < 0 && fileName.indexOf( '-' ) < 0 )
+                    {
+                        names.add( packagePath.replace( '/', '.' ) + '.'
+                            + fileName.substring( 0, fileName.length() - 6 ) );
+                    }
+                }
+            }
+            finally
+            {
+                files.close();
+            }
+        }
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown()
+    {
+        Corpus.delete( directory );
+    }
+
+    @Benchmark
+    public int resolveJdkClasses()
+    {
+        JavaProjectBuilder builder = new JavaProjectBuilder();
+        builder.setPlatformIndex( platformIndex );
+        int result = 0;
+        for ( String name : names )
+        {
+            JavaClass cls = builder.getClassByName( name );
+            result += cls.getMethods().size();
+            for ( JavaClass superClass = cls.getSuperJavaClass(); superClass != null;
+                  superClass = superClass.getSuperJavaClass() )
+            {
+                result += superClass.getFields().size();
+            }
+        }
+        return result;
+    }
+}
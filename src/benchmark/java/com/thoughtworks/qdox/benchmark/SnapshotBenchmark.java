@@ -0,0 +1,113 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.model.JavaClass;
+
+/**
+ * Measures saving a snapshot and compares loading it with parsing the source tree again. Both include the lookup of a
+ * single class, the typical first action of a tool which opens a cached model.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class SnapshotBenchmark
+{
+    @Param( { "2000" } )
+    public int files;
+
+    private File directory;
+
+    private File sourceTree;
+
+    private JavaProjectBuilder builder;
+
+    private File snapshot;
+
+    private String className;
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws IOException
+    {
+        directory = Files.createTempDirectory( "qdox-snapshot" ).toFile();
+        sourceTree = Corpus.generate( new File( directory, "src" ), files );
+        className = "corpus.p0.Type" + Math.max( 1, files / 50 );
+
+        builder = new JavaProjectBuilder();
+        builder.addSourceTree( sourceTree );
+
+        snapshot = new File( directory, "model.qdx" );
+        builder.save( snapshot );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown()
+    {
+        Corpus.delete( directory );
+    }
+
+    @Benchmark
+    public File saveSnapshot()
+        throws IOException
+    {
+        File file = new File( directory, "save.qdx" );
+        builder.save( file );
+        return file;
+    }
+
+    @Benchmark
+    public JavaClass loadSnapshot()
+        throws IOException
+    {
+        return JavaProjectBuilder.load( snapshot ).getClassByName( className );
+    }
+
+    @Benchmark
+    public JavaClass parseSourceTree()
+    {
+        JavaProjectBuilder builder = new JavaProjectBuilder();
+        builder.addSourceTree( sourceTree );
+        return builder.getClassByName( className );
+    }
+}
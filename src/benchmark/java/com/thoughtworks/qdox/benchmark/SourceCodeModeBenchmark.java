@@ -0,0 +1,107 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.SourceCodeMode;
+
+/**
+ * Compares {@link JavaProjectBuilder#addSourceTree(File)} for every {@link SourceCodeMode}. Besides the time, the
+ * heap retained by the resulting model is printed once per trial. The generated corpus only has short bodies, so pass
+ * a real source tree with {@code -p tree=<directory>} as well.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class SourceCodeModeBenchmark
+{
+    @Param( { "RETAIN", "SKIP", "LAZY" } )
+    public SourceCodeMode mode;
+
+    @Param( { "1000" } )
+    public int files;
+
+    @Param( { "" } )
+    public String tree;
+
+    private File directory;
+
+    private File sourceTree;
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws IOException
+    {
+        directory = Files.createTempDirectory( "qdox-sourcecode" ).toFile();
+        sourceTree = tree.isEmpty() ? Corpus.generate( directory, files ) : new File( tree );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown()
+    {
+        long before = usedHeap();
+        JavaProjectBuilder builder = addSourceTree();
+        builder.getClasses();
+        long after = usedHeap();
+        System.out.printf( "%nretained heap (%s): %.1f MB, %d classes%n", mode, ( after - before ) / 1048576.0,
+                           builder.getClasses().size() );
+        Corpus.delete( directory );
+    }
+
+    @Benchmark
+    public JavaProjectBuilder addSourceTree()
+    {
+        JavaProjectBuilder builder = new JavaProjectBuilder().setSourceCodeMode( mode );
+        builder.addSourceTree( sourceTree );
+        return builder;
+    }
+
+    private static long usedHeap()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        for ( int i = 0; i < 3; i++ )
+        {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,102 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.library.SourceFolderLibrary;
+import com.thoughtworks.qdox.library.SourceFolderMode;
+
+/**
+ * Measures resolving the classes of a source folder lazily, with the probes of type resolution: a nested class by
+ * the same name as an import and a class which doesn't exist, for every class.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class SourceFolderBenchmark
+{
+    @Param( { "LOOKUP", "INDEX" } )
+    public SourceFolderMode mode;
+
+    private File directory;
+
+    private File sourceFolder;
+
+    private final List<String> names = new ArrayList<String>();
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws IOException
+    {
+        directory = Files.createTempDirectory( "qdox-sourcefolder" ).toFile();
+        sourceFolder = Corpus.generate( directory, 500 );
+        for ( int i = 0; i < 500; i++ )
+        {
+            names.add( "corpus.p" + ( i % 10 ) + '.' + ( i < 10 ? "Base" : "Type" + i ) );
+        }
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown()
+    {
+        Corpus.delete( directory );
+    }
+
+    @Benchmark
+    public int resolveClasses()
+    {
+        SourceFolderLibrary library = new SourceFolderLibrary( null );
+        library.setSourceFolderMode( mode );
+        library.addSourceFolder( sourceFolder );
+        int result = 0;
+        for ( String name : names )
+        {
+            if ( library.hasClassReference( name + "$List" ) || library.hasClassReference( name + "Missing" ) )
+            {
+                result++;
+            }
+            result += library.getJavaClass( name ).getMethods().size();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,131 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+
+/**
+ * Compares adding sources as {@link File}s, which are memory-mapped and lexed from a decoded buffer, with adding them
+ * as {@link Reader}s. Run with {@code -prof gc} to compare the allocation rates.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class SourceInputBenchmark
+{
+    private static final String ENCODING = "UTF-8";
+
+    @Param( { "1000" } )
+    public int files;
+
+    private File directory;
+
+    private List<File> sources;
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws IOException
+    {
+        directory = Files.createTempDirectory( "qdox-input" ).toFile();
+        sources = new ArrayList<File>();
+        collect( Corpus.generate( directory, files ), sources );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown()
+    {
+        Corpus.delete( directory );
+    }
+
+    @Benchmark
+    public JavaProjectBuilder addFiles()
+        throws IOException
+    {
+        JavaProjectBuilder builder = new JavaProjectBuilder().setEncoding( ENCODING );
+        for ( File source : sources )
+        {
+            builder.addSource( source );
+        }
+        return builder;
+    }
+
+    @Benchmark
+    public JavaProjectBuilder addReaders()
+        throws IOException
+    {
+        JavaProjectBuilder builder = new JavaProjectBuilder().setEncoding( ENCODING );
+        for ( File source : sources )
+        {
+            Reader reader = new InputStreamReader( new FileInputStream( source ), ENCODING );
+            try
+            {
+                builder.addSource( reader );
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        return builder;
+    }
+
+    private static void collect( File file, List<File> result )
+    {
+        File[] children = file.listFiles();
+        if ( children != null )
+        {
+            for ( File child : children )
+            {
+                collect( child, result );
+            }
+        }
+        else if ( file.getName().endsWith( ".java" ) )
+        {
+            result.add( file );
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.library.AbstractClassLibrary;
+import com.thoughtworks.qdox.library.ClassLoaderLibrary;
+import com.thoughtworks.qdox.library.SourceJarLibrary;
+
+/**
+ * Measures opening a source jar of about 100MB and resolving a handful of its classes, with a
+ * {@link SourceJarLibrary} and with a {@link ClassLoaderLibrary} probing a classloader for the java files.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class SourceJarBenchmark
+{
+    private static final int ENTRIES = 25000;
+
+    @Param( { "SourceJarLibrary", "ClassLoaderLibrary" } )
+    public String library;
+
+    private File directory;
+
+    private File sourceJar;
+
+    private final String[] names = new String[8];
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws IOException
+    {
+        directory = Files.createTempDirectory( "qdox-sourcejar" ).toFile();
+        sourceJar = new File( directory, "corpus-sources.jar" );
+        // stored, so the jar is as large as the sources jars of big dependencies
+        ZipOutputStream out = new ZipOutputStream( new FileOutputStream( sourceJar ) );
+        try
+        {
+            for ( int i = 0; i < ENTRIES; i++ )
+            {
+                String pckg = "corpus.p" + ( i % 100 );
+                String name = ( i < 100 ? "Base" : "Type" + i );
+                byte[] content = Corpus.source( pckg, name, i < 100 ).getBytes( StandardCharsets.UTF_8 );
+                CRC32 crc = new CRC32();
+                crc.update( content );
+                ZipEntry entry = new ZipEntry( pckg.replace( '.', '/' ) + '/' + name + ".java" );
+                entry.setMethod( ZipEntry.STORED );
+                entry.setSize( content.length );
+                entry.setCrc( crc.getValue() );
+                out.putNextEntry( entry );
+                out.write( content );
+                out.closeEntry();
+            }
+        }
+        finally
+        {
+            out.close();
+        }
+        for ( int i = 0; i < names.length; i++ )
+        {
+            int index = 100 + i * ( ( ENTRIES - 100 ) / names.length );
+            names[i] = "corpus.p" + ( index % 100 ) + ".Type" + index;
+        }
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown()
+    {
+        Corpus.delete( directory );
+    }
+
+    @Benchmark
+    public int resolveClasses()
+        throws IOException
+    {
+        AbstractClassLibrary classLibrary;
+        URLClassLoader classLoader = null;
+        if ( "SourceJarLibrary".equals( library ) )
+        {
+            SourceJarLibrary sourceJarLibrary = new SourceJarLibrary( null );
+            sourceJarLibrary.addSourceJar( sourceJar );
+            classLibrary = sourceJarLibrary;
+        }
+        else
+        {
+            classLoader = new URLClassLoader( new URL[] { sourceJar.toURI().toURL() }, null );
+            ClassLoaderLibrary classLoaderLibrary = new ClassLoaderLibrary( null );
+            classLoaderLibrary.addClassLoader( classLoader );
+            classLibrary = classLoaderLibrary;
+        }
+        try
+        {
+            int result = 0;
+            for ( String name : names )
+            {
+                result += classLibrary.getJavaClass( name ).getMethods().size();
+            }
+            return result;
+        }
+        finally
+        {
+            if ( classLoader != null )
+            {
+                classLoader.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.model.DocletTag;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaMethod;
+
+/**
+ * Measures doclet tag lookups over a parsed model, the way code generators query it.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class TagLookupBenchmark
+{
+    @Param( { "200" } )
+    public int files;
+
+    private File directory;
+
+    private List<JavaClass> classes;
+
+    private List<JavaMethod> methods;
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws IOException
+    {
+        directory = Files.createTempDirectory( "qdox-tags" ).toFile();
+        JavaProjectBuilder builder = new JavaProjectBuilder();
+        builder.addSourceTree( Corpus.generate( directory, files ) );
+        classes = new ArrayList<JavaClass>( builder.getClasses() );
+        methods = new ArrayList<JavaMethod>();
+        for ( JavaClass cls : classes )
+        {
+            methods.addAll( cls.getMethods() );
+        }
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown()
+    {
+        Corpus.delete( directory );
+    }
+
+    @Benchmark
+    public int getTagByName()
+    {
+        int result = 0;
+        for ( JavaMethod method : methods )
+        {
+            DocletTag tag = method.getTagByName( "return" );
+            result += tag != null ? 1 : 0;
+            result += method.getTagsByName( "throws" ).size();
+            String name = method.getNamedParameter( "param", "value" );
+            result += name != null ? 1 : 0;
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int getInheritedTags()
+    {
+        int result = 0;
+        for ( JavaClass cls : classes )
+        {
+            result += cls.getTagsByName( "author", true ).size();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,127 @@
+package com.thoughtworks.qdox.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.ClassLibrary;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaField;
+import com.thoughtworks.qdox.model.JavaMethod;
+import com.thoughtworks.qdox.model.JavaParameter;
+import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.type.TypeResolver;
+
+/**
+ * Measures resolving the type names of the {@link CheckedInCorpus} with a new {@link TypeResolver} per class, as
+ * written in the source: the simple names of the fields and of the signatures of the methods, plus names which can't
+ * be resolved. The library is warmed up, so this is the cost of resolution once the classes are known.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class TypeResolverBenchmark
+{
+    private ClassLibrary classLibrary;
+
+    private final List<JavaClass> classes = new ArrayList<JavaClass>();
+
+    private final List<String[]> typeNames = new ArrayList<String[]>();
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws IOException
+    {
+        JavaProjectBuilder builder = CheckedInCorpus.newBuilder( CheckedInCorpus.sources() );
+        for ( JavaSource source : builder.getSources() )
+        {
+            for ( JavaClass cls : source.getClasses() )
+            {
+                classLibrary = cls.getJavaClassLibrary();
+                Set<String> names = new LinkedHashSet<String>();
+                for ( JavaField field : cls.getFields() )
+                {
+                    names.add( simpleName( field.getType().getGenericValue() ) );
+                }
+                for ( JavaMethod method : cls.getMethods() )
+                {
+                    names.add( simpleName( method.getReturnType().getGenericValue() ) );
+                    for ( JavaParameter parameter : method.getParameters() )
+                    {
+                        names.add( simpleName( parameter.getType().getGenericValue() ) );
+                    }
+                }
+                names.add( "Map.Entry" );
+                names.add( "Missing" + cls.getName() );
+                classes.add( cls );
+                typeNames.add( names.toArray( new String[names.size()] ) );
+            }
+        }
+        resolve();
+    }
+
+    private static String simpleName( String genericValue )
+    {
+        int index = genericValue.indexOf( '<' );
+        String result = index < 0 ? genericValue : genericValue.substring( 0, index );
+        return result.replace( "[]", "" ).replace( "...", "" );
+    }
+
+    @Benchmark
+    public int resolve()
+    {
+        int result = 0;
+        for ( int i = 0; i < classes.size(); i++ )
+        {
+            JavaClass cls = classes.get( i );
+            TypeResolver typeResolver =
+                TypeResolver.byClassName( cls.getBinaryName(), classLibrary, cls.getSource().getImports() );
+            for ( String typeName : typeNames.get( i ) )
+            {
+                if ( typeResolver.resolveType( typeName ) != null )
+                {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,167 @@
+package bench.corpus;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+
+/**
+ * An in-memory implementation of the repository.
+ *
+ * @param <T> the type of the entities
+ * @param <ID> the type of their identifiers
+ */
+@Transactional( timeout = 60 * 1000, rollbackFor = { IllegalStateException.class } )
+public abstract class AbstractRepository<T extends Entity<ID>, ID extends Comparable<? super ID> & Serializable>
+    implements Repository<T, ID>
+{
+    private final ConcurrentMap<ID, T> entities = new ConcurrentHashMap<ID, T>();
+
+    private final Map<Class<? extends T>, List<Listener<? super T>>> listeners =
+        new LinkedHashMap<Class<? extends T>, List<Listener<? super T>>>();
+
+    /**
+     * Notified about changes of the entities.
+     *
+     * @param <E> the type of the entities
+     */
+    public interface Listener<E>
+    {
+        void saved( E entity, Optional<? extends E> previous );
+    }
+
+    protected abstract ID newId();
+
+    @Override
+    public Optional<T> findById( ID id )
+    {
+        return Optional.ofNullable( entities.get( id ) );
+    }
+
+    @Override
+    public List<T> findAll( Predicate<? super T> filter, Comparator<? super T> order )
+    {
+        List<T> result = new ArrayList<T>();
+        for ( T entity : entities.values() )
+        {
+            if ( filter.test( entity ) )
+            {
+                result.add( entity );
+            }
+        }
+        Collections.sort( result, order );
+        return result;
+    }
+
+    @Override
+    public <K> Map<K, List<T>> groupBy( Function<? super T, ? extends K> classifier )
+    {
+        Map<K, List<T>> result = new HashMap<K, List<T>>();
+        for ( T entity : entities.values() )
+        {
+            result.computeIfAbsent( classifier.apply( entity ), k -> new ArrayList<T>() ).add( entity );
+        }
+        return result;
+    }
+
+    @Override
+    public <K, V extends Comparable<? super V>> Map<K, Map<V, List<? extends T>>> index( Function<? super T, K> outer,
+                                                                                   Function<? super T, V> inner )
+    {
+        Map<K, Map<V, List<? extends T>>> result = new HashMap<K, Map<V, List<? extends T>>>();
+        for ( T entity : entities.values() )
+        {
+            Map<V, List<? extends T>> byInner = result.computeIfAbsent( outer.apply( entity ), k -> new TreeMap<>() );
+            byInner.computeIfAbsent( inner.apply( entity ), k -> new ArrayList<T>() );
+        }
+        return result;
+    }
+
+    @Override
+    public <R, A> R collect( Collector<? super T, A, R> collector )
+    {
+        return entities.values().stream().collect( collector );
+    }
+
+    @Override
+    public <U> U reduce( U identity, BiFunction<U, ? super T, U> accumulator )
+    {
+        U result = identity;
+        for ( T entity : entities.values() )
+        {
+            result = accumulator.apply( result, entity );
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional( propagation = Propagation.REQUIRES_NEW )
+    public <S extends T> S save( S entity )
+    {
+        if ( entity.getId() == null )
+        {
+            entity.setId( newId() );
+        }
+        T previous = entities.put( entity.getId(), entity );
+        for ( Map.Entry<Class<? extends T>, List<Listener<? super T>>> entry : listeners.entrySet() )
+        {
+            if ( entry.getKey().isInstance( entity ) )
+            {
+                for ( Listener<? super T> listener : entry.getValue() )
+                {
+                    listener.saved( entity, Optional.ofNullable( previous ) );
+                }
+            }
+        }
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll( Iterable<S> entities )
+    {
+        List<S> result = new ArrayList<S>();
+        for ( S entity : entities )
+        {
+            result.add( save( entity ) );
+        }
+        return result;
+    }
+
+    @Override
+    public void deleteAll( Collection<? extends ID> ids )
+    {
+        entities.keySet().removeAll( ids );
+    }
+
+    @Override
+    @SafeVarargs
+    @SuppressWarnings( "unchecked" )
+    public final <E extends Enum<E> & Comparable<E>> Map<E, ? super List<T>[]> partition( Class<E> type, T... samples )
+    {
+        Map<E, List<T>[]> result = new EnumMap<E, List<T>[]>( type );
+        for ( E constant : type.getEnumConstants() )
+        {
+            result.put( constant, (List<T>[]) new List<?>[] { new ArrayList<T>( samples.length ) } );
+        }
+        return result;
+    }
+
+    public <L extends Listener<? super T>> void addListener( Class<? extends T> type, L listener )
+    {
+        listeners.computeIfAbsent( type, k -> new ArrayList<Listener<? super T>>() ).add( listener );
+    }
+}
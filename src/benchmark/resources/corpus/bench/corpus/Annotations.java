@@ -0,0 +1,107 @@
+package bench.corpus;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import static bench.corpus.Limits.PREFIX;
+import static bench.corpus.Limits.TIMEOUT_MILLIS;
+
+/**
+ * The annotation types used by the corpus, modelled after persistence and validation frameworks.
+ */
+final class Annotations
+{
+    private Annotations()
+    {
+    }
+}
+
+@Documented
+@Retention( RetentionPolicy.RUNTIME )
+@Target( ElementType.TYPE )
+@interface Table
+{
+    String name() default "";
+
+    String schema() default PREFIX + "public";
+
+    Index[] indexes() default {};
+}
+
+@Retention( RetentionPolicy.RUNTIME )
+@Target( {} )
+@interface Index
+{
+    String[] columns();
+
+    boolean unique() default false;
+}
+
+@Retention( RetentionPolicy.RUNTIME )
+@Target( { ElementType.FIELD, ElementType.METHOD } )
+@interface Id
+{
+}
+
+@Retention( RetentionPolicy.RUNTIME )
+@Target( { ElementType.FIELD, ElementType.METHOD, ElementType.RECORD_COMPONENT } )
+@interface Column
+{
+    String name() default "";
+
+    boolean nullable() default true;
+
+    int length() default 255;
+
+    int precision() default 0;
+}
+
+@Retention( RetentionPolicy.RUNTIME )
+@Target( { ElementType.FIELD, ElementType.PARAMETER, ElementType.TYPE_USE } )
+@Repeatable( Constraints.class )
+@interface Constraint
+{
+    Class<?> validator();
+
+    String message() default "{" + PREFIX + "constraint}";
+
+    long min() default Long.MIN_VALUE;
+
+    long max() default Long.MAX_VALUE;
+
+    Severity severity() default Severity.ERROR;
+}
+
+@Retention( RetentionPolicy.RUNTIME )
+@Target( { ElementType.FIELD, ElementType.PARAMETER, ElementType.TYPE_USE } )
+@interface Constraints
+{
+    Constraint[] value();
+}
+
+@Inherited
+@Retention( RetentionPolicy.RUNTIME )
+@Target( { ElementType.TYPE, ElementType.METHOD } )
+@interface Transactional
+{
+    Propagation propagation() default Propagation.REQUIRED;
+
+    long timeout() default TIMEOUT_MILLIS;
+
+    Class<? extends Throwable>[] rollbackFor() default { RuntimeException.class, Error.class };
+}
+
+enum Severity
+{
+    INFO, WARNING, ERROR
+}
+
+enum Propagation
+{
+    REQUIRED, REQUIRES_NEW, SUPPORTS, NEVER
+}
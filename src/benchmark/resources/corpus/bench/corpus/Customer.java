@@ -0,0 +1,127 @@
+package bench.corpus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static bench.corpus.Limits.DESCRIPTION;
+import static bench.corpus.Limits.ID_LENGTH;
+import static bench.corpus.Limits.NAME;
+import static bench.corpus.Limits.PREFIX;
+import static bench.corpus.Limits.RATE;
+import static bench.corpus.Limits.SEPARATOR;
+import static bench.corpus.Limits.STRICT;
+
+/**
+ * A customer, annotated the way persistence and validation frameworks expect it.
+ *
+ * @author corpus
+ */
+@Table( name = PREFIX + "customer", schema = "crm",
+        indexes = { @Index( columns = { "last_name", "first_name" } ), @Index( columns = "email", unique = STRICT ) } )
+@Transactional( propagation = Propagation.SUPPORTS, timeout = 15 * 1000 + 500 )
+@SuppressWarnings( { "unused", "rawtypes" } )
+public class Customer
+    extends Entity<String>
+{
+    @Column( name = "first" + "_" + "name", length = NAME, nullable = false )
+    @Constraint( validator = NotBlank.class, message = "first name " + "required", min = 1, max = NAME )
+    private String firstName;
+
+    @Column( name = "last_name", length = NAME * 2 - 1 )
+    @Constraint( validator = NotBlank.class, max = NAME << 1, severity = Severity.WARNING )
+    @Constraint( validator = Pattern.class, message = "{pattern}" )
+    private String lastName;
+
+    @Column( name = "email", length = ( NAME + ID_LENGTH ) * 2, nullable = !STRICT )
+    @Constraint( validator = Pattern.class, min = 3, max = 254, severity = Severity.INFO )
+    private String email;
+
+    @Column( name = "rating", precision = (int) ( RATE * 100 ) )
+    private double rating;
+
+    @Column( name = "tags", length = DESCRIPTION % 1000 )
+    private final List<@Constraint( validator = NotBlank.class ) String> tags = new ArrayList<String>();
+
+    @Column( name = "attributes", length = DESCRIPTION >>> 2 )
+    private final Map<String, List<String>> attributes = new TreeMap<String, List<String>>();
+
+    @Column( name = "separator", length = SEPARATOR )
+    private char separator = SEPARATOR;
+
+    /**
+     * @return the first name
+     */
+    public String getFirstName()
+    {
+        return firstName;
+    }
+
+    /**
+     * @param firstName the first name, not blank
+     */
+    public void setFirstName( @Constraint( validator = NotBlank.class ) String firstName )
+    {
+        this.firstName = firstName;
+    }
+
+    public String getLastName()
+    {
+        return lastName;
+    }
+
+    public void setLastName( String lastName )
+    {
+        this.lastName = lastName;
+    }
+
+    public String getEmail()
+    {
+        return email;
+    }
+
+    public void setEmail( String email )
+    {
+        this.email = email;
+    }
+
+    public double getRating()
+    {
+        return rating;
+    }
+
+    public void setRating( double rating )
+    {
+        this.rating = rating;
+    }
+
+    public List<String> getTags()
+    {
+        return tags;
+    }
+
+    public Map<String, List<String>> getAttributes()
+    {
+        return attributes;
+    }
+
+    public char getSeparator()
+    {
+        return separator;
+    }
+
+    @Transactional( rollbackFor = Exception.class, timeout = 0x10 | 0x01 )
+    public String getDisplayName()
+    {
+        return lastName == null ? firstName : lastName + separator + ' ' + firstName;
+    }
+
+    static final class NotBlank
+    {
+    }
+
+    static final class Pattern
+    {
+    }
+}
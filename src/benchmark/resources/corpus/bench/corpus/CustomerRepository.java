@@ -0,0 +1,28 @@
+package bench.corpus;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The repository of the customers.
+ */
+@Transactional
+public class CustomerRepository
+    extends AbstractRepository<Customer, String>
+{
+    @Override
+    protected String newId()
+    {
+        return UUID.randomUUID().toString();
+    }
+
+    public List<Customer> findByLastName( final String lastName )
+    {
+        return findAll( c -> lastName.equals( c.getLastName() ), ( a, b ) -> a.getFirstName().compareTo( b.getFirstName() ) );
+    }
+
+    public <C extends Customer> List<C> saveCustomers( Iterable<C> customers )
+    {
+        return saveAll( customers );
+    }
+}
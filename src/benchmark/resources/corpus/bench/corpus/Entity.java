@@ -0,0 +1,101 @@
+package bench.corpus;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import static bench.corpus.Limits.ID_LENGTH;
+import static bench.corpus.Limits.PREFIX;
+import static bench.corpus.Limits.TIMESTAMP_PRECISION;
+
+/**
+ * Base class of all persistent objects.
+ *
+ * @param <ID> the type of the identifier
+ * @author corpus
+ * @since 1.0
+ */
+@Table( name = PREFIX + "entity", indexes = { @Index( columns = { "id" }, unique = true ) } )
+public abstract class Entity<ID extends Comparable<? super ID> & Serializable>
+    implements Serializable, Comparable<Entity<ID>>
+{
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column( name = "id", nullable = false, length = ID_LENGTH )
+    private ID id;
+
+    @Column( name = "version" )
+    private long version;
+
+    @Column( name = "created_at", precision = TIMESTAMP_PRECISION )
+    private Instant createdAt;
+
+    private transient boolean dirty;
+
+    /**
+     * @return the identifier, <code>null</code> until persisted
+     */
+    public ID getId()
+    {
+        return id;
+    }
+
+    /**
+     * @param id the identifier
+     */
+    public void setId( ID id )
+    {
+        this.id = id;
+        this.dirty = true;
+    }
+
+    public long getVersion()
+    {
+        return version;
+    }
+
+    public void setVersion( long version )
+    {
+        this.version = version;
+    }
+
+    public Instant getCreatedAt()
+    {
+        return createdAt;
+    }
+
+    public void setCreatedAt( Instant createdAt )
+    {
+        this.createdAt = createdAt;
+    }
+
+    public boolean isDirty()
+    {
+        return dirty;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareTo( Entity<ID> other )
+    {
+        if ( id == null )
+        {
+            return other.id == null ? 0 : -1;
+        }
+        return other.id == null ? 1 : id.compareTo( other.id );
+    }
+
+    @Override
+    public boolean equals( Object obj )
+    {
+        return obj instanceof Entity && getClass() == obj.getClass() && id != null && id.equals( ( (Entity<?>) obj ).id );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return id == null ? System.identityHashCode( this ) : id.hashCode();
+    }
+}
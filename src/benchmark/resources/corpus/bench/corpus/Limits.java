@@ -0,0 +1,30 @@
+package bench.corpus;
+
+/**
+ * Constants referenced by the annotations of the corpus, so evaluating them has to resolve fields.
+ * They're literals, as the benchmark only evaluates the expressions of annotations.
+ */
+public final class Limits
+{
+    public static final String PREFIX = "app_";
+
+    public static final int ID_LENGTH = 36;
+
+    public static final int NAME = 64;
+
+    public static final int DESCRIPTION = 1024;
+
+    public static final int TIMESTAMP_PRECISION = 6;
+
+    public static final long TIMEOUT_MILLIS = 30000L;
+
+    public static final double RATE = 0.75d;
+
+    public static final char SEPARATOR = ',';
+
+    public static final boolean STRICT = true;
+
+    private Limits()
+    {
+    }
+}
@@ -0,0 +1,902 @@
+package bench.corpus;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The instructions of a virtual machine, a huge enum like the generated ones of parsers and protocol libraries.
+ */
+public enum Opcode
+{
+    /** The load instructions for type I. */
+    ILOAD_0( 0x000, 1, Category.MEMORY, "iload_0" ),
+    ILOAD_1( 0x001, 2, Category.MEMORY, "iload_1" ),
+    ILOAD_2( 0x002, 3, Category.MEMORY, "iload_2" ),
+    ILOAD_3( 0x003, 4, Category.MEMORY, "iload_3" ),
+    LLOAD_0( 0x004, 1, Category.MEMORY, "lload_0" ),
+    LLOAD_1( 0x005, 2, Category.MEMORY, "lload_1" ),
+    LLOAD_2( 0x006, 3, Category.MEMORY, "lload_2" ),
+    LLOAD_3( 0x007, 4, Category.MEMORY, "lload_3" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    FLOAD_0( 0x008, 1, Category.MEMORY, "fload_0" ),
+    FLOAD_1( 0x009, 2, Category.MEMORY, "fload_1" ),
+    FLOAD_2( 0x00a, 3, Category.MEMORY, "fload_2" ),
+    FLOAD_3( 0x00b, 4, Category.MEMORY, "fload_3" ),
+    DLOAD_0( 0x00c, 1, Category.MEMORY, "dload_0" ),
+    DLOAD_1( 0x00d, 2, Category.MEMORY, "dload_1" ),
+    DLOAD_2( 0x00e, 3, Category.MEMORY, "dload_2" ),
+    DLOAD_3( 0x00f, 4, Category.MEMORY, "dload_3" ),
+    ALOAD_0( 0x010, 1, Category.MEMORY, "aload_0" ),
+    ALOAD_1( 0x011, 2, Category.MEMORY, "aload_1" ),
+    ALOAD_2( 0x012, 3, Category.MEMORY, "aload_2" ),
+    ALOAD_3( 0x013, 4, Category.MEMORY, "aload_3" ),
+    BLOAD_0( 0x014, 1, Category.MEMORY, "bload_0" ),
+    BLOAD_1( 0x015, 2, Category.MEMORY, "bload_1" ),
+    BLOAD_2( 0x016, 3, Category.MEMORY, "bload_2" ),
+    BLOAD_3( 0x017, 4, Category.MEMORY, "bload_3" ),
+    CLOAD_0( 0x018, 1, Category.MEMORY, "cload_0" ),
+    CLOAD_1( 0x019, 2, Category.MEMORY, "cload_1" ),
+    CLOAD_2( 0x01a, 3, Category.MEMORY, "cload_2" ),
+    CLOAD_3( 0x01b, 4, Category.MEMORY, "cload_3" ),
+    SLOAD_0( 0x01c, 1, Category.MEMORY, "sload_0" ),
+    SLOAD_1( 0x01d, 2, Category.MEMORY, "sload_1" ),
+    SLOAD_2( 0x01e, 3, Category.MEMORY, "sload_2" ),
+    SLOAD_3( 0x01f, 4, Category.MEMORY, "sload_3" ),
+    ISTORE_0( 0x020, 1, Category.MEMORY, "istore_0" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    ISTORE_1( 0x021, 2, Category.MEMORY, "istore_1" ),
+    ISTORE_2( 0x022, 3, Category.MEMORY, "istore_2" ),
+    ISTORE_3( 0x023, 4, Category.MEMORY, "istore_3" ),
+    LSTORE_0( 0x024, 1, Category.MEMORY, "lstore_0" ),
+    LSTORE_1( 0x025, 2, Category.MEMORY, "lstore_1" ),
+    LSTORE_2( 0x026, 3, Category.MEMORY, "lstore_2" ),
+    LSTORE_3( 0x027, 4, Category.MEMORY, "lstore_3" ),
+    /** The store instructions for type F. */
+    FSTORE_0( 0x028, 1, Category.MEMORY, "fstore_0" ),
+    FSTORE_1( 0x029, 2, Category.MEMORY, "fstore_1" ),
+    FSTORE_2( 0x02a, 3, Category.MEMORY, "fstore_2" ),
+    FSTORE_3( 0x02b, 4, Category.MEMORY, "fstore_3" ),
+    DSTORE_0( 0x02c, 1, Category.MEMORY, "dstore_0" ),
+    DSTORE_1( 0x02d, 2, Category.MEMORY, "dstore_1" ),
+    DSTORE_2( 0x02e, 3, Category.MEMORY, "dstore_2" ),
+    DSTORE_3( 0x02f, 4, Category.MEMORY, "dstore_3" ),
+    ASTORE_0( 0x030, 1, Category.MEMORY, "astore_0" ),
+    ASTORE_1( 0x031, 2, Category.MEMORY, "astore_1" ),
+    ASTORE_2( 0x032, 3, Category.MEMORY, "astore_2" ),
+    ASTORE_3( 0x033, 4, Category.MEMORY, "astore_3" ),
+    BSTORE_0( 0x034, 1, Category.MEMORY, "bstore_0" ),
+    BSTORE_1( 0x035, 2, Category.MEMORY, "bstore_1" ),
+    BSTORE_2( 0x036, 3, Category.MEMORY, "bstore_2" ),
+    BSTORE_3( 0x037, 4, Category.MEMORY, "bstore_3" ),
+    CSTORE_0( 0x038, 1, Category.MEMORY, "cstore_0" ),
+    CSTORE_1( 0x039, 2, Category.MEMORY, "cstore_1" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    CSTORE_2( 0x03a, 3, Category.MEMORY, "cstore_2" ),
+    CSTORE_3( 0x03b, 4, Category.MEMORY, "cstore_3" ),
+    SSTORE_0( 0x03c, 1, Category.MEMORY, "sstore_0" ),
+    SSTORE_1( 0x03d, 2, Category.MEMORY, "sstore_1" ),
+    SSTORE_2( 0x03e, 3, Category.MEMORY, "sstore_2" ),
+    SSTORE_3( 0x03f, 4, Category.MEMORY, "sstore_3" ),
+    IADD_0( 0x040, 1, Category.ARITHMETIC, "iadd_0" ),
+    IADD_1( 0x041, 2, Category.ARITHMETIC, "iadd_1" ),
+    IADD_2( 0x042, 3, Category.ARITHMETIC, "iadd_2" ),
+    IADD_3( 0x043, 4, Category.ARITHMETIC, "iadd_3" ),
+    LADD_0( 0x044, 1, Category.ARITHMETIC, "ladd_0" ),
+    LADD_1( 0x045, 2, Category.ARITHMETIC, "ladd_1" ),
+    LADD_2( 0x046, 3, Category.ARITHMETIC, "ladd_2" ),
+    LADD_3( 0x047, 4, Category.ARITHMETIC, "ladd_3" ),
+    FADD_0( 0x048, 1, Category.ARITHMETIC, "fadd_0" ),
+    FADD_1( 0x049, 2, Category.ARITHMETIC, "fadd_1" ),
+    FADD_2( 0x04a, 3, Category.ARITHMETIC, "fadd_2" ),
+    FADD_3( 0x04b, 4, Category.ARITHMETIC, "fadd_3" ),
+    DADD_0( 0x04c, 1, Category.ARITHMETIC, "dadd_0" ),
+    DADD_1( 0x04d, 2, Category.ARITHMETIC, "dadd_1" ),
+    DADD_2( 0x04e, 3, Category.ARITHMETIC, "dadd_2" ),
+    DADD_3( 0x04f, 4, Category.ARITHMETIC, "dadd_3" ),
+    /** The add instructions for type A. */
+    AADD_0( 0x050, 1, Category.ARITHMETIC, "aadd_0" ),
+    AADD_1( 0x051, 2, Category.ARITHMETIC, "aadd_1" ),
+    AADD_2( 0x052, 3, Category.ARITHMETIC, "aadd_2" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    AADD_3( 0x053, 4, Category.ARITHMETIC, "aadd_3" ),
+    BADD_0( 0x054, 1, Category.ARITHMETIC, "badd_0" ),
+    BADD_1( 0x055, 2, Category.ARITHMETIC, "badd_1" ),
+    BADD_2( 0x056, 3, Category.ARITHMETIC, "badd_2" ),
+    BADD_3( 0x057, 4, Category.ARITHMETIC, "badd_3" ),
+    CADD_0( 0x058, 1, Category.ARITHMETIC, "cadd_0" ),
+    CADD_1( 0x059, 2, Category.ARITHMETIC, "cadd_1" ),
+    CADD_2( 0x05a, 3, Category.ARITHMETIC, "cadd_2" ),
+    CADD_3( 0x05b, 4, Category.ARITHMETIC, "cadd_3" ),
+    SADD_0( 0x05c, 1, Category.ARITHMETIC, "sadd_0" ),
+    SADD_1( 0x05d, 2, Category.ARITHMETIC, "sadd_1" ),
+    SADD_2( 0x05e, 3, Category.ARITHMETIC, "sadd_2" ),
+    SADD_3( 0x05f, 4, Category.ARITHMETIC, "sadd_3" ),
+    ISUB_0( 0x060, 1, Category.ARITHMETIC, "isub_0" ),
+    ISUB_1( 0x061, 2, Category.ARITHMETIC, "isub_1" ),
+    ISUB_2( 0x062, 3, Category.ARITHMETIC, "isub_2" ),
+    ISUB_3( 0x063, 4, Category.ARITHMETIC, "isub_3" ),
+    LSUB_0( 0x064, 1, Category.ARITHMETIC, "lsub_0" ),
+    LSUB_1( 0x065, 2, Category.ARITHMETIC, "lsub_1" ),
+    LSUB_2( 0x066, 3, Category.ARITHMETIC, "lsub_2" ),
+    LSUB_3( 0x067, 4, Category.ARITHMETIC, "lsub_3" ),
+    FSUB_0( 0x068, 1, Category.ARITHMETIC, "fsub_0" ),
+    FSUB_1( 0x069, 2, Category.ARITHMETIC, "fsub_1" ),
+    FSUB_2( 0x06a, 3, Category.ARITHMETIC, "fsub_2" ),
+    FSUB_3( 0x06b, 4, Category.ARITHMETIC, "fsub_3" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    DSUB_0( 0x06c, 1, Category.ARITHMETIC, "dsub_0" ),
+    DSUB_1( 0x06d, 2, Category.ARITHMETIC, "dsub_1" ),
+    DSUB_2( 0x06e, 3, Category.ARITHMETIC, "dsub_2" ),
+    DSUB_3( 0x06f, 4, Category.ARITHMETIC, "dsub_3" ),
+    ASUB_0( 0x070, 1, Category.ARITHMETIC, "asub_0" ),
+    ASUB_1( 0x071, 2, Category.ARITHMETIC, "asub_1" ),
+    ASUB_2( 0x072, 3, Category.ARITHMETIC, "asub_2" ),
+    ASUB_3( 0x073, 4, Category.ARITHMETIC, "asub_3" ),
+    BSUB_0( 0x074, 1, Category.ARITHMETIC, "bsub_0" ),
+    BSUB_1( 0x075, 2, Category.ARITHMETIC, "bsub_1" ),
+    BSUB_2( 0x076, 3, Category.ARITHMETIC, "bsub_2" ),
+    BSUB_3( 0x077, 4, Category.ARITHMETIC, "bsub_3" ),
+    /** The sub instructions for type C. */
+    CSUB_0( 0x078, 1, Category.ARITHMETIC, "csub_0" ),
+    CSUB_1( 0x079, 2, Category.ARITHMETIC, "csub_1" ),
+    CSUB_2( 0x07a, 3, Category.ARITHMETIC, "csub_2" ),
+    CSUB_3( 0x07b, 4, Category.ARITHMETIC, "csub_3" ),
+    SSUB_0( 0x07c, 1, Category.ARITHMETIC, "ssub_0" ),
+    SSUB_1( 0x07d, 2, Category.ARITHMETIC, "ssub_1" ),
+    SSUB_2( 0x07e, 3, Category.ARITHMETIC, "ssub_2" ),
+    SSUB_3( 0x07f, 4, Category.ARITHMETIC, "ssub_3" ),
+    IMUL_0( 0x080, 1, Category.ARITHMETIC, "imul_0" ),
+    IMUL_1( 0x081, 2, Category.ARITHMETIC, "imul_1" ),
+    IMUL_2( 0x082, 3, Category.ARITHMETIC, "imul_2" ),
+    IMUL_3( 0x083, 4, Category.ARITHMETIC, "imul_3" ),
+    LMUL_0( 0x084, 1, Category.ARITHMETIC, "lmul_0" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    LMUL_1( 0x085, 2, Category.ARITHMETIC, "lmul_1" ),
+    LMUL_2( 0x086, 3, Category.ARITHMETIC, "lmul_2" ),
+    LMUL_3( 0x087, 4, Category.ARITHMETIC, "lmul_3" ),
+    FMUL_0( 0x088, 1, Category.ARITHMETIC, "fmul_0" ),
+    FMUL_1( 0x089, 2, Category.ARITHMETIC, "fmul_1" ),
+    FMUL_2( 0x08a, 3, Category.ARITHMETIC, "fmul_2" ),
+    FMUL_3( 0x08b, 4, Category.ARITHMETIC, "fmul_3" ),
+    DMUL_0( 0x08c, 1, Category.ARITHMETIC, "dmul_0" ),
+    DMUL_1( 0x08d, 2, Category.ARITHMETIC, "dmul_1" ),
+    DMUL_2( 0x08e, 3, Category.ARITHMETIC, "dmul_2" ),
+    DMUL_3( 0x08f, 4, Category.ARITHMETIC, "dmul_3" ),
+    AMUL_0( 0x090, 1, Category.ARITHMETIC, "amul_0" ),
+    AMUL_1( 0x091, 2, Category.ARITHMETIC, "amul_1" ),
+    AMUL_2( 0x092, 3, Category.ARITHMETIC, "amul_2" ),
+    AMUL_3( 0x093, 4, Category.ARITHMETIC, "amul_3" ),
+    BMUL_0( 0x094, 1, Category.ARITHMETIC, "bmul_0" ),
+    BMUL_1( 0x095, 2, Category.ARITHMETIC, "bmul_1" ),
+    BMUL_2( 0x096, 3, Category.ARITHMETIC, "bmul_2" ),
+    BMUL_3( 0x097, 4, Category.ARITHMETIC, "bmul_3" ),
+    CMUL_0( 0x098, 1, Category.ARITHMETIC, "cmul_0" ),
+    CMUL_1( 0x099, 2, Category.ARITHMETIC, "cmul_1" ),
+    CMUL_2( 0x09a, 3, Category.ARITHMETIC, "cmul_2" ),
+    CMUL_3( 0x09b, 4, Category.ARITHMETIC, "cmul_3" ),
+    SMUL_0( 0x09c, 1, Category.ARITHMETIC, "smul_0" ),
+    SMUL_1( 0x09d, 2, Category.ARITHMETIC, "smul_1" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    SMUL_2( 0x09e, 3, Category.ARITHMETIC, "smul_2" ),
+    SMUL_3( 0x09f, 4, Category.ARITHMETIC, "smul_3" ),
+    /** The div instructions for type I. */
+    IDIV_0( 0x0a0, 1, Category.ARITHMETIC, "idiv_0" ),
+    IDIV_1( 0x0a1, 2, Category.ARITHMETIC, "idiv_1" ),
+    IDIV_2( 0x0a2, 3, Category.ARITHMETIC, "idiv_2" ),
+    IDIV_3( 0x0a3, 4, Category.ARITHMETIC, "idiv_3" ),
+    LDIV_0( 0x0a4, 1, Category.ARITHMETIC, "ldiv_0" ),
+    LDIV_1( 0x0a5, 2, Category.ARITHMETIC, "ldiv_1" ),
+    LDIV_2( 0x0a6, 3, Category.ARITHMETIC, "ldiv_2" ),
+    LDIV_3( 0x0a7, 4, Category.ARITHMETIC, "ldiv_3" ),
+    FDIV_0( 0x0a8, 1, Category.ARITHMETIC, "fdiv_0" ),
+    FDIV_1( 0x0a9, 2, Category.ARITHMETIC, "fdiv_1" ),
+    FDIV_2( 0x0aa, 3, Category.ARITHMETIC, "fdiv_2" ),
+    FDIV_3( 0x0ab, 4, Category.ARITHMETIC, "fdiv_3" ),
+    DDIV_0( 0x0ac, 1, Category.ARITHMETIC, "ddiv_0" ),
+    DDIV_1( 0x0ad, 2, Category.ARITHMETIC, "ddiv_1" ),
+    DDIV_2( 0x0ae, 3, Category.ARITHMETIC, "ddiv_2" ),
+    DDIV_3( 0x0af, 4, Category.ARITHMETIC, "ddiv_3" ),
+    ADIV_0( 0x0b0, 1, Category.ARITHMETIC, "adiv_0" ),
+    ADIV_1( 0x0b1, 2, Category.ARITHMETIC, "adiv_1" ),
+    ADIV_2( 0x0b2, 3, Category.ARITHMETIC, "adiv_2" ),
+    ADIV_3( 0x0b3, 4, Category.ARITHMETIC, "adiv_3" ),
+    BDIV_0( 0x0b4, 1, Category.ARITHMETIC, "bdiv_0" ),
+    BDIV_1( 0x0b5, 2, Category.ARITHMETIC, "bdiv_1" ),
+    BDIV_2( 0x0b6, 3, Category.ARITHMETIC, "bdiv_2" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    BDIV_3( 0x0b7, 4, Category.ARITHMETIC, "bdiv_3" ),
+    CDIV_0( 0x0b8, 1, Category.ARITHMETIC, "cdiv_0" ),
+    CDIV_1( 0x0b9, 2, Category.ARITHMETIC, "cdiv_1" ),
+    CDIV_2( 0x0ba, 3, Category.ARITHMETIC, "cdiv_2" ),
+    CDIV_3( 0x0bb, 4, Category.ARITHMETIC, "cdiv_3" ),
+    SDIV_0( 0x0bc, 1, Category.ARITHMETIC, "sdiv_0" ),
+    SDIV_1( 0x0bd, 2, Category.ARITHMETIC, "sdiv_1" ),
+    SDIV_2( 0x0be, 3, Category.ARITHMETIC, "sdiv_2" ),
+    SDIV_3( 0x0bf, 4, Category.ARITHMETIC, "sdiv_3" ),
+    IREM_0( 0x0c0, 1, Category.ARITHMETIC, "irem_0" ),
+    IREM_1( 0x0c1, 2, Category.ARITHMETIC, "irem_1" ),
+    IREM_2( 0x0c2, 3, Category.ARITHMETIC, "irem_2" ),
+    IREM_3( 0x0c3, 4, Category.ARITHMETIC, "irem_3" ),
+    LREM_0( 0x0c4, 1, Category.ARITHMETIC, "lrem_0" ),
+    LREM_1( 0x0c5, 2, Category.ARITHMETIC, "lrem_1" ),
+    LREM_2( 0x0c6, 3, Category.ARITHMETIC, "lrem_2" ),
+    LREM_3( 0x0c7, 4, Category.ARITHMETIC, "lrem_3" ),
+    /** The rem instructions for type F. */
+    FREM_0( 0x0c8, 1, Category.ARITHMETIC, "frem_0" ),
+    FREM_1( 0x0c9, 2, Category.ARITHMETIC, "frem_1" ),
+    FREM_2( 0x0ca, 3, Category.ARITHMETIC, "frem_2" ),
+    FREM_3( 0x0cb, 4, Category.ARITHMETIC, "frem_3" ),
+    DREM_0( 0x0cc, 1, Category.ARITHMETIC, "drem_0" ),
+    DREM_1( 0x0cd, 2, Category.ARITHMETIC, "drem_1" ),
+    DREM_2( 0x0ce, 3, Category.ARITHMETIC, "drem_2" ),
+    DREM_3( 0x0cf, 4, Category.ARITHMETIC, "drem_3" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    AREM_0( 0x0d0, 1, Category.ARITHMETIC, "arem_0" ),
+    AREM_1( 0x0d1, 2, Category.ARITHMETIC, "arem_1" ),
+    AREM_2( 0x0d2, 3, Category.ARITHMETIC, "arem_2" ),
+    AREM_3( 0x0d3, 4, Category.ARITHMETIC, "arem_3" ),
+    BREM_0( 0x0d4, 1, Category.ARITHMETIC, "brem_0" ),
+    BREM_1( 0x0d5, 2, Category.ARITHMETIC, "brem_1" ),
+    BREM_2( 0x0d6, 3, Category.ARITHMETIC, "brem_2" ),
+    BREM_3( 0x0d7, 4, Category.ARITHMETIC, "brem_3" ),
+    CREM_0( 0x0d8, 1, Category.ARITHMETIC, "crem_0" ),
+    CREM_1( 0x0d9, 2, Category.ARITHMETIC, "crem_1" ),
+    CREM_2( 0x0da, 3, Category.ARITHMETIC, "crem_2" ),
+    CREM_3( 0x0db, 4, Category.ARITHMETIC, "crem_3" ),
+    SREM_0( 0x0dc, 1, Category.ARITHMETIC, "srem_0" ),
+    SREM_1( 0x0dd, 2, Category.ARITHMETIC, "srem_1" ),
+    SREM_2( 0x0de, 3, Category.ARITHMETIC, "srem_2" ),
+    SREM_3( 0x0df, 4, Category.ARITHMETIC, "srem_3" ),
+    INEG_0( 0x0e0, 1, Category.ARITHMETIC, "ineg_0" ),
+    INEG_1( 0x0e1, 2, Category.ARITHMETIC, "ineg_1" ),
+    INEG_2( 0x0e2, 3, Category.ARITHMETIC, "ineg_2" ),
+    INEG_3( 0x0e3, 4, Category.ARITHMETIC, "ineg_3" ),
+    LNEG_0( 0x0e4, 1, Category.ARITHMETIC, "lneg_0" ),
+    LNEG_1( 0x0e5, 2, Category.ARITHMETIC, "lneg_1" ),
+    LNEG_2( 0x0e6, 3, Category.ARITHMETIC, "lneg_2" ),
+    LNEG_3( 0x0e7, 4, Category.ARITHMETIC, "lneg_3" ),
+    FNEG_0( 0x0e8, 1, Category.ARITHMETIC, "fneg_0" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    FNEG_1( 0x0e9, 2, Category.ARITHMETIC, "fneg_1" ),
+    FNEG_2( 0x0ea, 3, Category.ARITHMETIC, "fneg_2" ),
+    FNEG_3( 0x0eb, 4, Category.ARITHMETIC, "fneg_3" ),
+    DNEG_0( 0x0ec, 1, Category.ARITHMETIC, "dneg_0" ),
+    DNEG_1( 0x0ed, 2, Category.ARITHMETIC, "dneg_1" ),
+    DNEG_2( 0x0ee, 3, Category.ARITHMETIC, "dneg_2" ),
+    DNEG_3( 0x0ef, 4, Category.ARITHMETIC, "dneg_3" ),
+    /** The neg instructions for type A. */
+    ANEG_0( 0x0f0, 1, Category.ARITHMETIC, "aneg_0" ),
+    ANEG_1( 0x0f1, 2, Category.ARITHMETIC, "aneg_1" ),
+    ANEG_2( 0x0f2, 3, Category.ARITHMETIC, "aneg_2" ),
+    ANEG_3( 0x0f3, 4, Category.ARITHMETIC, "aneg_3" ),
+    BNEG_0( 0x0f4, 1, Category.ARITHMETIC, "bneg_0" ),
+    BNEG_1( 0x0f5, 2, Category.ARITHMETIC, "bneg_1" ),
+    BNEG_2( 0x0f6, 3, Category.ARITHMETIC, "bneg_2" ),
+    BNEG_3( 0x0f7, 4, Category.ARITHMETIC, "bneg_3" ),
+    CNEG_0( 0x0f8, 1, Category.ARITHMETIC, "cneg_0" ),
+    CNEG_1( 0x0f9, 2, Category.ARITHMETIC, "cneg_1" ),
+    CNEG_2( 0x0fa, 3, Category.ARITHMETIC, "cneg_2" ),
+    CNEG_3( 0x0fb, 4, Category.ARITHMETIC, "cneg_3" ),
+    SNEG_0( 0x0fc, 1, Category.ARITHMETIC, "sneg_0" ),
+    SNEG_1( 0x0fd, 2, Category.ARITHMETIC, "sneg_1" ),
+    SNEG_2( 0x0fe, 3, Category.ARITHMETIC, "sneg_2" ),
+    SNEG_3( 0x0ff, 4, Category.ARITHMETIC, "sneg_3" ),
+    ISHL_0( 0x100, 1, Category.LOGIC, "ishl_0" ),
+    ISHL_1( 0x101, 2, Category.LOGIC, "ishl_1" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    ISHL_2( 0x102, 3, Category.LOGIC, "ishl_2" ),
+    ISHL_3( 0x103, 4, Category.LOGIC, "ishl_3" ),
+    LSHL_0( 0x104, 1, Category.LOGIC, "lshl_0" ),
+    LSHL_1( 0x105, 2, Category.LOGIC, "lshl_1" ),
+    LSHL_2( 0x106, 3, Category.LOGIC, "lshl_2" ),
+    LSHL_3( 0x107, 4, Category.LOGIC, "lshl_3" ),
+    FSHL_0( 0x108, 1, Category.LOGIC, "fshl_0" ),
+    FSHL_1( 0x109, 2, Category.LOGIC, "fshl_1" ),
+    FSHL_2( 0x10a, 3, Category.LOGIC, "fshl_2" ),
+    FSHL_3( 0x10b, 4, Category.LOGIC, "fshl_3" ),
+    DSHL_0( 0x10c, 1, Category.LOGIC, "dshl_0" ),
+    DSHL_1( 0x10d, 2, Category.LOGIC, "dshl_1" ),
+    DSHL_2( 0x10e, 3, Category.LOGIC, "dshl_2" ),
+    DSHL_3( 0x10f, 4, Category.LOGIC, "dshl_3" ),
+    ASHL_0( 0x110, 1, Category.LOGIC, "ashl_0" ),
+    ASHL_1( 0x111, 2, Category.LOGIC, "ashl_1" ),
+    ASHL_2( 0x112, 3, Category.LOGIC, "ashl_2" ),
+    ASHL_3( 0x113, 4, Category.LOGIC, "ashl_3" ),
+    BSHL_0( 0x114, 1, Category.LOGIC, "bshl_0" ),
+    BSHL_1( 0x115, 2, Category.LOGIC, "bshl_1" ),
+    BSHL_2( 0x116, 3, Category.LOGIC, "bshl_2" ),
+    BSHL_3( 0x117, 4, Category.LOGIC, "bshl_3" ),
+    /** The shl instructions for type C. */
+    CSHL_0( 0x118, 1, Category.LOGIC, "cshl_0" ),
+    CSHL_1( 0x119, 2, Category.LOGIC, "cshl_1" ),
+    CSHL_2( 0x11a, 3, Category.LOGIC, "cshl_2" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    CSHL_3( 0x11b, 4, Category.LOGIC, "cshl_3" ),
+    SSHL_0( 0x11c, 1, Category.LOGIC, "sshl_0" ),
+    SSHL_1( 0x11d, 2, Category.LOGIC, "sshl_1" ),
+    SSHL_2( 0x11e, 3, Category.LOGIC, "sshl_2" ),
+    SSHL_3( 0x11f, 4, Category.LOGIC, "sshl_3" ),
+    ISHR_0( 0x120, 1, Category.LOGIC, "ishr_0" ),
+    ISHR_1( 0x121, 2, Category.LOGIC, "ishr_1" ),
+    ISHR_2( 0x122, 3, Category.LOGIC, "ishr_2" ),
+    ISHR_3( 0x123, 4, Category.LOGIC, "ishr_3" ),
+    LSHR_0( 0x124, 1, Category.LOGIC, "lshr_0" ),
+    LSHR_1( 0x125, 2, Category.LOGIC, "lshr_1" ),
+    LSHR_2( 0x126, 3, Category.LOGIC, "lshr_2" ),
+    LSHR_3( 0x127, 4, Category.LOGIC, "lshr_3" ),
+    FSHR_0( 0x128, 1, Category.LOGIC, "fshr_0" ),
+    FSHR_1( 0x129, 2, Category.LOGIC, "fshr_1" ),
+    FSHR_2( 0x12a, 3, Category.LOGIC, "fshr_2" ),
+    FSHR_3( 0x12b, 4, Category.LOGIC, "fshr_3" ),
+    DSHR_0( 0x12c, 1, Category.LOGIC, "dshr_0" ),
+    DSHR_1( 0x12d, 2, Category.LOGIC, "dshr_1" ),
+    DSHR_2( 0x12e, 3, Category.LOGIC, "dshr_2" ),
+    DSHR_3( 0x12f, 4, Category.LOGIC, "dshr_3" ),
+    ASHR_0( 0x130, 1, Category.LOGIC, "ashr_0" ),
+    ASHR_1( 0x131, 2, Category.LOGIC, "ashr_1" ),
+    ASHR_2( 0x132, 3, Category.LOGIC, "ashr_2" ),
+    ASHR_3( 0x133, 4, Category.LOGIC, "ashr_3" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    BSHR_0( 0x134, 1, Category.LOGIC, "bshr_0" ),
+    BSHR_1( 0x135, 2, Category.LOGIC, "bshr_1" ),
+    BSHR_2( 0x136, 3, Category.LOGIC, "bshr_2" ),
+    BSHR_3( 0x137, 4, Category.LOGIC, "bshr_3" ),
+    CSHR_0( 0x138, 1, Category.LOGIC, "cshr_0" ),
+    CSHR_1( 0x139, 2, Category.LOGIC, "cshr_1" ),
+    CSHR_2( 0x13a, 3, Category.LOGIC, "cshr_2" ),
+    CSHR_3( 0x13b, 4, Category.LOGIC, "cshr_3" ),
+    SSHR_0( 0x13c, 1, Category.LOGIC, "sshr_0" ),
+    SSHR_1( 0x13d, 2, Category.LOGIC, "sshr_1" ),
+    SSHR_2( 0x13e, 3, Category.LOGIC, "sshr_2" ),
+    SSHR_3( 0x13f, 4, Category.LOGIC, "sshr_3" ),
+    /** The and instructions for type I. */
+    IAND_0( 0x140, 1, Category.LOGIC, "iand_0" ),
+    IAND_1( 0x141, 2, Category.LOGIC, "iand_1" ),
+    IAND_2( 0x142, 3, Category.LOGIC, "iand_2" ),
+    IAND_3( 0x143, 4, Category.LOGIC, "iand_3" ),
+    LAND_0( 0x144, 1, Category.LOGIC, "land_0" ),
+    LAND_1( 0x145, 2, Category.LOGIC, "land_1" ),
+    LAND_2( 0x146, 3, Category.LOGIC, "land_2" ),
+    LAND_3( 0x147, 4, Category.LOGIC, "land_3" ),
+    FAND_0( 0x148, 1, Category.LOGIC, "fand_0" ),
+    FAND_1( 0x149, 2, Category.LOGIC, "fand_1" ),
+    FAND_2( 0x14a, 3, Category.LOGIC, "fand_2" ),
+    FAND_3( 0x14b, 4, Category.LOGIC, "fand_3" ),
+    DAND_0( 0x14c, 1, Category.LOGIC, "dand_0" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    DAND_1( 0x14d, 2, Category.LOGIC, "dand_1" ),
+    DAND_2( 0x14e, 3, Category.LOGIC, "dand_2" ),
+    DAND_3( 0x14f, 4, Category.LOGIC, "dand_3" ),
+    AAND_0( 0x150, 1, Category.LOGIC, "aand_0" ),
+    AAND_1( 0x151, 2, Category.LOGIC, "aand_1" ),
+    AAND_2( 0x152, 3, Category.LOGIC, "aand_2" ),
+    AAND_3( 0x153, 4, Category.LOGIC, "aand_3" ),
+    BAND_0( 0x154, 1, Category.LOGIC, "band_0" ),
+    BAND_1( 0x155, 2, Category.LOGIC, "band_1" ),
+    BAND_2( 0x156, 3, Category.LOGIC, "band_2" ),
+    BAND_3( 0x157, 4, Category.LOGIC, "band_3" ),
+    CAND_0( 0x158, 1, Category.LOGIC, "cand_0" ),
+    CAND_1( 0x159, 2, Category.LOGIC, "cand_1" ),
+    CAND_2( 0x15a, 3, Category.LOGIC, "cand_2" ),
+    CAND_3( 0x15b, 4, Category.LOGIC, "cand_3" ),
+    SAND_0( 0x15c, 1, Category.LOGIC, "sand_0" ),
+    SAND_1( 0x15d, 2, Category.LOGIC, "sand_1" ),
+    SAND_2( 0x15e, 3, Category.LOGIC, "sand_2" ),
+    SAND_3( 0x15f, 4, Category.LOGIC, "sand_3" ),
+    IOR_0( 0x160, 1, Category.LOGIC, "ior_0" ),
+    IOR_1( 0x161, 2, Category.LOGIC, "ior_1" ),
+    IOR_2( 0x162, 3, Category.LOGIC, "ior_2" ),
+    IOR_3( 0x163, 4, Category.LOGIC, "ior_3" ),
+    LOR_0( 0x164, 1, Category.LOGIC, "lor_0" ),
+    LOR_1( 0x165, 2, Category.LOGIC, "lor_1" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    LOR_2( 0x166, 3, Category.LOGIC, "lor_2" ),
+    LOR_3( 0x167, 4, Category.LOGIC, "lor_3" ),
+    /** The or instructions for type F. */
+    FOR_0( 0x168, 1, Category.LOGIC, "for_0" ),
+    FOR_1( 0x169, 2, Category.LOGIC, "for_1" ),
+    FOR_2( 0x16a, 3, Category.LOGIC, "for_2" ),
+    FOR_3( 0x16b, 4, Category.LOGIC, "for_3" ),
+    DOR_0( 0x16c, 1, Category.LOGIC, "dor_0" ),
+    DOR_1( 0x16d, 2, Category.LOGIC, "dor_1" ),
+    DOR_2( 0x16e, 3, Category.LOGIC, "dor_2" ),
+    DOR_3( 0x16f, 4, Category.LOGIC, "dor_3" ),
+    AOR_0( 0x170, 1, Category.LOGIC, "aor_0" ),
+    AOR_1( 0x171, 2, Category.LOGIC, "aor_1" ),
+    AOR_2( 0x172, 3, Category.LOGIC, "aor_2" ),
+    AOR_3( 0x173, 4, Category.LOGIC, "aor_3" ),
+    BOR_0( 0x174, 1, Category.LOGIC, "bor_0" ),
+    BOR_1( 0x175, 2, Category.LOGIC, "bor_1" ),
+    BOR_2( 0x176, 3, Category.LOGIC, "bor_2" ),
+    BOR_3( 0x177, 4, Category.LOGIC, "bor_3" ),
+    COR_0( 0x178, 1, Category.LOGIC, "cor_0" ),
+    COR_1( 0x179, 2, Category.LOGIC, "cor_1" ),
+    COR_2( 0x17a, 3, Category.LOGIC, "cor_2" ),
+    COR_3( 0x17b, 4, Category.LOGIC, "cor_3" ),
+    SOR_0( 0x17c, 1, Category.LOGIC, "sor_0" ),
+    SOR_1( 0x17d, 2, Category.LOGIC, "sor_1" ),
+    SOR_2( 0x17e, 3, Category.LOGIC, "sor_2" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    SOR_3( 0x17f, 4, Category.LOGIC, "sor_3" ),
+    IXOR_0( 0x180, 1, Category.LOGIC, "ixor_0" ),
+    IXOR_1( 0x181, 2, Category.LOGIC, "ixor_1" ),
+    IXOR_2( 0x182, 3, Category.LOGIC, "ixor_2" ),
+    IXOR_3( 0x183, 4, Category.LOGIC, "ixor_3" ),
+    LXOR_0( 0x184, 1, Category.LOGIC, "lxor_0" ),
+    LXOR_1( 0x185, 2, Category.LOGIC, "lxor_1" ),
+    LXOR_2( 0x186, 3, Category.LOGIC, "lxor_2" ),
+    LXOR_3( 0x187, 4, Category.LOGIC, "lxor_3" ),
+    FXOR_0( 0x188, 1, Category.LOGIC, "fxor_0" ),
+    FXOR_1( 0x189, 2, Category.LOGIC, "fxor_1" ),
+    FXOR_2( 0x18a, 3, Category.LOGIC, "fxor_2" ),
+    FXOR_3( 0x18b, 4, Category.LOGIC, "fxor_3" ),
+    DXOR_0( 0x18c, 1, Category.LOGIC, "dxor_0" ),
+    DXOR_1( 0x18d, 2, Category.LOGIC, "dxor_1" ),
+    DXOR_2( 0x18e, 3, Category.LOGIC, "dxor_2" ),
+    DXOR_3( 0x18f, 4, Category.LOGIC, "dxor_3" ),
+    /** The xor instructions for type A. */
+    AXOR_0( 0x190, 1, Category.LOGIC, "axor_0" ),
+    AXOR_1( 0x191, 2, Category.LOGIC, "axor_1" ),
+    AXOR_2( 0x192, 3, Category.LOGIC, "axor_2" ),
+    AXOR_3( 0x193, 4, Category.LOGIC, "axor_3" ),
+    BXOR_0( 0x194, 1, Category.LOGIC, "bxor_0" ),
+    BXOR_1( 0x195, 2, Category.LOGIC, "bxor_1" ),
+    BXOR_2( 0x196, 3, Category.LOGIC, "bxor_2" ),
+    BXOR_3( 0x197, 4, Category.LOGIC, "bxor_3" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    CXOR_0( 0x198, 1, Category.LOGIC, "cxor_0" ),
+    CXOR_1( 0x199, 2, Category.LOGIC, "cxor_1" ),
+    CXOR_2( 0x19a, 3, Category.LOGIC, "cxor_2" ),
+    CXOR_3( 0x19b, 4, Category.LOGIC, "cxor_3" ),
+    SXOR_0( 0x19c, 1, Category.LOGIC, "sxor_0" ),
+    SXOR_1( 0x19d, 2, Category.LOGIC, "sxor_1" ),
+    SXOR_2( 0x19e, 3, Category.LOGIC, "sxor_2" ),
+    SXOR_3( 0x19f, 4, Category.LOGIC, "sxor_3" ),
+    ICMP_0( 0x1a0, 1, Category.LOGIC, "icmp_0" ),
+    ICMP_1( 0x1a1, 2, Category.LOGIC, "icmp_1" ),
+    ICMP_2( 0x1a2, 3, Category.LOGIC, "icmp_2" ),
+    ICMP_3( 0x1a3, 4, Category.LOGIC, "icmp_3" ),
+    LCMP_0( 0x1a4, 1, Category.LOGIC, "lcmp_0" ),
+    LCMP_1( 0x1a5, 2, Category.LOGIC, "lcmp_1" ),
+    LCMP_2( 0x1a6, 3, Category.LOGIC, "lcmp_2" ),
+    LCMP_3( 0x1a7, 4, Category.LOGIC, "lcmp_3" ),
+    FCMP_0( 0x1a8, 1, Category.LOGIC, "fcmp_0" ),
+    FCMP_1( 0x1a9, 2, Category.LOGIC, "fcmp_1" ),
+    FCMP_2( 0x1aa, 3, Category.LOGIC, "fcmp_2" ),
+    FCMP_3( 0x1ab, 4, Category.LOGIC, "fcmp_3" ),
+    DCMP_0( 0x1ac, 1, Category.LOGIC, "dcmp_0" ),
+    DCMP_1( 0x1ad, 2, Category.LOGIC, "dcmp_1" ),
+    DCMP_2( 0x1ae, 3, Category.LOGIC, "dcmp_2" ),
+    DCMP_3( 0x1af, 4, Category.LOGIC, "dcmp_3" ),
+    ACMP_0( 0x1b0, 1, Category.LOGIC, "acmp_0" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    ACMP_1( 0x1b1, 2, Category.LOGIC, "acmp_1" ),
+    ACMP_2( 0x1b2, 3, Category.LOGIC, "acmp_2" ),
+    ACMP_3( 0x1b3, 4, Category.LOGIC, "acmp_3" ),
+    BCMP_0( 0x1b4, 1, Category.LOGIC, "bcmp_0" ),
+    BCMP_1( 0x1b5, 2, Category.LOGIC, "bcmp_1" ),
+    BCMP_2( 0x1b6, 3, Category.LOGIC, "bcmp_2" ),
+    BCMP_3( 0x1b7, 4, Category.LOGIC, "bcmp_3" ),
+    /** The cmp instructions for type C. */
+    CCMP_0( 0x1b8, 1, Category.LOGIC, "ccmp_0" ),
+    CCMP_1( 0x1b9, 2, Category.LOGIC, "ccmp_1" ),
+    CCMP_2( 0x1ba, 3, Category.LOGIC, "ccmp_2" ),
+    CCMP_3( 0x1bb, 4, Category.LOGIC, "ccmp_3" ),
+    SCMP_0( 0x1bc, 1, Category.LOGIC, "scmp_0" ),
+    SCMP_1( 0x1bd, 2, Category.LOGIC, "scmp_1" ),
+    SCMP_2( 0x1be, 3, Category.LOGIC, "scmp_2" ),
+    SCMP_3( 0x1bf, 4, Category.LOGIC, "scmp_3" ),
+    IJUMP_0( 0x1c0, 1, Category.CONTROL, "ijump_0" ),
+    IJUMP_1( 0x1c1, 2, Category.CONTROL, "ijump_1" ),
+    IJUMP_2( 0x1c2, 3, Category.CONTROL, "ijump_2" ),
+    IJUMP_3( 0x1c3, 4, Category.CONTROL, "ijump_3" ),
+    LJUMP_0( 0x1c4, 1, Category.CONTROL, "ljump_0" ),
+    LJUMP_1( 0x1c5, 2, Category.CONTROL, "ljump_1" ),
+    LJUMP_2( 0x1c6, 3, Category.CONTROL, "ljump_2" ),
+    LJUMP_3( 0x1c7, 4, Category.CONTROL, "ljump_3" ),
+    FJUMP_0( 0x1c8, 1, Category.CONTROL, "fjump_0" ),
+    FJUMP_1( 0x1c9, 2, Category.CONTROL, "fjump_1" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    FJUMP_2( 0x1ca, 3, Category.CONTROL, "fjump_2" ),
+    FJUMP_3( 0x1cb, 4, Category.CONTROL, "fjump_3" ),
+    DJUMP_0( 0x1cc, 1, Category.CONTROL, "djump_0" ),
+    DJUMP_1( 0x1cd, 2, Category.CONTROL, "djump_1" ),
+    DJUMP_2( 0x1ce, 3, Category.CONTROL, "djump_2" ),
+    DJUMP_3( 0x1cf, 4, Category.CONTROL, "djump_3" ),
+    AJUMP_0( 0x1d0, 1, Category.CONTROL, "ajump_0" ),
+    AJUMP_1( 0x1d1, 2, Category.CONTROL, "ajump_1" ),
+    AJUMP_2( 0x1d2, 3, Category.CONTROL, "ajump_2" ),
+    AJUMP_3( 0x1d3, 4, Category.CONTROL, "ajump_3" ),
+    BJUMP_0( 0x1d4, 1, Category.CONTROL, "bjump_0" ),
+    BJUMP_1( 0x1d5, 2, Category.CONTROL, "bjump_1" ),
+    BJUMP_2( 0x1d6, 3, Category.CONTROL, "bjump_2" ),
+    BJUMP_3( 0x1d7, 4, Category.CONTROL, "bjump_3" ),
+    CJUMP_0( 0x1d8, 1, Category.CONTROL, "cjump_0" ),
+    CJUMP_1( 0x1d9, 2, Category.CONTROL, "cjump_1" ),
+    CJUMP_2( 0x1da, 3, Category.CONTROL, "cjump_2" ),
+    CJUMP_3( 0x1db, 4, Category.CONTROL, "cjump_3" ),
+    SJUMP_0( 0x1dc, 1, Category.CONTROL, "sjump_0" ),
+    SJUMP_1( 0x1dd, 2, Category.CONTROL, "sjump_1" ),
+    SJUMP_2( 0x1de, 3, Category.CONTROL, "sjump_2" ),
+    SJUMP_3( 0x1df, 4, Category.CONTROL, "sjump_3" ),
+    /** The call instructions for type I. */
+    ICALL_0( 0x1e0, 1, Category.CONTROL, "icall_0" ),
+    ICALL_1( 0x1e1, 2, Category.CONTROL, "icall_1" ),
+    ICALL_2( 0x1e2, 3, Category.CONTROL, "icall_2" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    ICALL_3( 0x1e3, 4, Category.CONTROL, "icall_3" ),
+    LCALL_0( 0x1e4, 1, Category.CONTROL, "lcall_0" ),
+    LCALL_1( 0x1e5, 2, Category.CONTROL, "lcall_1" ),
+    LCALL_2( 0x1e6, 3, Category.CONTROL, "lcall_2" ),
+    LCALL_3( 0x1e7, 4, Category.CONTROL, "lcall_3" ),
+    FCALL_0( 0x1e8, 1, Category.CONTROL, "fcall_0" ),
+    FCALL_1( 0x1e9, 2, Category.CONTROL, "fcall_1" ),
+    FCALL_2( 0x1ea, 3, Category.CONTROL, "fcall_2" ),
+    FCALL_3( 0x1eb, 4, Category.CONTROL, "fcall_3" ),
+    DCALL_0( 0x1ec, 1, Category.CONTROL, "dcall_0" ),
+    DCALL_1( 0x1ed, 2, Category.CONTROL, "dcall_1" ),
+    DCALL_2( 0x1ee, 3, Category.CONTROL, "dcall_2" ),
+    DCALL_3( 0x1ef, 4, Category.CONTROL, "dcall_3" ),
+    ACALL_0( 0x1f0, 1, Category.CONTROL, "acall_0" ),
+    ACALL_1( 0x1f1, 2, Category.CONTROL, "acall_1" ),
+    ACALL_2( 0x1f2, 3, Category.CONTROL, "acall_2" ),
+    ACALL_3( 0x1f3, 4, Category.CONTROL, "acall_3" ),
+    BCALL_0( 0x1f4, 1, Category.CONTROL, "bcall_0" ),
+    BCALL_1( 0x1f5, 2, Category.CONTROL, "bcall_1" ),
+    BCALL_2( 0x1f6, 3, Category.CONTROL, "bcall_2" ),
+    BCALL_3( 0x1f7, 4, Category.CONTROL, "bcall_3" ),
+    CCALL_0( 0x1f8, 1, Category.CONTROL, "ccall_0" ),
+    CCALL_1( 0x1f9, 2, Category.CONTROL, "ccall_1" ),
+    CCALL_2( 0x1fa, 3, Category.CONTROL, "ccall_2" ),
+    CCALL_3( 0x1fb, 4, Category.CONTROL, "ccall_3" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    SCALL_0( 0x1fc, 1, Category.CONTROL, "scall_0" ),
+    SCALL_1( 0x1fd, 2, Category.CONTROL, "scall_1" ),
+    SCALL_2( 0x1fe, 3, Category.CONTROL, "scall_2" ),
+    SCALL_3( 0x1ff, 4, Category.CONTROL, "scall_3" ),
+    IRET_0( 0x200, 1, Category.CONTROL, "iret_0" ),
+    IRET_1( 0x201, 2, Category.CONTROL, "iret_1" ),
+    IRET_2( 0x202, 3, Category.CONTROL, "iret_2" ),
+    IRET_3( 0x203, 4, Category.CONTROL, "iret_3" ),
+    LRET_0( 0x204, 1, Category.CONTROL, "lret_0" ),
+    LRET_1( 0x205, 2, Category.CONTROL, "lret_1" ),
+    LRET_2( 0x206, 3, Category.CONTROL, "lret_2" ),
+    LRET_3( 0x207, 4, Category.CONTROL, "lret_3" ),
+    /** The ret instructions for type F. */
+    FRET_0( 0x208, 1, Category.CONTROL, "fret_0" ),
+    FRET_1( 0x209, 2, Category.CONTROL, "fret_1" ),
+    FRET_2( 0x20a, 3, Category.CONTROL, "fret_2" ),
+    FRET_3( 0x20b, 4, Category.CONTROL, "fret_3" ),
+    DRET_0( 0x20c, 1, Category.CONTROL, "dret_0" ),
+    DRET_1( 0x20d, 2, Category.CONTROL, "dret_1" ),
+    DRET_2( 0x20e, 3, Category.CONTROL, "dret_2" ),
+    DRET_3( 0x20f, 4, Category.CONTROL, "dret_3" ),
+    ARET_0( 0x210, 1, Category.CONTROL, "aret_0" ),
+    ARET_1( 0x211, 2, Category.CONTROL, "aret_1" ),
+    ARET_2( 0x212, 3, Category.CONTROL, "aret_2" ),
+    ARET_3( 0x213, 4, Category.CONTROL, "aret_3" ),
+    BRET_0( 0x214, 1, Category.CONTROL, "bret_0" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    BRET_1( 0x215, 2, Category.CONTROL, "bret_1" ),
+    BRET_2( 0x216, 3, Category.CONTROL, "bret_2" ),
+    BRET_3( 0x217, 4, Category.CONTROL, "bret_3" ),
+    CRET_0( 0x218, 1, Category.CONTROL, "cret_0" ),
+    CRET_1( 0x219, 2, Category.CONTROL, "cret_1" ),
+    CRET_2( 0x21a, 3, Category.CONTROL, "cret_2" ),
+    CRET_3( 0x21b, 4, Category.CONTROL, "cret_3" ),
+    SRET_0( 0x21c, 1, Category.CONTROL, "sret_0" ),
+    SRET_1( 0x21d, 2, Category.CONTROL, "sret_1" ),
+    SRET_2( 0x21e, 3, Category.CONTROL, "sret_2" ),
+    SRET_3( 0x21f, 4, Category.CONTROL, "sret_3" ),
+    IPUSH_0( 0x220, 1, Category.MEMORY, "ipush_0" ),
+    IPUSH_1( 0x221, 2, Category.MEMORY, "ipush_1" ),
+    IPUSH_2( 0x222, 3, Category.MEMORY, "ipush_2" ),
+    IPUSH_3( 0x223, 4, Category.MEMORY, "ipush_3" ),
+    LPUSH_0( 0x224, 1, Category.MEMORY, "lpush_0" ),
+    LPUSH_1( 0x225, 2, Category.MEMORY, "lpush_1" ),
+    LPUSH_2( 0x226, 3, Category.MEMORY, "lpush_2" ),
+    LPUSH_3( 0x227, 4, Category.MEMORY, "lpush_3" ),
+    FPUSH_0( 0x228, 1, Category.MEMORY, "fpush_0" ),
+    FPUSH_1( 0x229, 2, Category.MEMORY, "fpush_1" ),
+    FPUSH_2( 0x22a, 3, Category.MEMORY, "fpush_2" ),
+    FPUSH_3( 0x22b, 4, Category.MEMORY, "fpush_3" ),
+    DPUSH_0( 0x22c, 1, Category.MEMORY, "dpush_0" ),
+    DPUSH_1( 0x22d, 2, Category.MEMORY, "dpush_1" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    DPUSH_2( 0x22e, 3, Category.MEMORY, "dpush_2" ),
+    DPUSH_3( 0x22f, 4, Category.MEMORY, "dpush_3" ),
+    /** The push instructions for type A. */
+    APUSH_0( 0x230, 1, Category.MEMORY, "apush_0" ),
+    APUSH_1( 0x231, 2, Category.MEMORY, "apush_1" ),
+    APUSH_2( 0x232, 3, Category.MEMORY, "apush_2" ),
+    APUSH_3( 0x233, 4, Category.MEMORY, "apush_3" ),
+    BPUSH_0( 0x234, 1, Category.MEMORY, "bpush_0" ),
+    BPUSH_1( 0x235, 2, Category.MEMORY, "bpush_1" ),
+    BPUSH_2( 0x236, 3, Category.MEMORY, "bpush_2" ),
+    BPUSH_3( 0x237, 4, Category.MEMORY, "bpush_3" ),
+    CPUSH_0( 0x238, 1, Category.MEMORY, "cpush_0" ),
+    CPUSH_1( 0x239, 2, Category.MEMORY, "cpush_1" ),
+    CPUSH_2( 0x23a, 3, Category.MEMORY, "cpush_2" ),
+    CPUSH_3( 0x23b, 4, Category.MEMORY, "cpush_3" ),
+    SPUSH_0( 0x23c, 1, Category.MEMORY, "spush_0" ),
+    SPUSH_1( 0x23d, 2, Category.MEMORY, "spush_1" ),
+    SPUSH_2( 0x23e, 3, Category.MEMORY, "spush_2" ),
+    SPUSH_3( 0x23f, 4, Category.MEMORY, "spush_3" ),
+    IPOP_0( 0x240, 1, Category.MEMORY, "ipop_0" ),
+    IPOP_1( 0x241, 2, Category.MEMORY, "ipop_1" ),
+    IPOP_2( 0x242, 3, Category.MEMORY, "ipop_2" ),
+    IPOP_3( 0x243, 4, Category.MEMORY, "ipop_3" ),
+    LPOP_0( 0x244, 1, Category.MEMORY, "lpop_0" ),
+    LPOP_1( 0x245, 2, Category.MEMORY, "lpop_1" ),
+    LPOP_2( 0x246, 3, Category.MEMORY, "lpop_2" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    LPOP_3( 0x247, 4, Category.MEMORY, "lpop_3" ),
+    FPOP_0( 0x248, 1, Category.MEMORY, "fpop_0" ),
+    FPOP_1( 0x249, 2, Category.MEMORY, "fpop_1" ),
+    FPOP_2( 0x24a, 3, Category.MEMORY, "fpop_2" ),
+    FPOP_3( 0x24b, 4, Category.MEMORY, "fpop_3" ),
+    DPOP_0( 0x24c, 1, Category.MEMORY, "dpop_0" ),
+    DPOP_1( 0x24d, 2, Category.MEMORY, "dpop_1" ),
+    DPOP_2( 0x24e, 3, Category.MEMORY, "dpop_2" ),
+    DPOP_3( 0x24f, 4, Category.MEMORY, "dpop_3" ),
+    APOP_0( 0x250, 1, Category.MEMORY, "apop_0" ),
+    APOP_1( 0x251, 2, Category.MEMORY, "apop_1" ),
+    APOP_2( 0x252, 3, Category.MEMORY, "apop_2" ),
+    APOP_3( 0x253, 4, Category.MEMORY, "apop_3" ),
+    BPOP_0( 0x254, 1, Category.MEMORY, "bpop_0" ),
+    BPOP_1( 0x255, 2, Category.MEMORY, "bpop_1" ),
+    BPOP_2( 0x256, 3, Category.MEMORY, "bpop_2" ),
+    BPOP_3( 0x257, 4, Category.MEMORY, "bpop_3" ),
+    /** The pop instructions for type C. */
+    CPOP_0( 0x258, 1, Category.MEMORY, "cpop_0" ),
+    CPOP_1( 0x259, 2, Category.MEMORY, "cpop_1" ),
+    CPOP_2( 0x25a, 3, Category.MEMORY, "cpop_2" ),
+    CPOP_3( 0x25b, 4, Category.MEMORY, "cpop_3" ),
+    SPOP_0( 0x25c, 1, Category.MEMORY, "spop_0" ),
+    SPOP_1( 0x25d, 2, Category.MEMORY, "spop_1" ),
+    SPOP_2( 0x25e, 3, Category.MEMORY, "spop_2" ),
+    SPOP_3( 0x25f, 4, Category.MEMORY, "spop_3" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    ICAST_0( 0x260, 1, Category.LOGIC, "icast_0" ),
+    ICAST_1( 0x261, 2, Category.LOGIC, "icast_1" ),
+    ICAST_2( 0x262, 3, Category.LOGIC, "icast_2" ),
+    ICAST_3( 0x263, 4, Category.LOGIC, "icast_3" ),
+    LCAST_0( 0x264, 1, Category.LOGIC, "lcast_0" ),
+    LCAST_1( 0x265, 2, Category.LOGIC, "lcast_1" ),
+    LCAST_2( 0x266, 3, Category.LOGIC, "lcast_2" ),
+    LCAST_3( 0x267, 4, Category.LOGIC, "lcast_3" ),
+    FCAST_0( 0x268, 1, Category.LOGIC, "fcast_0" ),
+    FCAST_1( 0x269, 2, Category.LOGIC, "fcast_1" ),
+    FCAST_2( 0x26a, 3, Category.LOGIC, "fcast_2" ),
+    FCAST_3( 0x26b, 4, Category.LOGIC, "fcast_3" ),
+    DCAST_0( 0x26c, 1, Category.LOGIC, "dcast_0" ),
+    DCAST_1( 0x26d, 2, Category.LOGIC, "dcast_1" ),
+    DCAST_2( 0x26e, 3, Category.LOGIC, "dcast_2" ),
+    DCAST_3( 0x26f, 4, Category.LOGIC, "dcast_3" ),
+    ACAST_0( 0x270, 1, Category.LOGIC, "acast_0" ),
+    ACAST_1( 0x271, 2, Category.LOGIC, "acast_1" ),
+    ACAST_2( 0x272, 3, Category.LOGIC, "acast_2" ),
+    ACAST_3( 0x273, 4, Category.LOGIC, "acast_3" ),
+    BCAST_0( 0x274, 1, Category.LOGIC, "bcast_0" ),
+    BCAST_1( 0x275, 2, Category.LOGIC, "bcast_1" ),
+    BCAST_2( 0x276, 3, Category.LOGIC, "bcast_2" ),
+    BCAST_3( 0x277, 4, Category.LOGIC, "bcast_3" ),
+    CCAST_0( 0x278, 1, Category.LOGIC, "ccast_0" )
+    {
+        @Override
+        public boolean isWide()
+        {
+            return true;
+        }
+    },
+    CCAST_1( 0x279, 2, Category.LOGIC, "ccast_1" ),
+    CCAST_2( 0x27a, 3, Category.LOGIC, "ccast_2" ),
+    CCAST_3( 0x27b, 4, Category.LOGIC, "ccast_3" ),
+    SCAST_0( 0x27c, 1, Category.LOGIC, "scast_0" ),
+    SCAST_1( 0x27d, 2, Category.LOGIC, "scast_1" ),
+    SCAST_2( 0x27e, 3, Category.LOGIC, "scast_2" ),
+    SCAST_3( 0x27f, 4, Category.LOGIC, "scast_3" );
+
+    public enum Category
+    {
+        ARITHMETIC, LOGIC, MEMORY, CONTROL
+    }
+
+    private static final Set<Opcode> BRANCHES = EnumSet.noneOf( Opcode.class );
+
+    private final int code;
+
+    private final int operands;
+
+    private final Category category;
+
+    private final String mnemonic;
+
+    Opcode( int code, int operands, Category category, String mnemonic )
+    {
+        this.code = code;
+        this.operands = operands;
+        this.category = category;
+        this.mnemonic = mnemonic;
+    }
+
+    public int getCode()
+    {
+        return code;
+    }
+
+    public int getOperands()
+    {
+        return operands;
+    }
+
+    public Category getCategory()
+    {
+        return category;
+    }
+
+    public String getMnemonic()
+    {
+        return mnemonic;
+    }
+
+    public boolean isWide()
+    {
+        return false;
+    }
+
+    public boolean isBranch()
+    {
+        return category == Category.CONTROL || BRANCHES.contains( this );
+    }
+}
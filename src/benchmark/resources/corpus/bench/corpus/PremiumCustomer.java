@@ -0,0 +1,79 @@
+package bench.corpus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static bench.corpus.Limits.PREFIX;
+
+/**
+ * A customer with a subscription, the last level of the entity hierarchy of the corpus.
+ */
+@Table( name = PREFIX + "premium_customer" )
+public class PremiumCustomer
+    extends Customer
+    implements Comparable<Entity<String>>
+{
+    @Column( name = "level", length = 16 )
+    private Level level = Level.SILVER;
+
+    @Column( name = "discount", precision = 2 )
+    private BigDecimal discount = BigDecimal.ZERO;
+
+    @Column( name = "renewal" )
+    private LocalDate renewal;
+
+    /**
+     * The levels of a subscription.
+     */
+    public enum Level
+    {
+        SILVER( 5 ), GOLD( 10 ), PLATINUM( 20 );
+
+        private final int percentage;
+
+        Level( int percentage )
+        {
+            this.percentage = percentage;
+        }
+
+        public int getPercentage()
+        {
+            return percentage;
+        }
+    }
+
+    public Level getLevel()
+    {
+        return level;
+    }
+
+    public void setLevel( Level level )
+    {
+        this.level = level;
+    }
+
+    public BigDecimal getDiscount()
+    {
+        return discount;
+    }
+
+    public void setDiscount( BigDecimal discount )
+    {
+        this.discount = discount;
+    }
+
+    public LocalDate getRenewal()
+    {
+        return renewal;
+    }
+
+    public void setRenewal( LocalDate renewal )
+    {
+        this.renewal = renewal;
+    }
+
+    public boolean isRenewable( LocalDate date )
+    {
+        return renewal != null && !renewal.isAfter( date.plusMonths( 1 ) );
+    }
+}
@@ -0,0 +1,43 @@
+package bench.corpus;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+
+/**
+ * A generic repository, with the nested, bounded and wildcard types of collection and stream heavy APIs.
+ *
+ * @param <T> the type of the entities
+ * @param <ID> the type of their identifiers
+ */
+public interface Repository<T extends Entity<ID>, ID extends Comparable<? super ID> & Serializable>
+{
+    Optional<T> findById( ID id );
+
+    List<T> findAll( Predicate<? super T> filter, Comparator<? super T> order );
+
+    <K> Map<K, List<T>> groupBy( Function<? super T, ? extends K> classifier );
+
+    <K, V extends Comparable<? super V>> Map<K, Map<V, List<? extends T>>> index( Function<? super T, K> outer,
+                                                                            Function<? super T, V> inner );
+
+    <R, A> R collect( Collector<? super T, A, R> collector );
+
+    <U> U reduce( U identity, BiFunction<U, ? super T, U> accumulator );
+
+    <S extends T> S save( S entity );
+
+    <S extends T> List<S> saveAll( Iterable<S> entities );
+
+    void deleteAll( Collection<? extends ID> ids );
+
+    @SuppressWarnings( "unchecked" )
+    <E extends Enum<E> & Comparable<E>> Map<E, ? super List<T>[]> partition( Class<E> type, T... samples );
+}
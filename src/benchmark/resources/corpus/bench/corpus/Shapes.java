@@ -0,0 +1,132 @@
+package bench.corpus;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Records and a sealed hierarchy, with compact constructors, generic records and annotated components.
+ */
+public sealed interface Shapes
+    permits Shapes.Circle, Shapes.Rectangle, Shapes.Polygon, Shapes.Group
+{
+    double area();
+
+    /**
+     * A point in the plane.
+     *
+     * @param x the horizontal coordinate
+     * @param y the vertical coordinate
+     */
+    record Point( double x, double y )
+    {
+        public static final Point ORIGIN = new Point( 0, 0 );
+
+        public Point translate( double dx, double dy )
+        {
+            return new Point( x + dx, y + dy );
+        }
+
+        public double distance( Point other )
+        {
+            return Math.hypot( x - other.x, y - other.y );
+        }
+    }
+
+    record Circle( @Column( name = "center" ) Point center, @Column( precision = 3 ) double radius )
+        implements Shapes
+    {
+        public Circle
+        {
+            Objects.requireNonNull( center );
+            if ( radius < 0 )
+            {
+                throw new IllegalArgumentException( "radius < 0" );
+            }
+        }
+
+        public Circle( double radius )
+        {
+            this( Point.ORIGIN, radius );
+        }
+
+        @Override
+        public double area()
+        {
+            return Math.PI * radius * radius;
+        }
+    }
+
+    record Rectangle( Point topLeft, Point bottomRight )
+        implements Shapes
+    {
+        @Override
+        public double area()
+        {
+            return Math.abs( bottomRight.x() - topLeft.x() ) * Math.abs( bottomRight.y() - topLeft.y() );
+        }
+    }
+
+    record Polygon( List<Point> points )
+        implements Shapes
+    {
+        public Polygon
+        {
+            points = List.copyOf( points );
+        }
+
+        @Override
+        public double area()
+        {
+            double sum = 0;
+            for ( int i = 0; i < points.size(); i++ )
+            {
+                Point a = points.get( i );
+                Point b = points.get( ( i + 1 ) % points.size() );
+                sum += a.x() * b.y() - b.x() * a.y();
+            }
+            return Math.abs( sum ) / 2;
+        }
+    }
+
+    record Group<S extends Shapes>( String name, List<? extends S> members )
+        implements Shapes
+    {
+        @Override
+        public double area()
+        {
+            double sum = 0;
+            for ( S member : members )
+            {
+                sum += member.area();
+            }
+            return sum;
+        }
+    }
+
+    record Pair<A extends Comparable<? super A>, B>( A first, B second )
+        implements Comparable<Pair<A, B>>
+    {
+        @Override
+        public int compareTo( Pair<A, B> other )
+        {
+            return first.compareTo( other.first );
+        }
+    }
+
+    static double totalArea( List<? extends Shapes> shapes )
+    {
+        double result = 0;
+        for ( Shapes shape : shapes )
+        {
+            if ( shape instanceof Circle c && c.radius() > 0 )
+            {
+                result += c.area();
+            }
+            else
+            {
+                result += shape.area();
+            }
+        }
+        return result;
+    }
+}
@@ -19,6 +19,7 @@
  */
 
 import com.thoughtworks.qdox.builder.Builder;
+import com.thoughtworks.qdox.model.util.Modifiers;
 import com.thoughtworks.qdox.parser.*;
 import com.thoughtworks.qdox.parser.expression.*;
 import com.thoughtworks.qdox.parser.structs.*;
@@ -155,8 +156,8 @@ ModuleNameList: ModuleName {
 //    provides TypeName with TypeName {, TypeName} ;
 ModuleStatement: REQUIRES RequiresModifiers_opt ModuleName SEMI 
                  {
-                   ModuleDef.RequiresDef req = new ModuleDef.RequiresDef($3, modifiers);
-                   modifiers = new java.util.LinkedHashSet<String>();
+                   ModuleDef.RequiresDef req = new ModuleDef.RequiresDef($3, new ModifierSet(modifiers));
+                   modifiers = 0;
                    req.setLineNumber(line);
                    builder.addRequires(req);
                  }
@@ -202,8 +203,8 @@ ModuleStatements_opt:
                     | ModuleStatements_opt ModuleStatement
                     ;
 
-RequiresModifier: TRANSITIVE { modifiers.add("transitive"); }
-                | STATIC     { modifiers.add("static"); }
+RequiresModifier: TRANSITIVE { modifiers |= Modifiers.TRANSITIVE; }
+                | STATIC     { modifiers |= Modifiers.STATIC; }
                 ;
 RequiresModifiers_opt:
                      | RequiresModifiers_opt RequiresModifier
@@ -298,7 +299,7 @@ NormalClassDeclaration: Modifiers_opt CLASS IDENTIFIER
                         {
                           cls.setType(ClassDef.CLASS);
                           cls.setLineNumber(lexer.getLine());
-                          cls.getModifiers().addAll(modifiers); modifiers.clear(); 
+                          cls.setModifierFlags(modifiers); modifiers = 0; 
                           cls.setName( $3 );
                         }
                         TypeParameters_opt Superclass_opt ClassImplements_opt ClassPermits_opt 
@@ -357,6 +358,10 @@ ClassImplements_opt:
 // ClassPermits:
 //    permits TypeName {, TypeName}
 ClassPermits: PERMITS TypeList
+              {
+                // the permitted subclasses aren't part of the model
+                typeList.clear();
+              }
             ;
 ClassPermits_opt:
                 | ClassPermits
@@ -413,7 +418,7 @@ FieldDeclaration: Modifiers_opt Type VariableDeclaratorId
                   }
                   extrafields SEMI
                   {
-                    modifiers.clear();
+                    modifiers = 0;
                   }
                 ;
 
@@ -444,6 +449,8 @@ VariableDeclaratorId: IDENTIFIER Dims_opt
 MethodDeclaration: Modifiers_opt MethodHeader MethodBody
                    {
                      mth.setBody($3);
+                     mth.setBodyStart(bodyStart);
+                     mth.setBodyEnd(bodyEnd);
                      builder.endMethod(mth);
                      mth = new MethodDef();
                    }
@@ -466,7 +473,7 @@ MethodHeader: TypeParameters Type /* =Result */ IDENTIFIER
               {
                 builder.beginMethod();
                 mth.setLineNumber(lexer.getLine());
-                mth.getModifiers().addAll(modifiers); modifiers.clear();
+                mth.setModifierFlags(modifiers); modifiers = 0;
                 mth.setTypeParams(typeParams);
                 mth.setReturnType($2);
                 mth.setName($3);
@@ -479,7 +486,7 @@ MethodHeader: TypeParameters Type /* =Result */ IDENTIFIER
               {
                 builder.beginMethod();
                 mth.setLineNumber(lexer.getLine());
-                mth.getModifiers().addAll(modifiers); modifiers.clear();
+                mth.setModifierFlags(modifiers); modifiers = 0;
                 mth.setTypeParams(typeParams);
                 mth.setReturnType($3);
                 mth.setName($4);
@@ -492,7 +499,7 @@ MethodHeader: TypeParameters Type /* =Result */ IDENTIFIER
               {
                 builder.beginMethod();
                 mth.setLineNumber(lexer.getLine());
-                mth.getModifiers().addAll(modifiers); modifiers.clear();
+                mth.setModifierFlags(modifiers); modifiers = 0;
                 mth.setReturnType($1);
                 mth.setName($2);
               } 
@@ -524,7 +531,7 @@ FormalParameters: FormalParameter
 //     {VariableModifier} UnannType VariableDeclaratorId
 FormalParameter: Modifiers_opt Type VariableDeclaratorId
                  {
-                    param.getModifiers().addAll(modifiers); modifiers.clear();
+                    param.setModifierFlags(modifiers); modifiers = 0;
                     param.setType($2);
                     param.setName($3.getName());
                     param.setDimensions($3.getDimensions());
@@ -539,7 +546,7 @@ FormalParameter: Modifiers_opt Type VariableDeclaratorId
 //     FormalParameter
 LastFormalParameter: Modifiers_opt Type DOTDOTDOT VariableDeclaratorId
                      {
-                       param.getModifiers().addAll(modifiers); modifiers.clear();
+                       param.setModifierFlags(modifiers); modifiers = 0;
                        param.setType($2);
 	                   param.setName($4.getName());
                        param.setDimensions($4.getDimensions());
@@ -577,10 +584,12 @@ ExceptionTypeList: ClassOrInterfaceType /* =ExceptionType */
 //     ;
 MethodBody: CODEBLOCK 
             {
-              $$ = lexer.getCodeBody();
+              $$ = codeBlock();
             } 
           | SEMI 
            {
+             bodyStart = -1;
+             bodyEnd = -1;
              $$ = "";
            }
          ;
@@ -598,7 +607,7 @@ MethodBody: CODEBLOCK
 StaticInitializer: Modifiers_opt CODEBLOCK 
                    { 
                      InitDef def = new InitDef();
-                     def.setStatic(modifiers.contains("static"));modifiers.clear();
+                     def.setStatic((modifiers & Modifiers.STATIC) != 0);modifiers = 0;
                      def.setBlockContent(lexer.getCodeBody());
                      builder.addInitializer(def);
                    }
@@ -610,13 +619,15 @@ ConstructorDeclaration: Modifiers_opt IDENTIFIER
                         {
                           builder.beginConstructor();
                           mth.setLineNumber(lexer.getLine());
-                          mth.getModifiers().addAll(modifiers); modifiers.clear();
+                          mth.setModifierFlags(modifiers); modifiers = 0;
                           mth.setConstructor(true); 
                           mth.setName($2);
                         }
                         PARENOPEN FormalParameterList_opt PARENCLOSE Throws_opt MethodBody /* =ConstructorBody */ 
                         {
                           mth.setBody($8);
+                          mth.setBodyStart(bodyStart);
+                          mth.setBodyEnd(bodyEnd);
                           builder.endConstructor(mth);
                           mth = new MethodDef(); 
                         }
@@ -625,13 +636,15 @@ ConstructorDeclaration: Modifiers_opt IDENTIFIER
                           builder.beginConstructor();
                           mth.setLineNumber(lexer.getLine());
                           mth.setTypeParams(typeParams);
-                          mth.getModifiers().addAll(modifiers); modifiers.clear();
+                          mth.setModifierFlags(modifiers); modifiers = 0;
                           mth.setConstructor(true); 
                           mth.setName($3);
                         } 
                         PARENOPEN FormalParameterList_opt PARENCLOSE Throws_opt CODEBLOCK 
                         {
-                          mth.setBody(lexer.getCodeBody());
+                          mth.setBody(codeBlock());
+                          mth.setBodyStart(bodyStart);
+                          mth.setBodyEnd(bodyEnd);
                           builder.endConstructor(mth);
                           mth = new MethodDef(); 
                         }
@@ -653,7 +666,7 @@ ConstructorDeclaration: Modifiers_opt IDENTIFIER
 EnumDeclaration: Modifiers_opt ENUM IDENTIFIER 
                  { 
                    cls.setLineNumber(lexer.getLine());
-                   cls.getModifiers().addAll(modifiers);
+                   cls.setModifierFlags(modifiers);
                    cls.setName( $3 );
                    cls.setType(ClassDef.ENUM);
                    builder.beginClass(cls);
@@ -672,7 +685,7 @@ EnumBody: BRACEOPEN EnumConstants_opt EnumBodyDeclarations_opt BRACECLOSE
           { 
             builder.endClass();
             fieldType = null;
-            modifiers.clear();
+            modifiers = 0;
           }
         ;
 
@@ -714,7 +727,7 @@ EnumBodyDeclarations_opt:
 RecordDeclaration: Modifiers_opt RECORD IDENTIFIER
                   {
                     cls.setLineNumber(lexer.getLine());
-                    cls.getModifiers().addAll(modifiers);
+                    cls.setModifierFlags(modifiers);
                     cls.setName( $3 );
                     cls.setType(ClassDef.RECORD);
                   }
@@ -815,8 +828,10 @@ RecordBodyDeclarations_opt:
 //     {ConstructorModifier} SimpleTypeName ConstructorBody
 CompactConstructorDeclaration: Modifiers_opt IDENTIFIER MethodBody /* =ConstructorBody */
                               {
-                                compactConstructor.setModifiers(modifiers); modifiers.clear();
+                                compactConstructor.setModifierFlags(modifiers); modifiers = 0;
                                 compactConstructor.setBody($3);
+                                compactConstructor.setBodyStart(bodyStart);
+                                compactConstructor.setBodyEnd(bodyEnd);
                                 compactConstructor.setLineNumber(lexer.getLine());
                                 builder.addCompactConstructor(compactConstructor);
                                 compactConstructor = new CompactConstructorDef();
@@ -840,7 +855,7 @@ NormalInterfaceDeclaration: Modifiers_opt INTERFACE
                             {
                               cls.setType(ClassDef.INTERFACE);
                               cls.setLineNumber(lexer.getLine());
-                              cls.getModifiers().addAll(modifiers); modifiers.clear(); 
+                              cls.setModifierFlags(modifiers); modifiers = 0; 
                             }
                             IDENTIFIER TypeParameters_opt InterfaceExtends_opt InterfacePermits_opt
                             {
@@ -870,6 +885,10 @@ InterfaceExtends_opt:
 // InterfacePermits:
 //    permits TypeName {, TypeName}
 InterfacePermits: PERMITS TypeList
+                  {
+                    // the permitted subclasses aren't part of the model
+                    typeList.clear();
+                  }
                 ;
 InterfacePermits_opt :
                      | InterfacePermits
@@ -900,7 +919,7 @@ AnnotationTypeDeclaration: Modifiers_opt ANNOINTERFACE IDENTIFIER
                            {
                              cls.setType(ClassDef.ANNOTATION_TYPE);
                              cls.setLineNumber(lexer.getLine());
-                             cls.getModifiers().addAll(modifiers); modifiers.clear(); 
+                             cls.setModifierFlags(modifiers); modifiers = 0; 
                              cls.setName( $3 );
                              builder.beginClass(cls); 
                              cls = new ClassDef();
@@ -1958,59 +1977,59 @@ Modifiers_opt:
 Modifier: Annotation 
         | PUBLIC
           {
-            modifiers.add("public");
+            modifiers |= Modifiers.PUBLIC;
           }
         | PROTECTED
           {
-            modifiers.add("protected");
+            modifiers |= Modifiers.PROTECTED;
           } 
         | PRIVATE
           {
-            modifiers.add("private");
+            modifiers |= Modifiers.PRIVATE;
           }
         | ABSTRACT
           {
-            modifiers.add("abstract");
+            modifiers |= Modifiers.ABSTRACT;
           }
         | STATIC
           {
-            modifiers.add("static");
+            modifiers |= Modifiers.STATIC;
           }
         | FINAL
           {
-            modifiers.add("final");
+            modifiers |= Modifiers.FINAL;
           }
         | SEALED
           {
-            modifiers.add("sealed");
+            modifiers |= Modifiers.SEALED;
           }
         | NON_SEALED
           {
-            modifiers.add("non-sealed");
+            modifiers |= Modifiers.NON_SEALED;
           }
         | STRICTFP
           {
-            modifiers.add("strictfp");
+            modifiers |= Modifiers.STRICTFP;
           }
         | NATIVE
           {
-            modifiers.add("native");
+            modifiers |= Modifiers.NATIVE;
           }
         | SYNCHRONIZED
           {
-            modifiers.add("synchronized");
+            modifiers |= Modifiers.SYNCHRONIZED;
           }
         | VOLATILE
           {
-            modifiers.add("volatile");
+            modifiers |= Modifiers.VOLATILE;
           }
         | TRANSIENT
           {
-            modifiers.add("transient");
+            modifiers |= Modifiers.TRANSIENT;
           }
         | DEFAULT
           {
-            modifiers.add("default");
+            modifiers |= Modifiers.DEFAULT;
           }
         ;
          
@@ -2080,7 +2099,7 @@ private List<ElemValueDef> annoValueList = null;
 private LinkedList<RecordFieldsDef> recordHeaderStack = new LinkedList<RecordFieldsDef>();
 private CompactConstructorDef compactConstructor = new CompactConstructorDef();
 private FieldDef param = new FieldDef();
-private java.util.Set<String> modifiers = new java.util.LinkedHashSet<String>();
+private int modifiers;
 private TypeDef fieldType;
 private TypeVariableDef typeVariable;
 private Stack<TypeDef> typeStack = new Stack<TypeDef>();
@@ -2088,6 +2107,19 @@ private List<TypeDef> typeList = new LinkedList<TypeDef>();
 private int line;
 private int column;
 private boolean debugLexer;
+private boolean retainMethodBodies = true;
+private boolean parseJavadoc = true;
+private int bodyStart;
+private int bodyEnd;
+// reused for every javadoc comment, the parser for every source
+private DefaultJavaCommentLexer commentLexer;
+private DefaultJavaCommentParser commentParser;
+// only measured for a MetricsListener
+private boolean measure;
+private int tokenCount;
+private int commentCount;
+private long lexNanos;
+private long commentNanos;
 
 private void appendToBuffer(String word) {
     if (textBuffer.length() > 0) {
@@ -2112,6 +2144,47 @@ public Parser( JavaLexer lexer, Builder builder )
     this.builder = builder;
 }
 
+/**
+ * Reuse this parser for another source of its lexer, which must have been reset already.
+ * The debug settings are kept, the other settings are restored.
+ *
+ * @param builder the builder for the next source, or <code>null</code> to only release the previous one
+ * @since 2.2
+ */
+public void reset( Builder builder )
+{
+    lexer.addCommentHandler( this );
+    this.builder = builder;
+    textBuffer.setLength(0);
+    cls = new ClassDef();
+    mth = new MethodDef();
+    fd = null;
+    exp = null;
+    opn = null;
+    prv = null;
+    moduleTargets.clear();
+    typeParams.clear();
+    annotationStack.clear();
+    annoValueListStack.clear();
+    annoValueList = null;
+    recordHeaderStack.clear();
+    compactConstructor = new CompactConstructorDef();
+    param = new FieldDef();
+    modifiers = 0;
+    fieldType = null;
+    typeVariable = null;
+    typeStack.clear();
+    typeList.clear();
+    retainMethodBodies = true;
+    parseJavadoc = true;
+    commentParser = null;
+    measure = false;
+    tokenCount = 0;
+    commentCount = 0;
+    lexNanos = 0;
+    commentNanos = 0;
+}
+
 public void setDebugParser(boolean debug) {
     yydebug = debug;
 }
@@ -2120,6 +2193,57 @@ public void setDebugLexer(boolean debug) {
     debugLexer = debug;
 }
 
+/**
+ * Set to false if the text of method and constructor bodies isn't required, only their offsets.
+ */
+public void setRetainMethodBodies(boolean retain) {
+    retainMethodBodies = retain;
+}
+
+/**
+ * Set to false if javadoc comments are handled by another CommentHandler of the lexer, e.g. to parse them lazily.
+ */
+public void setParseJavadoc(boolean parse) {
+    parseJavadoc = parse;
+}
+
+/**
+ * Set to true to measure the time spent in the lexer and on javadoc comments.
+ */
+public void setMeasure(boolean measure) {
+    this.measure = measure;
+}
+
+/**
+ * @return the number of tokens passed from the lexer to this parser
+ */
+public int getTokenCount() {
+    return tokenCount;
+}
+
+/**
+ * @return the number of javadoc comments parsed
+ */
+public int getCommentCount() {
+    return commentCount;
+}
+
+/**
+ * @return the time spent in the lexer, excluding the javadoc comments, if measured
+ */
+public long getLexNanos() {
+    return lexNanos - commentNanos;
+}
+
+/**
+ * Register the offsets of the code block which was just lexed and return its text, if that's retained.
+ */
+private String codeBlock() {
+    bodyStart = lexer.getCodeBlockStart();
+    bodyEnd = lexer.getCodeBlockEnd();
+    return retainMethodBodies ? lexer.getCodeBody() : null;
+}
+
 /**
  * Parse file. Return true if successful.
  */
@@ -2129,7 +2253,16 @@ public boolean parse() {
 
 private int yylex() {
     try {
-        final int result = lexer.lex();
+        final int result;
+        if (measure) {
+            long start = System.nanoTime();
+            result = lexer.lex();
+            lexNanos += System.nanoTime() - start;
+        }
+        else {
+            result = lexer.lex();
+        }
+        tokenCount++;
         yylval = new Value();
         yylval.sval = lexer.text();
         if (debugLexer) {
@@ -2160,7 +2293,7 @@ private void makeField(TypeDef field, String body, boolean enumConstant) {
     fd = new FieldDef( field.getName() );
     fd.setName(field.getName());
     fd.setLineNumber(lexer.getLine());
-    fd.getModifiers().addAll(modifiers); 
+    fd.setModifierFlags(modifiers); 
     fd.setType( fieldType );
     fd.setDimensions(field.getDimensions());
     fd.setEnumConstant(enumConstant);
@@ -2168,11 +2301,26 @@ private void makeField(TypeDef field, String body, boolean enumConstant) {
 }
 
 public void onComment( String comment, int line, int column ) {
-  DefaultJavaCommentLexer commentLexer  = new DefaultJavaCommentLexer( new java.io.StringReader( comment ) );
+  if ( !parseJavadoc ) {
+    return;
+  }
+  commentCount++;
+  long start = measure ? System.nanoTime() : 0;
+  if ( commentLexer == null ) {
+    commentLexer = new DefaultJavaCommentLexer( new java.io.StringReader( comment ) );
+  }
+  else {
+    commentLexer.reset( new java.io.StringReader( comment ) );
+  }
   commentLexer.setLineOffset( line );
   commentLexer.setColumnOffset( column );
-  DefaultJavaCommentParser commentParser = new DefaultJavaCommentParser( commentLexer, builder);
+  if ( commentParser == null ) {
+    commentParser = new DefaultJavaCommentParser( commentLexer, builder);
+  }
   commentParser.setDebugLexer( this.debugLexer );
   commentParser.setDebugParser( this.yydebug );
   commentParser.parse();
+  if ( measure ) {
+    commentNanos += System.nanoTime() - start;
+  }
 }
\ No newline at end of file
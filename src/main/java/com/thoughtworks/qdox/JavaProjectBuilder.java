@@ -21,25 +21,37 @@ package com.thoughtworks.qdox;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Reader;
 import java.net.URL;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import com.thoughtworks.qdox.builder.StreamHandler;
 import com.thoughtworks.qdox.directorywalker.DirectoryScanner;
 import com.thoughtworks.qdox.directorywalker.FileVisitor;
 import com.thoughtworks.qdox.directorywalker.SuffixFilter;
+import com.thoughtworks.qdox.library.AbstractClassLibrary;
+import com.thoughtworks.qdox.library.ClassLibrary;
 import com.thoughtworks.qdox.library.ClassLibraryBuilder;
 import com.thoughtworks.qdox.library.ErrorHandler;
+import com.thoughtworks.qdox.library.MetricsListener;
+import com.thoughtworks.qdox.library.OrderedClassLibraryBuilder;
+import com.thoughtworks.qdox.library.ClassPathIndex;
+import com.thoughtworks.qdox.library.ParseCache;
+import com.thoughtworks.qdox.library.PlatformIndex;
+import com.thoughtworks.qdox.library.SourceCodeMode;
+import com.thoughtworks.qdox.library.SourceFolderMode;
+import com.thoughtworks.qdox.library.SnapshotLibrary;
 import com.thoughtworks.qdox.library.SortedClassLibraryBuilder;
 import com.thoughtworks.qdox.model.JavaClass;
 import com.thoughtworks.qdox.model.JavaModule;
 import com.thoughtworks.qdox.model.JavaPackage;
 import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.model.util.NamePool;
 
 /**
  * This is the improved version of the JavaDocBuilder of QDox 1.x, which has the following tasks:
@@ -126,6 +138,89 @@ public class JavaProjectBuilder
         return this;
     }
 
+    /**
+     * Sets the cache for parsed files. Files which haven't changed since they were parsed with the same cache are
+     * restored from it instead of being parsed again.
+     * 
+     * @param parseCache the parse cache, see {@link ParseCache#getHitCount()} and {@link ParseCache#getMissCount()}
+     * @return this javaProjectBuilder itself
+     */
+    public JavaProjectBuilder setParseCache( ParseCache parseCache )
+    {
+        classLibraryBuilder.setParseCache( parseCache );
+        return this;
+    }
+
+    /**
+     * Sets the index of the classpath. Whether a class exists is answered by the index instead of trying to load it,
+     * so the index must contain all classes of the classloaders.
+     * 
+     * @param classPathIndex the classpath index, see {@link ClassPathIndex#addClassPath(String)} and
+     *            {@link ClassPathIndex#addPlatformClasses()}
+     * @return this javaProjectBuilder itself
+     * @since 2.2
+     */
+    public JavaProjectBuilder setClassPathIndex( ClassPathIndex classPathIndex )
+    {
+        classLibraryBuilder.setClassPathIndex( classPathIndex );
+        return this;
+    }
+
+    /**
+     * Sets the index of the JDK. Its classes are built from the index instead of being read by the classloaders, and
+     * the index is shared by all builders of the JVM.
+     * 
+     * @param platformIndex the JDK index, see {@link PlatformIndex#getInstance(java.io.File)}
+     * @return this javaProjectBuilder itself
+     * @since 2.2
+     */
+    public JavaProjectBuilder setPlatformIndex( PlatformIndex platformIndex )
+    {
+        classLibraryBuilder.setPlatformIndex( platformIndex );
+        return this;
+    }
+
+    /**
+     * Sets what is kept of the bodies of methods and constructors. Skipping them, or only keeping their offsets to
+     * read them again when requested, saves the heap of consumers which only need signatures, annotations and
+     * javadoc.
+     * 
+     * @param sourceCodeMode the mode, {@link SourceCodeMode#RETAIN} by default
+     * @return this javaProjectBuilder itself
+     */
+    public JavaProjectBuilder setSourceCodeMode( SourceCodeMode sourceCodeMode )
+    {
+        classLibraryBuilder.setSourceCodeMode( sourceCodeMode );
+        return this;
+    }
+
+    /**
+     * Sets how the source files of classes are found in the source folders. By default the file system is asked for
+     * every class, an index of the source folders saves these calls when many classes are looked up.
+     * 
+     * @param sourceFolderMode the source folder mode
+     * @return this javaProjectBuilder itself
+     * @since 2.2
+     */
+    public JavaProjectBuilder setSourceFolderMode( SourceFolderMode sourceFolderMode )
+    {
+        classLibraryBuilder.setSourceFolderMode( sourceFolderMode );
+        return this;
+    }
+
+    /**
+     * Set to {@code true} to parse javadoc comments only once the comment or tags of an entity are requested, which
+     * speeds up parsing when they're hardly used, e.g. when only comparing signatures.
+     * 
+     * @param lazyJavadoc the lazy javadoc flag
+     * @return this javaProjectBuilder itself
+     */
+    public JavaProjectBuilder setLazyJavadoc( boolean lazyJavadoc )
+    {
+        classLibraryBuilder.setLazyJavadoc( lazyJavadoc );
+        return this;
+    }
+
     /**
      * Sets the errorHandler which will be triggered when a parse exception occurs.
      * 
@@ -138,6 +233,35 @@ public class JavaProjectBuilder
         return this;
     }
 
+    /**
+     * Sets the listener which receives the timings and counts of parsing sources and resolving types and classes.
+     * Without a listener nothing is measured.
+     * 
+     * @param metricsListener the listener, for example a
+     *            {@link com.thoughtworks.qdox.library.jfr.JfrMetricsListener}
+     * @return this javaProjectBuilder itself
+     * @since 2.2
+     */
+    public JavaProjectBuilder setMetricsListener( MetricsListener metricsListener )
+    {
+        classLibraryBuilder.setMetricsListener( metricsListener );
+        return this;
+    }
+
+    /**
+     * Sets the pool for the names of the sources and the types they refer to, so equal names share one instance. A
+     * model of many sources uses less memory this way.
+     * 
+     * @param namePool the pool, for example a weak one shared by several builders
+     * @return this javaProjectBuilder itself
+     * @since 2.2
+     */
+    public JavaProjectBuilder setNamePool( NamePool namePool )
+    {
+        classLibraryBuilder.setNamePool( namePool );
+        return this;
+    }
+
     /**
      * Add a java source from a file to this JavaProjectBuilder
      * 
@@ -188,6 +312,20 @@ public class JavaProjectBuilder
         return classLibraryBuilder.addSourceFolder( sourceFolder );
     }
 
+    /**
+     * Add a jar with java files to this javaprojectbuilder, like the {@code -sources.jar} of a dependency. Only the
+     * central directory of the jar is read, a java file is parsed when one of its classes is requested.
+     * 
+     * @param sourceJar the source jar to add
+     * @throws IOException if the central directory of the jar couldn't be read
+     * @since 2.2
+     */
+    public void addSourceJar( File sourceJar )
+        throws IOException
+    {
+        classLibraryBuilder.appendSourceJar( sourceJar );
+    }
+
     /**
      * Add all java files of the {@code directory} recursively
      * 
@@ -195,14 +333,7 @@ public class JavaProjectBuilder
      */
     public void addSourceTree( File directory )
     {
-        FileVisitor visitor = new FileVisitor()
-        {
-            public void visitFile( File badFile )
-            {
-                throw new RuntimeException( "Cannot read file : " + badFile.getName() );
-            }
-        };
-        addSourceTree( directory, visitor );
+        addSourceTree( directory, newBadFileVisitor() );
     }
 
     /**
@@ -231,6 +362,141 @@ public class JavaProjectBuilder
         } );
     }
 
+    /**
+     * Add all java files of the {@code directory} recursively, using {@code threads} threads to parse them. The result
+     * is the same as {@link #addSourceTree(File)}, including the order of {@link #getClasses()}.
+     * 
+     * @param directory the directory from which all java files should be parsed.
+     * @param threads the number of threads to parse with
+     */
+    public void addSourceTree( File directory, int threads )
+    {
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            addSourceTree( directory, newBadFileVisitor(), executor );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Add all java files of the {@code directory} recursively, letting the {@code executor} parse them. The sources
+     * are registered in the order in which they were found, so the result is the same as
+     * {@link #addSourceTree(File, FileVisitor)}. The executor is not shut down.
+     * 
+     * @param directory the directory from which all java files should be parsed.
+     * @param errorHandler a fileVisitor which will be triggered when an {@link IOException} occurs.
+     * @param executor the executor used to parse the files
+     * @throws java.util.concurrent.CancellationException if the calling thread is interrupted, the sources added so
+     *             far remain
+     */
+    public void addSourceTree( File directory, FileVisitor errorHandler, ExecutorService executor )
+    {
+        DirectoryScanner scanner = new DirectoryScanner( directory );
+        scanner.addFilter( new SuffixFilter( ".java" ) );
+        classLibraryBuilder.addSources( scanner.scan(), executor, errorHandler );
+    }
+
+    /**
+     * Stream the declarations of a java file to the {@code handler}, like SAX does for XML. Unlike
+     * {@link #addSource(File)} no model is built and nothing is kept by this JavaProjectBuilder. The names used in the
+     * file are resolved by the sources, source folders and classloaders added to it.
+     * 
+     * @param file a java file
+     * @param handler the handler receiving the declarations
+     * @throws IOException if the file can't be read
+     * @since 2.2
+     */
+    public void streamSource( File file, StreamHandler handler )
+        throws IOException
+    {
+        classLibraryBuilder.streamSource( file, handler );
+    }
+
+    /**
+     * Stream the declarations of a reader to the {@code handler}, see {@link #streamSource(File, StreamHandler)}
+     * 
+     * @param reader the reader
+     * @param handler the handler receiving the declarations
+     * @since 2.2
+     */
+    public void streamSource( Reader reader, StreamHandler handler )
+    {
+        classLibraryBuilder.streamSource( reader, handler );
+    }
+
+    /**
+     * Stream the declarations of all java files of the {@code directory} recursively to the {@code handler}, see
+     * {@link #streamSource(File, StreamHandler)}. The files are parsed one by one while the directory is scanned, so
+     * the memory used doesn't depend on the number of files.
+     * 
+     * @param directory the directory from which all java files should be streamed
+     * @param handler the handler receiving the declarations
+     * @since 2.2
+     */
+    public void streamSourceTree( File directory, StreamHandler handler )
+    {
+        streamSourceTree( directory, handler, newBadFileVisitor() );
+    }
+
+    /**
+     * Stream the declarations of all java files of the {@code directory} recursively to the {@code handler}, see
+     * {@link #streamSource(File, StreamHandler)}.
+     * 
+     * @param directory the directory from which all java files should be streamed
+     * @param handler the handler receiving the declarations
+     * @param errorHandler a fileVisitor which will be triggered when an {@link IOException} occurs.
+     * @since 2.2
+     */
+    public void streamSourceTree( File directory, final StreamHandler handler, final FileVisitor errorHandler )
+    {
+        DirectoryScanner scanner = new DirectoryScanner( directory );
+        scanner.addFilter( new SuffixFilter( ".java" ) );
+        scanner.scan( new FileVisitor()
+        {
+            public void visitFile( File currentFile )
+            {
+                try
+                {
+                    streamSource( currentFile, handler );
+                }
+                catch ( IOException e )
+                {
+                    errorHandler.visitFile( currentFile );
+                }
+            }
+        } );
+    }
+
+    /**
+     * Stream the declarations of all java files of a jar to the {@code handler}, see
+     * {@link #streamSource(File, StreamHandler)}. Unlike {@link #addSourceJar(File)} every java file is parsed.
+     * 
+     * @param sourceJar the jar containing java files
+     * @param handler the handler receiving the declarations
+     * @throws IOException if the jar can't be read
+     * @since 2.2
+     */
+    public void streamSourceJar( File sourceJar, StreamHandler handler )
+        throws IOException
+    {
+        classLibraryBuilder.streamSourceJar( sourceJar, handler );
+    }
+
+    private static FileVisitor newBadFileVisitor()
+    {
+        return new FileVisitor()
+        {
+            public void visitFile( File badFile )
+            {
+                throw new RuntimeException( "Cannot read file : " + badFile.getName() );
+            }
+        };
+    }
+
     /**
      * Add the {@link java.lang.ClassLoader} to this JavaProjectBuilder
      * 
@@ -311,6 +577,22 @@ public class JavaProjectBuilder
     {
         return classLibraryBuilder.getClassLibrary().getJavaModules();
     }
+
+    /**
+     * Compact the model of all sources into immutable, right-sized structures. Call this once all sources have been
+     * added, the frozen classes can't be modified anymore.
+     * 
+     * @see AbstractClassLibrary#freeze()
+     * @since 2.2
+     */
+    public void freeze()
+    {
+        ClassLibrary classLibrary = classLibraryBuilder.getClassLibrary();
+        if ( classLibrary instanceof AbstractClassLibrary )
+        {
+            ( (AbstractClassLibrary) classLibrary ).freeze();
+        }
+    }
     
     // Searcher
 
@@ -329,29 +611,23 @@ public class JavaProjectBuilder
     }
 
     /**
-     * Persist the classLibraryBuilder to a file
+     * Persist the sources of the classLibraryBuilder to a snapshot file. Source folders and the default classloaders
+     * are recorded as well.
      * 
-     * @param file the file to serialize to
+     * @param file the file to save to
      * @throws IOException Any exception thrown by the underlying OutputStream
+     * @see SnapshotLibrary
      */
     public void save( File file )
         throws IOException
     {
-        FileOutputStream fos = new FileOutputStream( file );
-        ObjectOutputStream out = new ObjectOutputStream( fos );
-        try
-        {
-            out.writeObject( classLibraryBuilder );
-        }
-        finally
-        {
-            out.close();
-            fos.close();
-        }
+        SnapshotLibrary.save( classLibraryBuilder.getClassLibrary(), file );
     }
 
     /**
      * Note that after loading JavaDocBuilder classloaders need to be re-added.
+     * Snapshots are memory mapped and their sources are only parsed when requested, files written by the serialization
+     * based save of previous versions can still be loaded.
      * 
      * @param file the file to load
      * @return the deserialized project builder
@@ -360,6 +636,11 @@ public class JavaProjectBuilder
     public static JavaProjectBuilder load( File file )
         throws IOException
     {
+        if ( SnapshotLibrary.isSnapshot( file ) )
+        {
+            return new JavaProjectBuilder( new OrderedClassLibraryBuilder( SnapshotLibrary.load( file ) ) );
+        }
+
         FileInputStream fis = new FileInputStream( file );
         ObjectInputStream in = new ObjectInputStream( fis );
         JavaProjectBuilder builder;
@@ -20,69 +20,18 @@ package com.thoughtworks.qdox.builder;
  */
 
 import java.net.URL;
-import java.util.Set;
 
 import com.thoughtworks.qdox.model.JavaModule;
 import com.thoughtworks.qdox.model.JavaSource;
-import com.thoughtworks.qdox.parser.expression.ExpressionDef;
-import com.thoughtworks.qdox.parser.structs.AnnoDef;
-import com.thoughtworks.qdox.parser.structs.ClassDef;
-import com.thoughtworks.qdox.parser.structs.CompactConstructorDef;
-import com.thoughtworks.qdox.parser.structs.FieldDef;
-import com.thoughtworks.qdox.parser.structs.InitDef;
-import com.thoughtworks.qdox.parser.structs.MethodDef;
-import com.thoughtworks.qdox.parser.structs.ModuleDef;
-import com.thoughtworks.qdox.parser.structs.PackageDef;
-import com.thoughtworks.qdox.parser.structs.RecordFieldsDef;
-import com.thoughtworks.qdox.parser.structs.TagDef;
-import com.thoughtworks.qdox.parser.structs.TypeDef;
 import com.thoughtworks.qdox.writer.ModelWriterFactory;
 
-public interface Builder
+public interface Builder extends SourceHandler
 {
     void setModelWriterFactory( ModelWriterFactory writer );
     
     void setUrl( URL url );
-    
-    void setModule( ModuleDef moduleDef );
-    
-    void addExports( ModuleDef.ExportsDef exports );
-    void addRequires( ModuleDef.RequiresDef requires );
-    void addOpens( ModuleDef.OpensDef opens );
-    void addProvides( ModuleDef.ProvidesDef provides );
-    void addUses( ModuleDef.UsesDef uses );
-
-    void addPackage( PackageDef packageDef );
-
-    void addImport( String importName );
-
-    void addJavaDoc( String text );
-    void addJavaDocTag( TagDef def );
-
-    void beginClass( ClassDef def );
-    void endClass();
-    void endRecord( RecordFieldsDef def );
-    
-    void addImplements( Set<TypeDef> implementSet );
-    void addInitializer( InitDef def );
-
-    void beginConstructor();
-    void endConstructor( MethodDef def );
-    void addCompactConstructor( CompactConstructorDef def );
-
-    void beginMethod();
-    void endMethod( MethodDef def );
-
-    void beginField( FieldDef def );
-    void endField();
-
-    void addParameter( FieldDef def );
-
-    void addAnnotation( AnnoDef annotation );
-
-    void addArgument(  ExpressionDef argument );
 
     JavaSource getSource();
 
     JavaModule getModuleInfo();
-}
\ No newline at end of file
+}
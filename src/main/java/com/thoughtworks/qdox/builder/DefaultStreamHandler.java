@@ -0,0 +1,152 @@
+package com.thoughtworks.qdox.builder;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Set;
+
+import com.thoughtworks.qdox.parser.expression.ExpressionDef;
+import com.thoughtworks.qdox.parser.structs.AnnoDef;
+import com.thoughtworks.qdox.parser.structs.ClassDef;
+import com.thoughtworks.qdox.parser.structs.CompactConstructorDef;
+import com.thoughtworks.qdox.parser.structs.FieldDef;
+import com.thoughtworks.qdox.parser.structs.InitDef;
+import com.thoughtworks.qdox.parser.structs.MethodDef;
+import com.thoughtworks.qdox.parser.structs.ModuleDef;
+import com.thoughtworks.qdox.parser.structs.PackageDef;
+import com.thoughtworks.qdox.parser.structs.RecordFieldsDef;
+import com.thoughtworks.qdox.parser.structs.TagDef;
+import com.thoughtworks.qdox.parser.structs.TypeDef;
+
+/**
+ * A {@link StreamHandler} ignoring all events, so subclasses only have to override the events they're interested in.
+ * 
+ * @since 2.2
+ */
+public class DefaultStreamHandler
+    implements StreamHandler
+{
+    public void beginSource( StreamContext context )
+    {
+    }
+
+    public void endSource()
+    {
+    }
+
+    public void setModule( ModuleDef moduleDef )
+    {
+    }
+
+    public void addExports( ModuleDef.ExportsDef exports )
+    {
+    }
+
+    public void addRequires( ModuleDef.RequiresDef requires )
+    {
+    }
+
+    public void addOpens( ModuleDef.OpensDef opens )
+    {
+    }
+
+    public void addProvides( ModuleDef.ProvidesDef provides )
+    {
+    }
+
+    public void addUses( ModuleDef.UsesDef uses )
+    {
+    }
+
+    public void addPackage( PackageDef packageDef )
+    {
+    }
+
+    public void addImport( String importName )
+    {
+    }
+
+    public void addJavaDoc( String text )
+    {
+    }
+
+    public void addJavaDocTag( TagDef def )
+    {
+    }
+
+    public void beginClass( ClassDef def )
+    {
+    }
+
+    public void endClass()
+    {
+    }
+
+    public void endRecord( RecordFieldsDef def )
+    {
+    }
+
+    public void addImplements( Set<TypeDef> implementSet )
+    {
+    }
+
+    public void addInitializer( InitDef def )
+    {
+    }
+
+    public void beginConstructor()
+    {
+    }
+
+    public void endConstructor( MethodDef def )
+    {
+    }
+
+    public void addCompactConstructor( CompactConstructorDef def )
+    {
+    }
+
+    public void beginMethod()
+    {
+    }
+
+    public void endMethod( MethodDef def )
+    {
+    }
+
+    public void beginField( FieldDef def )
+    {
+    }
+
+    public void endField()
+    {
+    }
+
+    public void addParameter( FieldDef def )
+    {
+    }
+
+    public void addAnnotation( AnnoDef annotation )
+    {
+    }
+
+    public void addArgument( ExpressionDef argument )
+    {
+    }
+}
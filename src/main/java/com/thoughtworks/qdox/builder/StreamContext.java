@@ -0,0 +1,62 @@
+package com.thoughtworks.qdox.builder;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.net.URL;
+import java.util.List;
+
+/**
+ * The state of the source which is being streamed to a {@link StreamHandler}, comparable to the Locator of SAX.
+ * 
+ * @since 2.2
+ */
+public interface StreamContext
+{
+    /**
+     * @return the location of the source, might be <code>null</code>
+     */
+    URL getUrl();
+
+    /**
+     * @return the name of the package declared so far, otherwise <code>null</code>
+     */
+    String getPackageName();
+
+    /**
+     * @return the imports declared so far
+     */
+    List<String> getImports();
+
+    /**
+     * @return the binary name of the class being declared, otherwise <code>null</code>
+     */
+    String getClassName();
+
+    /**
+     * Resolve a type name the way the model would, based on the package, the imports and the libraries of the
+     * project. Type variables aren't known by the context, nor are the classes declared by the streamed sources
+     * themselves, as nothing of them is kept. Add their source folders to the project to resolve them, but nested
+     * classes are only found when they're referred to by an import or by their qualified name.
+     * 
+     * @param typeName the name as used in the source, without type arguments
+     * @return the binary name, otherwise <code>null</code> if it couldn't be resolved
+     */
+    String resolveType( String typeName );
+}
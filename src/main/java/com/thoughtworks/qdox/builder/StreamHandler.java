@@ -0,0 +1,42 @@
+package com.thoughtworks.qdox.builder;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Receives the declarations of parsed sources without a model being built, like a SAX ContentHandler. Every source
+ * starts with {@link #beginSource(StreamContext)}, followed by the events of {@link SourceHandler}, and ends with
+ * {@link #endSource()}, even if it can't be parsed. A parse error is passed to the
+ * {@link com.thoughtworks.qdox.library.ErrorHandler} before the source ends, or thrown once it has ended.
+ * <p>
+ * Nothing of a source is kept once it has been streamed, so the memory used doesn't depend on the number of sources.
+ * </p>
+ * 
+ * @see com.thoughtworks.qdox.JavaProjectBuilder#streamSourceTree(java.io.File, StreamHandler)
+ * @since 2.2
+ */
+public interface StreamHandler extends SourceHandler
+{
+    /**
+     * @param context the context of the source, which resolves the names used in it; only valid until the source ends
+     */
+    void beginSource( StreamContext context );
+
+    void endSource();
+}
@@ -422,7 +422,7 @@ public class DefaultJavaAnnotationAssembler
     /** {@inheritDoc} */
     public AnnotationValue transform( TypeRefDef annotationTypeRef )
     {
-        JavaType type = createType( annotationTypeRef.getTypeDef(), annotationTypeRef.getTypeDef().getDimensions() );
+        JavaType type = createType( annotationTypeRef.getTypeDef(), 0 );
         return new TypeRef( type );
     }
 
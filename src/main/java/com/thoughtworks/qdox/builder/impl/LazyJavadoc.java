@@ -0,0 +1,149 @@
+package com.thoughtworks.qdox.builder.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Serializable;
+import java.io.StringReader;
+import java.util.LinkedList;
+import java.util.List;
+
+import com.thoughtworks.qdox.builder.CommentBuilder;
+import com.thoughtworks.qdox.model.DocletTag;
+import com.thoughtworks.qdox.model.DocletTagFactory;
+import com.thoughtworks.qdox.model.JavaAnnotatedElement;
+import com.thoughtworks.qdox.model.impl.AbstractBaseJavaEntity;
+import com.thoughtworks.qdox.model.impl.UnparsedJavadoc;
+import com.thoughtworks.qdox.model.util.NamePool;
+import com.thoughtworks.qdox.parser.ParseException;
+import com.thoughtworks.qdox.parser.impl.DefaultJavaCommentLexer;
+import com.thoughtworks.qdox.parser.impl.DefaultJavaCommentParser;
+import com.thoughtworks.qdox.parser.structs.TagDef;
+
+/**
+ * The javadoc comments preceding an entity, which are only parsed once its comment or tags are requested. Like
+ * with eager parsing, the last description wins and the tags of all comments are collected.
+ * A comment which can't be parsed keeps what has been parsed up to the error.
+ */
+class LazyJavadoc
+    implements UnparsedJavadoc, CommentBuilder
+{
+    // the comment lexer of every thread is reset for each comment it parses
+    private static final ThreadLocal<DefaultJavaCommentLexer> COMMENT_LEXER = new ThreadLocal<DefaultJavaCommentLexer>();
+
+    private final DocletTagFactory docletTagFactory;
+
+    // the names of the tags are pooled, if there was a pool when the comment was read
+    private final transient NamePool namePool;
+
+    private final List<Comment> comments = new LinkedList<Comment>();
+
+    private transient String comment;
+
+    private transient List<TagDef> tagDefs;
+
+    LazyJavadoc( DocletTagFactory docletTagFactory, NamePool namePool )
+    {
+        this.docletTagFactory = docletTagFactory;
+        this.namePool = namePool;
+    }
+
+    void addComment( String text, int line, int column )
+    {
+        comments.add( new Comment( text, line, column ) );
+    }
+
+    public String getComment()
+    {
+        parse();
+        return comment;
+    }
+
+    public List<DocletTag> getTags( AbstractBaseJavaEntity entity )
+    {
+        parse();
+        List<DocletTag> tagList = new LinkedList<DocletTag>();
+        for ( TagDef tagDef : tagDefs )
+        {
+            String name = namePool != null ? namePool.intern( tagDef.getName() ) : tagDef.getName();
+            tagList.add( docletTagFactory.createDocletTag( name, tagDef.getText(),
+                                                           (JavaAnnotatedElement) entity, tagDef.getLineNumber() ) );
+        }
+        return tagList;
+    }
+
+    public void addJavaDoc( String text )
+    {
+        comment = text;
+    }
+
+    public void addJavaDocTag( TagDef def )
+    {
+        tagDefs.add( def );
+    }
+
+    private void parse()
+    {
+        if ( tagDefs != null )
+        {
+            return;
+        }
+        tagDefs = new LinkedList<TagDef>();
+        DefaultJavaCommentLexer commentLexer = COMMENT_LEXER.get();
+        for ( Comment c : comments )
+        {
+            if ( commentLexer == null )
+            {
+                commentLexer = new DefaultJavaCommentLexer( new StringReader( c.text ) );
+                COMMENT_LEXER.set( commentLexer );
+            }
+            else
+            {
+                commentLexer.reset( new StringReader( c.text ) );
+            }
+            commentLexer.setLineOffset( c.line );
+            commentLexer.setColumnOffset( c.column );
+            try
+            {
+                new DefaultJavaCommentParser( commentLexer, this ).parse();
+            }
+            catch ( ParseException e )
+            {
+                // keep what has been parsed
+            }
+        }
+    }
+
+    private static final class Comment
+        implements Serializable
+    {
+        private final String text;
+
+        private final int line;
+
+        private final int column;
+
+        Comment( String text, int line, int column )
+        {
+            this.text = text;
+            this.line = line;
+            this.column = column;
+        }
+    }
+}
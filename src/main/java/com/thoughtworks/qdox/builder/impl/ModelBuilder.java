@@ -21,13 +21,16 @@ package com.thoughtworks.qdox.builder.impl;
 
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.thoughtworks.qdox.builder.Builder;
 import com.thoughtworks.qdox.builder.TypeAssembler;
 import com.thoughtworks.qdox.library.ClassLibrary;
+import com.thoughtworks.qdox.library.SourceCodeMode;
 import com.thoughtworks.qdox.model.DocletTag;
 import com.thoughtworks.qdox.model.DocletTagFactory;
 import com.thoughtworks.qdox.model.JavaAnnotatedElement;
@@ -44,8 +47,10 @@ import com.thoughtworks.qdox.model.JavaType;
 import com.thoughtworks.qdox.model.JavaTypeVariable;
 import com.thoughtworks.qdox.model.expression.Expression;
 import com.thoughtworks.qdox.model.impl.AbstractBaseJavaEntity;
+import com.thoughtworks.qdox.model.impl.AbstractJavaEntity;
 import com.thoughtworks.qdox.model.impl.DefaultJavaClass;
 import com.thoughtworks.qdox.model.impl.DefaultJavaConstructor;
+import com.thoughtworks.qdox.model.impl.DefaultJavaExecutable;
 import com.thoughtworks.qdox.model.impl.DefaultJavaField;
 import com.thoughtworks.qdox.model.impl.DefaultJavaInitializer;
 import com.thoughtworks.qdox.model.impl.DefaultJavaMethod;
@@ -61,6 +66,10 @@ import com.thoughtworks.qdox.model.impl.DefaultJavaParameter;
 import com.thoughtworks.qdox.model.impl.DefaultJavaSource;
 import com.thoughtworks.qdox.model.impl.DefaultJavaType;
 import com.thoughtworks.qdox.model.impl.DefaultJavaTypeVariable;
+import com.thoughtworks.qdox.model.impl.SourceText;
+import com.thoughtworks.qdox.model.util.Modifiers;
+import com.thoughtworks.qdox.model.util.NamePool;
+import com.thoughtworks.qdox.parser.CommentHandler;
 import com.thoughtworks.qdox.parser.expression.ExpressionDef;
 import com.thoughtworks.qdox.parser.structs.AnnoDef;
 import com.thoughtworks.qdox.parser.structs.ClassDef;
@@ -68,6 +77,7 @@ import com.thoughtworks.qdox.parser.structs.CompactConstructorDef;
 import com.thoughtworks.qdox.parser.structs.FieldDef;
 import com.thoughtworks.qdox.parser.structs.InitDef;
 import com.thoughtworks.qdox.parser.structs.MethodDef;
+import com.thoughtworks.qdox.parser.structs.ModifierSet;
 import com.thoughtworks.qdox.parser.structs.ModuleDef;
 import com.thoughtworks.qdox.parser.structs.ModuleDef.ExportsDef;
 import com.thoughtworks.qdox.parser.structs.ModuleDef.OpensDef;
@@ -86,7 +96,7 @@ import com.thoughtworks.qdox.writer.ModelWriterFactory;
  * @author <a href="mailto:joew@thoughtworks.com">Joe Walnes</a>
  * @author Robert Scholte
  */
-public class ModelBuilder implements Builder {
+public class ModelBuilder implements Builder, CommentHandler {
 
     private final DefaultJavaSource source;
     
@@ -114,12 +124,25 @@ public class ModelBuilder implements Builder {
 
     private List<TagDef> lastTagSet = new LinkedList<TagDef>();
 
+    private LazyJavadoc lastJavadoc;
+
     private ClassLibrary classLibrary;
     
     private DocletTagFactory docletTagFactory;
 
     private ModelWriterFactory modelWriterFactory;
 
+    private SourceCodeMode sourceCodeMode = SourceCodeMode.RETAIN;
+
+    private String encoding;
+
+    private SourceText sourceText;
+
+    private NamePool namePool;
+
+    // one resolver per declaring class, so all types used by a class share the names resolved so far
+    private final Map<String, TypeResolver> typeResolvers = new HashMap<String, TypeResolver>();
+
     public ModelBuilder( ClassLibrary classLibrary, DocletTagFactory docletTagFactory )
     {
         this.classLibrary = classLibrary;
@@ -136,6 +159,35 @@ public class ModelBuilder implements Builder {
         source.setModelWriterFactory( modelWriterFactory );
     }
     
+    /**
+     * Define what is kept of the bodies of methods and constructors.
+     * 
+     * @param sourceCodeMode the mode, {@link SourceCodeMode#RETAIN} by default
+     * @param encoding the encoding to read the source again with, used by {@link SourceCodeMode#LAZY}
+     * @since 2.2
+     */
+    public void setSourceCodeMode( SourceCodeMode sourceCodeMode, String encoding )
+    {
+        this.sourceCodeMode = sourceCodeMode;
+        this.encoding = encoding;
+    }
+
+    /**
+     * Define the pool for the package names, imports and tag names of the source.
+     * 
+     * @param namePool the pool, might be <code>null</code>
+     * @since 2.2
+     */
+    public void setNamePool( NamePool namePool )
+    {
+        this.namePool = namePool;
+    }
+
+    private String intern( String name )
+    {
+        return namePool != null ? namePool.intern( name ) : name;
+    }
+
     /** {@inheritDoc} */
     public void setModule( final ModuleDef moduleDef )
     {
@@ -215,7 +267,7 @@ public class ModelBuilder implements Builder {
     /** {@inheritDoc} */
     public void addPackage( PackageDef packageDef )
     {
-        DefaultJavaPackage jPackage = new DefaultJavaPackage( packageDef.getName() );
+        DefaultJavaPackage jPackage = new DefaultJavaPackage( intern( packageDef.getName() ) );
         jPackage.setClassLibrary( classLibrary );
         jPackage.setLineNumber( packageDef.getLineNumber() );
         jPackage.setModelWriterFactory( modelWriterFactory );
@@ -227,7 +279,7 @@ public class ModelBuilder implements Builder {
     /** {@inheritDoc} */
     public void addImport( String importName )
     {
-        source.addImport( importName );
+        source.addImport( intern( importName ) );
     }
 
     public void addImplements( Set<TypeDef> implementSet )
@@ -252,6 +304,21 @@ public class ModelBuilder implements Builder {
         lastTagSet.add( tagDef );
     }
 
+    /**
+     * Keep the javadoc comment for the next entity without parsing it. Register this builder as handler of the lexer
+     * instead of the parser to parse javadoc lazily.
+     * 
+     * @since 2.2
+     */
+    public void onComment( String comment, int line, int column )
+    {
+        if ( lastJavadoc == null )
+        {
+            lastJavadoc = new LazyJavadoc( docletTagFactory, namePool );
+        }
+        lastJavadoc.addComment( comment, line, column );
+    }
+
     /** {@inheritDoc} */
     public void beginClass(ClassDef def)
     {
@@ -287,7 +354,7 @@ public class ModelBuilder implements Builder {
         newClass.setImplementz( implementz );
 
         // modifiers
-        newClass.setModifiers( new LinkedList<String>( def.getModifiers() ) );
+        setModifiers( newClass, def.getModifiers(), def.getModifierFlags() );
         
         // typeParameters
         if ( def.getTypeParameters() != null )
@@ -356,9 +423,8 @@ public class ModelBuilder implements Builder {
             field.setType(param.getType());
             field.setDimensions(dimensions);
             field.setEnumConstant(false);
-            field.getModifiers().addAll(param.getModifiers());
-            field.getModifiers().add("private");
-            field.getModifiers().add("final");
+            field.setModifierFlags(param.getModifierFlags() | Modifiers.PRIVATE | Modifiers.FINAL);
+            field.getModifiers().addAll(((ModifierSet) param.getModifiers()).getOtherNames());
             field.setLineNumber(param.getLineNumber());
             beginField(field);
             endField();
@@ -369,7 +435,7 @@ public class ModelBuilder implements Builder {
                 mth.setName(param.getName());
                 mth.setLineNumber(param.getLineNumber());
                 mth.setReturnType(param.getType());
-                mth.getModifiers().add("public");
+                mth.setModifierFlags(Modifiers.PUBLIC);
                 mth.setDimensions(dimensions);
                 mth.setTypeParams(new LinkedList());
                 mth.setLineNumber(param.getLineNumber());
@@ -397,26 +463,42 @@ public class ModelBuilder implements Builder {
         {
             return null;
         }
-        TypeResolver typeResolver;
-        if(classStack.isEmpty())
-        {
-            typeResolver = TypeResolver.byPackageName( source.getPackageName(), classLibrary, source.getImports() );
-        }
-        else
+        return TypeAssembler.createUnresolved( typeDef, dimensions, getTypeResolver( classStack.peekFirst() ) );
+    }
+
+    private TypeResolver getTypeResolver( JavaClass declaringClass )
+    {
+        String binaryName = ( declaringClass == null ? null : declaringClass.getBinaryName() );
+        TypeResolver result = typeResolvers.get( binaryName );
+        if ( result == null )
         {
-            typeResolver = TypeResolver.byClassName( classStack.getFirst().getBinaryName(), classLibrary, source.getImports() );
+            if ( binaryName == null )
+            {
+                result = TypeResolver.byPackageNameAndImports( source.getPackageName(), classLibrary,
+                                                               source.getImportTable() );
+            }
+            else
+            {
+                result = TypeResolver.byClassNameAndImports( binaryName, classLibrary, source.getImportTable() );
+            }
+            typeResolvers.put( binaryName, result );
         }
-        
-        return TypeAssembler.createUnresolved( typeDef, dimensions, typeResolver );
+        return result;
     }
 
     private void addJavaDoc( AbstractBaseJavaEntity entity )
     {
+        if ( lastJavadoc != null )
+        {
+            entity.setJavadoc( lastJavadoc );
+            lastJavadoc = null;
+            return;
+        }
         entity.setComment( lastComment );
         List<DocletTag> tagList = new LinkedList<DocletTag>();
         for ( TagDef tagDef : lastTagSet )
         {
-            tagList.add( docletTagFactory.createDocletTag( tagDef.getName(), tagDef.getText(),
+            tagList.add( docletTagFactory.createDocletTag( intern( tagDef.getName() ), tagDef.getText(),
                                                            (JavaAnnotatedElement) entity, tagDef.getLineNumber() ) );
         }
         entity.setTags( tagList );
@@ -493,7 +575,7 @@ public class ModelBuilder implements Builder {
         currentConstructor.setExceptions( exceptions );
 
         // modifiers
-        currentConstructor.setModifiers( new LinkedList<String>( def.getModifiers() ) );
+        setModifiers( currentConstructor, def.getModifiers(), def.getModifierFlags() );
 
         if ( !parameterList.isEmpty() )
         {
@@ -501,15 +583,15 @@ public class ModelBuilder implements Builder {
             parameterList.clear();
         }
 
-        currentConstructor.setSourceCode( def.getBody() );
+        setSourceCode( currentConstructor, def.getBody(), def.getBodyStart(), def.getBodyEnd() );
     }
 
     /** {@inheritDoc} */
     public void addCompactConstructor( CompactConstructorDef def )
     {
         DefaultJavaConstructor javaConstructor = recordHeaderStack.getFirst();
-        javaConstructor.setModifiers( new LinkedList<String>( def.getModifiers() ) );
-        javaConstructor.setSourceCode( def.getBody() );
+        setModifiers( javaConstructor, def.getModifiers(), def.getModifierFlags() );
+        setSourceCode( javaConstructor, def.getBody(), def.getBodyStart(), def.getBodyEnd() );
         javaConstructor.setLineNumber( def.getLineNumber() );
     }
 
@@ -558,8 +640,8 @@ public class ModelBuilder implements Builder {
         currentMethod.setExceptions( exceptions );
 
         // modifiers
-        currentMethod.setDefault( def.getModifiers().remove( "default" ) );
-        currentMethod.setModifiers( new LinkedList<String>( def.getModifiers() ) );
+        currentMethod.setDefault( ( def.getModifierFlags() & Modifiers.DEFAULT ) != 0 );
+        setModifiers( currentMethod, def.getModifiers(), def.getModifierFlags() & ~Modifiers.DEFAULT );
 
         if ( !parameterList.isEmpty() )
         {
@@ -567,7 +649,36 @@ public class ModelBuilder implements Builder {
             parameterList.clear();
         }
 
-        currentMethod.setSourceCode( def.getBody() );
+        setSourceCode( currentMethod, def.getBody(), def.getBodyStart(), def.getBodyEnd() );
+    }
+
+    private static void setModifiers( AbstractJavaEntity entity, Set<String> modifiers, int flags )
+    {
+        // names which aren't modifiers can only be added to a definition by hand, the parser doesn't produce them
+        List<String> otherNames = ( (ModifierSet) modifiers ).getOtherNames();
+        if ( !otherNames.isEmpty() )
+        {
+            entity.setModifiers( otherNames );
+        }
+        entity.setModifierFlags( flags );
+    }
+
+    private void setSourceCode( DefaultJavaExecutable executable, String body, int bodyStart, int bodyEnd )
+    {
+        if ( bodyStart >= 0 && sourceCodeMode == SourceCodeMode.SKIP )
+        {
+            return;
+        }
+        if ( bodyStart >= 0 && sourceCodeMode == SourceCodeMode.LAZY && source.getURL() != null )
+        {
+            if ( sourceText == null )
+            {
+                sourceText = new SourceText( source.getURL(), encoding );
+            }
+            executable.setSourceCode( sourceText, bodyStart, bodyEnd );
+            return;
+        }
+        executable.setSourceCode( body );
     }
 
     private <G extends JavaGenericDeclaration> DefaultJavaTypeVariable<G> createTypeVariable( TypeVariableDef typeVariableDef, G genericDeclaration)
@@ -585,7 +696,7 @@ public class ModelBuilder implements Builder {
             return null;
         }
         
-        TypeResolver typeResolver = TypeResolver.byClassName( declaringClass.getBinaryName(), classLibrary, source.getImports() );
+        TypeResolver typeResolver = getTypeResolver( declaringClass );
         
         DefaultJavaTypeVariable<G> result = new DefaultJavaTypeVariable<G>( typeVariableDef.getName(), typeResolver );
 
@@ -633,7 +744,7 @@ public class ModelBuilder implements Builder {
 
         // modifiers
         {
-            currentField.setModifiers( new LinkedList<String>( def.getModifiers() ) );
+            setModifiers( currentField, def.getModifiers(), def.getModifierFlags() );
         }
 
         // code body
@@ -651,15 +762,7 @@ public class ModelBuilder implements Builder {
 	{
 	    if ( currentArguments != null && !currentArguments.isEmpty() )
         {
-	        TypeResolver typeResolver;
-	        if( classStack.isEmpty() )
-	        {
-	            typeResolver = TypeResolver.byPackageName( source.getPackageName(), classLibrary, source.getImports() );
-	        }
-	        else
-	        {
-	            typeResolver = TypeResolver.byClassName( classStack.getFirst().getBinaryName(), classLibrary, source.getImports() );
-	        }
+	        TypeResolver typeResolver = getTypeResolver( classStack.peekFirst() );
 	        
 	        //DefaultExpressionTransformer?? 
             DefaultJavaAnnotationAssembler assembler = new DefaultJavaAnnotationAssembler( currentField.getDeclaringClass(), classLibrary, typeResolver );
@@ -702,15 +805,7 @@ public class ModelBuilder implements Builder {
     {
         if ( !currentAnnoDefs.isEmpty() )
         {
-            TypeResolver typeResolver;
-            if( classStack.isEmpty() )
-            {
-                typeResolver = TypeResolver.byPackageName( source.getPackageName(), classLibrary, source.getImports() );
-            }
-            else
-            {
-                typeResolver = TypeResolver.byClassName( classStack.getFirst().getBinaryName(), classLibrary, source.getImports() );
-            }
+            TypeResolver typeResolver = getTypeResolver( classStack.peekFirst() );
             
             DefaultJavaAnnotationAssembler assembler = new DefaultJavaAnnotationAssembler( entity.getDeclaringClass(), classLibrary, typeResolver );
 
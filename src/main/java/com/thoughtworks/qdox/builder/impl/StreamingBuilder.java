@@ -0,0 +1,285 @@
+package com.thoughtworks.qdox.builder.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import com.thoughtworks.qdox.builder.Builder;
+import com.thoughtworks.qdox.builder.StreamContext;
+import com.thoughtworks.qdox.builder.StreamHandler;
+import com.thoughtworks.qdox.library.ClassLibrary;
+import com.thoughtworks.qdox.model.JavaModule;
+import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.parser.expression.ExpressionDef;
+import com.thoughtworks.qdox.parser.structs.AnnoDef;
+import com.thoughtworks.qdox.parser.structs.ClassDef;
+import com.thoughtworks.qdox.parser.structs.CompactConstructorDef;
+import com.thoughtworks.qdox.parser.structs.FieldDef;
+import com.thoughtworks.qdox.parser.structs.InitDef;
+import com.thoughtworks.qdox.parser.structs.MethodDef;
+import com.thoughtworks.qdox.parser.structs.ModuleDef;
+import com.thoughtworks.qdox.parser.structs.PackageDef;
+import com.thoughtworks.qdox.parser.structs.RecordFieldsDef;
+import com.thoughtworks.qdox.parser.structs.TagDef;
+import com.thoughtworks.qdox.parser.structs.TypeDef;
+import com.thoughtworks.qdox.type.ImportTable;
+import com.thoughtworks.qdox.type.TypeResolver;
+import com.thoughtworks.qdox.writer.ModelWriterFactory;
+
+/**
+ * Passes the events of the parser to a {@link StreamHandler} instead of building a model. It only keeps track of the
+ * package, the imports and the enclosing classes, so it can resolve the names used in the source.
+ * 
+ * @since 2.2
+ */
+public class StreamingBuilder
+    implements Builder, StreamContext
+{
+    private final StreamHandler handler;
+
+    private final ClassLibrary classLibrary;
+
+    private URL url;
+
+    private String packageName;
+
+    private final List<String> imports = new ArrayList<String>();
+
+    // compiled on first use, it picks up imports declared afterwards
+    private ImportTable importTable;
+
+    // the binary names of the enclosing classes, innermost first
+    private final LinkedList<String> classNames = new LinkedList<String>();
+
+    // for the package, the classes of streamed sources aren't known so names aren't probed as their nested classes
+    private TypeResolver typeResolver;
+
+    /**
+     * @param handler the handler receiving the events
+     * @param classLibrary the library resolving the names
+     */
+    public StreamingBuilder( StreamHandler handler, ClassLibrary classLibrary )
+    {
+        this.handler = handler;
+        this.classLibrary = classLibrary;
+    }
+
+    public URL getUrl()
+    {
+        return url;
+    }
+
+    public String getPackageName()
+    {
+        return packageName;
+    }
+
+    public List<String> getImports()
+    {
+        return Collections.unmodifiableList( imports );
+    }
+
+    public String getClassName()
+    {
+        return classNames.peekFirst();
+    }
+
+    public String resolveType( String typeName )
+    {
+        if ( typeResolver == null )
+        {
+            if ( importTable == null )
+            {
+                importTable = new ImportTable( imports );
+            }
+            typeResolver = TypeResolver.byPackageNameAndImports( packageName, classLibrary, importTable );
+        }
+        return typeResolver.resolveType( typeName );
+    }
+
+    public void setModelWriterFactory( ModelWriterFactory writer )
+    {
+    }
+
+    public void setUrl( URL url )
+    {
+        this.url = url;
+    }
+
+    public void setModule( ModuleDef moduleDef )
+    {
+        handler.setModule( moduleDef );
+    }
+
+    public void addExports( ModuleDef.ExportsDef exports )
+    {
+        handler.addExports( exports );
+    }
+
+    public void addRequires( ModuleDef.RequiresDef requires )
+    {
+        handler.addRequires( requires );
+    }
+
+    public void addOpens( ModuleDef.OpensDef opens )
+    {
+        handler.addOpens( opens );
+    }
+
+    public void addProvides( ModuleDef.ProvidesDef provides )
+    {
+        handler.addProvides( provides );
+    }
+
+    public void addUses( ModuleDef.UsesDef uses )
+    {
+        handler.addUses( uses );
+    }
+
+    public void addPackage( PackageDef packageDef )
+    {
+        packageName = packageDef.getName();
+        typeResolver = null;
+        handler.addPackage( packageDef );
+    }
+
+    public void addImport( String importName )
+    {
+        imports.add( importName );
+        handler.addImport( importName );
+    }
+
+    public void addJavaDoc( String text )
+    {
+        handler.addJavaDoc( text );
+    }
+
+    public void addJavaDocTag( TagDef def )
+    {
+        handler.addJavaDocTag( def );
+    }
+
+    public void beginClass( ClassDef def )
+    {
+        String outerName = getClassName();
+        if ( outerName != null )
+        {
+            classNames.addFirst( outerName + '$' + def.getName() );
+        }
+        else
+        {
+            classNames.addFirst( packageName != null ? packageName + '.' + def.getName() : def.getName() );
+        }
+        handler.beginClass( def );
+    }
+
+    public void endClass()
+    {
+        handler.endClass();
+        classNames.removeFirst();
+    }
+
+    public void endRecord( RecordFieldsDef def )
+    {
+        handler.endRecord( def );
+        classNames.removeFirst();
+    }
+
+    public void addImplements( Set<TypeDef> implementSet )
+    {
+        handler.addImplements( implementSet );
+    }
+
+    public void addInitializer( InitDef def )
+    {
+        handler.addInitializer( def );
+    }
+
+    public void beginConstructor()
+    {
+        handler.beginConstructor();
+    }
+
+    public void endConstructor( MethodDef def )
+    {
+        handler.endConstructor( def );
+    }
+
+    public void addCompactConstructor( CompactConstructorDef def )
+    {
+        handler.addCompactConstructor( def );
+    }
+
+    public void beginMethod()
+    {
+        handler.beginMethod();
+    }
+
+    public void endMethod( MethodDef def )
+    {
+        handler.endMethod( def );
+    }
+
+    public void beginField( FieldDef def )
+    {
+        handler.beginField( def );
+    }
+
+    public void endField()
+    {
+        handler.endField();
+    }
+
+    public void addParameter( FieldDef def )
+    {
+        handler.addParameter( def );
+    }
+
+    public void addAnnotation( AnnoDef annotation )
+    {
+        handler.addAnnotation( annotation );
+    }
+
+    public void addArgument( ExpressionDef argument )
+    {
+        handler.addArgument( argument );
+    }
+
+    /**
+     * @return always <code>null</code>, as no model is built
+     */
+    public JavaSource getSource()
+    {
+        return null;
+    }
+
+    /**
+     * @return always <code>null</code>, as no model is built
+     */
+    public JavaModule getModuleInfo()
+    {
+        return null;
+    }
+}
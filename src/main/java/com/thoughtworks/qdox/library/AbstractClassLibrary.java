@@ -19,11 +19,23 @@ package com.thoughtworks.qdox.library;
  * under the License.
  */
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.lang.ref.WeakReference;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.thoughtworks.qdox.builder.Builder;
 import com.thoughtworks.qdox.builder.ModelBuilderFactory;
@@ -34,6 +46,8 @@ import com.thoughtworks.qdox.model.JavaPackage;
 import com.thoughtworks.qdox.model.JavaSource;
 import com.thoughtworks.qdox.model.impl.DefaultDocletTagFactory;
 import com.thoughtworks.qdox.model.impl.DefaultJavaPackage;
+import com.thoughtworks.qdox.model.impl.DefaultJavaSource;
+import com.thoughtworks.qdox.model.util.NamePool;
 import com.thoughtworks.qdox.parser.structs.ClassDef;
 import com.thoughtworks.qdox.writer.ModelWriterFactory;
 
@@ -57,6 +71,39 @@ public abstract class AbstractClassLibrary
     
     private JavaClassContext context = new JavaClassContext();
 
+    // the classes and packages which are being resolved, so every name is resolved only once
+    private transient ConcurrentMap<String, Resolution<JavaClass>> classResolutions =
+        new ConcurrentHashMap<String, Resolution<JavaClass>>();
+
+    private transient ConcurrentMap<String, Resolution<JavaPackage>> packageResolutions =
+        new ConcurrentHashMap<String, Resolution<JavaPackage>>();
+
+    private transient volatile TypeHierarchy typeHierarchy;
+
+    // incremented when the classes or the names this library or one of its ancestors can resolve have changed
+    private final AtomicLong modificationCount = new AtomicLong();
+
+    // incremented like the modification count, but also when a class was resolved on request
+    private final AtomicLong typeHierarchyVersion = new AtomicLong();
+
+    // guards the updates of the children of all libraries, which are copied on write
+    private static final Object CHILDREN_LOCK = new Object();
+
+    // the libraries which have this one as parent, held weakly as a parent may outlive them; null once deserialized
+    private transient volatile List<WeakReference<AbstractClassLibrary>> children =
+        Collections.<WeakReference<AbstractClassLibrary>>emptyList();
+
+    // outcome of hasClassReference by name, including the names which couldn't be found
+    private transient volatile ClassReferences classReferences;
+
+    private final AtomicLong classReferenceHits = new AtomicLong();
+
+    private final AtomicLong classReferenceMisses = new AtomicLong();
+
+    private transient MetricsListener metricsListener;
+
+    private transient NamePool namePool;
+
     /**
      * constructor for root ClassLibrary
      */
@@ -71,8 +118,17 @@ public abstract class AbstractClassLibrary
     public AbstractClassLibrary( AbstractClassLibrary parent )
     {
         this.parentClassLibrary = parent;
+        if ( parent != null )
+        {
+            parent.addChild( this );
+        }
     }
     
+    final AbstractClassLibrary getParentClassLibrary()
+    {
+        return parentClassLibrary;
+    }
+
     public Collection<JavaModule> getJavaModules()
     {
         Collection<JavaModule> modules = null;
@@ -94,27 +150,35 @@ public abstract class AbstractClassLibrary
        return getJavaClass( name, false ); 
     }
     
-    public final JavaClass getJavaClass( String name, boolean createStub ) {
+    public final JavaClass getJavaClass( final String name, boolean createStub ) {
         JavaClass result = context.getClassByName( name );
         if ( result == null )
         {
-            result = resolveJavaClass( name );
-
-            if ( result != null )  
+            // resolve every name at most once, even when asked by multiple threads
+            result = new Resolution<JavaClass>()
             {
-                context.add( result );
-                context.add( result.getSource() );
-                
-                JavaPackage contextPackage = context.getPackageByName( result.getPackageName() ); 
-                if( contextPackage == null ) {
-                    DefaultJavaPackage newContextPackage = new DefaultJavaPackage( result.getPackageName() );
-                    newContextPackage.setClassLibrary( this );
-                    context.add( newContextPackage );    
-
-                    contextPackage  = newContextPackage;
+                @Override
+                protected JavaClass lookup()
+                {
+                    return context.getClassByName( name );
                 }
-                contextPackage.getClasses().addAll( result.getNestedClasses() );
-            }
+
+                @Override
+                protected JavaClass resolve()
+                {
+                    MetricsListener listener = metricsListener;
+                    long start = listener != null ? System.nanoTime() : 0;
+
+                    JavaClass resolved = resolveJavaClass( name );
+
+                    if ( listener != null )
+                    {
+                        listener.classResolved( AbstractClassLibrary.this, name, resolved != null,
+                                                System.nanoTime() - start );
+                    }
+                    return resolved != null ? registerResolvedJavaClass( resolved ) : null;
+                }
+            }.get( classResolutions, name );
         }
         if ( result == null && parentClassLibrary != null )
         {
@@ -126,6 +190,194 @@ public abstract class AbstractClassLibrary
         return result;
     }
 
+    private JavaClass registerResolvedJavaClass( JavaClass result )
+    {
+        String binaryName = result.getBinaryName();
+        synchronized ( context )
+        {
+            // the class has been resolved by another thread as well, see Resolution
+            JavaClass registered = context.getClassByName( binaryName );
+            if ( registered != null )
+            {
+                return registered;
+            }
+            context.add( result );
+            context.add( result.getSource() );
+        }
+        changed( true );
+
+        String packageName = result.getPackageName();
+        JavaPackage contextPackage;
+        synchronized ( context )
+        {
+            contextPackage = context.getPackageByName( packageName );
+            if ( contextPackage == null )
+            {
+                DefaultJavaPackage newContextPackage = new DefaultJavaPackage( packageName );
+                newContextPackage.setClassLibrary( this );
+                context.add( newContextPackage );
+
+                contextPackage = newContextPackage;
+            }
+        }
+        synchronized ( contextPackage )
+        {
+            contextPackage.getClasses().addAll( result.getNestedClasses() );
+        }
+        return result;
+    }
+
+    private void readObject( ObjectInputStream in )
+        throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        classResolutions = new ConcurrentHashMap<String, Resolution<JavaClass>>();
+        packageResolutions = new ConcurrentHashMap<String, Resolution<JavaPackage>>();
+        if ( parentClassLibrary != null )
+        {
+            parentClassLibrary.addChild( this );
+        }
+    }
+
+    private void addChild( AbstractClassLibrary child )
+    {
+        synchronized ( CHILDREN_LOCK )
+        {
+            List<WeakReference<AbstractClassLibrary>> result = new ArrayList<WeakReference<AbstractClassLibrary>>();
+            if ( children != null )
+            {
+                for ( WeakReference<AbstractClassLibrary> reference : children )
+                {
+                    if ( reference.get() != null )
+                    {
+                        result.add( reference );
+                    }
+                }
+            }
+            result.add( new WeakReference<AbstractClassLibrary>( child ) );
+            children = result;
+        }
+    }
+
+    /**
+     * Count a change of this library, and push it to its descendants, so they don't have to ask their ancestors
+     * whenever they check if derived data is stale.
+     * 
+     * @param resolved <code>true</code> if a class was only resolved on request
+     */
+    private void changed( boolean resolved )
+    {
+        if ( !resolved )
+        {
+            modificationCount.incrementAndGet();
+        }
+        typeHierarchyVersion.incrementAndGet();
+        List<WeakReference<AbstractClassLibrary>> current = children;
+        if ( current != null )
+        {
+            for ( WeakReference<AbstractClassLibrary> reference : current )
+            {
+                AbstractClassLibrary child = reference.get();
+                if ( child != null )
+                {
+                    child.changed( resolved );
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolves a name at most once. The first thread asking for it resolves it without holding any lock, other threads
+     * asking for the same name wait for its outcome. A thread which would wait for itself, directly or through other
+     * waiting threads, resolves the name again instead, so resolving a class may look up other classes.
+     * 
+     * @param <T> the type of the resolved model
+     */
+    private abstract static class Resolution<T>
+    {
+        // what every thread is waiting for
+        private static final ConcurrentMap<Thread, Resolution<?>> WAITING = new ConcurrentHashMap<Thread, Resolution<?>>();
+
+        private final Thread owner = Thread.currentThread();
+
+        private final CountDownLatch done = new CountDownLatch( 1 );
+
+        private volatile T result;
+
+        /**
+         * @return the published model, otherwise <code>null</code>
+         */
+        protected abstract T lookup();
+
+        /**
+         * @return the resolved and published model, otherwise <code>null</code>
+         */
+        protected abstract T resolve();
+
+        final T get( ConcurrentMap<String, Resolution<T>> resolutions, String name )
+        {
+            if ( name == null )
+            {
+                return resolve();
+            }
+            Resolution<T> current = resolutions.putIfAbsent( name, this );
+            if ( current == null )
+            {
+                try
+                {
+                    // it may have been published since the caller looked it up
+                    T value = lookup();
+                    result = ( value != null ? value : resolve() );
+                    return result;
+                }
+                finally
+                {
+                    resolutions.remove( name, this );
+                    done.countDown();
+                }
+            }
+
+            Thread thread = Thread.currentThread();
+            WAITING.put( thread, current );
+            boolean resolveAgain = current.isWaitingFor( thread );
+            try
+            {
+                if ( !resolveAgain )
+                {
+                    current.done.await();
+                }
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                resolveAgain = true;
+            }
+            finally
+            {
+                WAITING.remove( thread );
+            }
+            return resolveAgain ? resolve() : current.result;
+        }
+
+        // whether the owner of this resolution is the thread or waits for it, possibly through other threads
+        private boolean isWaitingFor( Thread thread )
+        {
+            Set<Thread> owners = new HashSet<Thread>();
+            for ( Resolution<?> resolution = this; resolution != null; resolution = WAITING.get( resolution.owner ) )
+            {
+                if ( resolution.owner == thread )
+                {
+                    return true;
+                }
+                if ( !owners.add( resolution.owner ) )
+                {
+                    break;
+                }
+            }
+            return false;
+        }
+    }
+
     private JavaClass createStub( String name )
     {
         Builder unknownBuilder = getModelBuilder();
@@ -206,6 +458,116 @@ public abstract class AbstractClassLibrary
         }
         return Collections.unmodifiableList( result );
     }
+
+    /**
+     * Get the index of the type hierarchy of all the classes returned by {@link #getJavaClasses()}.
+     * The index is built once and rebuilt when classes were added to or removed from this library or its ancestors.
+     * 
+     * @return the current type hierarchy, never <code>null</code>
+     * @since 2.2
+     */
+    public final TypeHierarchy getTypeHierarchy()
+    {
+        TypeHierarchy result = typeHierarchy;
+        if ( result == null || result.getVersion() != getTypeHierarchyVersion() )
+        {
+            // building resolves the supertypes, which may add classes, so build again until nothing was added
+            long version;
+            do
+            {
+                version = getTypeHierarchyVersion();
+                result = new TypeHierarchy( getJavaClasses(), version );
+            }
+            while ( version != getTypeHierarchyVersion() );
+            typeHierarchy = result;
+        }
+        return result;
+    }
+
+    /**
+     * Get the index of the type hierarchy only if it has already been built and is still current.
+     * 
+     * @return the current type hierarchy, otherwise <code>null</code>
+     * @since 2.2
+     */
+    public final TypeHierarchy getCurrentTypeHierarchy()
+    {
+        TypeHierarchy result = typeHierarchy;
+        if ( result != null && result.getVersion() != getTypeHierarchyVersion() )
+        {
+            result = null;
+        }
+        return result;
+    }
+
+    /**
+     * Notify this library that the supertypes or methods of one of its classes have changed, so everything derived
+     * from them, like the type hierarchy, is rebuilt.
+     * 
+     * @since 2.2
+     */
+    public final void classChanged()
+    {
+        changed( false );
+    }
+
+    /**
+     * The modification count changes whenever a class is added to or removed from this library or its ancestors,
+     * or when one of their classes has {@link #classChanged() changed}.
+     * Classes which are only resolved and cached on request don't count, as they don't change what a name resolves to.
+     * It can be used to detect if data derived from the classes of this library is stale.
+     * 
+     * @return the modification count of this library and its ancestors
+     * @since 2.2
+     */
+    public final long getModificationCount()
+    {
+        return modificationCount.get();
+    }
+
+    /**
+     * Freeze the model of all sources and packages of this library and its ancestors, see
+     * {@link DefaultJavaSource#freeze()}. Sources which are added or resolved afterwards aren't frozen, call this
+     * method again to freeze those too.
+     * 
+     * @since 2.2
+     */
+    public void freeze()
+    {
+        freeze( context );
+        if ( parentClassLibrary != null )
+        {
+            parentClassLibrary.freeze();
+        }
+    }
+
+    /**
+     * @param context the context of which the sources and packages should be frozen
+     * @since 2.2
+     */
+    protected static void freeze( JavaClassContext context )
+    {
+        for ( JavaSource source : context.getSources() )
+        {
+            if ( source instanceof DefaultJavaSource )
+            {
+                ( (DefaultJavaSource) source ).freeze();
+            }
+        }
+        for ( JavaPackage javaPackage : context.getPackages() )
+        {
+            if ( javaPackage instanceof DefaultJavaPackage )
+            {
+                ( (DefaultJavaPackage) javaPackage ).freeze();
+            }
+        }
+    }
+
+    // unlike the modification count this includes the resolved classes, as they're part of getJavaClasses()
+    private long getTypeHierarchyVersion()
+    {
+        return typeHierarchyVersion.get();
+    }
     
     /**
      * Get all packages of the current {@link AbstractClassLibrary}.
@@ -235,13 +597,37 @@ public abstract class AbstractClassLibrary
      * @param name the fully qualified name
      * @return the JavaPackage matching the name, otherwise <code>null</code>
      */
-    public final JavaPackage getJavaPackage( String name ) {
+    public final JavaPackage getJavaPackage( final String name ) {
         JavaPackage result = context.getPackageByName( name );
         if (result == null) {
-        	result = resolveJavaPackage( name );
-        	if (result != null) {
-        		context.add(result);
-        	}
+            result = new Resolution<JavaPackage>()
+            {
+                @Override
+                protected JavaPackage lookup()
+                {
+                    return context.getPackageByName( name );
+                }
+
+                @Override
+                protected JavaPackage resolve()
+                {
+                    JavaPackage resolved = resolveJavaPackage( name );
+                    if ( resolved != null )
+                    {
+                        synchronized ( context )
+                        {
+                            // the package has been resolved by another thread as well, see Resolution
+                            JavaPackage registered = context.getPackageByName( resolved.getName() );
+                            if ( registered != null )
+                            {
+                                return registered;
+                            }
+                            context.add( resolved );
+                        }
+                    }
+                    return resolved;
+                }
+            }.get( packageResolutions, name );
         }
         if(result == null  && parentClassLibrary != null ) {
             result = parentClassLibrary.getJavaPackage( name );
@@ -273,14 +659,121 @@ public abstract class AbstractClassLibrary
     public boolean hasClassReference( String name )
     {
         boolean result = context.getClassByName( name ) != null;
-        if ( !result ) {
-            result = containsClassReference( name );
+        if ( result || name == null )
+        {
+            return result;
+        }
+        ClassReferences references = getClassReferences();
+        Boolean reference = references.get( name );
+        MetricsListener listener = metricsListener;
+        if ( reference != null )
+        {
+            classReferenceHits.incrementAndGet();
+            if ( listener != null )
+            {
+                listener.classReferenceChecked( this, name, true );
+            }
+            return reference;
+        }
+        classReferenceMisses.incrementAndGet();
+        if ( listener != null )
+        {
+            listener.classReferenceChecked( this, name, false );
         }
+        result = containsClassReference( name );
         if ( !result && parentClassLibrary != null ) {
             result = parentClassLibrary.hasClassReference( name );
         }
+        references.put( name, result );
+        return result;
+    }
+
+    private ClassReferences getClassReferences()
+    {
+        long modificationCount = getModificationCount();
+        ClassReferences result = classReferences;
+        if ( result == null || result.modificationCount != modificationCount )
+        {
+            result = new ClassReferences( modificationCount );
+            classReferences = result;
+        }
         return result;
     }
+
+    /**
+     * Notify this library that the names it can resolve have changed, for example because a source, a classloader or
+     * a source folder was added. This invalidates the cached outcome of {@link #hasClassReference(String)}.
+     * 
+     * @since 2.2
+     */
+    protected final void classReferencesChanged()
+    {
+        changed( false );
+    }
+
+    /**
+     * The number of times {@link #hasClassReference(String)} was answered from the cache, so the library and its
+     * ancestors didn't have to be probed.
+     * 
+     * @return the number of cache hits
+     * @since 2.2
+     */
+    public final long getClassReferenceHitCount()
+    {
+        return classReferenceHits.get();
+    }
+
+    /**
+     * The number of times {@link #hasClassReference(String)} had to probe the library and its ancestors.
+     * 
+     * @return the number of cache misses
+     * @since 2.2
+     */
+    public final long getClassReferenceMissCount()
+    {
+        return classReferenceMisses.get();
+    }
+    
+    /**
+     * Set the listener which receives the measurements of this library. Without a listener nothing is measured.
+     * 
+     * @param metricsListener the listener, might be <code>null</code>
+     * @since 2.2
+     */
+    public final void setMetricsListener( MetricsListener metricsListener )
+    {
+        this.metricsListener = metricsListener;
+    }
+
+    /**
+     * @return the listener which receives the measurements of this library, otherwise <code>null</code>
+     * @since 2.2
+     */
+    public final MetricsListener getMetricsListener()
+    {
+        return metricsListener;
+    }
+
+    /**
+     * Set the pool for the names of the sources parsed by this library and the types it resolves. Libraries can share
+     * a pool, a weak one if they don't live as long as the pool.
+     * 
+     * @param namePool the pool, might be <code>null</code>
+     * @since 2.2
+     */
+    public final void setNamePool( NamePool namePool )
+    {
+        this.namePool = namePool;
+    }
+
+    /**
+     * @return the pool for the names of this library, otherwise <code>null</code>
+     * @since 2.2
+     */
+    public final NamePool getNamePool()
+    {
+        return namePool;
+    }
     
     /**
      * This method is used to detect if there's a match with this classname.
@@ -339,6 +832,7 @@ public abstract class AbstractClassLibrary
             result = new ModelBuilder( this, new DefaultDocletTagFactory() );
         }
         result.setModelWriterFactory( modelWriterFactory );
+        result.setNamePool( namePool );
         return result;
     }
     
@@ -349,6 +843,38 @@ public abstract class AbstractClassLibrary
         return result;
     }
     
+    private static final class ClassReferences
+    {
+        // every probed name is kept, so start over once there are this many, e.g. when streaming many sources
+        private static final int MAX_SIZE = 1 << 16;
+
+        private final Map<String, Boolean> references = new ConcurrentHashMap<String, Boolean>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private final long modificationCount;
+
+        ClassReferences( long modificationCount )
+        {
+            this.modificationCount = modificationCount;
+        }
+
+        Boolean get( String name )
+        {
+            return references.get( name );
+        }
+
+        void put( String name, boolean reference )
+        {
+            if ( size.incrementAndGet() > MAX_SIZE )
+            {
+                size.set( 0 );
+                references.clear();
+            }
+            references.put( name, reference );
+        }
+    }
+
     /**
      * A filter to use when checking all ancestors.
      * 
@@ -25,10 +25,15 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.io.Serializable;
 import java.net.URL;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import com.thoughtworks.qdox.builder.ModelBuilderFactory;
+import com.thoughtworks.qdox.builder.StreamHandler;
+import com.thoughtworks.qdox.directorywalker.FileVisitor;
 import com.thoughtworks.qdox.model.JavaModule;
 import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.model.util.NamePool;
 import com.thoughtworks.qdox.writer.ModelWriterFactory;
 
 /**
@@ -64,6 +69,17 @@ public interface ClassLibraryBuilder extends Serializable
      */
     ClassLibraryBuilder appendSourceFolder( File sourceFolder );
 
+    /**
+     * Append a jar with java files, like a {@code -sources.jar}. Only its central directory is read, the java files
+     * are parsed when their classes are requested.
+     * 
+     * @param sourceJar the source jar
+     * @return this ClassLibraryBuilder instance
+     * @throws IOException if the central directory of the jar couldn't be read
+     * @since 2.2
+     */
+    ClassLibraryBuilder appendSourceJar( File sourceJar ) throws IOException;
+
     /**
      * 
      * @param stream the Java source as stream
@@ -126,6 +142,49 @@ public interface ClassLibraryBuilder extends Serializable
      * @throws IOException if an IOException occurs
      */
     JavaSource addSource( File file ) throws IOException;
+
+    /**
+     * Add the source content of the files to the ClassLibrary. The files are parsed concurrently by the executor,
+     * but registered in the order of the list.
+     * 
+     * @param files the Java sources as files
+     * @param executor the executor used to parse the files
+     * @param fileErrorHandler handler for files which couldn't be read
+     * @return the created JavaSources, in the order of the files
+     * @throws java.util.concurrent.CancellationException if the calling thread is interrupted, the sources added so
+     *             far remain
+     */
+    List<JavaSource> addSources( List<File> files, ExecutorService executor, FileVisitor fileErrorHandler );
+
+    /**
+     * Stream the declarations of the file to the handler without adding it to the ClassLibrary. The names used in the
+     * file are resolved by the ClassLibrary.
+     * 
+     * @param file the Java source as file
+     * @param handler the handler receiving the declarations
+     * @throws IOException if the file couldn't be read
+     * @since 2.2
+     */
+    void streamSource( File file, StreamHandler handler ) throws IOException;
+
+    /**
+     * Stream the declarations of the reader to the handler without adding it to the ClassLibrary.
+     * 
+     * @param reader the Java source as reader
+     * @param handler the handler receiving the declarations
+     * @since 2.2
+     */
+    void streamSource( Reader reader, StreamHandler handler );
+
+    /**
+     * Stream the declarations of all java files of the jar to the handler without adding them to the ClassLibrary.
+     * 
+     * @param sourceJar the jar containing java files
+     * @param handler the handler receiving the declarations
+     * @throws IOException if the jar couldn't be read
+     * @since 2.2
+     */
+    void streamSourceJar( File sourceJar, StreamHandler handler ) throws IOException;
     
     /**
      * Set to {@code true} to enable debug logging for the lexer
@@ -149,6 +208,58 @@ public interface ClassLibraryBuilder extends Serializable
      * @return this ClassLibraryBuilder instance
      */
     ClassLibraryBuilder setEncoding( String encoding );
+
+    /**
+     * Define the cache for the results of parsing source files, so unchanged files don't have to be parsed again
+     * 
+     * @param parseCache the parse cache, might be <code>null</code>
+     * @return this ClassLibraryBuilder instance
+     */
+    ClassLibraryBuilder setParseCache( ParseCache parseCache );
+
+    /**
+     * Define the index of the classloaders, so classes don't have to be loaded to know whether they exist
+     * 
+     * @param classPathIndex the index containing all classes of the classloaders, might be <code>null</code>
+     * @return this ClassLibraryBuilder instance
+     * @since 2.2
+     */
+    ClassLibraryBuilder setClassPathIndex( ClassPathIndex classPathIndex );
+
+    /**
+     * Define the index of the JDK, so its classes are built from the index instead of the classloaders. The index
+     * resolves the JDK classes before the classloaders and after the sources.
+     * 
+     * @param platformIndex the index of the JDK, might be <code>null</code>
+     * @return this ClassLibraryBuilder instance
+     * @since 2.2
+     */
+    ClassLibraryBuilder setPlatformIndex( PlatformIndex platformIndex );
+
+    /**
+     * Define what is kept of the bodies of methods and constructors of the parsed sources
+     * 
+     * @param sourceCodeMode the mode, {@link SourceCodeMode#RETAIN} by default
+     * @return this ClassLibraryBuilder instance
+     */
+    ClassLibraryBuilder setSourceCodeMode( SourceCodeMode sourceCodeMode );
+
+    /**
+     * Define how the source files of classes are found in the source folders
+     * 
+     * @param sourceFolderMode the mode, {@link SourceFolderMode#LOOKUP} by default
+     * @return this ClassLibraryBuilder instance
+     * @since 2.2
+     */
+    ClassLibraryBuilder setSourceFolderMode( SourceFolderMode sourceFolderMode );
+
+    /**
+     * Set to {@code true} to parse javadoc comments only once the comment or tags of an entity are requested
+     * 
+     * @param lazyJavadoc the lazy javadoc flag
+     * @return this ClassLibraryBuilder instance
+     */
+    ClassLibraryBuilder setLazyJavadoc( boolean lazyJavadoc );
     
     /**
      * Define the {@link ModelBuilderFactory} which the parsers should use to construct the JavaModel Objects
@@ -182,6 +293,25 @@ public interface ClassLibraryBuilder extends Serializable
      */
     ClassLibraryBuilder setErrorHander( ErrorHandler errorHandler );
 
+    /**
+     * Define the listener which receives the measurements of parsing sources and resolving types and classes by all
+     * libraries, see {@link com.thoughtworks.qdox.library.jfr.JfrMetricsListener} for JDK Flight Recorder events
+     * 
+     * @param metricsListener the listener, might be <code>null</code>
+     * @return this ClassLibraryBuilder instance
+     * @since 2.2
+     */
+    ClassLibraryBuilder setMetricsListener( MetricsListener metricsListener );
+
+    /**
+     * Define the pool for the names of the sources and types of all libraries, so equal names share one instance.
+     * 
+     * @param namePool the pool, might be <code>null</code>
+     * @return this ClassLibraryBuilder instance
+     * @since 2.2
+     */
+    ClassLibraryBuilder setNamePool( NamePool namePool );
+
     /**
      * 
      * @param sourceFolder the sourcefolder
@@ -30,9 +30,9 @@ import com.thoughtworks.qdox.builder.Builder;
 import com.thoughtworks.qdox.model.JavaClass;
 import com.thoughtworks.qdox.model.JavaPackage;
 import com.thoughtworks.qdox.model.impl.DefaultJavaPackage;
-import com.thoughtworks.qdox.parser.JavaLexer;
 import com.thoughtworks.qdox.parser.ParseException;
 import com.thoughtworks.qdox.parser.impl.BinaryClassParser;
+import com.thoughtworks.qdox.parser.impl.ClassFileParser;
 import com.thoughtworks.qdox.parser.impl.JFlexLexer;
 import com.thoughtworks.qdox.parser.impl.Parser;
 
@@ -62,6 +62,8 @@ public class ClassLoaderLibrary
 {
     private transient List<ClassLoader> classLoaders = new LinkedList<ClassLoader>();
 
+    private transient ClassPathIndex classPathIndex;
+
     private boolean defaultClassLoadersAdded = false;
 
     private boolean debugLexer;
@@ -84,6 +86,7 @@ public class ClassLoaderLibrary
     public void addClassLoader( ClassLoader classLoader )
     {
         classLoaders.add( classLoader );
+        classReferencesChanged();
     }
 
     public void addDefaultLoader()
@@ -92,14 +95,44 @@ public class ClassLoaderLibrary
         {
             classLoaders.add( getClass().getClassLoader() );
             classLoaders.add( Thread.currentThread().getContextClassLoader() );
+            classReferencesChanged();
         }
         defaultClassLoadersAdded = true;
     }
 
+    boolean isDefaultClassLoadersAdded()
+    {
+        return defaultClassLoadersAdded;
+    }
+
+    /**
+     * Use an index to tell whether a class exists instead of trying to load it with the classloaders, which is
+     * expensive for classes which don't exist. The index must contain all classes of the classloaders of this library,
+     * classes which aren't part of it are never found.
+     * 
+     * @param classPathIndex the index of the classloaders, or <code>null</code> to ask the classloaders
+     * @since 2.2
+     */
+    public void setClassPathIndex( ClassPathIndex classPathIndex )
+    {
+        this.classPathIndex = classPathIndex;
+        classReferencesChanged();
+    }
+
+    /**
+     * @return the index of the classloaders, might be <code>null</code>
+     * @since 2.2
+     */
+    public ClassPathIndex getClassPathIndex()
+    {
+        return classPathIndex;
+    }
+
     @Override
     protected JavaClass resolveJavaClass( final String name )
     {
         JavaClass result = null;
+        boolean indexed = ( classPathIndex == null || classPathIndex.contains( name ) );
         for ( ClassLoader classLoader : classLoaders )
         {
             String resource = name;
@@ -112,7 +145,8 @@ public class ClassLoaderLibrary
             if ( sourceStream != null )
             {
                 Builder builder = getModelBuilder();
-                JavaLexer lexer = new JFlexLexer( sourceStream );
+                JFlexLexer lexer = new JFlexLexer( sourceStream );
+                lexer.setNamePool( getNamePool() );
                 Parser parser = new Parser( lexer, builder );
                 parser.setDebugLexer( debugLexer );
                 parser.setDebugParser( debugParser );
@@ -137,8 +171,18 @@ public class ClassLoaderLibrary
                     }
                 }
             }
-            if ( result == null )
+            if ( result == null && indexed && hasClassFiles( classLoader ) )
             {
+                Builder builder = getModelBuilder();
+                if ( new ClassFileParser( classLoader, name, builder ).parse() )
+                {
+                    result = builder.getSource().getClassByName( name );
+                    break;
+                }
+            }
+            if ( result == null && indexed )
+            {
+                // no class file, e.g. the class has been defined at runtime
                 try
                 {
                     Class<?> clazz = classLoader.loadClass( name );
@@ -162,6 +206,22 @@ public class ClassLoaderLibrary
         return result;
     }
     
+    /**
+     * A classloader which overrides {@link ClassLoader#loadClass(String)} decides itself which classes exist, so its
+     * resources don't tell which classes it can load.
+     */
+    private static boolean hasClassFiles( ClassLoader classLoader )
+    {
+        try
+        {
+            return classLoader.getClass().getMethod( "loadClass", String.class ).getDeclaringClass() == ClassLoader.class;
+        }
+        catch ( NoSuchMethodException e )
+        {
+            return false;
+        }
+    }
+
     @Override
     protected JavaPackage resolveJavaPackage(String name) {
         DefaultJavaPackage result = null;
@@ -188,6 +248,10 @@ public class ClassLoaderLibrary
     @Override
     protected boolean containsClassReference( String name )
     {
+        if ( classPathIndex != null )
+        {
+            return classPathIndex.contains( name );
+        }
         boolean result = false;
         for(Iterator<ClassLoader> iter = classLoaders.iterator();!result && iter.hasNext(); )
         {
@@ -0,0 +1,469 @@
+package com.thoughtworks.qdox.library;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.ProviderNotFoundException;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * The binary names of the classes on a classpath, so a {@link ClassLoaderLibrary} can tell whether a class exists
+ * without trying to load it.
+ * <p>
+ * Jars and directories are scanned once, when they're added. The classes of the running JDK can be added with
+ * {@link #addPlatformClasses()}. With a cache file the names found in jars and in the JDK are written by
+ * {@link #store()}, and the next index with the same cache file reuses them as long as the size and modification
+ * time of the jar didn't change. Directories are always scanned, because their content can change without changing
+ * their modification time.
+ * </p>
+ *
+ * @since 2.2
+ */
+public class ClassPathIndex
+{
+    private static final int MAGIC = 0x51444349; // QDCI
+
+    private static final int VERSION = 1;
+
+    private static final String VERSIONS_PREFIX = "META-INF/versions/";
+
+    private final File cacheFile;
+
+    // the entries read from the cache file, by jar path
+    private final Map<String, Entry> cachedEntries = new HashMap<String, Entry>();
+
+    // the entries of this index which will be written to the cache file, by jar path
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>();
+
+    private final Set<String> classNames = Collections.newSetFromMap( new ConcurrentHashMap<String, Boolean>() );
+
+    private final AtomicLong scans = new AtomicLong();
+
+    private final AtomicLong cacheHits = new AtomicLong();
+
+    /**
+     * Create an index without a cache file
+     */
+    public ClassPathIndex()
+    {
+        this( null );
+    }
+
+    /**
+     * @param cacheFile the file with the names of a previous index, might be <code>null</code> or not exist yet
+     */
+    public ClassPathIndex( File cacheFile )
+    {
+        this.cacheFile = cacheFile;
+        if ( cacheFile != null && cacheFile.isFile() )
+        {
+            load();
+        }
+    }
+
+    public File getCacheFile()
+    {
+        return cacheFile;
+    }
+
+    /**
+     * Add the classes of all jars and directories of a classpath
+     *
+     * @param classPath the jars and directories separated by {@link File#pathSeparatorChar}, like the
+     *            <code>java.class.path</code> system property
+     * @return this index
+     * @throws IOException if a jar can't be read
+     */
+    public ClassPathIndex addClassPath( String classPath )
+        throws IOException
+    {
+        int start = 0;
+        while ( start <= classPath.length() )
+        {
+            int end = classPath.indexOf( File.pathSeparatorChar, start );
+            if ( end < 0 )
+            {
+                end = classPath.length();
+            }
+            if ( end > start )
+            {
+                addClassPathEntry( new File( classPath.substring( start, end ) ) );
+            }
+            start = end + 1;
+        }
+        return this;
+    }
+
+    /**
+     * Add the classes of a jar or a directory
+     *
+     * @param file the jar or the directory, ignored if it doesn't exist
+     * @return this index
+     * @throws IOException if the jar can't be read
+     */
+    public synchronized ClassPathIndex addClassPathEntry( File file )
+        throws IOException
+    {
+        if ( file.isDirectory() )
+        {
+            scans.incrementAndGet();
+            List<String> names = new ArrayList<String>();
+            addDirectory( file, "", names );
+            classNames.addAll( names );
+        }
+        else if ( file.isFile() )
+        {
+            String key = file.getAbsolutePath();
+            Entry entry = getCachedEntry( key, file.length(), file.lastModified() );
+            if ( entry == null )
+            {
+                entry = new Entry( file.length(), file.lastModified(), readJar( file ) );
+            }
+            addEntry( key, entry );
+        }
+        return this;
+    }
+
+    /**
+     * Add the classes of the running JDK, read from its <code>jrt:/</code> filesystem or, before Java 9, from the jars
+     * of the boot classpath
+     *
+     * @return this index
+     * @throws IOException if the classes can't be read
+     */
+    public synchronized ClassPathIndex addPlatformClasses()
+        throws IOException
+    {
+        File modules = new File( System.getProperty( "java.home" ), "lib" + File.separator + "modules" );
+        if ( modules.isFile() )
+        {
+            String key = "jrt:" + modules.getAbsolutePath();
+            Entry entry = getCachedEntry( key, modules.length(), modules.lastModified() );
+            if ( entry == null )
+            {
+                entry = new Entry( modules.length(), modules.lastModified(), readPlatform() );
+            }
+            addEntry( key, entry );
+        }
+        else
+        {
+            String bootClassPath = System.getProperty( "sun.boot.class.path" );
+            if ( bootClassPath != null )
+            {
+                addClassPath( bootClassPath );
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @param className the binary name of a class, i.e. with a <code>$</code> before the name of a nested class
+     * @return <code>true</code> if the class is part of this index, otherwise <code>false</code>
+     */
+    public boolean contains( String className )
+    {
+        return classNames.contains( className );
+    }
+
+    /**
+     * @return the number of classes of this index
+     */
+    public int size()
+    {
+        return classNames.size();
+    }
+
+    /**
+     * @return the number of jars and directories which had to be scanned
+     */
+    public long getScanCount()
+    {
+        return scans.get();
+    }
+
+    /**
+     * @return the number of jars of which the names were read from the cache file
+     */
+    public long getCacheHitCount()
+    {
+        return cacheHits.get();
+    }
+
+    /**
+     * Write the names of the jars and of the JDK of this index to the cache file, replacing its content
+     *
+     * @throws IOException if the cache file can't be written
+     */
+    public synchronized void store()
+        throws IOException
+    {
+        if ( cacheFile == null )
+        {
+            return;
+        }
+        File directory = cacheFile.getAbsoluteFile().getParentFile();
+        directory.mkdirs();
+        // write to a temporary file first, so concurrent builds never read a partial index
+        File tmp = File.createTempFile( cacheFile.getName(), ".tmp", directory );
+        DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( tmp ) ) );
+        try
+        {
+            out.writeInt( MAGIC );
+            out.writeInt( VERSION );
+            out.writeInt( entries.size() );
+            for ( Map.Entry<String, Entry> entry : entries.entrySet() )
+            {
+                out.writeUTF( entry.getKey() );
+                out.writeLong( entry.getValue().length );
+                out.writeLong( entry.getValue().lastModified );
+                out.writeInt( entry.getValue().classNames.length );
+                for ( String className : entry.getValue().classNames )
+                {
+                    out.writeUTF( className );
+                }
+            }
+        }
+        finally
+        {
+            out.close();
+        }
+        if ( !tmp.renameTo( cacheFile ) )
+        {
+            cacheFile.delete();
+            if ( !tmp.renameTo( cacheFile ) )
+            {
+                tmp.delete();
+                throw new IOException( "Couldn't write " + cacheFile );
+            }
+        }
+    }
+
+    private void load()
+    {
+        try
+        {
+            DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( cacheFile ) ) );
+            try
+            {
+                if ( in.readInt() == MAGIC && in.readInt() == VERSION )
+                {
+                    for ( int entryCount = in.readInt(); entryCount > 0; entryCount-- )
+                    {
+                        String key = in.readUTF();
+                        long length = in.readLong();
+                        long lastModified = in.readLong();
+                        String[] names = new String[in.readInt()];
+                        for ( int i = 0; i < names.length; i++ )
+                        {
+                            names[i] = in.readUTF();
+                        }
+                        cachedEntries.put( key, new Entry( length, lastModified, names ) );
+                    }
+                }
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+        catch ( IOException e )
+        {
+            // corrupt or written by another version, scan again
+            cachedEntries.clear();
+        }
+        catch ( RuntimeException e )
+        {
+            // corrupt, scan again
+            cachedEntries.clear();
+        }
+    }
+
+    private Entry getCachedEntry( String key, long length, long lastModified )
+    {
+        Entry entry = cachedEntries.get( key );
+        if ( entry != null && entry.length == length && entry.lastModified == lastModified )
+        {
+            cacheHits.incrementAndGet();
+            return entry;
+        }
+        scans.incrementAndGet();
+        return null;
+    }
+
+    private void addEntry( String key, Entry entry )
+    {
+        entries.put( key, entry );
+        Collections.addAll( classNames, entry.classNames );
+    }
+
+    private static void addDirectory( File directory, String packagePrefix, List<String> names )
+    {
+        File[] files = directory.listFiles();
+        if ( files != null )
+        {
+            for ( File file : files )
+            {
+                if ( file.isDirectory() )
+                {
+                    addDirectory( file, packagePrefix + file.getName() + '/', names );
+                }
+                else
+                {
+                    String className = toClassName( packagePrefix + file.getName() );
+                    if ( className != null )
+                    {
+                        names.add( className );
+                    }
+                }
+            }
+        }
+    }
+
+    private static String[] readJar( File file )
+        throws IOException
+    {
+        List<String> names = new ArrayList<String>();
+        ZipFile zipFile = new ZipFile( file );
+        try
+        {
+            for ( Enumeration<? extends ZipEntry> zipEntries = zipFile.entries(); zipEntries.hasMoreElements(); )
+            {
+                String className = toClassName( zipEntries.nextElement().getName() );
+                if ( className != null )
+                {
+                    names.add( className );
+                }
+            }
+        }
+        finally
+        {
+            zipFile.close();
+        }
+        return names.toArray( new String[names.size()] );
+    }
+
+    private static String[] readPlatform()
+        throws IOException
+    {
+        FileSystem jrt;
+        try
+        {
+            jrt = FileSystems.getFileSystem( URI.create( "jrt:/" ) );
+        }
+        catch ( FileSystemNotFoundException e )
+        {
+            throw new IOException( "No jrt filesystem", e );
+        }
+        catch ( ProviderNotFoundException e )
+        {
+            throw new IOException( "No jrt filesystem", e );
+        }
+        final List<String> names = new ArrayList<String>();
+        Files.walkFileTree( jrt.getPath( "/modules" ), new SimpleFileVisitor<Path>()
+        {
+            @Override
+            public FileVisitResult visitFile( Path file, BasicFileAttributes attrs )
+            {
+                // /modules/<module>/<package path>/<class>.class
+                if ( file.getNameCount() > 2 )
+                {
+                    String className = toClassName( file.subpath( 2, file.getNameCount() ).toString() );
+                    if ( className != null )
+                    {
+                        names.add( className );
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        } );
+        return names.toArray( new String[names.size()] );
+    }
+
+    /**
+     * @param path the path of a file relative to the root of the classpath entry, separated by slashes
+     * @return the binary name of the class, or <code>null</code> if the file isn't a class
+     */
+    static String toClassName( String path )
+    {
+        if ( !path.endsWith( ".class" ) )
+        {
+            return null;
+        }
+        if ( path.startsWith( VERSIONS_PREFIX ) )
+        {
+            // a class of a multi-release jar, META-INF/versions/<version>/<package path>/<class>.class
+            int versionEnd = path.indexOf( '/', VERSIONS_PREFIX.length() );
+            if ( versionEnd < 0 )
+            {
+                return null;
+            }
+            path = path.substring( versionEnd + 1 );
+        }
+        if ( path.startsWith( "META-INF/" ) || path.endsWith( "module-info.class" )
+            || path.endsWith( "package-info.class" ) )
+        {
+            return null;
+        }
+        return path.substring( 0, path.length() - 6 ).replace( '/', '.' );
+    }
+
+    private static final class Entry
+    {
+        private final long length;
+
+        private final long lastModified;
+
+        private final String[] classNames;
+
+        private Entry( long length, long lastModified, String[] classNames )
+        {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.classNames = classNames;
+        }
+    }
+}
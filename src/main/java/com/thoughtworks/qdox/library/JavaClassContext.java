@@ -27,6 +27,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.thoughtworks.qdox.model.JavaClass;
 import com.thoughtworks.qdox.model.JavaPackage;
@@ -35,17 +36,26 @@ import com.thoughtworks.qdox.model.JavaSource;
 /**
  * JavaClassContext gives you a mechanism to get a {@link JavaClass}.
  * If a class couldn't be found in the cache, the class will be pulled from the classLibrary, the builder will create the corresponding JavaClass and put it in the cache.  
- * 
+ * <p>
+ * The context is safe for use by multiple threads. Lookups by name don't lock, while additions and removals are
+ * serialized so the insertion order of classes, packages and sources is preserved.
+ * </p>
  * 
  * @author Robert Scholte
  *
  */
 public class JavaClassContext implements Serializable {
 
-	
-	private Map<String, JavaClass> classMap = new LinkedHashMap<String, JavaClass>();
-	private Map<String, JavaPackage> packageMap = new LinkedHashMap<String, JavaPackage>();  
-	private Set<JavaSource> sourceSet = new LinkedHashSet<JavaSource>(); 
+	private final Map<String, JavaClass> classIndex = new ConcurrentHashMap<String, JavaClass>();
+	private final Map<String, JavaPackage> packageIndex = new ConcurrentHashMap<String, JavaPackage>();
+
+	// insertion order, guarded by this
+	private final Map<String, JavaClass> classMap = new LinkedHashMap<String, JavaClass>();
+	private final Map<String, JavaPackage> packageMap = new LinkedHashMap<String, JavaPackage>();  
+	private final Set<JavaSource> sourceSet = new LinkedHashSet<JavaSource>(); 
+
+	// incremented whenever a class is added or removed
+	private volatile int classModificationCount;
 	
 	public JavaClassContext(){
 	}
@@ -58,7 +68,7 @@ public class JavaClassContext implements Serializable {
 	 */
 	public JavaClass getClassByName(String name) 
 	{
-		return classMap.get( name );
+		return name == null ? null : classIndex.get( name );
 	}
 	
 	/**
@@ -67,8 +77,14 @@ public class JavaClassContext implements Serializable {
 	 * @param name the fully qualified name of the class
 	 * @return the removed JavaClass, otherwise <code>null</code> 
 	 */
-	public JavaClass removeClassByName(String name) 
+	public synchronized JavaClass removeClassByName(String name) 
 	{
+	    if ( name == null )
+	    {
+	        return null;
+	    }
+	    classIndex.remove( name );
+	    classModificationCount++;
 	    return classMap.remove( name );
 	}
 	
@@ -77,7 +93,7 @@ public class JavaClassContext implements Serializable {
 	 * 
 	 * @return a list of JavaClasses, never <code>null</code>
 	 */
-	public List<JavaClass> getClasses() {
+	public synchronized List<JavaClass> getClasses() {
 		return Collections.unmodifiableList( new LinkedList<JavaClass>(classMap.values()) );
 	}
 	
@@ -86,8 +102,22 @@ public class JavaClassContext implements Serializable {
 	 * 
 	 * @param javaClass the JavaClass to add
 	 */
-	public void add(JavaClass javaClass) {
-	    classMap.put(javaClass.getBinaryName(), javaClass);
+	public synchronized void add(JavaClass javaClass) {
+	    String name = javaClass.getBinaryName();
+	    classMap.put( name, javaClass );
+	    classIndex.put( name, javaClass );
+	    classModificationCount++;
+	}
+
+	/**
+	 * Return the number of times a class was added to or removed from this context.
+	 * 
+	 * @return the modification count of the stored classes
+	 * @since 2.2
+	 */
+	public int getClassModificationCount()
+	{
+	    return classModificationCount;
 	}
 	
 	/**
@@ -98,7 +128,7 @@ public class JavaClassContext implements Serializable {
 	 */
     public JavaPackage getPackageByName( String name )
     {
-        return packageMap.get( name );
+        return name == null ? null : packageIndex.get( name );
     }
     
     /**
@@ -107,8 +137,13 @@ public class JavaClassContext implements Serializable {
      * @param name the fully qualified name of the class
      * @return the removed JavaPackage, otherwise <code>null</code> 
      */
-    public JavaPackage removePackageByName( String name )
+    public synchronized JavaPackage removePackageByName( String name )
     {
+        if ( name == null )
+        {
+            return null;
+        }
+        packageIndex.remove( name );
         return packageMap.remove( name );
     }
 
@@ -117,10 +152,11 @@ public class JavaClassContext implements Serializable {
      * 
      * @param jPackage the JavaPackage to add
      */
-    public void add( JavaPackage jPackage )
+    public synchronized void add( JavaPackage jPackage )
     {
         if(jPackage != null) {
             packageMap.put( jPackage.getName(), jPackage );
+            packageIndex.put( jPackage.getName(), jPackage );
         }
     }
 
@@ -129,7 +165,7 @@ public class JavaClassContext implements Serializable {
      * 
      * @return a list of JavaPackages, never <code>null</code>
      */
-    public List<JavaPackage> getPackages()
+    public synchronized List<JavaPackage> getPackages()
     {
         return Collections.unmodifiableList( new LinkedList<JavaPackage>(packageMap.values()) );
         
@@ -140,7 +176,7 @@ public class JavaClassContext implements Serializable {
      * 
      * @param source the JavaSource to add
      */
-    public void add( JavaSource source )
+    public synchronized void add( JavaSource source )
     {
         sourceSet.add( source );
     }
@@ -150,7 +186,7 @@ public class JavaClassContext implements Serializable {
      * 
      * @return a list of JavaSources, never <code>null</code>
      */
-    public List<JavaSource> getSources()
+    public synchronized List<JavaSource> getSources()
     {
         return Collections.unmodifiableList( new LinkedList<JavaSource>(sourceSet) );
     }
@@ -0,0 +1,266 @@
+package com.thoughtworks.qdox.library;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.net.URL;
+import java.util.Set;
+
+import com.thoughtworks.qdox.builder.Builder;
+import com.thoughtworks.qdox.model.JavaModule;
+import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.parser.expression.ExpressionDef;
+import com.thoughtworks.qdox.parser.structs.AnnoDef;
+import com.thoughtworks.qdox.parser.structs.ClassDef;
+import com.thoughtworks.qdox.parser.structs.CompactConstructorDef;
+import com.thoughtworks.qdox.parser.structs.FieldDef;
+import com.thoughtworks.qdox.parser.structs.InitDef;
+import com.thoughtworks.qdox.parser.structs.MethodDef;
+import com.thoughtworks.qdox.parser.structs.ModuleDef;
+import com.thoughtworks.qdox.parser.structs.PackageDef;
+import com.thoughtworks.qdox.parser.structs.RecordFieldsDef;
+import com.thoughtworks.qdox.parser.structs.TagDef;
+import com.thoughtworks.qdox.parser.structs.TypeDef;
+import com.thoughtworks.qdox.writer.ModelWriterFactory;
+
+/**
+ * Measures the time the parser spends in the builder, which is the time it takes to build the model.
+ * Only used when a {@link MetricsListener} has been registered.
+ * 
+ * @since 2.2
+ */
+class MeasuringBuilder
+    implements Builder
+{
+    private final Builder builder;
+
+    private long nanos;
+
+    MeasuringBuilder( Builder builder )
+    {
+        this.builder = builder;
+    }
+
+    /**
+     * @return the time spent in the builder so far
+     */
+    long getNanos()
+    {
+        return nanos;
+    }
+
+    public void setModelWriterFactory( ModelWriterFactory writer )
+    {
+        long start = System.nanoTime();
+        builder.setModelWriterFactory( writer );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void setUrl( URL url )
+    {
+        long start = System.nanoTime();
+        builder.setUrl( url );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void setModule( ModuleDef moduleDef )
+    {
+        long start = System.nanoTime();
+        builder.setModule( moduleDef );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void addExports( ModuleDef.ExportsDef exports )
+    {
+        long start = System.nanoTime();
+        builder.addExports( exports );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void addRequires( ModuleDef.RequiresDef requires )
+    {
+        long start = System.nanoTime();
+        builder.addRequires( requires );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void addOpens( ModuleDef.OpensDef opens )
+    {
+        long start = System.nanoTime();
+        builder.addOpens( opens );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void addProvides( ModuleDef.ProvidesDef provides )
+    {
+        long start = System.nanoTime();
+        builder.addProvides( provides );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void addUses( ModuleDef.UsesDef uses )
+    {
+        long start = System.nanoTime();
+        builder.addUses( uses );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void addPackage( PackageDef packageDef )
+    {
+        long start = System.nanoTime();
+        builder.addPackage( packageDef );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void addImport( String importName )
+    {
+        long start = System.nanoTime();
+        builder.addImport( importName );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void addJavaDoc( String text )
+    {
+        long start = System.nanoTime();
+        builder.addJavaDoc( text );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void addJavaDocTag( TagDef def )
+    {
+        long start = System.nanoTime();
+        builder.addJavaDocTag( def );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void beginClass( ClassDef def )
+    {
+        long start = System.nanoTime();
+        builder.beginClass( def );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void endClass()
+    {
+        long start = System.nanoTime();
+        builder.endClass();
+        nanos += System.nanoTime() - start;
+    }
+
+    public void endRecord( RecordFieldsDef def )
+    {
+        long start = System.nanoTime();
+        builder.endRecord( def );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void addImplements( Set<TypeDef> implementSet )
+    {
+        long start = System.nanoTime();
+        builder.addImplements( implementSet );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void addInitializer( InitDef def )
+    {
+        long start = System.nanoTime();
+        builder.addInitializer( def );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void beginConstructor()
+    {
+        long start = System.nanoTime();
+        builder.beginConstructor();
+        nanos += System.nanoTime() - start;
+    }
+
+    public void endConstructor( MethodDef def )
+    {
+        long start = System.nanoTime();
+        builder.endConstructor( def );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void addCompactConstructor( CompactConstructorDef def )
+    {
+        long start = System.nanoTime();
+        builder.addCompactConstructor( def );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void beginMethod()
+    {
+        long start = System.nanoTime();
+        builder.beginMethod();
+        nanos += System.nanoTime() - start;
+    }
+
+    public void endMethod( MethodDef def )
+    {
+        long start = System.nanoTime();
+        builder.endMethod( def );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void beginField( FieldDef def )
+    {
+        long start = System.nanoTime();
+        builder.beginField( def );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void endField()
+    {
+        long start = System.nanoTime();
+        builder.endField();
+        nanos += System.nanoTime() - start;
+    }
+
+    public void addParameter( FieldDef def )
+    {
+        long start = System.nanoTime();
+        builder.addParameter( def );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void addAnnotation( AnnoDef annotation )
+    {
+        long start = System.nanoTime();
+        builder.addAnnotation( annotation );
+        nanos += System.nanoTime() - start;
+    }
+
+    public void addArgument( ExpressionDef argument )
+    {
+        long start = System.nanoTime();
+        builder.addArgument( argument );
+        nanos += System.nanoTime() - start;
+    }
+
+    public JavaSource getSource()
+    {
+        return builder.getSource();
+    }
+
+    public JavaModule getModuleInfo()
+    {
+        return builder.getModuleInfo();
+    }
+}
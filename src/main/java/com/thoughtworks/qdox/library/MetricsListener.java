@@ -0,0 +1,70 @@
+package com.thoughtworks.qdox.library;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Receives the measurements of the hot paths of the libraries it is registered on, see
+ * {@link ClassLibraryBuilder#setMetricsListener(MetricsListener)}. Without a listener nothing is measured.
+ * <p>
+ * The methods are called by the thread doing the work, which might be any thread parsing or resolving in parallel,
+ * so implementations must be thread-safe and should return quickly.
+ * </p>
+ *
+ * @since 2.2
+ */
+public interface MetricsListener
+{
+    /**
+     * Called once a source has been lexed, parsed and built into a model.
+     * 
+     * @param metrics the measurements of the source
+     */
+    void sourceParsed( SourceMetrics metrics );
+
+    /**
+     * Called when a type name has been resolved by a {@link com.thoughtworks.qdox.type.TypeResolver}.
+     * 
+     * @param typeName the name as used in the source
+     * @param resolvedName the binary name, otherwise <code>null</code> if it couldn't be resolved
+     * @param cached <code>true</code> if the name was resolved before and taken from the cache of the resolver
+     * @param nanos the time it took to resolve the name
+     */
+    void typeResolved( String typeName, String resolvedName, boolean cached, long nanos );
+
+    /**
+     * Called when a library tried to build a class it hadn't built before, like parsing its source in a source
+     * folder or loading it by its classloaders.
+     * 
+     * @param library the library which tried to build the class
+     * @param binaryName the binary name of the class
+     * @param found <code>true</code> if the library could build the class
+     * @param nanos the time it took to build the class
+     */
+    void classResolved( AbstractClassLibrary library, String binaryName, boolean found, long nanos );
+
+    /**
+     * Called when a library has been asked whether it or its ancestors know a class.
+     * 
+     * @param library the library asked for the class
+     * @param binaryName the binary name of the class
+     * @param cached <code>true</code> if the answer was taken from the cache of the library
+     */
+    void classReferenceChecked( AbstractClassLibrary library, String binaryName, boolean cached );
+}
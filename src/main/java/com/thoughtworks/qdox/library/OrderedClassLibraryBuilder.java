@@ -24,10 +24,15 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.net.URL;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import com.thoughtworks.qdox.builder.ModelBuilderFactory;
+import com.thoughtworks.qdox.builder.StreamHandler;
+import com.thoughtworks.qdox.directorywalker.FileVisitor;
 import com.thoughtworks.qdox.model.JavaModule;
 import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.model.util.NamePool;
 import com.thoughtworks.qdox.writer.ModelWriterFactory;
 
 /**
@@ -46,8 +51,24 @@ public class OrderedClassLibraryBuilder implements ClassLibraryBuilder
     private boolean debugParser;
     
     private String encoding;
+
+    private transient ParseCache parseCache;
+
+    private transient ClassPathIndex classPathIndex;
+
+    private transient PlatformIndex platformIndex;
+
+    private SourceCodeMode sourceCodeMode = SourceCodeMode.RETAIN;
+
+    private SourceFolderMode sourceFolderMode = SourceFolderMode.LOOKUP;
+
+    private boolean lazyJavadoc;
     
     private ErrorHandler errorHandler;
+
+    private transient MetricsListener metricsListener;
+
+    private transient NamePool namePool;
     
     private ModelBuilderFactory modelBuilderFactory;
     
@@ -80,17 +101,16 @@ public class OrderedClassLibraryBuilder implements ClassLibraryBuilder
      */
     public ClassLibraryBuilder appendClassLoader( ClassLoader classLoader )
     {
-        if ( !( classLibrary instanceof ClassLoaderLibrary ) )
-        {
-            classLibrary = newClassLoaderLibrary( classLibrary );
-        }
-        ClassLoaderLibrary classLoaderLibrary = (ClassLoaderLibrary) classLibrary;
+        ClassLoaderLibrary classLoaderLibrary = getClassLoaderLibrary();
         classLoaderLibrary.addClassLoader( classLoader );
+        classLoaderLibrary.setClassPathIndex( classPathIndex );
         classLoaderLibrary.setModelBuilderFactory( modelBuilderFactory );
         classLoaderLibrary.setModelWriterFactory( modelWriterFactory );
         classLoaderLibrary.setDebugLexer( debugLexer );
         classLoaderLibrary.setDebugParser( debugParser );
         classLoaderLibrary.setErrorHandler( errorHandler );
+        classLoaderLibrary.setMetricsListener( metricsListener );
+        classLoaderLibrary.setNamePool( namePool );
         return this;
     }
 
@@ -100,14 +120,13 @@ public class OrderedClassLibraryBuilder implements ClassLibraryBuilder
      */
     public ClassLibraryBuilder appendDefaultClassLoaders()
     {
-        if ( !( classLibrary instanceof ClassLoaderLibrary ) )
-        {
-            classLibrary = newClassLoaderLibrary( classLibrary );
-        }
-        ClassLoaderLibrary classLoaderLibrary = (ClassLoaderLibrary) classLibrary;
+        ClassLoaderLibrary classLoaderLibrary = getClassLoaderLibrary();
         classLoaderLibrary.addDefaultLoader();
+        classLoaderLibrary.setClassPathIndex( classPathIndex );
         classLoaderLibrary.setModelBuilderFactory( modelBuilderFactory );
         classLoaderLibrary.setModelWriterFactory( modelWriterFactory );
+        classLoaderLibrary.setMetricsListener( metricsListener );
+        classLoaderLibrary.setNamePool( namePool );
         return this;
     }
 
@@ -126,6 +145,23 @@ public class OrderedClassLibraryBuilder implements ClassLibraryBuilder
         return this;
     }
 
+    /*
+     * (non-Javadoc)
+     * @see com.thoughtworks.qdox.library.ClassLibraryBuilder#appendSourceJar(java.io.File)
+     */
+    public ClassLibraryBuilder appendSourceJar( File sourceJar )
+        throws IOException
+    {
+        if ( !( classLibrary instanceof SourceJarLibrary ) )
+        {
+            classLibrary = newSourceJarLibrary( classLibrary );
+        }
+        SourceJarLibrary sourceJarLibrary = (SourceJarLibrary) classLibrary;
+        prepareSourceLibrary( sourceJarLibrary );
+        sourceJarLibrary.addSourceJar( sourceJar );
+        return this;
+    }
+
     /* (non-Javadoc)
      * @see com.thoughtworks.qdox.library.ClassLibraryBuilder#addSource(java.io.InputStream)
      */
@@ -173,6 +209,80 @@ public class OrderedClassLibraryBuilder implements ClassLibraryBuilder
         this.encoding = encoding;
         return this;
     }
+
+    /*
+     * (non-Javadoc)
+     * @see com.thoughtworks.qdox.library.ClassLibraryBuilder#setParseCache(com.thoughtworks.qdox.library.ParseCache)
+     */
+    public ClassLibraryBuilder setParseCache( ParseCache parseCache )
+    {
+        this.parseCache = parseCache;
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see com.thoughtworks.qdox.library.ClassLibraryBuilder#setClassPathIndex(com.thoughtworks.qdox.library.ClassPathIndex)
+     */
+    public ClassLibraryBuilder setClassPathIndex( ClassPathIndex classPathIndex )
+    {
+        this.classPathIndex = classPathIndex;
+        if ( classLibrary instanceof ClassLoaderLibrary )
+        {
+            ( (ClassLoaderLibrary) classLibrary ).setClassPathIndex( classPathIndex );
+        }
+        return this;
+    }
+
+    /**
+     * The JDK classes are resolved by the index before the libraries appended so far. While the index is set, the
+     * classloaders appended afterwards are resolved after the index as well.
+     * 
+     * @see com.thoughtworks.qdox.library.ClassLibraryBuilder#setPlatformIndex(com.thoughtworks.qdox.library.PlatformIndex)
+     */
+    public ClassLibraryBuilder setPlatformIndex( PlatformIndex platformIndex )
+    {
+        this.platformIndex = platformIndex;
+        if ( classLibrary instanceof PlatformLibrary )
+        {
+            ( (PlatformLibrary) classLibrary ).setPlatformIndex( platformIndex );
+        }
+        else if ( platformIndex != null )
+        {
+            classLibrary = newPlatformLibrary( classLibrary );
+        }
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see com.thoughtworks.qdox.library.ClassLibraryBuilder#setSourceCodeMode(com.thoughtworks.qdox.library.SourceCodeMode)
+     */
+    public ClassLibraryBuilder setSourceCodeMode( SourceCodeMode sourceCodeMode )
+    {
+        this.sourceCodeMode = sourceCodeMode;
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see com.thoughtworks.qdox.library.ClassLibraryBuilder#setSourceFolderMode(com.thoughtworks.qdox.library.SourceFolderMode)
+     */
+    public ClassLibraryBuilder setSourceFolderMode( SourceFolderMode sourceFolderMode )
+    {
+        this.sourceFolderMode = sourceFolderMode;
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see com.thoughtworks.qdox.library.ClassLibraryBuilder#setLazyJavadoc(boolean)
+     */
+    public ClassLibraryBuilder setLazyJavadoc( boolean lazyJavadoc )
+    {
+        this.lazyJavadoc = lazyJavadoc;
+        return this;
+    }
     
     /*
      * (non-Javadoc)
@@ -184,6 +294,36 @@ public class OrderedClassLibraryBuilder implements ClassLibraryBuilder
         return this;
     }
     
+    /**
+     * The listener is set on the libraries appended so far as well as those appended afterwards.
+     * 
+     * @see com.thoughtworks.qdox.library.ClassLibraryBuilder#setMetricsListener(com.thoughtworks.qdox.library.MetricsListener)
+     */
+    public ClassLibraryBuilder setMetricsListener( MetricsListener metricsListener )
+    {
+        this.metricsListener = metricsListener;
+        for ( AbstractClassLibrary library = classLibrary; library != null; library = library.getParentClassLibrary() )
+        {
+            library.setMetricsListener( metricsListener );
+        }
+        return this;
+    }
+
+    /**
+     * The pool is set on the libraries appended so far as well as those appended afterwards.
+     * 
+     * @see com.thoughtworks.qdox.library.ClassLibraryBuilder#setNamePool(com.thoughtworks.qdox.model.util.NamePool)
+     */
+    public ClassLibraryBuilder setNamePool( NamePool namePool )
+    {
+        this.namePool = namePool;
+        for ( AbstractClassLibrary library = classLibrary; library != null; library = library.getParentClassLibrary() )
+        {
+            library.setNamePool( namePool );
+        }
+        return this;
+    }
+    
     /*
      * (non-Javadoc)
      * @see com.thoughtworks.qdox.library.ClassLibraryBuilder#setModelBuilderFactory(com.thoughtworks.qdox.builder.ModelBuilderFactory)
@@ -276,6 +416,48 @@ public class OrderedClassLibraryBuilder implements ClassLibraryBuilder
         return sourceLibrary.addSource( file );
     }
     
+    /*
+     * (non-Javadoc)
+     * @see com.thoughtworks.qdox.library.ClassLibraryBuilder#addSources(java.util.List, java.util.concurrent.ExecutorService, com.thoughtworks.qdox.directorywalker.FileVisitor)
+     */
+    public List<JavaSource> addSources( List<File> files, ExecutorService executor, FileVisitor fileErrorHandler )
+    {
+        SourceLibrary sourceLibrary = getSourceLibrary();
+        return sourceLibrary.addSources( files, executor, fileErrorHandler );
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see com.thoughtworks.qdox.library.ClassLibraryBuilder#streamSource(java.io.File, com.thoughtworks.qdox.builder.StreamHandler)
+     */
+    public void streamSource( File file, StreamHandler handler )
+        throws IOException
+    {
+        SourceLibrary sourceLibrary = getSourceLibrary();
+        sourceLibrary.streamSource( file, handler );
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see com.thoughtworks.qdox.library.ClassLibraryBuilder#streamSource(java.io.Reader, com.thoughtworks.qdox.builder.StreamHandler)
+     */
+    public void streamSource( Reader reader, StreamHandler handler )
+    {
+        SourceLibrary sourceLibrary = getSourceLibrary();
+        sourceLibrary.streamSource( reader, handler );
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see com.thoughtworks.qdox.library.ClassLibraryBuilder#streamSourceJar(java.io.File, com.thoughtworks.qdox.builder.StreamHandler)
+     */
+    public void streamSourceJar( File sourceJar, StreamHandler handler )
+        throws IOException
+    {
+        SourceLibrary sourceLibrary = getSourceLibrary();
+        sourceLibrary.streamSourceJar( sourceJar, handler );
+    }
+
     public JavaModule addSourceFolder( File sourceFolder )
     {
         SourceFolderLibrary sourceFolderLibrary = getSourceFolderLibrary();
@@ -289,6 +471,15 @@ public class OrderedClassLibraryBuilder implements ClassLibraryBuilder
         sourceLibrary.setDebugParser( debugParser );
         sourceLibrary.setEncoding( encoding );
         sourceLibrary.setErrorHandler( errorHandler );
+        sourceLibrary.setParseCache( parseCache );
+        sourceLibrary.setSourceCodeMode( sourceCodeMode );
+        sourceLibrary.setLazyJavadoc( lazyJavadoc );
+        sourceLibrary.setMetricsListener( metricsListener );
+        sourceLibrary.setNamePool( namePool );
+        if ( sourceLibrary instanceof SourceFolderLibrary )
+        {
+            ( (SourceFolderLibrary) sourceLibrary ).setSourceFolderMode( sourceFolderMode );
+        }
     }
     
     protected final SourceLibrary getSourceLibrary() {
@@ -301,6 +492,37 @@ public class OrderedClassLibraryBuilder implements ClassLibraryBuilder
         return sourceLibrary;
     }
     
+    private ClassLoaderLibrary getClassLoaderLibrary()
+    {
+        if ( classLibrary instanceof PlatformLibrary
+            && classLibrary.getParentClassLibrary() instanceof ClassLoaderLibrary )
+        {
+            return (ClassLoaderLibrary) classLibrary.getParentClassLibrary();
+        }
+        if ( !( classLibrary instanceof ClassLoaderLibrary ) )
+        {
+            classLibrary = newClassLoaderLibrary( classLibrary );
+            if ( platformIndex != null )
+            {
+                // the JDK classes of the new classloaders are still resolved by the index
+                ClassLoaderLibrary classLoaderLibrary = (ClassLoaderLibrary) classLibrary;
+                classLibrary = newPlatformLibrary( classLoaderLibrary );
+                return classLoaderLibrary;
+            }
+        }
+        return (ClassLoaderLibrary) classLibrary;
+    }
+
+    private PlatformLibrary newPlatformLibrary( AbstractClassLibrary parentLibrary )
+    {
+        PlatformLibrary platformLibrary = new PlatformLibrary( parentLibrary, platformIndex );
+        platformLibrary.setModelBuilderFactory( modelBuilderFactory );
+        platformLibrary.setModelWriterFactory( modelWriterFactory );
+        platformLibrary.setMetricsListener( metricsListener );
+        platformLibrary.setNamePool( namePool );
+        return platformLibrary;
+    }
+
     private SourceFolderLibrary getSourceFolderLibrary()
     {
         if ( !( classLibrary instanceof SourceFolderLibrary ) )
@@ -348,5 +570,17 @@ public class OrderedClassLibraryBuilder implements ClassLibraryBuilder
         return new SourceFolderLibrary( parentLibrary );
     }
 
+    /**
+     * Ability to override the implementation of SourceJarLibrary
+     * 
+     * @param parentLibrary the parent library
+     * @return a new SourceJarLibrary instance
+     * @since 2.2
+     */
+    protected SourceJarLibrary newSourceJarLibrary( AbstractClassLibrary parentLibrary )
+    {
+        return new SourceJarLibrary( parentLibrary );
+    }
+
     
 }
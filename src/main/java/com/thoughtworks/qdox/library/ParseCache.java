@@ -0,0 +1,1546 @@
+package com.thoughtworks.qdox.library;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.thoughtworks.qdox.builder.Builder;
+import com.thoughtworks.qdox.model.JavaModule;
+import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.parser.expression.AddDef;
+import com.thoughtworks.qdox.parser.expression.AndDef;
+import com.thoughtworks.qdox.parser.expression.AssignmentDef;
+import com.thoughtworks.qdox.parser.expression.BinaryOperatorDef;
+import com.thoughtworks.qdox.parser.expression.CastDef;
+import com.thoughtworks.qdox.parser.expression.ConstantDef;
+import com.thoughtworks.qdox.parser.expression.CreatorDef;
+import com.thoughtworks.qdox.parser.expression.DivideDef;
+import com.thoughtworks.qdox.parser.expression.ElemValueDef;
+import com.thoughtworks.qdox.parser.expression.ElemValueListDef;
+import com.thoughtworks.qdox.parser.expression.EqualsDef;
+import com.thoughtworks.qdox.parser.expression.ExclusiveOrDef;
+import com.thoughtworks.qdox.parser.expression.ExpressionDef;
+import com.thoughtworks.qdox.parser.expression.FieldRefDef;
+import com.thoughtworks.qdox.parser.expression.GreaterEqualsDef;
+import com.thoughtworks.qdox.parser.expression.GreaterThanDef;
+import com.thoughtworks.qdox.parser.expression.LambdaDef;
+import com.thoughtworks.qdox.parser.expression.LessEqualsDef;
+import com.thoughtworks.qdox.parser.expression.LessThanDef;
+import com.thoughtworks.qdox.parser.expression.LogicalAndDef;
+import com.thoughtworks.qdox.parser.expression.LogicalNotDef;
+import com.thoughtworks.qdox.parser.expression.LogicalOrDef;
+import com.thoughtworks.qdox.parser.expression.MethodInvocationDef;
+import com.thoughtworks.qdox.parser.expression.MethodReferenceDef;
+import com.thoughtworks.qdox.parser.expression.MinusSignDef;
+import com.thoughtworks.qdox.parser.expression.MultiplyDef;
+import com.thoughtworks.qdox.parser.expression.NotDef;
+import com.thoughtworks.qdox.parser.expression.NotEqualsDef;
+import com.thoughtworks.qdox.parser.expression.OrDef;
+import com.thoughtworks.qdox.parser.expression.ParenExpressionDef;
+import com.thoughtworks.qdox.parser.expression.PlusSignDef;
+import com.thoughtworks.qdox.parser.expression.PostDecrementDef;
+import com.thoughtworks.qdox.parser.expression.PostIncrementDef;
+import com.thoughtworks.qdox.parser.expression.PreDecrementDef;
+import com.thoughtworks.qdox.parser.expression.PreIncrementDef;
+import com.thoughtworks.qdox.parser.expression.QueryDef;
+import com.thoughtworks.qdox.parser.expression.RemainderDef;
+import com.thoughtworks.qdox.parser.expression.ShiftLeftDef;
+import com.thoughtworks.qdox.parser.expression.ShiftRightDef;
+import com.thoughtworks.qdox.parser.expression.SubtractDef;
+import com.thoughtworks.qdox.parser.expression.TypeRefDef;
+import com.thoughtworks.qdox.parser.expression.UnaryOperatorDef;
+import com.thoughtworks.qdox.parser.expression.UnsignedShiftRightDef;
+import com.thoughtworks.qdox.parser.structs.AnnoDef;
+import com.thoughtworks.qdox.parser.structs.ClassDef;
+import com.thoughtworks.qdox.parser.structs.CompactConstructorDef;
+import com.thoughtworks.qdox.parser.structs.FieldDef;
+import com.thoughtworks.qdox.parser.structs.InitDef;
+import com.thoughtworks.qdox.parser.structs.LocatedDef;
+import com.thoughtworks.qdox.parser.structs.MethodDef;
+import com.thoughtworks.qdox.parser.structs.ModifierSet;
+import com.thoughtworks.qdox.parser.structs.ModuleDef;
+import com.thoughtworks.qdox.parser.structs.PackageDef;
+import com.thoughtworks.qdox.parser.structs.RecordFieldsDef;
+import com.thoughtworks.qdox.parser.structs.TagDef;
+import com.thoughtworks.qdox.parser.structs.TypeDef;
+import com.thoughtworks.qdox.parser.structs.TypeVariableDef;
+import com.thoughtworks.qdox.parser.structs.WildcardTypeDef;
+import com.thoughtworks.qdox.writer.ModelWriterFactory;
+
+/**
+ * An on-disk cache of parse results, so unchanged files don't have to be lexed and parsed again.
+ * <p>
+ * For every parsed file the calls of the parser to its {@link Builder} are recorded. When the same file is added
+ * again with the same encoding, size and modification time, the calls are replayed to a new Builder, which results in
+ * the same model as parsing the file. There's one entry per file and encoding, so the cache can be shared by multiple
+ * builds, even concurrently, as long as they use the same version of QDox.
+ * </p>
+ * <p>
+ * The content of a file isn't compared, so an edit which keeps the size of the file and is saved within the
+ * granularity of the modification time of the file system, e.g. within the same second, isn't noticed and the entry of
+ * the previous content is replayed. Use a new cache directory or touch the file if that matters.
+ * </p>
+ *
+ * @since 2.2
+ */
+public class ParseCache
+{
+    private static final int MAGIC = 0x51445043; // QDPC
+
+    private static final int VERSION = 5;
+
+    // the kinds of element values, every other class of value can't be recorded
+    private static final Class<?>[] VALUE_TYPES = { null, ConstantDef.class, FieldRefDef.class, TypeRefDef.class,
+        AnnoDef.class, ElemValueListDef.class, AssignmentDef.class, CastDef.class, CreatorDef.class,
+        MethodInvocationDef.class, MethodReferenceDef.class, LambdaDef.class, ParenExpressionDef.class, QueryDef.class,
+        AddDef.class, AndDef.class, DivideDef.class, EqualsDef.class, ExclusiveOrDef.class, GreaterEqualsDef.class,
+        GreaterThanDef.class, LessEqualsDef.class, LessThanDef.class, LogicalAndDef.class, LogicalOrDef.class,
+        MultiplyDef.class, NotEqualsDef.class, OrDef.class, RemainderDef.class, ShiftLeftDef.class,
+        ShiftRightDef.class, SubtractDef.class, UnsignedShiftRightDef.class, LogicalNotDef.class, MinusSignDef.class,
+        NotDef.class, PlusSignDef.class, PostDecrementDef.class, PostIncrementDef.class, PreDecrementDef.class,
+        PreIncrementDef.class };
+
+    private static final Class<?>[] CONSTANT_TYPES =
+        { Integer.class, Float.class, Character.class, String.class, Boolean.class };
+
+    // the other classes written to an entry
+    private static final Class<?>[] DEF_TYPES = { ClassDef.class, CompactConstructorDef.class, FieldDef.class,
+        InitDef.class, MethodDef.class, ModifierSet.class, ModuleDef.class, ModuleDef.ExportsDef.class,
+        ModuleDef.OpensDef.class, ModuleDef.ProvidesDef.class, ModuleDef.RequiresDef.class, ModuleDef.UsesDef.class,
+        PackageDef.class, RecordFieldsDef.class, TagDef.class, TypeDef.class, TypeVariableDef.class,
+        WildcardTypeDef.class };
+
+    // the fields of the classes written to an entry, so an entry is never replayed by a QDox whose definitions differ
+    private static final int LAYOUT = computeLayout();
+
+    // the kinds of types
+    private static final int TYPE = 1;
+
+    private static final int WILDCARD = 2;
+
+    private static final Charset UTF_8 = Charset.forName( "UTF-8" );
+
+    private final File directory;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param directory the directory for the cache entries, will be created if it doesn't exist
+     */
+    public ParseCache( File directory )
+    {
+        this.directory = directory;
+    }
+
+    public File getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * @return the number of files which were restored from the cache
+     */
+    public long getHitCount()
+    {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of files which had to be parsed
+     */
+    public long getMissCount()
+    {
+        return misses.get();
+    }
+
+    /**
+     * Replay the recorded parse of a file to the builder
+     *
+     * @param file the java file
+     * @param encoding the encoding used to read the file
+     * @param builder the builder, which shouldn't have received any calls yet
+     * @return <code>true</code> if the file was restored, <code>false</code> if it needs to be parsed, in which case the
+     *         builder hasn't received any calls
+     */
+    boolean replay( File file, String encoding, Builder builder )
+    {
+        List<Call> calls = readEntry( file, encoding );
+        if ( calls == null )
+        {
+            misses.incrementAndGet();
+            return false;
+        }
+        // the entry has been decoded completely, so the builder never receives part of a source
+        for ( Call call : calls )
+        {
+            call.replay( builder );
+        }
+        hits.incrementAndGet();
+        return true;
+    }
+
+    private List<Call> readEntry( File file, String encoding )
+    {
+        File entry = getEntry( file, encoding );
+        if ( entry.isFile() )
+        {
+            try
+            {
+                DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( entry ) ) );
+                try
+                {
+                    if ( in.readInt() == MAGIC && in.readInt() == VERSION && in.readInt() == LAYOUT
+                        && in.readUTF().equals( file.getAbsolutePath() ) && in.readUTF().equals( encoding )
+                        && in.readLong() == file.length() && in.readLong() == file.lastModified() )
+                    {
+                        byte[] records = new byte[in.readInt()];
+                        in.readFully( records );
+                        return new Replay( records ).decode();
+                    }
+                }
+                finally
+                {
+                    in.close();
+                }
+            }
+            catch ( IOException e )
+            {
+                // corrupt or written by another version, parse again
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Start recording the parse of a file. Once the file has been parsed successfully, call
+     * {@link Recorder#store()} to add it to the cache.
+     *
+     * @param file the java file
+     * @param encoding the encoding used to read the file
+     * @param builder the builder which will be used by the parser
+     * @return the builder to pass to the parser
+     */
+    Recorder record( File file, String encoding, Builder builder )
+    {
+        return new Recorder( file, encoding, builder );
+    }
+
+    /**
+     * A field added to one of the recorded classes is only part of an entry once the {@link Recorder} and the
+     * {@link Replay} handle it, which is when the {@link #VERSION} should be bumped as well. The tests compare this
+     * value to the one of the current version.
+     *
+     * @return a hash of the fields of all classes written to an entry
+     */
+    static int getLayout()
+    {
+        return LAYOUT;
+    }
+
+    /**
+     * @return the classes of the element values which can be written to an entry
+     */
+    static List<Class<?>> getValueTypes()
+    {
+        List<Class<?>> result = new ArrayList<Class<?>>( Arrays.asList( VALUE_TYPES ) );
+        result.remove( null );
+        return result;
+    }
+
+    private static int computeLayout()
+    {
+        List<String> fields = new ArrayList<String>();
+        List<Class<?>> types = new ArrayList<Class<?>>( Arrays.asList( DEF_TYPES ) );
+        types.addAll( getValueTypes() );
+        for ( Class<?> type : types )
+        {
+            for ( Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass() )
+            {
+                for ( Field field : c.getDeclaredFields() )
+                {
+                    if ( !Modifier.isStatic( field.getModifiers() ) && !field.isSynthetic() )
+                    {
+                        fields.add( type.getName() + ' ' + c.getName() + '.' + field.getName() + ':'
+                            + field.getType().getName() );
+                    }
+                }
+            }
+        }
+        // the order of the declared fields isn't specified
+        Collections.sort( fields );
+        return fields.toString().hashCode();
+    }
+
+    private File getEntry( File file, String encoding )
+    {
+        try
+        {
+            MessageDigest sha1 = MessageDigest.getInstance( "SHA-1" );
+            sha1.update( file.getAbsolutePath().getBytes( UTF_8 ) );
+            sha1.update( (byte) 0 );
+            byte[] digest = sha1.digest( encoding.getBytes( UTF_8 ) );
+            StringBuilder name = new StringBuilder( digest.length * 2 + 5 );
+            for ( byte b : digest )
+            {
+                name.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) ).append( Character.forDigit( b & 0xF, 16 ) );
+            }
+            return new File( directory, name.append( ".qdpc" ).toString() );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    /**
+     * Decodes the recorded calls
+     */
+    private static final class Replay
+    {
+        private final byte[] records;
+
+        private final List<String> strings = new ArrayList<String>();
+
+        private int position;
+
+        private Replay( byte[] records )
+        {
+            this.records = records;
+        }
+
+        private List<Call> decode()
+            throws IOException
+        {
+            try
+            {
+                List<Call> result = new ArrayList<Call>();
+                Event[] events = Event.values();
+                for ( Event event = events[read()]; event != Event.END; event = events[read()] )
+                {
+                    result.add( new Call( event, decode( event ) ) );
+                }
+                return result;
+            }
+            catch ( IndexOutOfBoundsException e )
+            {
+                // a truncated record, or an index beyond one of the tables
+                throw new IOException( "Corrupt entry", e );
+            }
+            catch ( ClassCastException e )
+            {
+                throw new IOException( "Corrupt entry", e );
+            }
+        }
+
+        // the argument of the call, or null for the calls without argument
+        private Object decode( Event event )
+            throws IOException
+        {
+            switch ( event )
+            {
+                case SET_MODULE:
+                    ModuleDef module = new ModuleDef( readString() );
+                    module.setOpen( read() != 0 );
+                    return readLocation( module );
+                case ADD_EXPORTS:
+                    ModuleDef.ExportsDef exports = new ModuleDef.ExportsDef( readString() );
+                    readStrings( exports.getTargets() );
+                    return readLocation( exports );
+                case ADD_REQUIRES:
+                    String name = readString();
+                    Set<String> modifiers = new ModifierSet();
+                    readStrings( modifiers );
+                    return readLocation( new ModuleDef.RequiresDef( name, modifiers ) );
+                case ADD_OPENS:
+                    ModuleDef.OpensDef opens = new ModuleDef.OpensDef( readString() );
+                    readStrings( opens.getTargets() );
+                    return readLocation( opens );
+                case ADD_PROVIDES:
+                    ModuleDef.ProvidesDef provides = new ModuleDef.ProvidesDef( readType() );
+                    for ( int count = read(); count > 0; count-- )
+                    {
+                        provides.getImplementations().add( readType() );
+                    }
+                    return readLocation( provides );
+                case ADD_USES:
+                    return readLocation( new ModuleDef.UsesDef( readType() ) );
+                case ADD_PACKAGE:
+                    return readLocation( new PackageDef( readString() ) );
+                case ADD_IMPORT:
+                case ADD_JAVADOC:
+                    return readString();
+                case ADD_JAVADOC_TAG:
+                    String tagName = readString();
+                    return readLocation( new TagDef( tagName, readString() ) );
+                case BEGIN_CLASS:
+                    return readClass();
+                case END_RECORD:
+                    RecordFieldsDef recordFields = new RecordFieldsDef();
+                    for ( int count = read(); count > 0; count-- )
+                    {
+                        recordFields.addField( readField() );
+                    }
+                    return recordFields;
+                case ADD_IMPLEMENTS:
+                    Set<TypeDef> implementSet = new LinkedHashSet<TypeDef>();
+                    readTypes( implementSet );
+                    return implementSet;
+                case ADD_INITIALIZER:
+                    String blockContent = readString();
+                    return readLocation( new InitDef( blockContent, read() != 0 ) );
+                case ADD_COMPACT_CONSTRUCTOR:
+                    CompactConstructorDef compactConstructor = new CompactConstructorDef();
+                    compactConstructor.setModifierFlags( read() );
+                    readStrings( compactConstructor.getModifiers() );
+                    compactConstructor.setBody( readString() );
+                    compactConstructor.setBodyStart( readSigned() );
+                    compactConstructor.setBodyEnd( readSigned() );
+                    return readLocation( compactConstructor );
+                case END_CONSTRUCTOR:
+                case END_METHOD:
+                    return readMethod();
+                case BEGIN_FIELD:
+                case ADD_PARAMETER:
+                    return readField();
+                case ADD_ANNOTATION:
+                    return readAnnotation();
+                case ADD_ARGUMENT:
+                    return (ExpressionDef) readValue();
+                case END_CLASS:
+                case BEGIN_CONSTRUCTOR:
+                case BEGIN_METHOD:
+                case END_FIELD:
+                    return null;
+                default:
+                    throw new IOException( "Unexpected event " + event );
+            }
+        }
+
+        private ClassDef readClass()
+        {
+            ClassDef def = new ClassDef( readString() );
+            def.setType( readString() );
+            def.setModifierFlags( read() );
+            readStrings( def.getModifiers() );
+            List<TypeVariableDef> typeVariables = readTypeVariables();
+            if ( typeVariables != null )
+            {
+                def.setTypeParameters( typeVariables );
+            }
+            readTypes( def.getExtends() );
+            readTypes( def.getImplements() );
+            return readLocation( def );
+        }
+
+        private MethodDef readMethod()
+        {
+            MethodDef def = new MethodDef();
+            def.setName( readString() );
+            def.setModifierFlags( read() );
+            readStrings( def.getModifiers() );
+            def.setTypeParams( readTypeVariables() );
+            def.setReturnType( readType() );
+            readTypes( def.getExceptions() );
+            def.setDimensions( read() );
+            def.setConstructor( read() != 0 );
+            def.setBody( readString() );
+            def.setBodyStart( readSigned() );
+            def.setBodyEnd( readSigned() );
+            return readLocation( def );
+        }
+
+        private FieldDef readField()
+        {
+            FieldDef def = new FieldDef( readString() );
+            def.setType( readType() );
+            def.setModifierFlags( read() );
+            readStrings( def.getModifiers() );
+            def.setDimensions( read() );
+            int flags = read();
+            def.setVarArgs( ( flags & 1 ) != 0 );
+            def.setEnumConstant( ( flags & 2 ) != 0 );
+            def.setBody( readString() );
+            return readLocation( def );
+        }
+
+        private List<TypeVariableDef> readTypeVariables()
+        {
+            int count = read();
+            if ( count == 0 )
+            {
+                return null;
+            }
+            List<TypeVariableDef> result = new LinkedList<TypeVariableDef>();
+            for ( count--; count > 0; count-- )
+            {
+                TypeVariableDef typeVariable = new TypeVariableDef( readString() );
+                typeVariable.setBounds( readTypeList() );
+                result.add( typeVariable );
+            }
+            return result;
+        }
+
+        private void readTypes( Set<TypeDef> types )
+        {
+            for ( int count = read(); count > 0; count-- )
+            {
+                types.add( readType() );
+            }
+        }
+
+        private List<TypeDef> readTypeList()
+        {
+            int count = read();
+            if ( count == 0 )
+            {
+                return null;
+            }
+            List<TypeDef> result = new LinkedList<TypeDef>();
+            for ( count--; count > 0; count-- )
+            {
+                result.add( readType() );
+            }
+            return result;
+        }
+
+        private TypeDef readType()
+        {
+            switch ( read() )
+            {
+                case 0:
+                    return null;
+                case WILDCARD:
+                    String wildcardExpressionType = readString();
+                    TypeDef bound = readType();
+                    return bound == null ? new WildcardTypeDef() : new WildcardTypeDef( bound, wildcardExpressionType );
+                default:
+                    TypeDef type = new TypeDef( readString(), read() );
+                    List<TypeDef> arguments = readTypeList();
+                    if ( arguments != null )
+                    {
+                        type.setActualArgumentTypes( arguments );
+                    }
+                    return type;
+            }
+        }
+
+        private AnnoDef readAnnotation()
+        {
+            AnnoDef annotation = new AnnoDef( readType() );
+            for ( int count = read(); count > 0; count-- )
+            {
+                String name = readString();
+                annotation.getArgs().put( name, readValue() );
+            }
+            return readLocation( annotation );
+        }
+
+        private ElemValueDef readValue()
+        {
+            int kind = read();
+            Class<?> type = VALUE_TYPES[kind];
+            if ( type == null )
+            {
+                return null;
+            }
+            else if ( type == ConstantDef.class )
+            {
+                String value = readString();
+                return new ConstantDef( value, CONSTANT_TYPES[read()] );
+            }
+            else if ( type == FieldRefDef.class )
+            {
+                return new FieldRefDef( readString() );
+            }
+            else if ( type == TypeRefDef.class )
+            {
+                return new TypeRefDef( readType() );
+            }
+            else if ( type == AnnoDef.class )
+            {
+                return readAnnotation();
+            }
+            else if ( type == ElemValueListDef.class )
+            {
+                int count = read();
+                List<ElemValueDef> values = new ArrayList<ElemValueDef>( count );
+                for ( ; count > 0; count-- )
+                {
+                    values.add( readValue() );
+                }
+                return new ElemValueListDef( values );
+            }
+            else if ( type == AssignmentDef.class )
+            {
+                ElemValueDef leftHandSide = readValue();
+                String operator = readString();
+                return new AssignmentDef( leftHandSide, operator, readValue() );
+            }
+            else if ( type == CastDef.class )
+            {
+                TypeDef castType = readType();
+                return new CastDef( castType, readValue() );
+            }
+            else if ( type == CreatorDef.class )
+            {
+                CreatorDef creator = new CreatorDef();
+                creator.setCreatedName( readString() );
+                creator.setArguments( readExpressions() );
+                creator.setClassBody( readString() );
+                return creator;
+            }
+            else if ( type == MethodInvocationDef.class )
+            {
+                String methodName = readString();
+                return new MethodInvocationDef( methodName, readExpressions() );
+            }
+            else if ( type == MethodReferenceDef.class )
+            {
+                return new MethodReferenceDef();
+            }
+            else if ( type == LambdaDef.class )
+            {
+                return new LambdaDef();
+            }
+            else if ( type == ParenExpressionDef.class )
+            {
+                return new ParenExpressionDef( readValue() );
+            }
+            else if ( type == QueryDef.class )
+            {
+                ElemValueDef condition = readValue();
+                ElemValueDef trueExpression = readValue();
+                return new QueryDef( condition, trueExpression, readValue() );
+            }
+            else if ( UnaryOperatorDef.class.isAssignableFrom( type ) )
+            {
+                return readUnaryOperator( type, readValue() );
+            }
+            else
+            {
+                ElemValueDef left = readValue();
+                return readBinaryOperator( type, left, readValue() );
+            }
+        }
+
+        private List<ExpressionDef> readExpressions()
+        {
+            int count = read();
+            if ( count == 0 )
+            {
+                return null;
+            }
+            List<ExpressionDef> result = new LinkedList<ExpressionDef>();
+            for ( count--; count > 0; count-- )
+            {
+                result.add( (ExpressionDef) readValue() );
+            }
+            return result;
+        }
+
+        private static ElemValueDef readUnaryOperator( Class<?> type, ElemValueDef value )
+        {
+            if ( type == LogicalNotDef.class )
+            {
+                return new LogicalNotDef( value );
+            }
+            else if ( type == MinusSignDef.class )
+            {
+                return new MinusSignDef( value );
+            }
+            else if ( type == NotDef.class )
+            {
+                return new NotDef( value );
+            }
+            else if ( type == PlusSignDef.class )
+            {
+                return new PlusSignDef( value );
+            }
+            else if ( type == PostDecrementDef.class )
+            {
+                return new PostDecrementDef( value );
+            }
+            else if ( type == PostIncrementDef.class )
+            {
+                return new PostIncrementDef( value );
+            }
+            else if ( type == PreDecrementDef.class )
+            {
+                return new PreDecrementDef( value );
+            }
+            else
+            {
+                return new PreIncrementDef( value );
+            }
+        }
+
+        private static ElemValueDef readBinaryOperator( Class<?> type, ElemValueDef left, ElemValueDef right )
+        {
+            if ( type == AddDef.class )
+            {
+                return new AddDef( left, right );
+            }
+            else if ( type == AndDef.class )
+            {
+                return new AndDef( left, right );
+            }
+            else if ( type == DivideDef.class )
+            {
+                return new DivideDef( left, right );
+            }
+            else if ( type == EqualsDef.class )
+            {
+                return new EqualsDef( left, right );
+            }
+            else if ( type == ExclusiveOrDef.class )
+            {
+                return new ExclusiveOrDef( left, right );
+            }
+            else if ( type == GreaterEqualsDef.class )
+            {
+                return new GreaterEqualsDef( left, right );
+            }
+            else if ( type == GreaterThanDef.class )
+            {
+                return new GreaterThanDef( left, right );
+            }
+            else if ( type == LessEqualsDef.class )
+            {
+                return new LessEqualsDef( left, right );
+            }
+            else if ( type == LessThanDef.class )
+            {
+                return new LessThanDef( left, right );
+            }
+            else if ( type == LogicalAndDef.class )
+            {
+                return new LogicalAndDef( left, right );
+            }
+            else if ( type == LogicalOrDef.class )
+            {
+                return new LogicalOrDef( left, right );
+            }
+            else if ( type == MultiplyDef.class )
+            {
+                return new MultiplyDef( left, right );
+            }
+            else if ( type == NotEqualsDef.class )
+            {
+                return new NotEqualsDef( left, right );
+            }
+            else if ( type == OrDef.class )
+            {
+                return new OrDef( left, right );
+            }
+            else if ( type == RemainderDef.class )
+            {
+                return new RemainderDef( left, right );
+            }
+            else if ( type == ShiftLeftDef.class )
+            {
+                return new ShiftLeftDef( left, right );
+            }
+            else if ( type == ShiftRightDef.class )
+            {
+                return new ShiftRightDef( left, right );
+            }
+            else if ( type == SubtractDef.class )
+            {
+                return new SubtractDef( left, right );
+            }
+            else
+            {
+                return new UnsignedShiftRightDef( left, right );
+            }
+        }
+
+        private <T extends LocatedDef> T readLocation( T def )
+        {
+            def.setLineNumber( readSigned() );
+            def.setColumnNumber( readSigned() );
+            return def;
+        }
+
+        private void readStrings( Collection<String> result )
+        {
+            for ( int count = read(); count > 0; count-- )
+            {
+                result.add( readString() );
+            }
+        }
+
+        // null, a new string or the index of an earlier string
+        private String readString()
+        {
+            int index = read();
+            if ( index == 0 )
+            {
+                return null;
+            }
+            if ( index == 1 )
+            {
+                int length = read();
+                String result = new String( records, position, length, UTF_8 );
+                position += length;
+                strings.add( result );
+                return result;
+            }
+            return strings.get( index - 2 );
+        }
+
+        private int readSigned()
+        {
+            int result = read();
+            return ( result >>> 1 ) ^ -( result & 1 );
+        }
+
+        private int read()
+        {
+            int result = 0;
+            for ( int shift = 0;; shift += 7 )
+            {
+                int b = records[position++];
+                result |= ( b & 0x7F ) << shift;
+                if ( ( b & 0x80 ) == 0 )
+                {
+                    return result;
+                }
+            }
+        }
+    }
+
+    /**
+     * A decoded call to a {@link Builder}
+     */
+    private static final class Call
+    {
+        private final Event event;
+
+        private final Object argument;
+
+        private Call( Event event, Object argument )
+        {
+            this.event = event;
+            this.argument = argument;
+        }
+
+        @SuppressWarnings( "unchecked" )
+        private void replay( Builder builder )
+        {
+            switch ( event )
+            {
+                case SET_MODULE:
+                    builder.setModule( (ModuleDef) argument );
+                    break;
+                case ADD_EXPORTS:
+                    builder.addExports( (ModuleDef.ExportsDef) argument );
+                    break;
+                case ADD_REQUIRES:
+                    builder.addRequires( (ModuleDef.RequiresDef) argument );
+                    break;
+                case ADD_OPENS:
+                    builder.addOpens( (ModuleDef.OpensDef) argument );
+                    break;
+                case ADD_PROVIDES:
+                    builder.addProvides( (ModuleDef.ProvidesDef) argument );
+                    break;
+                case ADD_USES:
+                    builder.addUses( (ModuleDef.UsesDef) argument );
+                    break;
+                case ADD_PACKAGE:
+                    builder.addPackage( (PackageDef) argument );
+                    break;
+                case ADD_IMPORT:
+                    builder.addImport( (String) argument );
+                    break;
+                case ADD_JAVADOC:
+                    builder.addJavaDoc( (String) argument );
+                    break;
+                case ADD_JAVADOC_TAG:
+                    builder.addJavaDocTag( (TagDef) argument );
+                    break;
+                case BEGIN_CLASS:
+                    builder.beginClass( (ClassDef) argument );
+                    break;
+                case END_CLASS:
+                    builder.endClass();
+                    break;
+                case END_RECORD:
+                    builder.endRecord( (RecordFieldsDef) argument );
+                    break;
+                case ADD_IMPLEMENTS:
+                    builder.addImplements( (Set<TypeDef>) argument );
+                    break;
+                case ADD_INITIALIZER:
+                    builder.addInitializer( (InitDef) argument );
+                    break;
+                case BEGIN_CONSTRUCTOR:
+                    builder.beginConstructor();
+                    break;
+                case END_CONSTRUCTOR:
+                    builder.endConstructor( (MethodDef) argument );
+                    break;
+                case ADD_COMPACT_CONSTRUCTOR:
+                    builder.addCompactConstructor( (CompactConstructorDef) argument );
+                    break;
+                case BEGIN_METHOD:
+                    builder.beginMethod();
+                    break;
+                case END_METHOD:
+                    builder.endMethod( (MethodDef) argument );
+                    break;
+                case BEGIN_FIELD:
+                    builder.beginField( (FieldDef) argument );
+                    break;
+                case END_FIELD:
+                    builder.endField();
+                    break;
+                case ADD_PARAMETER:
+                    builder.addParameter( (FieldDef) argument );
+                    break;
+                case ADD_ANNOTATION:
+                    builder.addAnnotation( (AnnoDef) argument );
+                    break;
+                case ADD_ARGUMENT:
+                    builder.addArgument( (ExpressionDef) argument );
+                    break;
+                default:
+                    throw new IllegalStateException( "Unexpected event " + event );
+            }
+        }
+    }
+
+    /**
+     * The calls to a {@link Builder}, in the order of the parser
+     */
+    private enum Event
+    {
+        SET_MODULE, ADD_EXPORTS, ADD_REQUIRES, ADD_OPENS, ADD_PROVIDES, ADD_USES, ADD_PACKAGE, ADD_IMPORT,
+        ADD_JAVADOC, ADD_JAVADOC_TAG, BEGIN_CLASS, END_CLASS, END_RECORD, ADD_IMPLEMENTS, ADD_INITIALIZER,
+        BEGIN_CONSTRUCTOR, END_CONSTRUCTOR, ADD_COMPACT_CONSTRUCTOR, BEGIN_METHOD, END_METHOD, BEGIN_FIELD, END_FIELD,
+        ADD_PARAMETER, ADD_ANNOTATION, ADD_ARGUMENT, END
+    }
+
+    /**
+     * A Builder which records all calls before passing them to the actual Builder.
+     * Arguments are written immediately, because the parser might change them after the call.
+     */
+    class Recorder
+        implements Builder
+    {
+        private final File file;
+
+        private final String encoding;
+
+        private final long length;
+
+        private final long lastModified;
+
+        private final Builder builder;
+
+        private final ByteArrayOutputStream record = new ByteArrayOutputStream( 8192 );
+
+        private final Map<String, Integer> strings = new HashMap<String, Integer>();
+
+        // false once a call couldn't be recorded
+        private boolean complete = true;
+
+        private Recorder( File file, String encoding, Builder builder )
+        {
+            this.file = file;
+            this.encoding = encoding;
+            this.length = file.length();
+            this.lastModified = file.lastModified();
+            this.builder = builder;
+        }
+
+        /**
+         * Write the recorded calls to the cache
+         */
+        void store()
+        {
+            if ( !complete )
+            {
+                return;
+            }
+            try
+            {
+                write( Event.END.ordinal() );
+
+                directory.mkdirs();
+                File entry = getEntry( file, encoding );
+                // write to a temporary file first, so concurrent builds never read a partial entry
+                File tmp = File.createTempFile( entry.getName(), ".tmp", directory );
+                DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( tmp ) ) );
+                try
+                {
+                    out.writeInt( MAGIC );
+                    out.writeInt( VERSION );
+                    out.writeInt( LAYOUT );
+                    out.writeUTF( file.getAbsolutePath() );
+                    out.writeUTF( encoding );
+                    out.writeLong( length );
+                    out.writeLong( lastModified );
+                    out.writeInt( record.size() );
+                    record.writeTo( out );
+                }
+                finally
+                {
+                    out.close();
+                }
+                if ( !tmp.renameTo( entry ) )
+                {
+                    entry.delete();
+                    if ( !tmp.renameTo( entry ) )
+                    {
+                        tmp.delete();
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                // the cache is an optimization, the model is complete anyway
+            }
+        }
+
+        public void setModelWriterFactory( ModelWriterFactory writer )
+        {
+            builder.setModelWriterFactory( writer );
+        }
+
+        public void setUrl( URL url )
+        {
+            builder.setUrl( url );
+        }
+
+        public void setModule( ModuleDef moduleDef )
+        {
+            write( Event.SET_MODULE.ordinal() );
+            writeString( moduleDef.getName() );
+            write( moduleDef.isOpen() ? 1 : 0 );
+            writeLocation( moduleDef );
+            builder.setModule( moduleDef );
+        }
+
+        public void addExports( ModuleDef.ExportsDef exports )
+        {
+            write( Event.ADD_EXPORTS.ordinal() );
+            writeString( exports.getSource() );
+            writeStrings( exports.getTargets() );
+            writeLocation( exports );
+            builder.addExports( exports );
+        }
+
+        public void addRequires( ModuleDef.RequiresDef requires )
+        {
+            write( Event.ADD_REQUIRES.ordinal() );
+            writeString( requires.getName() );
+            writeStrings( requires.getModifiers() );
+            writeLocation( requires );
+            builder.addRequires( requires );
+        }
+
+        public void addOpens( ModuleDef.OpensDef opens )
+        {
+            write( Event.ADD_OPENS.ordinal() );
+            writeString( opens.getSource() );
+            writeStrings( opens.getTargets() );
+            writeLocation( opens );
+            builder.addOpens( opens );
+        }
+
+        public void addProvides( ModuleDef.ProvidesDef provides )
+        {
+            write( Event.ADD_PROVIDES.ordinal() );
+            writeType( provides.getService() );
+            write( provides.getImplementations().size() );
+            for ( TypeDef implementation : provides.getImplementations() )
+            {
+                writeType( implementation );
+            }
+            writeLocation( provides );
+            builder.addProvides( provides );
+        }
+
+        public void addUses( ModuleDef.UsesDef uses )
+        {
+            write( Event.ADD_USES.ordinal() );
+            writeType( uses.getService() );
+            writeLocation( uses );
+            builder.addUses( uses );
+        }
+
+        public void addPackage( PackageDef packageDef )
+        {
+            write( Event.ADD_PACKAGE.ordinal() );
+            writeString( packageDef.getName() );
+            writeLocation( packageDef );
+            builder.addPackage( packageDef );
+        }
+
+        public void addImport( String importName )
+        {
+            write( Event.ADD_IMPORT.ordinal() );
+            writeString( importName );
+            builder.addImport( importName );
+        }
+
+        public void addJavaDoc( String text )
+        {
+            write( Event.ADD_JAVADOC.ordinal() );
+            writeString( text );
+            builder.addJavaDoc( text );
+        }
+
+        public void addJavaDocTag( TagDef def )
+        {
+            write( Event.ADD_JAVADOC_TAG.ordinal() );
+            writeString( def.getName() );
+            writeString( def.getText() );
+            writeLocation( def );
+            builder.addJavaDocTag( def );
+        }
+
+        public void beginClass( ClassDef def )
+        {
+            write( Event.BEGIN_CLASS.ordinal() );
+            writeString( def.getName() );
+            writeString( def.getType() );
+            writeModifiers( def.getModifiers() );
+            writeTypeVariables( def.getTypeParameters() );
+            writeTypes( def.getExtends() );
+            writeTypes( def.getImplements() );
+            writeLocation( def );
+            builder.beginClass( def );
+        }
+
+        public void endClass()
+        {
+            write( Event.END_CLASS.ordinal() );
+            builder.endClass();
+        }
+
+        public void endRecord( RecordFieldsDef def )
+        {
+            write( Event.END_RECORD.ordinal() );
+            write( def.getFields().size() );
+            for ( FieldDef field : def.getFields() )
+            {
+                writeField( field );
+            }
+            builder.endRecord( def );
+        }
+
+        public void addImplements( Set<TypeDef> implementSet )
+        {
+            write( Event.ADD_IMPLEMENTS.ordinal() );
+            writeTypes( implementSet );
+            builder.addImplements( implementSet );
+        }
+
+        public void addInitializer( InitDef def )
+        {
+            write( Event.ADD_INITIALIZER.ordinal() );
+            writeString( def.getBlockContent() );
+            write( def.isStatic() ? 1 : 0 );
+            writeLocation( def );
+            builder.addInitializer( def );
+        }
+
+        public void beginConstructor()
+        {
+            write( Event.BEGIN_CONSTRUCTOR.ordinal() );
+            builder.beginConstructor();
+        }
+
+        public void endConstructor( MethodDef def )
+        {
+            write( Event.END_CONSTRUCTOR.ordinal() );
+            writeMethod( def );
+            builder.endConstructor( def );
+        }
+
+        public void addCompactConstructor( CompactConstructorDef def )
+        {
+            write( Event.ADD_COMPACT_CONSTRUCTOR.ordinal() );
+            writeModifiers( def.getModifiers() );
+            writeString( def.getBody() );
+            writeSigned( def.getBodyStart() );
+            writeSigned( def.getBodyEnd() );
+            writeLocation( def );
+            builder.addCompactConstructor( def );
+        }
+
+        public void beginMethod()
+        {
+            write( Event.BEGIN_METHOD.ordinal() );
+            builder.beginMethod();
+        }
+
+        public void endMethod( MethodDef def )
+        {
+            write( Event.END_METHOD.ordinal() );
+            writeMethod( def );
+            builder.endMethod( def );
+        }
+
+        public void beginField( FieldDef def )
+        {
+            write( Event.BEGIN_FIELD.ordinal() );
+            writeField( def );
+            builder.beginField( def );
+        }
+
+        public void endField()
+        {
+            write( Event.END_FIELD.ordinal() );
+            builder.endField();
+        }
+
+        public void addParameter( FieldDef def )
+        {
+            write( Event.ADD_PARAMETER.ordinal() );
+            writeField( def );
+            builder.addParameter( def );
+        }
+
+        public void addAnnotation( AnnoDef annotation )
+        {
+            write( Event.ADD_ANNOTATION.ordinal() );
+            writeAnnotation( annotation );
+            builder.addAnnotation( annotation );
+        }
+
+        public void addArgument( ExpressionDef argument )
+        {
+            write( Event.ADD_ARGUMENT.ordinal() );
+            writeValue( argument );
+            builder.addArgument( argument );
+        }
+
+        public JavaSource getSource()
+        {
+            return builder.getSource();
+        }
+
+        public JavaModule getModuleInfo()
+        {
+            return builder.getModuleInfo();
+        }
+
+        private void writeMethod( MethodDef def )
+        {
+            writeString( def.getName() );
+            writeModifiers( def.getModifiers() );
+            writeTypeVariables( def.getTypeParams() );
+            writeType( def.getReturnType() );
+            writeTypes( def.getExceptions() );
+            write( def.getDimensions() );
+            write( def.isConstructor() ? 1 : 0 );
+            writeString( def.getBody() );
+            writeSigned( def.getBodyStart() );
+            writeSigned( def.getBodyEnd() );
+            writeLocation( def );
+        }
+
+        private void writeField( FieldDef def )
+        {
+            writeString( def.getName() );
+            writeType( def.getType() );
+            writeModifiers( def.getModifiers() );
+            write( def.getDimensions() );
+            write( ( def.isVarArgs() ? 1 : 0 ) | ( def.isEnumConstant() ? 2 : 0 ) );
+            writeString( def.getBody() );
+            writeLocation( def );
+        }
+
+        // the bits, followed by the names which aren't modifiers
+        private void writeModifiers( Set<String> modifiers )
+        {
+            ModifierSet modifierSet = (ModifierSet) modifiers;
+            write( modifierSet.getFlags() );
+            writeStrings( modifierSet.getOtherNames() );
+        }
+
+        private void writeTypeVariables( List<TypeVariableDef> typeVariables )
+        {
+            // 0 for null
+            write( typeVariables == null ? 0 : typeVariables.size() + 1 );
+            if ( typeVariables != null )
+            {
+                for ( TypeVariableDef typeVariable : typeVariables )
+                {
+                    writeString( typeVariable.getName() );
+                    writeTypeList( typeVariable.getBounds() );
+                }
+            }
+        }
+
+        private void writeTypes( Set<TypeDef> types )
+        {
+            write( types.size() );
+            for ( TypeDef type : types )
+            {
+                writeType( type );
+            }
+        }
+
+        private void writeTypeList( List<TypeDef> types )
+        {
+            // 0 for null
+            write( types == null ? 0 : types.size() + 1 );
+            if ( types != null )
+            {
+                for ( TypeDef type : types )
+                {
+                    writeType( type );
+                }
+            }
+        }
+
+        private void writeType( TypeDef type )
+        {
+            if ( type == null )
+            {
+                write( 0 );
+            }
+            else if ( type instanceof WildcardTypeDef )
+            {
+                WildcardTypeDef wildcard = (WildcardTypeDef) type;
+                write( WILDCARD );
+                writeString( wildcard.getWildcardExpressionType() );
+                writeType( wildcard.getTypeDef() );
+            }
+            else
+            {
+                write( TYPE );
+                writeString( type.getName() );
+                write( type.getDimensions() );
+                writeTypeList( type.getActualArgumentTypes() );
+            }
+        }
+
+        private void writeAnnotation( AnnoDef annotation )
+        {
+            writeType( annotation.getTypeDef() );
+            write( annotation.getArgs().size() );
+            for ( Map.Entry<String, ElemValueDef> arg : annotation.getArgs().entrySet() )
+            {
+                writeString( arg.getKey() );
+                writeValue( arg.getValue() );
+            }
+            writeLocation( annotation );
+        }
+
+        private void writeValue( ElemValueDef value )
+        {
+            int kind = 0;
+            if ( value != null )
+            {
+                kind = 1;
+                while ( kind < VALUE_TYPES.length && VALUE_TYPES[kind] != value.getClass() )
+                {
+                    kind++;
+                }
+                if ( kind == VALUE_TYPES.length )
+                {
+                    // an unknown subclass, parse the file again next time
+                    complete = false;
+                    kind = 0;
+                }
+            }
+            write( kind );
+            if ( value instanceof ConstantDef )
+            {
+                ConstantDef constant = (ConstantDef) value;
+                writeString( constant.getValue() );
+                int type = 0;
+                while ( CONSTANT_TYPES[type] != constant.getType() )
+                {
+                    type++;
+                }
+                write( type );
+            }
+            else if ( value instanceof FieldRefDef )
+            {
+                writeString( ( (FieldRefDef) value ).getName() );
+            }
+            else if ( value instanceof TypeRefDef )
+            {
+                writeType( ( (TypeRefDef) value ).getTypeDef() );
+            }
+            else if ( value instanceof AnnoDef )
+            {
+                writeAnnotation( (AnnoDef) value );
+            }
+            else if ( value instanceof ElemValueListDef )
+            {
+                List<ElemValueDef> values = ( (ElemValueListDef) value ).getValueList();
+                write( values.size() );
+                for ( ElemValueDef element : values )
+                {
+                    writeValue( element );
+                }
+            }
+            else if ( value instanceof AssignmentDef )
+            {
+                AssignmentDef assignment = (AssignmentDef) value;
+                writeValue( assignment.getLetfHandSide() );
+                writeString( assignment.getOperator() );
+                writeValue( assignment.getAssignmentExpression() );
+            }
+            else if ( value instanceof CastDef )
+            {
+                writeType( ( (CastDef) value ).getTypeDef() );
+                writeValue( ( (CastDef) value ).getElemDef() );
+            }
+            else if ( value instanceof CreatorDef )
+            {
+                CreatorDef creator = (CreatorDef) value;
+                if ( creator.getTypeArguments() != null )
+                {
+                    // not set by the parser, and of an unknown type
+                    complete = false;
+                }
+                writeString( creator.getCreatedName() );
+                writeExpressions( creator.getArguments() );
+                writeString( creator.getClassBody() );
+            }
+            else if ( value instanceof MethodInvocationDef )
+            {
+                writeString( ( (MethodInvocationDef) value ).getMethodName() );
+                writeExpressions( ( (MethodInvocationDef) value ).getArguments() );
+            }
+            else if ( value instanceof ParenExpressionDef )
+            {
+                writeValue( ( (ParenExpressionDef) value ).getElemValueDef() );
+            }
+            else if ( value instanceof QueryDef )
+            {
+                QueryDef query = (QueryDef) value;
+                writeValue( query.getCondition() );
+                writeValue( query.getTrueExpression() );
+                writeValue( query.getFalseExpression() );
+            }
+            else if ( value instanceof UnaryOperatorDef )
+            {
+                writeValue( ( (UnaryOperatorDef) value ).getElemValueDef() );
+            }
+            else if ( value instanceof BinaryOperatorDef )
+            {
+                writeValue( ( (BinaryOperatorDef) value ).getLeft() );
+                writeValue( ( (BinaryOperatorDef) value ).getRight() );
+            }
+        }
+
+        private void writeExpressions( List<ExpressionDef> expressions )
+        {
+            // 0 for null
+            write( expressions == null ? 0 : expressions.size() + 1 );
+            if ( expressions != null )
+            {
+                for ( ExpressionDef expression : expressions )
+                {
+                    writeValue( expression );
+                }
+            }
+        }
+
+        private void writeLocation( LocatedDef def )
+        {
+            writeSigned( def.getLineNumber() );
+            writeSigned( def.getColumnNumber() );
+        }
+
+        private void writeStrings( Collection<String> values )
+        {
+            write( values.size() );
+            for ( String value : values )
+            {
+                writeString( value );
+            }
+        }
+
+        // 0 for null, 1 followed by a new string, otherwise the index of an earlier string plus 2
+        private void writeString( String string )
+        {
+            if ( string == null )
+            {
+                write( 0 );
+                return;
+            }
+            Integer index = strings.get( string );
+            if ( index != null )
+            {
+                write( index + 2 );
+                return;
+            }
+            strings.put( string, strings.size() );
+            byte[] bytes = string.getBytes( UTF_8 );
+            write( 1 );
+            write( bytes.length );
+            record.write( bytes, 0, bytes.length );
+        }
+
+        // a zigzag varint, so -1 takes a single byte
+        private void writeSigned( int value )
+        {
+            write( ( value << 1 ) ^ ( value >> 31 ) );
+        }
+
+        // an unsigned varint
+        private void write( int value )
+        {
+            while ( ( value & ~0x7F ) != 0 )
+            {
+                record.write( ( value & 0x7F ) | 0x80 );
+                value >>>= 7;
+            }
+            record.write( value );
+        }
+    }
+}
@@ -0,0 +1,1169 @@
+package com.thoughtworks.qdox.library;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.ProviderNotFoundException;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import com.thoughtworks.qdox.builder.Builder;
+import com.thoughtworks.qdox.model.JavaModule;
+import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.parser.expression.ConstantDef;
+import com.thoughtworks.qdox.parser.expression.ElemValueDef;
+import com.thoughtworks.qdox.parser.expression.ElemValueListDef;
+import com.thoughtworks.qdox.parser.expression.ExpressionDef;
+import com.thoughtworks.qdox.parser.expression.FieldRefDef;
+import com.thoughtworks.qdox.parser.expression.TypeRefDef;
+import com.thoughtworks.qdox.parser.impl.ClassFileParser;
+import com.thoughtworks.qdox.parser.structs.AnnoDef;
+import com.thoughtworks.qdox.parser.structs.ClassDef;
+import com.thoughtworks.qdox.parser.structs.CompactConstructorDef;
+import com.thoughtworks.qdox.parser.structs.FieldDef;
+import com.thoughtworks.qdox.parser.structs.InitDef;
+import com.thoughtworks.qdox.parser.structs.MethodDef;
+import com.thoughtworks.qdox.parser.structs.ModuleDef;
+import com.thoughtworks.qdox.parser.structs.PackageDef;
+import com.thoughtworks.qdox.parser.structs.RecordFieldsDef;
+import com.thoughtworks.qdox.parser.structs.TagDef;
+import com.thoughtworks.qdox.parser.structs.TypeDef;
+import com.thoughtworks.qdox.parser.structs.TypeVariableDef;
+import com.thoughtworks.qdox.parser.structs.WildcardTypeDef;
+import com.thoughtworks.qdox.writer.ModelWriterFactory;
+
+/**
+ * The classes of the running JDK, read once from their class files and stored compactly, so a {@link PlatformLibrary}
+ * can build the model of a JDK class without reading its class file or loading the class.
+ * <p>
+ * For every top-level class the index keeps what the {@link ClassFileParser} passed to its builder, with all names as
+ * references to one string table and all numbers as varints. An index never changes, so one instance is shared by all
+ * libraries of the JVM. With a cache file it's built only once: the next runs read the file, until the JDK changes.
+ * </p>
+ *
+ * @since 2.2
+ */
+public final class PlatformIndex
+{
+    private static final int MAGIC = 0x51445849; // QDXI
+
+    private static final int VERSION = 3;
+
+    private static final Charset UTF_8 = Charset.forName( "UTF-8" );
+
+    private static final Class<?>[] CONSTANT_TYPES =
+        { Integer.class, Long.class, Float.class, Double.class, Boolean.class, Character.class, String.class };
+
+    private static final Map<String, PlatformIndex> INSTANCES = new HashMap<String, PlatformIndex>();
+
+    // the builder events of a record
+    private static final int END = 0;
+
+    private static final int PACKAGE = 1;
+
+    private static final int ANNOTATION = 2;
+
+    private static final int BEGIN_CLASS = 3;
+
+    private static final int END_CLASS = 4;
+
+    private static final int BEGIN_METHOD = 5;
+
+    private static final int END_METHOD = 6;
+
+    private static final int BEGIN_CONSTRUCTOR = 7;
+
+    private static final int END_CONSTRUCTOR = 8;
+
+    private static final int PARAMETER = 9;
+
+    private static final int BEGIN_FIELD = 10;
+
+    private static final int END_FIELD = 11;
+
+    private static final int IMPLEMENTS = 12;
+
+    private static final int RECORD_COMPONENTS = 13;
+
+    private static final int COMPACT_CONSTRUCTOR = 14;
+
+    private static final int INITIALIZER = 15;
+
+    // the kinds of element values and types
+    private static final int CONSTANT = 1;
+
+    private static final int FIELD_REF = 2;
+
+    private static final int TYPE_REF = 3;
+
+    private static final int NESTED_ANNOTATION = 4;
+
+    private static final int VALUE_LIST = 5;
+
+    private static final int TYPE = 1;
+
+    private static final int WILDCARD = 2;
+
+    private final String platform;
+
+    private final String[] strings;
+
+    private final byte[] records;
+
+    private final int[] offsets;
+
+    // the binary names of all top-level and member classes, mapped to the record of their top-level class
+    private final Map<String, Integer> classes;
+
+    private final Set<String> packages = new HashSet<String>();
+
+    private PlatformIndex( String platform, String[] strings, byte[] records, int[] offsets,
+                           Map<String, Integer> classes )
+    {
+        this.platform = platform;
+        this.strings = strings;
+        this.records = records;
+        this.offsets = offsets;
+        this.classes = classes;
+        for ( String className : classes.keySet() )
+        {
+            int packageEnd = className.lastIndexOf( '.' );
+            packages.add( packageEnd < 0 ? "" : className.substring( 0, packageEnd ) );
+        }
+    }
+
+    /**
+     * Get the index of the running JDK, which is built the first time it's requested in this JVM
+     *
+     * @return the shared index, never <code>null</code>
+     * @throws IOException if the classes of the JDK can't be read
+     */
+    public static PlatformIndex getInstance()
+        throws IOException
+    {
+        return getInstance( null );
+    }
+
+    /**
+     * Get the index of the running JDK. The first request in this JVM reads the cache file if it has been written for
+     * the same JDK, otherwise the index is built and written to the cache file.
+     *
+     * @param cacheFile the file of the index, might be <code>null</code> or not exist yet
+     * @return the shared index, never <code>null</code>
+     * @throws IOException if the classes of the JDK can't be read
+     */
+    public static PlatformIndex getInstance( File cacheFile )
+        throws IOException
+    {
+        String key = ( cacheFile == null ? "" : cacheFile.getAbsolutePath() );
+        synchronized ( INSTANCES )
+        {
+            PlatformIndex result = INSTANCES.get( key );
+            if ( result == null )
+            {
+                String platform = currentPlatform();
+                if ( cacheFile != null && cacheFile.isFile() )
+                {
+                    result = load( cacheFile, platform );
+                }
+                if ( result == null )
+                {
+                    result = build( platform );
+                    if ( cacheFile != null )
+                    {
+                        result.store( cacheFile );
+                    }
+                }
+                INSTANCES.put( key, result );
+            }
+            return result;
+        }
+    }
+
+    /**
+     * @param className the binary name of a class, i.e. with a <code>$</code> before the name of a nested class
+     * @return <code>true</code> if the class is part of this index, otherwise <code>false</code>
+     */
+    public boolean contains( String className )
+    {
+        return classes.containsKey( className );
+    }
+
+    /**
+     * @param packageName the name of a package
+     * @return <code>true</code> if a class of this index is part of the package, otherwise <code>false</code>
+     */
+    public boolean containsPackage( String packageName )
+    {
+        return packages.contains( packageName );
+    }
+
+    /**
+     * @return the number of classes of this index, including the nested classes
+     */
+    public int size()
+    {
+        return classes.size();
+    }
+
+    /**
+     * @return the JDK of this index, i.e. its <code>java.home</code> and version
+     */
+    public String getPlatform()
+    {
+        return platform;
+    }
+
+    /**
+     * Build the top-level class of a class, just like a {@link ClassFileParser} would have done
+     *
+     * @param className the binary name of a class
+     * @param builder the builder
+     * @return <code>true</code> if the class has been built, <code>false</code> if it's not part of this index
+     */
+    public boolean build( String className, Builder builder )
+    {
+        Integer record = classes.get( className );
+        if ( record == null )
+        {
+            return false;
+        }
+        new Replay( offsets[record] ).replay( builder );
+        return true;
+    }
+
+    // the JDK the classes were read from, changes with every update of the JDK
+    private static String currentPlatform()
+    {
+        StringBuilder result = new StringBuilder( System.getProperty( "java.home" ) );
+        result.append( '|' ).append( System.getProperty( "java.vm.version" ) );
+        File modules = new File( System.getProperty( "java.home" ), "lib" + File.separator + "modules" );
+        if ( modules.isFile() )
+        {
+            result.append( '|' ).append( modules.length() ).append( '|' ).append( modules.lastModified() );
+        }
+        return result.toString();
+    }
+
+    private static PlatformIndex build( String platform )
+        throws IOException
+    {
+        final Map<String, Path> classFiles = new HashMap<String, Path>();
+        List<String> classNames = new ArrayList<String>();
+        ClassLoader classLoader;
+        File modules = new File( System.getProperty( "java.home" ), "lib" + File.separator + "modules" );
+        if ( modules.isFile() )
+        {
+            readPlatform( classFiles );
+            for ( String path : classFiles.keySet() )
+            {
+                String className = ClassPathIndex.toClassName( path );
+                // member classes are part of the record of their top-level class
+                if ( className != null && className.indexOf( '$' ) < 0 )
+                {
+                    classNames.add( className );
+                }
+            }
+            classLoader = new ClassLoader( null )
+            {
+                @Override
+                public InputStream getResourceAsStream( String name )
+                {
+                    Path classFile = classFiles.get( name );
+                    try
+                    {
+                        return classFile == null ? null : Files.newInputStream( classFile );
+                    }
+                    catch ( IOException e )
+                    {
+                        return null;
+                    }
+                }
+            };
+        }
+        else
+        {
+            List<URL> urls = new ArrayList<URL>();
+            String bootClassPath = System.getProperty( "sun.boot.class.path", "" );
+            for ( String entry : bootClassPath.split( File.pathSeparator ) )
+            {
+                File file = new File( entry );
+                if ( file.isFile() )
+                {
+                    urls.add( file.toURI().toURL() );
+                    readJar( file, classNames );
+                }
+            }
+            classLoader = new URLClassLoader( urls.toArray( new URL[urls.size()] ), null );
+        }
+
+        Recorder recorder = new Recorder();
+        for ( String className : classNames )
+        {
+            recorder.beginIndexRecord();
+            if ( !new ClassFileParser( classLoader, className, recorder ).parse() )
+            {
+                recorder.discardIndexRecord();
+            }
+            else
+            {
+                recorder.endIndexRecord();
+            }
+        }
+        return recorder.toIndex( platform );
+    }
+
+    private static void readPlatform( final Map<String, Path> classFiles )
+        throws IOException
+    {
+        FileSystem jrt;
+        try
+        {
+            jrt = FileSystems.getFileSystem( URI.create( "jrt:/" ) );
+        }
+        catch ( FileSystemNotFoundException e )
+        {
+            throw new IOException( "No jrt filesystem", e );
+        }
+        catch ( ProviderNotFoundException e )
+        {
+            throw new IOException( "No jrt filesystem", e );
+        }
+        Files.walkFileTree( jrt.getPath( "/modules" ), new SimpleFileVisitor<Path>()
+        {
+            @Override
+            public FileVisitResult visitFile( Path file, BasicFileAttributes attrs )
+            {
+                // /modules/<module>/<package path>/<class>.class
+                if ( file.getNameCount() > 2 )
+                {
+                    classFiles.put( file.subpath( 2, file.getNameCount() ).toString(), file );
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        } );
+    }
+
+    private static void readJar( File file, List<String> classNames )
+        throws IOException
+    {
+        ZipFile zipFile = new ZipFile( file );
+        try
+        {
+            for ( Enumeration<? extends ZipEntry> zipEntries = zipFile.entries(); zipEntries.hasMoreElements(); )
+            {
+                String className = ClassPathIndex.toClassName( zipEntries.nextElement().getName() );
+                if ( className != null && className.indexOf( '$' ) < 0 )
+                {
+                    classNames.add( className );
+                }
+            }
+        }
+        finally
+        {
+            zipFile.close();
+        }
+    }
+
+    private static PlatformIndex load( File file, String platform )
+    {
+        try
+        {
+            DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( file ), 65536 ) );
+            try
+            {
+                if ( in.readInt() != MAGIC || in.readInt() != VERSION || !platform.equals( in.readUTF() ) )
+                {
+                    return null;
+                }
+                String[] strings = new String[in.readInt()];
+                byte[] buffer = new byte[256];
+                for ( int i = 0; i < strings.length; i++ )
+                {
+                    int length = in.readInt();
+                    if ( buffer.length < length )
+                    {
+                        buffer = new byte[length];
+                    }
+                    in.readFully( buffer, 0, length );
+                    strings[i] = new String( buffer, 0, length, UTF_8 );
+                }
+                int[] offsets = new int[in.readInt()];
+                for ( int i = 0; i < offsets.length; i++ )
+                {
+                    offsets[i] = in.readInt();
+                }
+                int classCount = in.readInt();
+                Map<String, Integer> classes = new HashMap<String, Integer>( classCount * 4 / 3 + 1 );
+                for ( int i = 0; i < classCount; i++ )
+                {
+                    String className = strings[in.readInt()];
+                    classes.put( className, in.readInt() );
+                }
+                byte[] records = new byte[in.readInt()];
+                in.readFully( records );
+                return new PlatformIndex( platform, strings, records, offsets, classes );
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+        catch ( IOException e )
+        {
+            // corrupt, build again
+            return null;
+        }
+        catch ( RuntimeException e )
+        {
+            // corrupt, build again
+            return null;
+        }
+    }
+
+    private void store( File file )
+        throws IOException
+    {
+        Map<String, Integer> stringIndexes = new HashMap<String, Integer>( strings.length * 4 / 3 + 1 );
+        for ( int i = 0; i < strings.length; i++ )
+        {
+            stringIndexes.put( strings[i], i );
+        }
+        File directory = file.getAbsoluteFile().getParentFile();
+        directory.mkdirs();
+        // write to a temporary file first, so concurrent builds never read a partial index
+        File tmp = File.createTempFile( file.getName(), ".tmp", directory );
+        DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( tmp ), 65536 ) );
+        try
+        {
+            out.writeInt( MAGIC );
+            out.writeInt( VERSION );
+            out.writeUTF( platform );
+            out.writeInt( strings.length );
+            for ( String string : strings )
+            {
+                byte[] bytes = string.getBytes( UTF_8 );
+                out.writeInt( bytes.length );
+                out.write( bytes );
+            }
+            out.writeInt( offsets.length );
+            for ( int offset : offsets )
+            {
+                out.writeInt( offset );
+            }
+            out.writeInt( classes.size() );
+            for ( Map.Entry<String, Integer> entry : classes.entrySet() )
+            {
+                out.writeInt( stringIndexes.get( entry.getKey() ) );
+                out.writeInt( entry.getValue() );
+            }
+            out.writeInt( records.length );
+            out.write( records );
+        }
+        finally
+        {
+            out.close();
+        }
+        if ( !tmp.renameTo( file ) )
+        {
+            file.delete();
+            if ( !tmp.renameTo( file ) )
+            {
+                tmp.delete();
+                throw new IOException( "Couldn't write " + file );
+            }
+        }
+    }
+
+    /**
+     * Records the events of the class file parser, one record per top-level class. The events which don't end up in
+     * the model of a class, like the javadoc and the imports, are ignored.
+     */
+    static final class Recorder
+        implements Builder
+    {
+        private final Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
+
+        private final ByteArrayOutputStream records = new ByteArrayOutputStream( 1 << 20 );
+
+        private final List<Integer> offsets = new ArrayList<Integer>();
+
+        private final Map<String, Integer> classes = new HashMap<String, Integer>();
+
+        private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+
+        private final List<String> recordClasses = new ArrayList<String>();
+
+        private final LinkedList<String> classStack = new LinkedList<String>();
+
+        private String packagePrefix = "";
+
+        void beginIndexRecord()
+        {
+            record.reset();
+            recordClasses.clear();
+            classStack.clear();
+            packagePrefix = "";
+        }
+
+        void discardIndexRecord()
+        {
+            record.reset();
+        }
+
+        void endIndexRecord()
+        {
+            record.write( END );
+            Integer index = offsets.size();
+            offsets.add( records.size() );
+            byte[] bytes = record.toByteArray();
+            records.write( bytes, 0, bytes.length );
+            for ( String className : recordClasses )
+            {
+                classes.put( className, index );
+            }
+        }
+
+        PlatformIndex toIndex( String platform )
+        {
+            int[] offsetArray = new int[offsets.size()];
+            for ( int i = 0; i < offsetArray.length; i++ )
+            {
+                offsetArray[i] = offsets.get( i );
+            }
+            return new PlatformIndex( platform, strings.keySet().toArray( new String[strings.size()] ),
+                                      records.toByteArray(), offsetArray, classes );
+        }
+
+        public void addPackage( PackageDef packageDef )
+        {
+            write( PACKAGE );
+            writeString( packageDef.getName() );
+            packagePrefix = packageDef.getName() + '.';
+        }
+
+        public void addAnnotation( AnnoDef annotation )
+        {
+            write( ANNOTATION );
+            writeAnnotation( annotation );
+        }
+
+        public void beginClass( ClassDef def )
+        {
+            write( BEGIN_CLASS );
+            writeString( def.getName() );
+            writeString( def.getType() );
+            write( def.getModifierFlags() );
+            writeTypeVariables( def.getTypeParameters() );
+            writeTypes( def.getExtends() );
+            writeTypes( def.getImplements() );
+
+            String className = ( classStack.isEmpty() ? packagePrefix : classStack.getLast() + '$' ) + def.getName();
+            classStack.add( className );
+            recordClasses.add( className );
+            // keep the binary names in the string table, so the index can be stored
+            stringIndex( className );
+        }
+
+        public void endClass()
+        {
+            write( END_CLASS );
+            classStack.removeLast();
+        }
+
+        public void beginMethod()
+        {
+            write( BEGIN_METHOD );
+        }
+
+        public void endMethod( MethodDef def )
+        {
+            write( END_METHOD );
+            writeMethod( def );
+        }
+
+        public void beginConstructor()
+        {
+            write( BEGIN_CONSTRUCTOR );
+        }
+
+        public void endConstructor( MethodDef def )
+        {
+            write( END_CONSTRUCTOR );
+            writeMethod( def );
+        }
+
+        public void addParameter( FieldDef def )
+        {
+            write( PARAMETER );
+            writeField( def );
+        }
+
+        public void beginField( FieldDef def )
+        {
+            write( BEGIN_FIELD );
+            writeField( def );
+        }
+
+        public void endField()
+        {
+            write( END_FIELD );
+        }
+
+        public void setModelWriterFactory( ModelWriterFactory writer )
+        {
+        }
+
+        public void setUrl( URL url )
+        {
+        }
+
+        public void endRecord( RecordFieldsDef def )
+        {
+            write( RECORD_COMPONENTS );
+            write( def.getFields().size() );
+            for ( FieldDef field : def.getFields() )
+            {
+                writeField( field );
+            }
+        }
+
+        public void addImplements( Set<TypeDef> implementSet )
+        {
+            write( IMPLEMENTS );
+            writeTypes( implementSet );
+        }
+
+        public void addInitializer( InitDef def )
+        {
+            write( INITIALIZER );
+            write( def.isStatic() ? 1 : 0 );
+            writeNullableString( def.getBlockContent() );
+        }
+
+        public void addCompactConstructor( CompactConstructorDef def )
+        {
+            write( COMPACT_CONSTRUCTOR );
+            write( def.getModifierFlags() );
+        }
+
+        // the index only keeps the classes, not the module descriptors
+
+        public void setModule( ModuleDef moduleDef )
+        {
+        }
+
+        public void addExports( ModuleDef.ExportsDef exports )
+        {
+        }
+
+        public void addRequires( ModuleDef.RequiresDef requires )
+        {
+        }
+
+        public void addOpens( ModuleDef.OpensDef opens )
+        {
+        }
+
+        public void addProvides( ModuleDef.ProvidesDef provides )
+        {
+        }
+
+        public void addUses( ModuleDef.UsesDef uses )
+        {
+        }
+
+        // the names of a class file are already fully qualified, and it has neither javadoc nor arguments of enum
+        // constants
+
+        public void addImport( String importName )
+        {
+        }
+
+        public void addJavaDoc( String text )
+        {
+        }
+
+        public void addJavaDocTag( TagDef def )
+        {
+        }
+
+        public void addArgument( ExpressionDef argument )
+        {
+        }
+
+        /**
+         * @return <code>null</code>, the events are recorded instead of building a source
+         */
+        public JavaSource getSource()
+        {
+            return null;
+        }
+
+        /**
+         * @return <code>null</code>, module descriptors aren't recorded
+         */
+        public JavaModule getModuleInfo()
+        {
+            return null;
+        }
+
+        private void writeMethod( MethodDef def )
+        {
+            writeString( def.getName() );
+            write( def.getModifierFlags() );
+            writeTypeVariables( def.getTypeParams() );
+            writeType( def.getReturnType() );
+            writeTypes( def.getExceptions() );
+            write( def.getDimensions() );
+            write( def.isConstructor() ? 1 : 0 );
+        }
+
+        private void writeField( FieldDef def )
+        {
+            writeString( def.getName() );
+            writeType( def.getType() );
+            write( def.getModifierFlags() );
+            write( def.getDimensions() );
+            write( ( def.isVarArgs() ? 1 : 0 ) | ( def.isEnumConstant() ? 2 : 0 ) );
+        }
+
+        private void writeTypeVariables( List<TypeVariableDef> typeVariables )
+        {
+            // 0 for null
+            write( typeVariables == null ? 0 : typeVariables.size() + 1 );
+            if ( typeVariables != null )
+            {
+                for ( TypeVariableDef typeVariable : typeVariables )
+                {
+                    writeString( typeVariable.getName() );
+                    writeTypeList( typeVariable.getBounds() );
+                }
+            }
+        }
+
+        private void writeTypes( Set<TypeDef> types )
+        {
+            write( types.size() );
+            for ( TypeDef type : types )
+            {
+                writeType( type );
+            }
+        }
+
+        private void writeTypeList( List<TypeDef> types )
+        {
+            // 0 for null
+            write( types == null ? 0 : types.size() + 1 );
+            if ( types != null )
+            {
+                for ( TypeDef type : types )
+                {
+                    writeType( type );
+                }
+            }
+        }
+
+        private void writeType( TypeDef type )
+        {
+            if ( type == null )
+            {
+                write( 0 );
+            }
+            else if ( type instanceof WildcardTypeDef )
+            {
+                WildcardTypeDef wildcard = (WildcardTypeDef) type;
+                write( WILDCARD );
+                writeNullableString( wildcard.getWildcardExpressionType() );
+                writeType( wildcard.getTypeDef() );
+            }
+            else
+            {
+                write( TYPE );
+                writeString( type.getName() );
+                write( type.getDimensions() );
+                writeTypeList( type.getActualArgumentTypes() );
+            }
+        }
+
+        private void writeAnnotation( AnnoDef annotation )
+        {
+            writeType( annotation.getTypeDef() );
+            write( annotation.getArgs().size() );
+            for ( Map.Entry<String, ElemValueDef> arg : annotation.getArgs().entrySet() )
+            {
+                writeString( arg.getKey() );
+                writeValue( arg.getValue() );
+            }
+        }
+
+        private void writeValue( ElemValueDef value )
+        {
+            if ( value instanceof ConstantDef )
+            {
+                ConstantDef constant = (ConstantDef) value;
+                write( CONSTANT );
+                writeString( constant.getValue() );
+                int type = 0;
+                while ( CONSTANT_TYPES[type] != constant.getType() )
+                {
+                    type++;
+                }
+                write( type );
+            }
+            else if ( value instanceof FieldRefDef )
+            {
+                write( FIELD_REF );
+                writeString( ( (FieldRefDef) value ).getName() );
+            }
+            else if ( value instanceof TypeRefDef )
+            {
+                write( TYPE_REF );
+                writeType( ( (TypeRefDef) value ).getTypeDef() );
+            }
+            else if ( value instanceof AnnoDef )
+            {
+                write( NESTED_ANNOTATION );
+                writeAnnotation( (AnnoDef) value );
+            }
+            else if ( value instanceof ElemValueListDef )
+            {
+                List<ElemValueDef> values = ( (ElemValueListDef) value ).getValueList();
+                write( VALUE_LIST );
+                write( values.size() );
+                for ( ElemValueDef element : values )
+                {
+                    writeValue( element );
+                }
+            }
+            else
+            {
+                throw new IllegalArgumentException( "Unsupported element value " + value );
+            }
+        }
+
+        private void writeNullableString( String string )
+        {
+            write( string == null ? 0 : stringIndex( string ) + 1 );
+        }
+
+        private void writeString( String string )
+        {
+            write( stringIndex( string ) );
+        }
+
+        private int stringIndex( String string )
+        {
+            Integer index = strings.get( string );
+            if ( index == null )
+            {
+                index = strings.size();
+                strings.put( string, index );
+            }
+            return index;
+        }
+
+        // an unsigned varint
+        private void write( int value )
+        {
+            while ( ( value & ~0x7F ) != 0 )
+            {
+                record.write( ( value & 0x7F ) | 0x80 );
+                value >>>= 7;
+            }
+            record.write( value );
+        }
+    }
+
+    /**
+     * Passes the events of a record to a builder
+     */
+    private final class Replay
+    {
+        private int position;
+
+        private Replay( int position )
+        {
+            this.position = position;
+        }
+
+        private void replay( Builder builder )
+        {
+            for ( int event = read(); event != END; event = read() )
+            {
+                switch ( event )
+                {
+                    case PACKAGE:
+                        builder.addPackage( new PackageDef( readString() ) );
+                        break;
+                    case ANNOTATION:
+                        builder.addAnnotation( readAnnotation() );
+                        break;
+                    case BEGIN_CLASS:
+                        builder.beginClass( readClass() );
+                        break;
+                    case END_CLASS:
+                        builder.endClass();
+                        break;
+                    case BEGIN_METHOD:
+                        builder.beginMethod();
+                        break;
+                    case END_METHOD:
+                        builder.endMethod( readMethod() );
+                        break;
+                    case BEGIN_CONSTRUCTOR:
+                        builder.beginConstructor();
+                        break;
+                    case END_CONSTRUCTOR:
+                        builder.endConstructor( readMethod() );
+                        break;
+                    case PARAMETER:
+                        builder.addParameter( readField() );
+                        break;
+                    case BEGIN_FIELD:
+                        builder.beginField( readField() );
+                        break;
+                    case END_FIELD:
+                        builder.endField();
+                        break;
+                    case IMPLEMENTS:
+                        Set<TypeDef> implementz = new LinkedHashSet<TypeDef>();
+                        readTypes( implementz );
+                        builder.addImplements( implementz );
+                        break;
+                    case RECORD_COMPONENTS:
+                        RecordFieldsDef components = new RecordFieldsDef();
+                        for ( int count = read(); count > 0; count-- )
+                        {
+                            components.addField( readField() );
+                        }
+                        builder.endRecord( components );
+                        break;
+                    case COMPACT_CONSTRUCTOR:
+                        CompactConstructorDef compactConstructor = new CompactConstructorDef();
+                        compactConstructor.setModifierFlags( read() );
+                        builder.addCompactConstructor( compactConstructor );
+                        break;
+                    case INITIALIZER:
+                        boolean staticInitializer = read() != 0;
+                        builder.addInitializer( new InitDef( readNullableString(), staticInitializer ) );
+                        break;
+                    default:
+                        throw new IllegalStateException( "Unknown event " + event );
+                }
+            }
+        }
+
+        private ClassDef readClass()
+        {
+            ClassDef def = new ClassDef( readString() );
+            def.setType( readString() );
+            def.setModifierFlags( read() );
+            List<TypeVariableDef> typeVariables = readTypeVariables();
+            if ( typeVariables != null )
+            {
+                def.setTypeParameters( typeVariables );
+            }
+            readTypes( def.getExtends() );
+            readTypes( def.getImplements() );
+            return def;
+        }
+
+        private MethodDef readMethod()
+        {
+            MethodDef def = new MethodDef();
+            def.setName( readString() );
+            def.setModifierFlags( read() );
+            def.setTypeParams( readTypeVariables() );
+            def.setReturnType( readType() );
+            readTypes( def.getExceptions() );
+            def.setDimensions( read() );
+            def.setConstructor( read() != 0 );
+            return def;
+        }
+
+        private FieldDef readField()
+        {
+            FieldDef def = new FieldDef( readString() );
+            def.setType( readType() );
+            def.setModifierFlags( read() );
+            def.setDimensions( read() );
+            int flags = read();
+            def.setVarArgs( ( flags & 1 ) != 0 );
+            def.setEnumConstant( ( flags & 2 ) != 0 );
+            return def;
+        }
+
+        private List<TypeVariableDef> readTypeVariables()
+        {
+            int count = read();
+            if ( count == 0 )
+            {
+                return null;
+            }
+            List<TypeVariableDef> result = new LinkedList<TypeVariableDef>();
+            for ( count--; count > 0; count-- )
+            {
+                TypeVariableDef typeVariable = new TypeVariableDef( readString() );
+                typeVariable.setBounds( readTypeList() );
+                result.add( typeVariable );
+            }
+            return result;
+        }
+
+        private void readTypes( Set<TypeDef> types )
+        {
+            for ( int count = read(); count > 0; count-- )
+            {
+                types.add( readType() );
+            }
+        }
+
+        private List<TypeDef> readTypeList()
+        {
+            int count = read();
+            if ( count == 0 )
+            {
+                return null;
+            }
+            List<TypeDef> result = new LinkedList<TypeDef>();
+            for ( count--; count > 0; count-- )
+            {
+                result.add( readType() );
+            }
+            return result;
+        }
+
+        private TypeDef readType()
+        {
+            switch ( read() )
+            {
+                case 0:
+                    return null;
+                case WILDCARD:
+                    String wildcardExpressionType = readNullableString();
+                    TypeDef bound = readType();
+                    return bound == null ? new WildcardTypeDef() : new WildcardTypeDef( bound, wildcardExpressionType );
+                default:
+                    TypeDef type = new TypeDef( readString(), read() );
+                    List<TypeDef> arguments = readTypeList();
+                    if ( arguments != null )
+                    {
+                        type.setActualArgumentTypes( arguments );
+                    }
+                    return type;
+            }
+        }
+
+        private AnnoDef readAnnotation()
+        {
+            AnnoDef annotation = new AnnoDef( readType() );
+            for ( int count = read(); count > 0; count-- )
+            {
+                String name = readString();
+                annotation.getArgs().put( name, readValue() );
+            }
+            return annotation;
+        }
+
+        private ElemValueDef readValue()
+        {
+            int kind = read();
+            switch ( kind )
+            {
+                case CONSTANT:
+                    String value = readString();
+                    return new ConstantDef( value, CONSTANT_TYPES[read()] );
+                case FIELD_REF:
+                    return new FieldRefDef( readString() );
+                case TYPE_REF:
+                    return new TypeRefDef( readType() );
+                case NESTED_ANNOTATION:
+                    return readAnnotation();
+                case VALUE_LIST:
+                    int count = read();
+                    List<ElemValueDef> values = new ArrayList<ElemValueDef>( count );
+                    for ( ; count > 0; count-- )
+                    {
+                        values.add( readValue() );
+                    }
+                    return new ElemValueListDef( values );
+                default:
+                    throw new IllegalStateException( "Unknown element value " + kind );
+            }
+        }
+
+        private String readNullableString()
+        {
+            int index = read();
+            return index == 0 ? null : strings[index - 1];
+        }
+
+        private String readString()
+        {
+            return strings[read()];
+        }
+
+        private int read()
+        {
+            int result = 0;
+            for ( int shift = 0;; shift += 7 )
+            {
+                int b = records[position++];
+                result |= ( b & 0x7F ) << shift;
+                if ( ( b & 0x80 ) == 0 )
+                {
+                    return result;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.thoughtworks.qdox.library;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import com.thoughtworks.qdox.builder.Builder;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaPackage;
+import com.thoughtworks.qdox.model.impl.DefaultJavaPackage;
+
+/**
+ * Resolves the classes of the running JDK from a {@link PlatformIndex}, so they're neither read from their class files
+ * nor loaded. Chain it on top of the {@link ClassLoaderLibrary} and below the source libraries: the classloaders
+ * only have to resolve the classes which aren't part of the JDK.
+ *
+ * @since 2.2
+ */
+public class PlatformLibrary
+    extends AbstractClassLibrary
+{
+    private transient PlatformIndex platformIndex;
+
+    /**
+     * @param parent the parent library
+     * @param platformIndex the index of the JDK, usually {@link PlatformIndex#getInstance()}, might be
+     *            <code>null</code>
+     */
+    public PlatformLibrary( AbstractClassLibrary parent, PlatformIndex platformIndex )
+    {
+        super( parent );
+        this.platformIndex = platformIndex;
+    }
+
+    /**
+     * @param platformIndex the index of the JDK, or <code>null</code> to leave the JDK to the parent library
+     */
+    public void setPlatformIndex( PlatformIndex platformIndex )
+    {
+        this.platformIndex = platformIndex;
+        classReferencesChanged();
+    }
+
+    /**
+     * @return the index of the JDK, might be <code>null</code>
+     */
+    public PlatformIndex getPlatformIndex()
+    {
+        return platformIndex;
+    }
+
+    @Override
+    protected JavaClass resolveJavaClass( String name )
+    {
+        JavaClass result = null;
+        Builder builder = getModelBuilder();
+        if ( platformIndex != null && platformIndex.build( name, builder ) )
+        {
+            result = builder.getSource().getClassByName( name );
+        }
+        return result;
+    }
+
+    @Override
+    protected JavaPackage resolveJavaPackage( String name )
+    {
+        DefaultJavaPackage result = null;
+        if ( platformIndex != null && platformIndex.containsPackage( name ) )
+        {
+            result = new DefaultJavaPackage( name );
+            result.setClassLibrary( this );
+        }
+        return result;
+    }
+
+    @Override
+    protected boolean containsClassReference( String name )
+    {
+        return platformIndex != null && platformIndex.contains( name );
+    }
+}
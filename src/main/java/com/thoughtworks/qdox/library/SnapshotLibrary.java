@@ -0,0 +1,608 @@
+package com.thoughtworks.qdox.library;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import com.thoughtworks.qdox.builder.Builder;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaPackage;
+import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.model.impl.DefaultJavaPackage;
+
+/**
+ * A SourceLibrary backed by a snapshot file, as written by {@link #save(ClassLibrary, File)}.
+ * <p>
+ * A snapshot starts with an index, containing a string table, the source folders, whether the default classloaders
+ * were used and for every source its URL, package and binary class names. All numbers are stored as varints and all
+ * names as references to the string table. The index is followed by the text of every compilation unit.
+ * </p>
+ * <p>
+ * The snapshot is memory mapped and only the index is read when it is loaded. A compilation unit is parsed the first
+ * time one of its classes is requested, all units of a package the first time the classes of that package are
+ * requested. Hence the line numbers of the model refer to the stored text, which is the original source if it was still
+ * readable by its URL when saving.
+ * </p>
+ *
+ * @since 2.2
+ */
+public class SnapshotLibrary
+    extends SourceLibrary
+{
+    private static final byte[] MAGIC = { 'Q', 'D', 'X', 'S' };
+
+    private static final int VERSION = 1;
+
+    private static final int FLAG_DEFAULT_CLASSLOADERS = 1;
+
+    private static final Charset UTF_8 = Charset.forName( "UTF-8" );
+
+    private final transient ByteBuffer text;
+
+    private final String[] urls;
+
+    private final int[] offsets;
+
+    private final int[] lengths;
+
+    private final String[] sourcePackages;
+
+    private final boolean[] materialized;
+
+    private final Map<String, Integer> classIndex = new HashMap<String, Integer>();
+
+    private final Map<String, SnapshotPackage> packages = new LinkedHashMap<String, SnapshotPackage>();
+
+    private final Map<String, List<Integer>> packageSources = new HashMap<String, List<Integer>>();
+
+    private SnapshotLibrary( AbstractClassLibrary parent, Index index )
+    {
+        super( parent );
+        this.text = index.text;
+        this.urls = index.urls;
+        this.offsets = index.offsets;
+        this.lengths = index.lengths;
+        this.sourcePackages = index.packages;
+        this.materialized = new boolean[urls.length];
+        for ( int i = 0; i < urls.length; i++ )
+        {
+            for ( String className : index.classes[i] )
+            {
+                classIndex.put( className, i );
+            }
+            String packageName = sourcePackages[i];
+            if ( !packages.containsKey( packageName ) )
+            {
+                packages.put( packageName, new SnapshotPackage( packageName ) );
+                packageSources.put( packageName, new ArrayList<Integer>() );
+            }
+            packageSources.get( packageName ).add( i );
+        }
+    }
+
+    /**
+     * Check if the file starts with the snapshot header
+     *
+     * @param file the file to check
+     * @return <code>true</code> if the file is a snapshot, otherwise <code>false</code>
+     * @throws IOException if the file couldn't be read
+     */
+    public static boolean isSnapshot( File file )
+        throws IOException
+    {
+        InputStream in = new FileInputStream( file );
+        try
+        {
+            byte[] header = new byte[MAGIC.length];
+            int read = 0;
+            while ( read < header.length )
+            {
+                int count = in.read( header, read, header.length - read );
+                if ( count < 0 )
+                {
+                    return false;
+                }
+                read += count;
+            }
+            for ( int i = 0; i < header.length; i++ )
+            {
+                if ( header[i] != MAGIC[i] )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    /**
+     * Write the sources of the library to a snapshot. Source folders and the default classloaders of the chain of
+     * libraries are recorded as well, other classloaders need to be re-added after loading.
+     *
+     * @param library the library to save
+     * @param file the snapshot file
+     * @throws IOException if the snapshot couldn't be written
+     */
+    public static void save( ClassLibrary library, File file )
+        throws IOException
+    {
+        Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
+        List<File> sourceFolders = new LinkedList<File>();
+        int flags = 0;
+        String encoding = null;
+        for ( AbstractClassLibrary lib = ( library instanceof AbstractClassLibrary ? (AbstractClassLibrary) library : null );
+              lib != null; lib = lib.getParentClassLibrary() )
+        {
+            if ( encoding == null && lib instanceof SourceLibrary )
+            {
+                encoding = ( (SourceLibrary) lib ).getEncoding();
+            }
+            if ( lib instanceof SourceFolderLibrary )
+            {
+                sourceFolders.addAll( 0, ( (SourceFolderLibrary) lib ).getSourceFolders() );
+            }
+            else if ( lib instanceof ClassLoaderLibrary && ( (ClassLoaderLibrary) lib ).isDefaultClassLoadersAdded() )
+            {
+                flags |= FLAG_DEFAULT_CLASSLOADERS;
+            }
+        }
+        if ( encoding == null )
+        {
+            encoding = Charset.defaultCharset().name();
+        }
+
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        List<byte[]> texts = new ArrayList<byte[]>();
+        Collection<JavaSource> sources = library.getJavaSources();
+        writeVarint( index, sources.size() );
+        for ( JavaSource source : sources )
+        {
+            URL url = source.getURL();
+            writeVarint( index, url == null ? 0 : stringIndex( strings, url.toExternalForm() ) + 1 );
+            writeVarint( index, stringIndex( strings, source.getPackageName() ) );
+            List<String> classNames = new ArrayList<String>();
+            for ( JavaClass cls : source.getClasses() )
+            {
+                addClassNames( cls, classNames );
+            }
+            writeVarint( index, classNames.size() );
+            for ( String className : classNames )
+            {
+                writeVarint( index, stringIndex( strings, className ) );
+            }
+            byte[] bytes = readText( source, encoding ).getBytes( UTF_8 );
+            writeVarint( index, bytes.length );
+            texts.add( bytes );
+        }
+        int[] folderIndexes = new int[sourceFolders.size()];
+        for ( int i = 0; i < folderIndexes.length; i++ )
+        {
+            folderIndexes[i] = stringIndex( strings, sourceFolders.get( i ).getPath() );
+        }
+
+        OutputStream out = new BufferedOutputStream( new FileOutputStream( file ), 65536 );
+        try
+        {
+            out.write( MAGIC );
+            writeVarint( out, VERSION );
+            writeVarint( out, flags );
+            writeVarint( out, strings.size() );
+            for ( String string : strings.keySet() )
+            {
+                byte[] bytes = string.getBytes( UTF_8 );
+                writeVarint( out, bytes.length );
+                out.write( bytes );
+            }
+            writeVarint( out, folderIndexes.length );
+            for ( int folderIndex : folderIndexes )
+            {
+                writeVarint( out, folderIndex );
+            }
+            index.writeTo( out );
+            for ( byte[] bytes : texts )
+            {
+                out.write( bytes );
+            }
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    /**
+     * Load a snapshot. The returned library is chained to a {@link SourceFolderLibrary} and a
+     * {@link ClassLoaderLibrary} with the default classloaders if these were part of the saved library, and always to
+     * a {@link ClassNameLibrary}.
+     *
+     * @param file the snapshot file
+     * @return the library, never <code>null</code>
+     * @throws IOException if the file couldn't be read or isn't a supported snapshot
+     */
+    public static SnapshotLibrary load( File file )
+        throws IOException
+    {
+        Index index = readIndex( file );
+
+        AbstractClassLibrary parent = new ClassNameLibrary();
+        if ( ( index.flags & FLAG_DEFAULT_CLASSLOADERS ) != 0 )
+        {
+            ClassLoaderLibrary classLoaderLibrary = new ClassLoaderLibrary( parent );
+            classLoaderLibrary.addDefaultLoader();
+            parent = classLoaderLibrary;
+        }
+        if ( index.sourceFolders.length > 0 )
+        {
+            SourceFolderLibrary sourceFolderLibrary = new SourceFolderLibrary( parent );
+            for ( String sourceFolder : index.sourceFolders )
+            {
+                sourceFolderLibrary.addSourceFolder( new File( sourceFolder ) );
+            }
+            parent = sourceFolderLibrary;
+        }
+        return new SnapshotLibrary( parent, index );
+    }
+
+    @Override
+    protected JavaClass resolveJavaClass( String name )
+    {
+        Integer source = classIndex.get( name );
+        if ( source != null )
+        {
+            materializeSource( source );
+        }
+        return super.resolveJavaClass( name );
+    }
+
+    @Override
+    protected JavaPackage resolveJavaPackage( String name )
+    {
+        JavaPackage result = super.resolveJavaPackage( name );
+        if ( result == null )
+        {
+            result = packages.get( name );
+        }
+        return result;
+    }
+
+    @Override
+    protected boolean containsClassReference( String name )
+    {
+        return classIndex.containsKey( name ) || super.containsClassReference( name );
+    }
+
+    @Override
+    public Collection<JavaClass> getJavaClasses()
+    {
+        materializeAll();
+        return super.getJavaClasses();
+    }
+
+    @Override
+    public Collection<JavaPackage> getJavaPackages()
+    {
+        materializeAll();
+        return super.getJavaPackages();
+    }
+
+    @Override
+    public Collection<JavaSource> getJavaSources()
+    {
+        materializeAll();
+        return super.getJavaSources();
+    }
+
+    private synchronized void materializeAll()
+    {
+        for ( int i = 0; i < materialized.length; i++ )
+        {
+            materializeSource( i );
+        }
+    }
+
+    private synchronized void materializePackage( String name )
+    {
+        for ( Integer source : packageSources.get( name ) )
+        {
+            materializeSource( source );
+        }
+    }
+
+    private synchronized void materializeSource( int index )
+    {
+        if ( materialized[index] )
+        {
+            return;
+        }
+        materialized[index] = true;
+
+        ByteBuffer slice = text.duplicate();
+        slice.position( offsets[index] );
+        slice.limit( offsets[index] + lengths[index] );
+        Reader reader = new StringReader( UTF_8.decode( slice ).toString() );
+
+        URL url = null;
+        try
+        {
+            url = ( urls[index] == null ? null : new URL( urls[index] ) );
+        }
+        catch ( IOException e )
+        {
+            // keep the source, but without its location
+        }
+
+        Builder builder = parse( reader, url );
+        registerJavaSource( builder == null ? null : builder.getSource() );
+    }
+
+    private static void addClassNames( JavaClass cls, List<String> classNames )
+    {
+        classNames.add( cls.getBinaryName() );
+        for ( JavaClass nestedClass : cls.getNestedClasses() )
+        {
+            addClassNames( nestedClass, classNames );
+        }
+    }
+
+    private static String readText( JavaSource source, String encoding )
+    {
+        URL url = source.getURL();
+        if ( url != null )
+        {
+            try
+            {
+                Reader reader = new InputStreamReader( url.openStream(), encoding );
+                try
+                {
+                    StringBuilder result = new StringBuilder();
+                    char[] buffer = new char[8192];
+                    int count;
+                    while ( ( count = reader.read( buffer ) ) >= 0 )
+                    {
+                        result.append( buffer, 0, count );
+                    }
+                    return result.toString();
+                }
+                finally
+                {
+                    reader.close();
+                }
+            }
+            catch ( IOException e )
+            {
+                // the original is gone, fall back to the model
+            }
+        }
+        return source.getCodeBlock();
+    }
+
+    private static int stringIndex( Map<String, Integer> strings, String value )
+    {
+        Integer result = strings.get( value );
+        if ( result == null )
+        {
+            result = strings.size();
+            strings.put( value, result );
+        }
+        return result;
+    }
+
+    private static void writeVarint( OutputStream out, int value )
+        throws IOException
+    {
+        while ( ( value & ~0x7F ) != 0 )
+        {
+            out.write( ( value & 0x7F ) | 0x80 );
+            value >>>= 7;
+        }
+        out.write( value );
+    }
+
+    private static int readVarint( ByteBuffer in )
+        throws IOException
+    {
+        int result = 0;
+        for ( int shift = 0; shift < 32; shift += 7 )
+        {
+            byte b = in.get();
+            result |= ( b & 0x7F ) << shift;
+            if ( ( b & 0x80 ) == 0 )
+            {
+                return result;
+            }
+        }
+        throw new IOException( "Malformed snapshot: varint too long" );
+    }
+
+    private static Index readIndex( File file )
+        throws IOException
+    {
+        ByteBuffer buffer;
+        RandomAccessFile raf = new RandomAccessFile( file, "r" );
+        try
+        {
+            buffer = raf.getChannel().map( FileChannel.MapMode.READ_ONLY, 0, raf.length() );
+        }
+        finally
+        {
+            raf.close();
+        }
+
+        try
+        {
+            for ( byte b : MAGIC )
+            {
+                if ( buffer.get() != b )
+                {
+                    throw new IOException( file + " is not a QDox snapshot" );
+                }
+            }
+            int version = readVarint( buffer );
+            if ( version != VERSION )
+            {
+                throw new IOException( "Unsupported snapshot version " + version + " of " + file );
+            }
+            Index index = new Index();
+            index.flags = readVarint( buffer );
+
+            String[] strings = new String[readVarint( buffer )];
+            for ( int i = 0; i < strings.length; i++ )
+            {
+                byte[] bytes = new byte[readVarint( buffer )];
+                buffer.get( bytes );
+                strings[i] = new String( bytes, UTF_8 );
+            }
+            index.sourceFolders = new String[readVarint( buffer )];
+            for ( int i = 0; i < index.sourceFolders.length; i++ )
+            {
+                index.sourceFolders[i] = strings[readVarint( buffer )];
+            }
+
+            int sourceCount = readVarint( buffer );
+            index.urls = new String[sourceCount];
+            index.packages = new String[sourceCount];
+            index.classes = new String[sourceCount][];
+            index.offsets = new int[sourceCount];
+            index.lengths = new int[sourceCount];
+            int offset = 0;
+            for ( int i = 0; i < sourceCount; i++ )
+            {
+                int url = readVarint( buffer );
+                index.urls[i] = ( url == 0 ? null : strings[url - 1] );
+                index.packages[i] = strings[readVarint( buffer )];
+                index.classes[i] = new String[readVarint( buffer )];
+                for ( int c = 0; c < index.classes[i].length; c++ )
+                {
+                    index.classes[i][c] = strings[readVarint( buffer )];
+                }
+                index.offsets[i] = offset;
+                index.lengths[i] = readVarint( buffer );
+                offset += index.lengths[i];
+            }
+            if ( buffer.remaining() != offset )
+            {
+                throw new IOException( "Malformed snapshot: " + file + " is truncated" );
+            }
+            index.text = buffer.slice();
+            return index;
+        }
+        catch ( RuntimeException e )
+        {
+            // BufferUnderflowException or a string reference out of range
+            throw new IOException( "Malformed snapshot: " + file, e );
+        }
+    }
+
+    private static class Index
+    {
+        private int flags;
+
+        private String[] sourceFolders;
+
+        private String[] urls;
+
+        private String[] packages;
+
+        private String[][] classes;
+
+        private int[] offsets;
+
+        private int[] lengths;
+
+        private ByteBuffer text;
+    }
+
+    /**
+     * A package which parses its remaining compilation units once its classes are read. Adding a class, which is done
+     * while registering a single compilation unit, doesn't.
+     */
+    private class SnapshotPackage
+        extends DefaultJavaPackage
+    {
+        SnapshotPackage( String name )
+        {
+            super( name );
+            setClassLibrary( SnapshotLibrary.this );
+        }
+
+        @Override
+        public Collection<JavaClass> getClasses()
+        {
+            final Collection<JavaClass> classes = super.getClasses();
+            return new AbstractCollection<JavaClass>()
+            {
+                @Override
+                public boolean add( JavaClass cls )
+                {
+                    return classes.add( cls );
+                }
+
+                @Override
+                public Iterator<JavaClass> iterator()
+                {
+                    materializePackage( getName() );
+                    return classes.iterator();
+                }
+
+                @Override
+                public int size()
+                {
+                    materializePackage( getName() );
+                    return classes.size();
+                }
+            };
+        }
+
+        @Override
+        public JavaClass getClassByName( String name )
+        {
+            materializePackage( getName() );
+            return super.getClassByName( name );
+        }
+    }
+}
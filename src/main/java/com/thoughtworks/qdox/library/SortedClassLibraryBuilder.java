@@ -24,10 +24,15 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.net.URL;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import com.thoughtworks.qdox.builder.ModelBuilderFactory;
+import com.thoughtworks.qdox.builder.StreamHandler;
+import com.thoughtworks.qdox.directorywalker.FileVisitor;
 import com.thoughtworks.qdox.model.JavaModule;
 import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.model.util.NamePool;
 import com.thoughtworks.qdox.writer.ModelWriterFactory;
 
 /**
@@ -41,6 +46,10 @@ public class SortedClassLibraryBuilder
 
     private final ClassLoaderLibrary classLoaderLibrary;
 
+    private final PlatformLibrary platformLibrary;
+
+    private final SourceJarLibrary sourceJarLibrary;
+
     private final SourceFolderLibrary sourceFolderLibrary;
 
     private final SourceLibrary sourceLibrary;
@@ -49,7 +58,9 @@ public class SortedClassLibraryBuilder
     {
         classNameLibrary = new ClassNameLibrary();
         classLoaderLibrary = new ClassLoaderLibrary( classNameLibrary );
-        sourceFolderLibrary = new SourceFolderLibrary( classLoaderLibrary );
+        platformLibrary = new PlatformLibrary( classLoaderLibrary, null );
+        sourceJarLibrary = new SourceJarLibrary( platformLibrary );
+        sourceFolderLibrary = new SourceFolderLibrary( sourceJarLibrary );
         sourceLibrary = new SourceLibrary( sourceFolderLibrary );
     }
 
@@ -71,6 +82,13 @@ public class SortedClassLibraryBuilder
         return this;
     }
 
+    public ClassLibraryBuilder appendSourceJar( File sourceJar )
+        throws IOException
+    {
+        sourceJarLibrary.addSourceJar( sourceJar );
+        return this;
+    }
+
     public ClassLibraryBuilder appendSource( InputStream stream ) throws IOException
     {
         sourceLibrary.addSource( stream );
@@ -100,6 +118,7 @@ public class SortedClassLibraryBuilder
     public ClassLibraryBuilder setDebugLexer( boolean debugLexer )
     {
         classLoaderLibrary.setDebugLexer( debugLexer );
+        sourceJarLibrary.setDebugLexer( debugLexer );
         sourceFolderLibrary.setDebugLexer( debugLexer );
         sourceLibrary.setDebugLexer( debugLexer );
         return this;
@@ -108,6 +127,7 @@ public class SortedClassLibraryBuilder
     public ClassLibraryBuilder setDebugParser( boolean debugParser )
     {
         classLoaderLibrary.setDebugParser( debugParser );
+        sourceJarLibrary.setDebugParser( debugParser );
         sourceFolderLibrary.setDebugParser( debugParser );
         sourceLibrary.setDebugParser( debugParser );
         return this;
@@ -115,23 +135,85 @@ public class SortedClassLibraryBuilder
     
     public ClassLibraryBuilder setEncoding( String encoding )
     {
+        sourceJarLibrary.setEncoding( encoding );
         sourceFolderLibrary.setEncoding( encoding );
         sourceLibrary.setEncoding( encoding );
         return this;
     }
+
+    public ClassLibraryBuilder setParseCache( ParseCache parseCache )
+    {
+        sourceLibrary.setParseCache( parseCache );
+        return this;
+    }
+
+    public ClassLibraryBuilder setClassPathIndex( ClassPathIndex classPathIndex )
+    {
+        classLoaderLibrary.setClassPathIndex( classPathIndex );
+        return this;
+    }
+
+    public ClassLibraryBuilder setPlatformIndex( PlatformIndex platformIndex )
+    {
+        platformLibrary.setPlatformIndex( platformIndex );
+        return this;
+    }
+
+    public ClassLibraryBuilder setSourceCodeMode( SourceCodeMode sourceCodeMode )
+    {
+        sourceLibrary.setSourceCodeMode( sourceCodeMode );
+        return this;
+    }
+
+    public ClassLibraryBuilder setSourceFolderMode( SourceFolderMode sourceFolderMode )
+    {
+        sourceFolderLibrary.setSourceFolderMode( sourceFolderMode );
+        return this;
+    }
+
+    public ClassLibraryBuilder setLazyJavadoc( boolean lazyJavadoc )
+    {
+        sourceLibrary.setLazyJavadoc( lazyJavadoc );
+        return this;
+    }
     
     public ClassLibraryBuilder setErrorHander( ErrorHandler errorHandler )
     {
         classLoaderLibrary.setErrorHandler( errorHandler );
+        sourceJarLibrary.setErrorHandler( errorHandler );
         sourceFolderLibrary.setErrorHandler( errorHandler );
         sourceLibrary.setErrorHandler( errorHandler );
         return this;
     }
     
+    public ClassLibraryBuilder setMetricsListener( MetricsListener metricsListener )
+    {
+        classNameLibrary.setMetricsListener( metricsListener );
+        classLoaderLibrary.setMetricsListener( metricsListener );
+        platformLibrary.setMetricsListener( metricsListener );
+        sourceJarLibrary.setMetricsListener( metricsListener );
+        sourceFolderLibrary.setMetricsListener( metricsListener );
+        sourceLibrary.setMetricsListener( metricsListener );
+        return this;
+    }
+
+    public ClassLibraryBuilder setNamePool( NamePool namePool )
+    {
+        classNameLibrary.setNamePool( namePool );
+        classLoaderLibrary.setNamePool( namePool );
+        platformLibrary.setNamePool( namePool );
+        sourceJarLibrary.setNamePool( namePool );
+        sourceFolderLibrary.setNamePool( namePool );
+        sourceLibrary.setNamePool( namePool );
+        return this;
+    }
+    
     public ClassLibraryBuilder setModelBuilderFactory( ModelBuilderFactory factory )
     {
         classNameLibrary.setModelBuilderFactory( factory );
         classLoaderLibrary.setModelBuilderFactory( factory );
+        platformLibrary.setModelBuilderFactory( factory );
+        sourceJarLibrary.setModelBuilderFactory( factory );
         sourceFolderLibrary.setModelBuilderFactory( factory );
         sourceLibrary.setModelBuilderFactory( factory );
         return this;
@@ -142,6 +224,8 @@ public class SortedClassLibraryBuilder
     {
         classNameLibrary.setModelWriterFactory( modelWriterFactory );
         classLoaderLibrary.setModelWriterFactory( modelWriterFactory );
+        platformLibrary.setModelWriterFactory( modelWriterFactory );
+        sourceJarLibrary.setModelWriterFactory( modelWriterFactory );
         sourceFolderLibrary.setModelWriterFactory( modelWriterFactory );
         sourceLibrary.setModelWriterFactory( modelWriterFactory );
         return this;
@@ -174,6 +258,28 @@ public class SortedClassLibraryBuilder
         return sourceLibrary.addSource( file );
     }
 
+    public List<JavaSource> addSources( List<File> files, ExecutorService executor, FileVisitor fileErrorHandler )
+    {
+        return sourceLibrary.addSources( files, executor, fileErrorHandler );
+    }
+
+    public void streamSource( File file, StreamHandler handler )
+        throws IOException
+    {
+        sourceLibrary.streamSource( file, handler );
+    }
+
+    public void streamSource( Reader reader, StreamHandler handler )
+    {
+        sourceLibrary.streamSource( reader, handler );
+    }
+
+    public void streamSourceJar( File sourceJar, StreamHandler handler )
+        throws IOException
+    {
+        sourceLibrary.streamSourceJar( sourceJar, handler );
+    }
+
     public JavaModule addSourceFolder( File sourceFolder )
     {
         return sourceFolderLibrary.addSourceFolder( sourceFolder );
@@ -0,0 +1,48 @@
+package com.thoughtworks.qdox.library;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import com.thoughtworks.qdox.model.JavaExecutable;
+
+/**
+ * Defines what is kept of the bodies of methods and constructors, as returned by
+ * {@link JavaExecutable#getSourceCode()}. Signatures, annotations and javadoc are always available.
+ * 
+ * @since 2.2
+ */
+public enum SourceCodeMode
+{
+    /**
+     * Keep the text of every body, which is the default
+     */
+    RETAIN,
+
+    /**
+     * Don't keep the bodies, {@link JavaExecutable#getSourceCode()} returns <code>null</code> for every method or
+     * constructor with a body
+     */
+    SKIP,
+
+    /**
+     * Only keep the offsets of the bodies, their text is read again from the URL of the source when requested.
+     * Sources without a URL are retained.
+     */
+    LAZY
+}
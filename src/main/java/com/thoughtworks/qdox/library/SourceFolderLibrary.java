@@ -22,12 +22,29 @@ package com.thoughtworks.qdox.library;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.lang.ref.WeakReference;
 import java.net.MalformedURLException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import com.thoughtworks.qdox.builder.Builder;
 import com.thoughtworks.qdox.model.JavaClass;
 import com.thoughtworks.qdox.model.JavaModule;
 import com.thoughtworks.qdox.model.JavaSource;
@@ -42,6 +59,20 @@ public class SourceFolderLibrary
 {
     private List<File> sourceFolders = new LinkedList<File>();
 
+    private SourceFolderMode sourceFolderMode = SourceFolderMode.LOOKUP;
+
+    // the source file by the name of its main class, null until the source folders have been scanned
+    private transient volatile Map<String, File> sourceFileIndex;
+
+    private transient volatile WatchService watchService;
+
+    // every source file which has been looked up is parsed only once, for its main class and its nested classes
+    private transient ConcurrentMap<File, ParsedSource> parsedSources = new ConcurrentHashMap<File, ParsedSource>();
+
+    private final AtomicLong fileSystemCalls = new AtomicLong();
+
+    private final AtomicLong parses = new AtomicLong();
+
     public SourceFolderLibrary( AbstractClassLibrary parent  )
     {
         super( parent );
@@ -56,9 +87,84 @@ public class SourceFolderLibrary
     public JavaModule addSourceFolder( File sourceFolder )
     {
         this.sourceFolders.add( sourceFolder );
+        sourceFileIndex = null;
+        classReferencesChanged();
         return resolveJavaModule( sourceFolder );
     }
 
+    List<File> getSourceFolders()
+    {
+        return sourceFolders;
+    }
+
+    /**
+     * @param sourceFolderMode how the source files are found, {@link SourceFolderMode#LOOKUP} by default
+     * @since 2.2
+     */
+    public synchronized void setSourceFolderMode( SourceFolderMode sourceFolderMode )
+    {
+        if ( this.sourceFolderMode != sourceFolderMode )
+        {
+            this.sourceFolderMode = sourceFolderMode;
+            closeWatchService();
+            sourceFileIndex = null;
+        }
+    }
+
+    /**
+     * @return how the source files are found
+     * @since 2.2
+     */
+    public SourceFolderMode getSourceFolderMode()
+    {
+        return sourceFolderMode;
+    }
+
+    /**
+     * Stop watching the source folders by switching from {@link SourceFolderMode#WATCH} to
+     * {@link SourceFolderMode#INDEX}, once the library isn't used anymore. Otherwise the watching only stops when the
+     * library has been garbage collected.
+     * 
+     * @since 2.2
+     */
+    public synchronized void close()
+    {
+        if ( sourceFolderMode == SourceFolderMode.WATCH )
+        {
+            setSourceFolderMode( SourceFolderMode.INDEX );
+        }
+    }
+
+    /**
+     * Scan the source folders again on the next lookup, so files which have been created or removed are noticed
+     * without watching the source folders. Files which have been looked up already aren't parsed again.
+     * 
+     * @since 2.2
+     */
+    public void refresh()
+    {
+        sourceFileIndex = null;
+        classReferencesChanged();
+    }
+
+    /**
+     * @return the number of times the file system has been asked for a file or the content of a directory
+     * @since 2.2
+     */
+    public long getFileSystemCallCount()
+    {
+        return fileSystemCalls.get();
+    }
+
+    /**
+     * @return the number of source files which have been parsed to look up their classes
+     * @since 2.2
+     */
+    public long getParseCount()
+    {
+        return parses.get();
+    }
+
     @Override
     public Collection<JavaModule> getJavaModules()
     {
@@ -83,6 +189,7 @@ public class SourceFolderLibrary
     {
         JavaModule result = null;
         File moduleInfoFile = new File( sourceFolder, "module-info.java" );
+        fileSystemCalls.incrementAndGet();
         if ( moduleInfoFile.isFile()  )
         {
             try
@@ -141,9 +248,14 @@ public class SourceFolderLibrary
 
     private File getSourceFile( String mainClassName )
     {
+        if ( sourceFolderMode != SourceFolderMode.LOOKUP )
+        {
+            return getSourceFileIndex().get( mainClassName );
+        }
         for ( File sourceFolder : sourceFolders )
         {
             File classFile = new File( sourceFolder, mainClassName.replace( '.', File.separatorChar ) + ".java" );
+            fileSystemCalls.incrementAndGet();
             if ( classFile.isFile() )
             {
                 return classFile;
@@ -154,17 +266,236 @@ public class SourceFolderLibrary
 
     private JavaClass getClassFromSourceFile( File sourceFile, String className )
     {
+        ParsedSource parsedSource = parsedSources.get( sourceFile );
+        if ( parsedSource == null )
+        {
+            parsedSource = new ParsedSource();
+            ParsedSource previous = parsedSources.putIfAbsent( sourceFile, parsedSource );
+            if ( previous != null )
+            {
+                parsedSource = previous;
+            }
+        }
+        JavaSource source;
+        synchronized ( parsedSource )
+        {
+            if ( !parsedSource.parsed )
+            {
+                parses.incrementAndGet();
+                try
+                {
+                    Builder builder = parse( sourceFile, true );
+                    parsedSource.source = ( builder == null ? null : builder.getSource() );
+                }
+                catch ( IOException e )
+                {
+                }
+                parsedSource.parsed = true;
+            }
+            source = parsedSource.source;
+        }
+        return source == null ? null : source.getClassByName( className );
+    }
+
+    private Map<String, File> getSourceFileIndex()
+    {
+        Map<String, File> result = sourceFileIndex;
+        if ( result == null )
+        {
+            synchronized ( this )
+            {
+                result = sourceFileIndex;
+                if ( result == null )
+                {
+                    if ( sourceFolderMode == SourceFolderMode.WATCH && watchService == null )
+                    {
+                        startWatchService();
+                    }
+                    result = new HashMap<String, File>();
+                    for ( File sourceFolder : sourceFolders )
+                    {
+                        scanDirectory( sourceFolder, "", result );
+                    }
+                    sourceFileIndex = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    // the first source folder containing a file wins, just like a lookup
+    private void scanDirectory( File directory, String packagePrefix, Map<String, File> index )
+    {
+        fileSystemCalls.incrementAndGet();
+        File[] files = directory.listFiles();
+        if ( files == null )
+        {
+            return;
+        }
+        if ( watchService != null )
+        {
+            try
+            {
+                directory.toPath().register( watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                                             StandardWatchEventKinds.ENTRY_DELETE,
+                                             StandardWatchEventKinds.ENTRY_MODIFY );
+            }
+            catch ( IOException e )
+            {
+                // removed in the meantime
+            }
+        }
+        for ( File file : files )
+        {
+            String name = file.getName();
+            if ( name.endsWith( ".java" ) )
+            {
+                // package-info and module-info aren't classes
+                if ( name.indexOf( '-' ) < 0 )
+                {
+                    String className = packagePrefix + name.substring( 0, name.length() - 5 );
+                    if ( !index.containsKey( className ) )
+                    {
+                        index.put( className, file );
+                    }
+                }
+            }
+            else
+            {
+                fileSystemCalls.incrementAndGet();
+                if ( file.isDirectory() )
+                {
+                    scanDirectory( file, packagePrefix + name + '.', index );
+                }
+            }
+        }
+    }
+
+    private void startWatchService()
+    {
+        final WatchService watcher;
         try
         {
-            JavaSource source = parse( new FileReader( sourceFile ), sourceFile.toURI().toURL() ).getSource();
-            return source.getClassByName( className );
+            watcher = FileSystems.getDefault().newWatchService();
         }
-        catch ( FileNotFoundException e )
+        catch ( IOException e )
         {
+            // not supported, the index is only scanned again when refreshed
+            return;
         }
-        catch ( MalformedURLException e )
+        watchService = watcher;
+        Thread thread = new Thread( new Watcher( this, watcher ), "qdox-source-folder-watcher" );
+        thread.setDaemon( true );
+        thread.start();
+    }
+
+    // changes are applied as soon as they're reported, as cached lookups don't ask this library again
+    private void applyChanges( WatchKey key )
+    {
+        Path directory = (Path) key.watchable();
+        boolean changed = false;
+        for ( WatchEvent<?> event : key.pollEvents() )
         {
+            if ( event.kind() == StandardWatchEventKinds.OVERFLOW )
+            {
+                parsedSources.clear();
+                changed = true;
+            }
+            else
+            {
+                parsedSources.remove( directory.resolve( (Path) event.context() ).toFile() );
+                changed |= ( event.kind() != StandardWatchEventKinds.ENTRY_MODIFY );
+            }
         }
-        return null;
+        key.reset();
+        if ( changed )
+        {
+            // wait for a running scan, which might have missed the change
+            synchronized ( this )
+            {
+                refresh();
+            }
+        }
+    }
+
+    private void closeWatchService()
+    {
+        if ( watchService != null )
+        {
+            try
+            {
+                watchService.close();
+            }
+            catch ( IOException e )
+            {
+            }
+            watchService = null;
+        }
+    }
+
+    private void readObject( ObjectInputStream in )
+        throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        parsedSources = new ConcurrentHashMap<File, ParsedSource>();
+    }
+
+    /**
+     * Passes the changes of the source folders to the library. It only refers to the library weakly, so a library
+     * which isn't used anymore can be garbage collected, after which the watching stops.
+     */
+    private static final class Watcher
+        implements Runnable
+    {
+        private static final long POLL_SECONDS = 1;
+
+        private final WeakReference<SourceFolderLibrary> library;
+
+        private final WatchService watcher;
+
+        Watcher( SourceFolderLibrary library, WatchService watcher )
+        {
+            this.library = new WeakReference<SourceFolderLibrary>( library );
+            this.watcher = watcher;
+        }
+
+        public void run()
+        {
+            try
+            {
+                while ( true )
+                {
+                    WatchKey key = watcher.poll( POLL_SECONDS, TimeUnit.SECONDS );
+                    SourceFolderLibrary sourceFolderLibrary = library.get();
+                    if ( sourceFolderLibrary == null )
+                    {
+                        watcher.close();
+                        return;
+                    }
+                    if ( key != null )
+                    {
+                        sourceFolderLibrary.applyChanges( key );
+                    }
+                }
+            }
+            catch ( InterruptedException e )
+            {
+            }
+            catch ( ClosedWatchServiceException e )
+            {
+                // the mode has changed
+            }
+            catch ( IOException e )
+            {
+                // closing the watch service failed, stop anyway
+            }
+        }
+    }
+
+    private static final class ParsedSource
+    {
+        private boolean parsed;
+
+        private JavaSource source;
     }
 }
@@ -0,0 +1,48 @@
+package com.thoughtworks.qdox.library;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Defines how a {@link SourceFolderLibrary} finds the source file of a class in its source folders.
+ * 
+ * @since 2.2
+ */
+public enum SourceFolderMode
+{
+    /**
+     * Check the file system for the source file of every class which is looked up, which is the default
+     */
+    LOOKUP,
+
+    /**
+     * Scan the source folders once, on the first lookup, and look up the source files in that index. Source files
+     * which are created or removed afterwards aren't noticed, unless the library is {@link SourceFolderLibrary#refresh()
+     * refreshed}.
+     */
+    INDEX,
+
+    /**
+     * Like {@link #INDEX}, but the source folders are watched by a daemon thread. The index is scanned again once files
+     * have been created or removed, and changed files are parsed again unless their classes have already been
+     * resolved. The watching stops when the mode of the library changes, when the library is
+     * {@link SourceFolderLibrary#close() closed} or once it has been garbage collected.
+     */
+    WATCH
+}
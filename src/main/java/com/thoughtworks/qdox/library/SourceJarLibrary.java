@@ -0,0 +1,395 @@
+package com.thoughtworks.qdox.library;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import com.thoughtworks.qdox.builder.Builder;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaSource;
+
+/**
+ * A library which resolves classes from the java files in source jars, like the {@code -sources.jar} artifacts of
+ * dependencies. When a jar is added its entries are indexed by the names of the classes of the java files. An entry is
+ * read and parsed on the first lookup of one of its classes. The jar is only open while it's indexed or read.
+ * 
+ * @since 2.2
+ */
+public class SourceJarLibrary
+    extends SourceLibrary
+{
+    private List<SourceJar> sourceJars = new LinkedList<SourceJar>();
+
+    // every entry which has been looked up is parsed only once, for its main class and its nested classes
+    private transient ConcurrentMap<Entry, ParsedSource> parsedSources = new ConcurrentHashMap<Entry, ParsedSource>();
+
+    public SourceJarLibrary( AbstractClassLibrary parent )
+    {
+        super( parent );
+    }
+
+    /**
+     * Add a jar containing java files. Its entries are indexed immediately, and read when their classes are looked up.
+     * 
+     * @param sourceJar the jar, zip file or any other archive in zip format
+     * @throws IOException if the entries of the jar couldn't be read
+     */
+    public void addSourceJar( File sourceJar )
+        throws IOException
+    {
+        SourceJar jar = new SourceJar( sourceJar );
+        jar.getIndex();
+        sourceJars.add( jar );
+        classReferencesChanged();
+    }
+
+    List<File> getSourceJars()
+    {
+        List<File> result = new LinkedList<File>();
+        for ( SourceJar jar : sourceJars )
+        {
+            result.add( jar.file );
+        }
+        return result;
+    }
+
+    @Override
+    protected JavaClass resolveJavaClass( String className )
+    {
+        JavaClass result = super.resolveJavaClass( className );
+        Entry entry = getEntry( className.split( "\\$" )[0] );
+        if ( entry != null )
+        {
+            result = getClassFromEntry( entry, className );
+        }
+        return result;
+    }
+
+    @Override
+    protected boolean containsClassReference( String className )
+    {
+        boolean result = super.containsClassReference( className );
+        if ( !result )
+        {
+            String mainClassName = className.split( "\\$" )[0];
+            Entry entry = getEntry( mainClassName );
+            if ( entry != null )
+            {
+                if ( mainClassName.equals( className ) )
+                {
+                    result = true;
+                }
+                else
+                {
+                    result = getClassFromEntry( entry, className ) != null;
+                }
+            }
+        }
+        return result;
+    }
+
+    // the first jar containing a class wins
+    private Entry getEntry( String mainClassName )
+    {
+        for ( SourceJar jar : sourceJars )
+        {
+            try
+            {
+                Entry entry = jar.getEntry( mainClassName );
+                if ( entry != null )
+                {
+                    return entry;
+                }
+            }
+            catch ( IOException e )
+            {
+                // the jar has been removed or replaced by something unreadable since it was added
+            }
+        }
+        return null;
+    }
+
+    private JavaClass getClassFromEntry( Entry entry, String className )
+    {
+        ParsedSource parsedSource = parsedSources.get( entry );
+        if ( parsedSource == null )
+        {
+            parsedSource = new ParsedSource();
+            ParsedSource previous = parsedSources.putIfAbsent( entry, parsedSource );
+            if ( previous != null )
+            {
+                parsedSource = previous;
+            }
+        }
+        JavaSource source;
+        synchronized ( parsedSource )
+        {
+            if ( !parsedSource.parsed )
+            {
+                try
+                {
+                    Builder builder = parse( entry.read(), entry.getURL() );
+                    parsedSource.source = ( builder == null ? null : builder.getSource() );
+                }
+                catch ( IOException e )
+                {
+                }
+                parsedSource.parsed = true;
+            }
+            source = parsedSource.source;
+        }
+        return source == null ? null : source.getClassByName( className );
+    }
+
+    private void readObject( ObjectInputStream in )
+        throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        parsedSources = new ConcurrentHashMap<Entry, ParsedSource>();
+    }
+
+    private static final class ParsedSource
+    {
+        private boolean parsed;
+
+        private JavaSource source;
+    }
+
+    /**
+     * A jar and the names of its java files by the name of their main class. Only the location is serialized, the
+     * index is read again when needed.
+     */
+    private static final class SourceJar
+        implements Serializable
+    {
+        private final File file;
+
+        private transient URL url;
+
+        private transient volatile Map<String, String> index;
+
+        SourceJar( File file )
+        {
+            this.file = file;
+        }
+
+        /**
+         * @param mainClassName the name of a top level class
+         * @return the java file of the class, otherwise {@code null}
+         * @throws IOException if the entries of the jar couldn't be read
+         */
+        Entry getEntry( String mainClassName )
+            throws IOException
+        {
+            String name = getIndex().get( mainClassName );
+            return name == null ? null : new Entry( this, name );
+        }
+
+        Map<String, String> getIndex()
+            throws IOException
+        {
+            Map<String, String> result = index;
+            if ( result == null )
+            {
+                synchronized ( this )
+                {
+                    result = index;
+                    if ( result == null )
+                    {
+                        result = readIndex();
+                        index = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private Map<String, String> readIndex()
+            throws IOException
+        {
+            url = new URL( "jar:" + file.toURI().toURL().toExternalForm() + "!/" );
+            Map<String, String> result = new HashMap<String, String>();
+            ZipFile zipFile = new ZipFile( file );
+            try
+            {
+                Enumeration<? extends ZipEntry> entries = zipFile.entries();
+                while ( entries.hasMoreElements() )
+                {
+                    String name = entries.nextElement().getName();
+                    if ( isClassFile( name ) )
+                    {
+                        String className = name.substring( 0, name.length() - 5 ).replace( '/', '.' );
+                        // the first entry with a name wins
+                        if ( !result.containsKey( className ) )
+                        {
+                            result.put( className, name );
+                        }
+                    }
+                }
+            }
+            finally
+            {
+                zipFile.close();
+            }
+            return result;
+        }
+
+        /**
+         * @return {@code true} if the name is a java file with a class, which excludes directories, package-info,
+         *         module-info and the copies for other java versions in META-INF
+         */
+        private static boolean isClassFile( String name )
+        {
+            if ( name.length() < 6 || !name.endsWith( ".java" ) )
+            {
+                return false;
+            }
+            for ( int i = 0; i < name.length() - 5; i++ )
+            {
+                char c = name.charAt( i );
+                if ( c == '-' || c == '.' )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A java file in a jar.
+     */
+    private static final class Entry
+    {
+        private final SourceJar jar;
+
+        private final String name;
+
+        Entry( SourceJar jar, String name )
+        {
+            this.jar = jar;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof Entry ) )
+            {
+                return false;
+            }
+            Entry other = (Entry) obj;
+            return jar == other.jar && name.equals( other.name );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * System.identityHashCode( jar ) + name.hashCode();
+        }
+
+        URL getURL()
+            throws MalformedURLException
+        {
+            return new URL( jar.url, name );
+        }
+
+        /**
+         * @return the uncompressed content of the entry
+         * @throws IOException if the entry couldn't be read, or its content doesn't match its checksum
+         */
+        ByteBuffer read()
+            throws IOException
+        {
+            ZipFile zipFile = new ZipFile( jar.file );
+            try
+            {
+                ZipEntry entry = zipFile.getEntry( name );
+                if ( entry == null )
+                {
+                    throw new IOException( "Missing entry: " + name );
+                }
+                if ( entry.getSize() > Integer.MAX_VALUE )
+                {
+                    throw new IOException( "Entry too large: " + name );
+                }
+                byte[] content = new byte[entry.getSize() < 0 ? 8192 : (int) entry.getSize()];
+                int length = 0;
+                InputStream stream = zipFile.getInputStream( entry );
+                try
+                {
+                    int read;
+                    while ( ( read = stream.read( content, length, content.length - length ) ) >= 0 )
+                    {
+                        length += read;
+                        if ( length == content.length )
+                        {
+                            // the size is usually known, so only grow if there's more
+                            int next = stream.read();
+                            if ( next < 0 )
+                            {
+                                break;
+                            }
+                            content = Arrays.copyOf( content, content.length * 2 );
+                            content[length++] = (byte) next;
+                        }
+                    }
+                }
+                finally
+                {
+                    stream.close();
+                }
+                CRC32 crc = new CRC32();
+                crc.update( content, 0, length );
+                if ( entry.getCrc() >= 0 && entry.getCrc() != crc.getValue() )
+                {
+                    throw new IOException( "Invalid entry: " + name );
+                }
+                return ByteBuffer.wrap( content, 0, length );
+            }
+            finally
+            {
+                zipFile.close();
+            }
+        }
+    }
+}
@@ -27,17 +27,38 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Enumeration;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import com.thoughtworks.qdox.builder.Builder;
+import com.thoughtworks.qdox.builder.StreamHandler;
+import com.thoughtworks.qdox.builder.impl.ModelBuilder;
+import com.thoughtworks.qdox.builder.impl.StreamingBuilder;
+import com.thoughtworks.qdox.directorywalker.FileVisitor;
 import com.thoughtworks.qdox.model.JavaClass;
 import com.thoughtworks.qdox.model.JavaPackage;
 import com.thoughtworks.qdox.model.JavaSource;
 import com.thoughtworks.qdox.model.impl.DefaultJavaPackage;
-import com.thoughtworks.qdox.parser.JavaLexer;
 import com.thoughtworks.qdox.parser.ParseException;
 import com.thoughtworks.qdox.parser.impl.JFlexLexer;
 import com.thoughtworks.qdox.parser.impl.Parser;
@@ -65,6 +86,28 @@ public class SourceLibrary
     private String encoding;
     
     private ErrorHandler errorHandler;
+
+    private transient ParseCache parseCache;
+
+    private SourceCodeMode sourceCodeMode = SourceCodeMode.RETAIN;
+
+    private boolean lazyJavadoc;
+
+    // larger sources get a buffer of their own, so a single huge file doesn't pin its memory to the thread
+    private static final int MAX_REUSED_DECODE_BUFFER = 1 << 20;
+
+    // larger files are memory-mapped, smaller ones are read as a mapping is only released once it's garbage collected
+    private static final int MAX_READ_FILE = 1 << 20;
+
+    // the lexer, parser and buffers of every thread are reset for each source it parses
+    private static final ThreadLocal<ReusableParser> REUSABLE_PARSER = new ThreadLocal<ReusableParser>()
+    {
+        @Override
+        protected ReusableParser initialValue()
+        {
+            return new ReusableParser();
+        }
+    };
     
     /**
      * Create a new instance of SourceLibrary and chain it to the parent 
@@ -147,39 +190,426 @@ public class SourceLibrary
     public JavaSource addSource( File file )
         throws ParseException, IOException
     {
-        JavaSource result = null;
-        if ( !"package-info.java".equals( file.getName() ) ) 
+        return registerJavaSource( file, parse( file, true ) );
+    }
+
+    /**
+     * Add a list of {@link File}s containing java code to this library. The files are lexed and parsed concurrently
+     * by the {@code executor}, but the resulting sources are registered in the order of the list, so the content of
+     * this library is the same as calling {@link #addSource(File)} for every file.
+     * 
+     * @param files the java files to add
+     * @param executor the executor used to parse the files
+     * @param fileErrorHandler handler for files which couldn't be read
+     * @return the constructed {@link JavaSource} objects, in the order of the files
+     * @throws ParseException if a file couldn't be parsed to a JavaModel and there's no {@link ErrorHandler}
+     * @throws CancellationException if the calling thread is interrupted while waiting for the executor; the files
+     *             which haven't been parsed yet are cancelled, the sources registered so far remain in this library
+     *             and the interrupt status is restored
+     */
+    public List<JavaSource> addSources( List<File> files, ExecutorService executor, FileVisitor fileErrorHandler )
+        throws ParseException
+    {
+        List<Future<Builder>> futures = new ArrayList<Future<Builder>>( files.size() );
+        for ( final File file : files )
         {
-            if ( "module-info.java".equals( file.getName() ) )
+            futures.add( executor.submit( new Callable<Builder>()
             {
-                // No parse specifications yet
-                return result;
+                public Builder call()
+                    throws IOException
+                {
+                    return parse( file, false );
+                }
+            } ) );
+        }
+
+        List<JavaSource> result = new ArrayList<JavaSource>( files.size() );
+        try
+        {
+            for ( int i = 0; i < files.size(); i++ )
+            {
+                File file = files.get( i );
+                try
+                {
+                    JavaSource source = registerJavaSource( file, futures.get( i ).get() );
+                    if ( source != null )
+                    {
+                        result.add( source );
+                    }
+                }
+                catch ( ExecutionException e )
+                {
+                    Throwable cause = e.getCause();
+                    if ( cause instanceof IOException )
+                    {
+                        fileErrorHandler.visitFile( file );
+                    }
+                    else if ( cause instanceof ParseException )
+                    {
+                        handleParseException( (ParseException) cause );
+                    }
+                    else if ( cause instanceof Error )
+                    {
+                        throw (Error) cause;
+                    }
+                    else
+                    {
+                        throw (RuntimeException) cause;
+                    }
+                }
+                catch ( IOException e )
+                {
+                    fileErrorHandler.visitFile( file );
+                }
             }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            CancellationException cancelled =
+                new CancellationException( "Interrupted after adding " + result.size() + " of " + files.size() + " files" );
+            cancelled.initCause( e );
+            throw cancelled;
+        }
+        finally
+        {
+            for ( Future<Builder> future : futures )
+            {
+                future.cancel( true );
+            }
+        }
+        return result;
+    }
 
-            Builder builder = parse( new FileInputStream( file ), file.toURI().toURL() );
-            
-            if ( builder != null )
+    /**
+     * Parse a file, unless it is a package-info or module-info file.
+     * 
+     * @param file the java file
+     * @param handleErrors {@code true} if the errorHandler should be called for a {@link ParseException}, {@code false}
+     *            if it should be thrown so it can be handled by the calling thread
+     * @return the builder, otherwise {@code null}
+     * @throws IOException if the file couldn't be read
+     */
+    Builder parse( File file, boolean handleErrors )
+        throws IOException
+    {
+        if ( "package-info.java".equals( file.getName() ) || "module-info.java".equals( file.getName() ) )
+        {
+            // No parse specifications yet for module-info, package-info is picked up by its sibling classes
+            return null;
+        }
+        URL url = file.toURI().toURL();
+        if ( parseCache != null )
+        {
+            Builder builder = getModelBuilder( url );
+            if ( parseCache.replay( file, getEncoding(), builder ) )
             {
-                result = builder.getSource();
+                return builder;
             }
-            
-            // if an error is handled by the errorHandler the result will be null
-            if( result != null )
+        }
+        ReusableParser parser = prepareParser( file );
+        return handleErrors ? parse( parser, url, file, null ) : parseStrict( parser, url, file, null );
+    }
+
+    /**
+     * Parse the encoded content of a source which isn't a file, like an entry of an archive.
+     * 
+     * @param bytes the content in the encoding of this library
+     * @param url the location of the source
+     * @return the builder, otherwise {@code null} if an error has been handled by the errorHandler
+     */
+    Builder parse( ByteBuffer bytes, URL url )
+    {
+        return parse( prepareParser( bytes ), url, null, null );
+    }
+
+    /**
+     * Stream the declarations of a {@link File} containing java code to the handler, without building a model or
+     * adding anything to this library. The names used in the source are resolved by this library and its ancestors.
+     * 
+     * @param file a {@link File} which should contain java code
+     * @param handler the handler receiving the declarations
+     * @throws ParseException if the file couldn't be parsed and there's no {@link ErrorHandler}
+     * @throws IOException if the file couldn't be read
+     * @since 2.2
+     */
+    public void streamSource( File file, StreamHandler handler )
+        throws ParseException, IOException
+    {
+        URL url = file.toURI().toURL();
+        stream( prepareParser( file ), url, handler );
+    }
+
+    /**
+     * Stream the declarations of a {@link Reader} containing java code to the handler, without building a model or
+     * adding anything to this library. The reader is closed afterwards.
+     * 
+     * @param reader a {@link Reader} which should contain java code
+     * @param handler the handler receiving the declarations
+     * @throws ParseException if the content couldn't be parsed and there's no {@link ErrorHandler}
+     * @since 2.2
+     */
+    public void streamSource( Reader reader, StreamHandler handler )
+        throws ParseException
+    {
+        try
+        {
+            ReusableParser parser = acquireParser();
+            parser.lexer.reset( reader );
+            stream( parser, null, handler );
+        }
+        finally
+        {
+            try
+            {
+                reader.close();
+            }
+            catch ( IOException e )
+            {
+            }
+        }
+    }
+
+    /**
+     * Stream the declarations of all java files of a jar to the handler, one by one in the order of the jar, without
+     * building a model or adding anything to this library. Only a buffer for the largest java file is kept.
+     * 
+     * @param sourceJar a jar containing java files, like the {@code -sources.jar} of a dependency
+     * @param handler the handler receiving the declarations
+     * @throws ParseException if a file couldn't be parsed and there's no {@link ErrorHandler}
+     * @throws IOException if the jar couldn't be read
+     * @since 2.2
+     */
+    public void streamSourceJar( File sourceJar, StreamHandler handler )
+        throws ParseException, IOException
+    {
+        String jarUrl = "jar:" + sourceJar.toURI().toURL().toExternalForm() + "!/";
+        byte[] buffer = new byte[8192];
+        ZipFile zipFile = new ZipFile( sourceJar );
+        try
+        {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while ( entries.hasMoreElements() )
             {
-                if( getJavaPackage( result.getPackageName() ) == null )
+                ZipEntry entry = entries.nextElement();
+                if ( entry.isDirectory() || !entry.getName().endsWith( ".java" ) )
                 {
-                    File packageInfo = new File(file.getParentFile(), "package-info.java");
-                    if( packageInfo.exists() )
+                    continue;
+                }
+                int length = 0;
+                InputStream stream = zipFile.getInputStream( entry );
+                try
+                {
+                    int read;
+                    while ( ( read = stream.read( buffer, length, buffer.length - length ) ) >= 0 )
                     {
-                        JavaPackage pckg = parse( new FileInputStream( packageInfo ),
-                                                  packageInfo.toURI().toURL() ).getSource().getPackage();
-                        context.add( pckg );
+                        length += read;
+                        if ( length == buffer.length )
+                        {
+                            buffer = Arrays.copyOf( buffer, buffer.length * 2 );
+                        }
                     }
                 }
-                registerJavaSource(result);
+                finally
+                {
+                    stream.close();
+                }
+                URL url = new URL( jarUrl + entry.getName() );
+                stream( prepareParser( ByteBuffer.wrap( buffer, 0, length ) ), url, handler );
+            }
+        }
+        finally
+        {
+            zipFile.close();
+        }
+    }
+
+    /**
+     * @param parser the prepared parser, released once the source has been streamed, also if the handler fails
+     */
+    private void stream( ReusableParser parser, URL url, StreamHandler handler )
+        throws ParseException
+    {
+        boolean begun = false;
+        try
+        {
+            StreamingBuilder builder = new StreamingBuilder( handler, this );
+            builder.setUrl( url );
+            handler.beginSource( builder );
+            begun = true;
+            parse( parser, url, null, builder );
+        }
+        finally
+        {
+            if ( begun )
+            {
+                handler.endSource();
+            }
+            else
+            {
+                // parsing releases the parser, but the source wasn't parsed
+                parser.release();
             }
         }
-    	return result;
+    }
+
+    /**
+     * @param file the java file
+     * @return the parser of the current thread, with its lexer reset to the decoded content of the file
+     * @throws IOException if the file couldn't be read
+     */
+    private ReusableParser prepareParser( File file )
+        throws IOException
+    {
+        long start = getMetricsListener() != null ? System.nanoTime() : 0;
+        ReusableParser parser = acquireParser();
+        CharBuffer content;
+        try
+        {
+            content = decode( parser, file );
+        }
+        catch ( IOException e )
+        {
+            parser.release();
+            throw e;
+        }
+        if ( getMetricsListener() != null )
+        {
+            parser.readNanos = System.nanoTime() - start;
+            parser.bytes = file.length();
+        }
+        parser.lexer.reset( content.array(), content.limit() );
+        return parser;
+    }
+
+    /**
+     * @param bytes the content in the encoding of this library
+     * @return the parser of the current thread, with its lexer reset to the decoded content
+     */
+    private ReusableParser prepareParser( ByteBuffer bytes )
+    {
+        long start = getMetricsListener() != null ? System.nanoTime() : 0;
+        int size = bytes.remaining();
+        ReusableParser parser = acquireParser();
+        CharBuffer content = decode( parser, bytes );
+        if ( getMetricsListener() != null )
+        {
+            parser.readNanos = System.nanoTime() - start;
+            parser.bytes = size;
+        }
+        parser.lexer.reset( content.array(), content.limit() );
+        return parser;
+    }
+
+    /**
+     * Decode a file straight into the reusable buffer of the parser, so the lexer can scan it without an intermediate
+     * Reader. The returned buffer is only valid until the parser is released.
+     * 
+     * @param parser the acquired parser
+     * @param file the java file
+     * @return the decoded content, from position 0 up to the limit
+     * @throws IOException if the file couldn't be read
+     */
+    private CharBuffer decode( ReusableParser parser, File file )
+        throws IOException
+    {
+        FileInputStream stream = new FileInputStream( file );
+        try
+        {
+            FileChannel channel = stream.getChannel();
+            long size = channel.size();
+            if ( size > MAX_READ_FILE )
+            {
+                return decode( parser, channel.map( FileChannel.MapMode.READ_ONLY, 0, size ) );
+            }
+            ByteBuffer bytes = parser.readBuffer;
+            if ( bytes.capacity() < size )
+            {
+                bytes = ByteBuffer.allocate( (int) size );
+                parser.readBuffer = bytes;
+            }
+            bytes.clear();
+            bytes.limit( (int) size );
+            while ( bytes.hasRemaining() && channel.read( bytes ) >= 0 )
+            {
+                // read until the end of the file
+            }
+            bytes.flip();
+            return decode( parser, bytes );
+        }
+        finally
+        {
+            try
+            {
+                stream.close();
+            }
+            catch ( IOException e )
+            {
+            }
+        }
+    }
+
+    private CharBuffer decode( ReusableParser parser, ByteBuffer bytes )
+    {
+        try
+        {
+            CharsetDecoder decoder = parser.getDecoder( getEncoding() );
+            CharBuffer content = parser.decodeBuffer;
+            int capacity = (int) Math.ceil( bytes.remaining() * (double) decoder.maxCharsPerByte() ) + 1;
+            if ( content.capacity() < capacity )
+            {
+                content = CharBuffer.allocate( capacity );
+                if ( capacity <= MAX_REUSED_DECODE_BUFFER )
+                {
+                    parser.decodeBuffer = content;
+                }
+            }
+            content.clear();
+            CoderResult result = decoder.decode( bytes, content, true );
+            if ( !result.isUnderflow() )
+            {
+                result.throwException();
+            }
+            result = decoder.flush( content );
+            if ( !result.isUnderflow() )
+            {
+                result.throwException();
+            }
+            content.flip();
+            return content;
+        }
+        catch ( CharacterCodingException e )
+        {
+            // can't happen, malformed input is replaced
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private JavaSource registerJavaSource( File file, Builder builder )
+        throws IOException
+    {
+        JavaSource result = null;
+        if ( builder != null )
+        {
+            result = builder.getSource();
+        }
+
+        // if an error is handled by the errorHandler the result will be null
+        if ( result != null )
+        {
+            if ( getJavaPackage( result.getPackageName() ) == null )
+            {
+                File packageInfo = new File( file.getParentFile(), "package-info.java" );
+                if ( packageInfo.exists() )
+                {
+                    JavaPackage pckg = parse( new FileInputStream( packageInfo ),
+                                              packageInfo.toURI().toURL() ).getSource().getPackage();
+                    context.add( pckg );
+                }
+            }
+            registerJavaSource( result );
+        }
+        return result;
     }
 
     Builder parse( Reader reader, URL url )
@@ -187,7 +617,9 @@ public class SourceLibrary
     {
         try 
         {
-            return parse( new JFlexLexer( reader ), url );
+            ReusableParser parser = acquireParser();
+            parser.lexer.reset( reader );
+            return parse( parser, url, null, null );
         }
         finally 
         {
@@ -206,7 +638,10 @@ public class SourceLibrary
     {
         try 
         {
-            return parse( new JFlexLexer( new InputStreamReader( stream, getEncoding() ) ), url );
+            Reader reader = new InputStreamReader( stream, getEncoding() );
+            ReusableParser parser = acquireParser();
+            parser.lexer.reset( reader );
+            return parse( parser, url, null, null );
         }
         finally 
         {
@@ -220,17 +655,78 @@ public class SourceLibrary
         }
     }
 
-    private Builder parse( JavaLexer lexer, URL url )
+    private Builder parse( ReusableParser parser, URL url, File file, Builder builder )
+        throws ParseException
+    {
+        try
+        {
+            return parseStrict( parser, url, file, builder );
+        }
+        catch ( ParseException pe )
+        {
+            handleParseException( pe );
+        }
+        return null;
+    }
+
+    /**
+     * @param reusableParser the parser, released once the source has been parsed
+     * @param file the parsed file, so the result can be added to the parseCache, otherwise <code>null</code>
+     * @param builder the builder of the source, otherwise <code>null</code> to build a model
+     */
+    private Builder parseStrict( ReusableParser reusableParser, URL url, File file, Builder builder )
         throws ParseException
     {
-        Builder builder = getModelBuilder();
-        builder.setUrl( url );
-        Parser parser = new Parser( lexer, builder );
-        parser.setDebugLexer( debugLexer );
-        parser.setDebugParser( debugParser );
-        try {
+        try
+        {
+            JFlexLexer lexer = reusableParser.lexer;
+            lexer.setNamePool( getNamePool() );
+            if ( builder == null )
+            {
+                builder = getModelBuilder( url );
+            }
+            ParseCache.Recorder recorder = null;
+            if ( parseCache != null && file != null )
+            {
+                recorder = parseCache.record( file, getEncoding(), builder );
+            }
+            MetricsListener metricsListener = getMetricsListener();
+            MeasuringBuilder measuringBuilder = null;
+            if ( metricsListener != null )
+            {
+                measuringBuilder = new MeasuringBuilder( recorder != null ? recorder : builder );
+            }
+            Parser parser = reusableParser.getParser( measuringBuilder != null ? measuringBuilder
+                            : recorder != null ? recorder : builder );
+            parser.setMeasure( metricsListener != null );
+            parser.setDebugLexer( debugLexer );
+            parser.setDebugParser( debugParser );
+            // cache entries must be complete, whatever the mode of the library replaying them
+            parser.setRetainMethodBodies( sourceCodeMode == SourceCodeMode.RETAIN || recorder != null
+                || ( sourceCodeMode == SourceCodeMode.LAZY && url == null ) );
+            if ( lazyJavadoc && recorder == null && builder instanceof ModelBuilder )
+            {
+                parser.setParseJavadoc( false );
+                lexer.addCommentHandler( (ModelBuilder) builder );
+            }
+            long start = metricsListener != null ? System.nanoTime() : 0;
             if ( parser.parse() )
             {
+                if ( metricsListener != null )
+                {
+                    long nanos = System.nanoTime() - start;
+                    long lexNanos = parser.getLexNanos();
+                    long buildNanos = measuringBuilder.getNanos();
+                    metricsListener.sourceParsed( new SourceMetrics( url, reusableParser.bytes,
+                                                                     parser.getTokenCount(),
+                                                                     parser.getCommentCount(),
+                                                                     reusableParser.readNanos, lexNanos,
+                                                                     nanos - lexNanos - buildNanos, buildNanos ) );
+                }
+                if ( recorder != null )
+                {
+                    recorder.store();
+                }
                 return builder;
             }
         }
@@ -240,18 +736,54 @@ public class SourceLibrary
             {
                 pe.setSourceInfo( url.toExternalForm() );
             }
-            if( errorHandler != null )
-            {
-                errorHandler.handle( pe );
-            }
-            else
-            {
-                throw pe;
-            }
+            throw pe;
+        }
+        finally
+        {
+            reusableParser.release();
         }
         return null;
     }
 
+    /**
+     * @return the lexer and parser of the current thread, or new ones if it's parsing another source already
+     */
+    private static ReusableParser acquireParser()
+    {
+        ReusableParser result = REUSABLE_PARSER.get();
+        if ( result.inUse )
+        {
+            result = new ReusableParser();
+        }
+        result.inUse = true;
+        return result;
+    }
+
+    /**
+     * Drop the lexer, parser and buffers the current thread keeps to parse its next source, for example before a
+     * pooled thread is returned. A parse which is still running on the thread isn't affected, and the next parse
+     * creates new ones.
+     * 
+     * @since 2.2
+     */
+    public static void releaseThreadParser()
+    {
+        REUSABLE_PARSER.remove();
+    }
+
+    private void handleParseException( ParseException pe )
+        throws ParseException
+    {
+        if( errorHandler != null )
+        {
+            errorHandler.handle( pe );
+        }
+        else
+        {
+            throw pe;
+        }
+    }
+
     @Override
     protected JavaClass resolveJavaClass( String name )
     {
@@ -279,6 +811,8 @@ public class SourceLibrary
             {
                 registerJavaClass( cls );
             }
+            // the classes are kept in a private context, so tell the library about the new names
+            classReferencesChanged();
         }
     }
     
@@ -357,6 +891,62 @@ public class SourceLibrary
     {
         return errorHandler;
     }
+
+    /**
+     * Sets the cache to use when parsing a File. Unchanged files are restored from the cache instead of being parsed.
+     * 
+     * @param parseCache the parse cache, might be <code>null</code>
+     */
+    public final void setParseCache( ParseCache parseCache )
+    {
+        this.parseCache = parseCache;
+    }
+
+    public final ParseCache getParseCache()
+    {
+        return parseCache;
+    }
+
+    /**
+     * Sets what is kept of the bodies of methods and constructors of the parsed sources.
+     * 
+     * @param sourceCodeMode the mode, {@link SourceCodeMode#RETAIN} by default
+     */
+    public final void setSourceCodeMode( SourceCodeMode sourceCodeMode )
+    {
+        this.sourceCodeMode = sourceCodeMode;
+    }
+
+    public final SourceCodeMode getSourceCodeMode()
+    {
+        return sourceCodeMode;
+    }
+
+    /**
+     * Set to {@code true} to parse javadoc comments only once the comment or tags of an entity are requested.
+     * 
+     * @param lazyJavadoc the lazy javadoc flag
+     */
+    public final void setLazyJavadoc( boolean lazyJavadoc )
+    {
+        this.lazyJavadoc = lazyJavadoc;
+    }
+
+    public final boolean isLazyJavadoc()
+    {
+        return lazyJavadoc;
+    }
+
+    @Override
+    protected Builder getModelBuilder( URL url )
+    {
+        Builder result = super.getModelBuilder( url );
+        if ( sourceCodeMode != SourceCodeMode.RETAIN && result instanceof ModelBuilder )
+        {
+            ( (ModelBuilder) result ).setSourceCodeMode( sourceCodeMode, getEncoding() );
+        }
+        return result;
+    }
     
     /**
      * Get all classes, including those from parent SourceLibraries
@@ -418,9 +1008,92 @@ public class SourceLibrary
         return Collections.unmodifiableList( result );
     }
 
+    @Override
+    public void freeze()
+    {
+        freeze( context );
+        super.freeze();
+    }
+
     @Override
     protected boolean containsClassReference( String name )
     {
         return context.getClassByName( name ) != null;
     }
+
+    /**
+     * A lexer and the parser reading from it, which are reset instead of created for every source. Creating them
+     * allocates their buffers and stacks, which costs about as much as parsing a small source. The buffers the source
+     * is read and decoded into belong to the parser, so a source parsed while another one is being parsed on the same
+     * thread never overwrites its content.
+     */
+    private static final class ReusableParser
+    {
+        private final JFlexLexer lexer = new JFlexLexer( (Reader) null );
+
+        private Parser parser;
+
+        private CharBuffer decodeBuffer = CharBuffer.allocate( 0 );
+
+        private ByteBuffer readBuffer = ByteBuffer.allocate( 0 );
+
+        // the decoder of the last used encoding, libraries with different encodings may share the thread
+        private CharsetDecoder decoder;
+
+        private String decoderEncoding;
+
+        private boolean inUse;
+
+        // the decoded bytes and the time it took to read them, if known
+        private long bytes = -1;
+
+        private long readNanos;
+
+        /**
+         * @param builder the builder of the source the lexer has been reset to
+         * @return the parser for the source
+         */
+        Parser getParser( Builder builder )
+        {
+            if ( parser == null )
+            {
+                parser = new Parser( lexer, builder );
+            }
+            else
+            {
+                parser.reset( builder );
+            }
+            return parser;
+        }
+
+        /**
+         * @param encoding the name of the charset of the source
+         * @return a decoder for the charset, reset to decode a source from the start
+         */
+        CharsetDecoder getDecoder( String encoding )
+        {
+            if ( decoder == null || !encoding.equals( decoderEncoding ) )
+            {
+                // same replacement behavior as an InputStreamReader
+                decoder = Charset.forName( encoding ).newDecoder().onMalformedInput( CodingErrorAction.REPLACE )
+                    .onUnmappableCharacter( CodingErrorAction.REPLACE );
+                decoderEncoding = encoding;
+            }
+            return decoder.reset();
+        }
+
+        void release()
+        {
+            // neither the source nor its model are kept by the thread
+            lexer.reset( (Reader) null );
+            lexer.setNamePool( null );
+            if ( parser != null )
+            {
+                parser.reset( null );
+            }
+            bytes = -1;
+            readNanos = 0;
+            inUse = false;
+        }
+    }
 }
@@ -0,0 +1,143 @@
+package com.thoughtworks.qdox.library;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.net.URL;
+
+/**
+ * The measurements of a single parsed source, reported to a {@link MetricsListener}.
+ * <p>
+ * The phases don't overlap: lexing excludes the javadoc comments, which are part of parsing, and parsing excludes the
+ * time spent by the builder of the model. Sources which are read through a {@link java.io.Reader} are decoded while
+ * they're lexed, so they don't have a separate read time.
+ * </p>
+ *
+ * @since 2.2
+ */
+public final class SourceMetrics
+{
+    private final URL url;
+
+    private final long bytes;
+
+    private final int tokens;
+
+    private final int comments;
+
+    private final long readNanos;
+
+    private final long lexNanos;
+
+    private final long parseNanos;
+
+    private final long buildNanos;
+
+    SourceMetrics( URL url, long bytes, int tokens, int comments, long readNanos, long lexNanos, long parseNanos,
+                   long buildNanos )
+    {
+        this.url = url;
+        this.bytes = bytes;
+        this.tokens = tokens;
+        this.comments = comments;
+        this.readNanos = readNanos;
+        this.lexNanos = lexNanos;
+        this.parseNanos = parseNanos;
+        this.buildNanos = buildNanos;
+    }
+
+    /**
+     * @return the location of the source, might be <code>null</code>
+     */
+    public URL getUrl()
+    {
+        return url;
+    }
+
+    /**
+     * @return the number of bytes decoded, or <code>-1</code> if the source was read through a {@link java.io.Reader}
+     */
+    public long getBytes()
+    {
+        return bytes;
+    }
+
+    /**
+     * @return the number of tokens passed from the lexer to the parser
+     */
+    public int getTokens()
+    {
+        return tokens;
+    }
+
+    /**
+     * @return the number of javadoc comments parsed
+     */
+    public int getComments()
+    {
+        return comments;
+    }
+
+    /**
+     * @return the time it took to read and decode the source
+     */
+    public long getReadNanos()
+    {
+        return readNanos;
+    }
+
+    /**
+     * @return the time spent in the lexer
+     */
+    public long getLexNanos()
+    {
+        return lexNanos;
+    }
+
+    /**
+     * @return the time spent in the parser, including the javadoc comments
+     */
+    public long getParseNanos()
+    {
+        return parseNanos;
+    }
+
+    /**
+     * @return the time spent building the model
+     */
+    public long getBuildNanos()
+    {
+        return buildNanos;
+    }
+
+    /**
+     * @return the time of all phases together
+     */
+    public long getTotalNanos()
+    {
+        return readNanos + lexNanos + parseNanos + buildNanos;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SourceMetrics[" + url + ", " + bytes + " bytes, " + tokens + " tokens, " + comments + " comments, read="
+            + readNanos + "ns, lex=" + lexNanos + "ns, parse=" + parseNanos + "ns, build=" + buildNanos + "ns]";
+    }
+}
@@ -0,0 +1,136 @@
+package com.thoughtworks.qdox.library;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import com.thoughtworks.qdox.model.JavaClass;
+
+/**
+ * An index of the type hierarchy of the classes of a {@link ClassLibrary}.
+ * For every class the closure of its supertypes is stored as a bitset, together with the reverse edges to its
+ * subtypes. This way {@code isA} is a constant lookup and the derived classes of a type can be read directly.
+ * <p>
+ * The index is a snapshot: it reflects the classes and their supertypes at the moment it was built.
+ * Use {@link AbstractClassLibrary#getTypeHierarchy()} to get an index which is current.
+ * </p>
+ * 
+ * @since 2.2
+ */
+public final class TypeHierarchy
+{
+    private final long version;
+
+    private final Map<String, Integer> ids = new HashMap<String, Integer>();
+
+    private final List<JavaClass> types = new ArrayList<JavaClass>();
+
+    private final List<BitSet> supertypes = new ArrayList<BitSet>();
+
+    private final List<List<JavaClass>> subtypes = new ArrayList<List<JavaClass>>();
+
+    TypeHierarchy( Collection<JavaClass> classes, long version )
+    {
+        this.version = version;
+        for ( JavaClass javaClass : classes )
+        {
+            BitSet closure = supertypesOf( javaClass );
+            for ( int id = closure.nextSetBit( 0 ); id >= 0; id = closure.nextSetBit( id + 1 ) )
+            {
+                subtypes.get( id ).add( javaClass );
+            }
+        }
+    }
+
+    private BitSet supertypesOf( JavaClass javaClass )
+    {
+        String name = javaClass.getFullyQualifiedName();
+        Integer id = ids.get( name );
+        if ( id != null )
+        {
+            // already done, or an illegal cyclic hierarchy which is still being collected
+            return supertypes.get( id );
+        }
+        id = types.size();
+        BitSet closure = new BitSet();
+        closure.set( id );
+        ids.put( name, id );
+        types.add( javaClass );
+        supertypes.add( closure );
+        subtypes.add( new ArrayList<JavaClass>( 0 ) );
+
+        for ( JavaClass implementz : javaClass.getInterfaces() )
+        {
+            closure.or( supertypesOf( implementz ) );
+        }
+        JavaClass superClass = javaClass.getSuperJavaClass();
+        if ( superClass != null )
+        {
+            closure.or( supertypesOf( superClass ) );
+        }
+        return closure;
+    }
+
+    long getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * 
+     * @param javaClass the class
+     * @return <code>true</code> if this index holds the supertypes of exactly this class, otherwise <code>false</code>
+     */
+    public boolean contains( JavaClass javaClass )
+    {
+        Integer id = ( javaClass == null ? null : ids.get( javaClass.getFullyQualifiedName() ) );
+        return id != null && types.get( id ) == javaClass;
+    }
+
+    /**
+     * 
+     * @param javaClass the class, which must be {@link #contains(JavaClass) contained} by this index
+     * @param fullyQualifiedName the name of the supertype
+     * @return <code>true</code> if the class is, extends or implements the type, otherwise <code>false</code>
+     */
+    public boolean isA( JavaClass javaClass, String fullyQualifiedName )
+    {
+        Integer supertype = ids.get( fullyQualifiedName );
+        return supertype != null && supertypes.get( ids.get( javaClass.getFullyQualifiedName() ) ).get( supertype );
+    }
+
+    /**
+     * The derived classes are returned in the order of the classes of the library.
+     * 
+     * @param javaClass the class
+     * @return the classes of the library which are, extend or implement the type, including the type itself
+     */
+    public List<JavaClass> getSubtypes( JavaClass javaClass )
+    {
+        Integer id = ids.get( javaClass.getFullyQualifiedName() );
+        return id == null ? new LinkedList<JavaClass>() : new LinkedList<JavaClass>( subtypes.get( id ) );
+    }
+}
@@ -0,0 +1,46 @@
+package com.thoughtworks.qdox.library.jfr;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// disabled by default, as every type resolution might check several names
+@Name( "com.thoughtworks.qdox.ClassReferenceCheck" )
+@Label( "Class Reference Check" )
+@Category( "QDox" )
+@Description( "A library has been asked whether it knows a class" )
+@Enabled( false )
+class ClassReferenceCheckEvent
+    extends Event
+{
+    @Label( "Library" )
+    String library;
+
+    @Label( "Binary Name" )
+    String binaryName;
+
+    @Label( "Cached" )
+    boolean cached;
+}
@@ -0,0 +1,126 @@
+package com.thoughtworks.qdox.library.jfr;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import com.thoughtworks.qdox.library.AbstractClassLibrary;
+import com.thoughtworks.qdox.library.MetricsListener;
+import com.thoughtworks.qdox.library.SourceMetrics;
+
+/**
+ * Emits the measurements as JDK Flight Recorder events in the category <code>QDox</code>. An event is only created
+ * when it is enabled in the running recording, so the listener costs next to nothing otherwise.
+ * <p>
+ * Another listener can be passed to the constructor, which receives the measurements as well.
+ * </p>
+ * <p>
+ * This class requires Java 11 or later.
+ * </p>
+ * 
+ * @since 2.2
+ */
+public class JfrMetricsListener
+    implements MetricsListener
+{
+    private final MetricsListener delegate;
+
+    public JfrMetricsListener()
+    {
+        this( null );
+    }
+
+    /**
+     * @param delegate the listener which receives the measurements as well, might be <code>null</code>
+     */
+    public JfrMetricsListener( MetricsListener delegate )
+    {
+        this.delegate = delegate;
+    }
+
+    public void sourceParsed( SourceMetrics metrics )
+    {
+        SourceParseEvent event = new SourceParseEvent();
+        if ( event.isEnabled() )
+        {
+            event.url = metrics.getUrl() == null ? null : metrics.getUrl().toExternalForm();
+            event.bytes = metrics.getBytes();
+            event.tokens = metrics.getTokens();
+            event.comments = metrics.getComments();
+            event.readTime = metrics.getReadNanos();
+            event.lexTime = metrics.getLexNanos();
+            event.parseTime = metrics.getParseNanos();
+            event.buildTime = metrics.getBuildNanos();
+            event.commit();
+        }
+        if ( delegate != null )
+        {
+            delegate.sourceParsed( metrics );
+        }
+    }
+
+    public void typeResolved( String typeName, String resolvedName, boolean cached, long nanos )
+    {
+        TypeResolutionEvent event = new TypeResolutionEvent();
+        if ( event.isEnabled() )
+        {
+            event.typeName = typeName;
+            event.resolvedName = resolvedName;
+            event.cached = cached;
+            event.resolveTime = nanos;
+            event.commit();
+        }
+        if ( delegate != null )
+        {
+            delegate.typeResolved( typeName, resolvedName, cached, nanos );
+        }
+    }
+
+    public void classResolved( AbstractClassLibrary library, String binaryName, boolean found, long nanos )
+    {
+        ClassResolutionEvent event = new ClassResolutionEvent();
+        if ( event.isEnabled() )
+        {
+            event.library = library.getClass().getSimpleName();
+            event.binaryName = binaryName;
+            event.found = found;
+            event.resolveTime = nanos;
+            event.commit();
+        }
+        if ( delegate != null )
+        {
+            delegate.classResolved( library, binaryName, found, nanos );
+        }
+    }
+
+    public void classReferenceChecked( AbstractClassLibrary library, String binaryName, boolean cached )
+    {
+        ClassReferenceCheckEvent event = new ClassReferenceCheckEvent();
+        if ( event.isEnabled() )
+        {
+            event.library = library.getClass().getSimpleName();
+            event.binaryName = binaryName;
+            event.cached = cached;
+            event.commit();
+        }
+        if ( delegate != null )
+        {
+            delegate.classReferenceChecked( library, binaryName, cached );
+        }
+    }
+}
@@ -7,11 +7,14 @@
  *   <li><code>OrderedClassLibraryBuilder</code>, which respects the order of added libraries</li>
  * </ul>
  *   
- * There are four types of ClassLibraries:
+ * There are seven types of ClassLibraries:
  * <ul>
  *   <li><code>ClassLoaderLibrary</code>, which uses the classpath to search for sources or binaries</li>
+ *   <li><code>PlatformLibrary</code>, which builds the classes of the JDK from a prebuilt index</li>
  *   <li><code>SourceLibrary</code>, which uses a specific sourcefile</li>
+ *   <li><code>SnapshotLibrary</code>, which parses the sources of a saved snapshot once they are requested</li>
  *   <li><code>SourceFolderLibrary</code>, which tries to locate sourcefiles by translating the package to folders</li>
+ *   <li><code>SourceJarLibrary</code>, which locates sourcefiles in the central directory of source jars</li>
  *   <li><code>ClassNameLibrary</code>, which generates an anonymous class, as if it would exist</li>
  * </ul>
  *   
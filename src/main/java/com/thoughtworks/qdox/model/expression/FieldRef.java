@@ -97,7 +97,7 @@ public class FieldRef
     public String toString()
     {
         JavaField field = getField();
-        if ( field != null && !getDeclaringClass().equals( field.getDeclaringClass() ) )
+        if ( field != null && !field.getDeclaringClass().equals( getDeclaringClass() ) )
         {
             return field.getDeclaringClass().getCanonicalName() + "." + field.getName();
         }
@@ -189,7 +189,7 @@ public class FieldRef
                 }
             }
             
-            if ( field == null )
+            if ( field == null && getDeclaringClass() != null )
             {
                 ClassLibrary classLibrary = getClassLibrary();
                 if ( classLibrary != null )
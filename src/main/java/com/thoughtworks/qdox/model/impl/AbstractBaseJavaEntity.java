@@ -36,6 +36,8 @@ public abstract class AbstractBaseJavaEntity extends AbstractJavaModel implement
 	private List<JavaAnnotation> annotations = Collections.emptyList();
 	private String comment;
 	private List<DocletTag> tags = Collections.emptyList();
+	private volatile UnparsedJavadoc javadoc;
+	private transient volatile TagIndex tagIndex;
 
     public AbstractBaseJavaEntity()
     {
@@ -73,42 +75,42 @@ public abstract class AbstractBaseJavaEntity extends AbstractJavaModel implement
 
     public String getComment()
     {
+        parseJavadoc();
         return comment;
     }
 
     public void setComment( String comment )
     {
+        parseJavadoc();
         this.comment = comment;
     }
 
     public List<DocletTag> getTags()
     {
+        parseJavadoc();
         return tags;
     }
 
     public List<DocletTag> getTagsByName( String name )
     {
-        List<DocletTag> specifiedTags = new LinkedList<DocletTag>();
-        for ( DocletTag docletTag : tags )
-        {
-            if ( docletTag.getName().equals( name ) )
-            {
-                specifiedTags.add( docletTag );
-            }
-        }
-        return specifiedTags;
+        return new LinkedList<DocletTag>( getTagIndex().getTagsByName( name ) );
     }
 
     public DocletTag getTagByName( String name )
     {
-        for ( DocletTag docletTag : tags )
+        return getTagIndex().getTagByName( name );
+    }
+
+    private TagIndex getTagIndex()
+    {
+        List<DocletTag> currentTags = getTags();
+        TagIndex index = tagIndex;
+        if ( index == null || !index.isIndexOf( currentTags ) )
         {
-            if ( docletTag.getName().equals( name ) )
-            {
-                return docletTag;
-            }
+            index = new TagIndex( currentTags );
+            tagIndex = index;
         }
-        return null;
+        return index;
     }
 
     /**
@@ -127,6 +129,66 @@ public abstract class AbstractBaseJavaEntity extends AbstractJavaModel implement
 
     public void setTags( List<DocletTag> tagList )
     {
+        parseJavadoc();
         this.tags = tagList;
     }
+
+    /**
+     * Define the javadoc without parsing it, the comment and tags are set once one of them is requested.
+     * 
+     * @param javadoc the unparsed javadoc
+     * @since 2.2
+     */
+    public void setJavadoc( UnparsedJavadoc javadoc )
+    {
+        this.javadoc = javadoc;
+    }
+
+    /**
+     * Replace the lists of this entity by immutable, right-sized ones, once the model is complete.
+     * Javadoc which hasn't been parsed yet is left as is.
+     */
+    void freeze()
+    {
+        annotations = FrozenList.of( annotations );
+        for ( JavaAnnotation annotation : annotations )
+        {
+            if ( annotation instanceof DefaultJavaAnnotation )
+            {
+                ( (DefaultJavaAnnotation) annotation ).freeze();
+            }
+        }
+        if ( javadoc == null )
+        {
+            tags = FrozenList.of( tags );
+            tagIndex = null;
+        }
+    }
+
+    static void freezeEntities( List<?> entities )
+    {
+        for ( Object entity : entities )
+        {
+            if ( entity instanceof AbstractBaseJavaEntity )
+            {
+                ( (AbstractBaseJavaEntity) entity ).freeze();
+            }
+        }
+    }
+
+    private void parseJavadoc()
+    {
+        if ( javadoc != null )
+        {
+            synchronized ( this )
+            {
+                if ( javadoc != null )
+                {
+                    comment = javadoc.getComment();
+                    tags = javadoc.getTags( this );
+                    javadoc = null;
+                }
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -19,28 +19,71 @@ package com.thoughtworks.qdox.model.impl;
  * under the License.
  */
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import com.thoughtworks.qdox.model.JavaClass;
 import com.thoughtworks.qdox.model.JavaModel;
+import com.thoughtworks.qdox.model.util.Modifiers;
 
 public abstract class AbstractJavaEntity extends AbstractBaseJavaEntity implements JavaModel {
 
-    private List<String> modifiers = Collections.emptyList();
+    private int modifiers;
+    // names set as modifiers which aren't one, null if there are none
+    private List<String> otherModifiers;
     private JavaClass declaringClass;
 	private String name;
 
 	/**
      * Return list of modifiers as Strings.
      * (public, private, protected, final, abstract, static)
-	 * @return a list of modifiers, never <code>null</code>
+	 * @return a list of modifiers in their canonical order, followed by the names which aren't modifiers, never <code>null</code>
 	 */
     public List<String> getModifiers() {
-        return modifiers;
+        if (otherModifiers == null) {
+            return Modifiers.toList(modifiers);
+        }
+        List<String> result = new ArrayList<String>(Modifiers.toList(modifiers));
+        result.addAll(otherModifiers);
+        return Collections.unmodifiableList(result);
     }
 
     public void setModifiers(List<String> modifiers) {
+        int flags = 0;
+        List<String> others = null;
+        for (String name : modifiers) {
+            int flag = Modifiers.flagOf(name);
+            if (flag != 0) {
+                flags |= flag;
+            } else {
+                if (others == null) {
+                    others = new ArrayList<String>();
+                }
+                if (!others.contains(name)) {
+                    others.add(name);
+                }
+            }
+        }
+        this.modifiers = flags;
+        this.otherModifiers = others;
+    }
+
+    /**
+     * @return the modifiers as the bits of {@link Modifiers}
+     * @since 2.2
+     */
+    public int getModifierFlags() {
+        return modifiers;
+    }
+
+    /**
+     * Replaces the modifiers, names set as modifiers which aren't one are kept.
+     *
+     * @param modifiers the modifiers as the bits of {@link Modifiers}
+     * @since 2.2
+     */
+    public void setModifierFlags(int modifiers) {
         this.modifiers = modifiers;
     }
 
@@ -50,7 +93,7 @@ public abstract class AbstractJavaEntity extends AbstractBaseJavaEntity implemen
      * @return <code>true</code> if entity is abstract, otherwise <code>false</code>
      */
     public boolean isAbstract() {
-        return isModifierPresent("abstract");
+        return isModifierPresent(Modifiers.ABSTRACT);
     }
 
     /**
@@ -59,7 +102,7 @@ public abstract class AbstractJavaEntity extends AbstractBaseJavaEntity implemen
      * @return <code>true</code> if entity is public, otherwise <code>false</code>
      */
     public boolean isPublic() {
-        return isModifierPresent("public");
+        return isModifierPresent(Modifiers.PUBLIC);
     }
 
     /**
@@ -68,7 +111,7 @@ public abstract class AbstractJavaEntity extends AbstractBaseJavaEntity implemen
      * @return <code>true</code> if entity is private, otherwise <code>false</code>
      */
     public boolean isPrivate() {
-        return isModifierPresent("private");
+        return isModifierPresent(Modifiers.PRIVATE);
     }
 
     /**
@@ -77,7 +120,7 @@ public abstract class AbstractJavaEntity extends AbstractBaseJavaEntity implemen
      * @return <code>true</code> if entity is protected, otherwise <code>false</code>
      */
     public boolean isProtected() {
-        return isModifierPresent("protected");
+        return isModifierPresent(Modifiers.PROTECTED);
     }
 
     /**
@@ -86,7 +129,7 @@ public abstract class AbstractJavaEntity extends AbstractBaseJavaEntity implemen
      * @return <code>true</code> if entity is static, otherwise <code>false</code>
      */
     public boolean isStatic() {
-        return isModifierPresent("static");
+        return isModifierPresent(Modifiers.STATIC);
     }
 
     /**
@@ -95,7 +138,7 @@ public abstract class AbstractJavaEntity extends AbstractBaseJavaEntity implemen
      * @return <code>true</code> if entity is final, otherwise <code>false</code>
      */
     public boolean isFinal() {
-        return isModifierPresent("final");
+        return isModifierPresent(Modifiers.FINAL);
     }
 
     /**
@@ -104,7 +147,7 @@ public abstract class AbstractJavaEntity extends AbstractBaseJavaEntity implemen
      * @return <code>true</code> if entity is sunchronized, otherwise <code>false</code>
      */
     public boolean isSynchronized() {
-        return isModifierPresent("synchronized");
+        return isModifierPresent(Modifiers.SYNCHRONIZED);
     }
 
     /**
@@ -113,7 +156,7 @@ public abstract class AbstractJavaEntity extends AbstractBaseJavaEntity implemen
      * @return <code>true</code> if entity is transient, otherwise <code>false</code>
      */
     public boolean isTransient() {
-        return isModifierPresent("transient");
+        return isModifierPresent(Modifiers.TRANSIENT);
     }
 
     /**
@@ -123,7 +166,7 @@ public abstract class AbstractJavaEntity extends AbstractBaseJavaEntity implemen
      * @since 1.4
      */
     public boolean isVolatile() {
-        return isModifierPresent("volatile");
+        return isModifierPresent(Modifiers.VOLATILE);
     }
 
     /**
@@ -133,7 +176,7 @@ public abstract class AbstractJavaEntity extends AbstractBaseJavaEntity implemen
      * @since 1.4
      */
     public boolean isNative() {
-        return isModifierPresent("native");
+        return isModifierPresent(Modifiers.NATIVE);
     }
 
     /**
@@ -143,17 +186,17 @@ public abstract class AbstractJavaEntity extends AbstractBaseJavaEntity implemen
      * @since 1.4
      */
     public boolean isStrictfp() {
-        return isModifierPresent("strictfp");
+        return isModifierPresent(Modifiers.STRICTFP);
     }
 
     /**
-     * Returns <code>true</code> if one of the modifiers matches the {@code modifier}
+     * Returns <code>true</code> if the bit of the {@code modifier} is set
      * 
-     * @param modifier the modifier
+     * @param modifier the modifier, one of the bits of {@link Modifiers}
      * @return <code>true</code> if the modifier is present, otherwise <code>false</code>
      */
-    private boolean isModifierPresent(String modifier) {
-        return modifiers.contains(modifier);
+    private boolean isModifierPresent(int modifier) {
+        return (modifiers & modifier) != 0;
     }
 
     public void setDeclaringClass( JavaClass declaringClass )
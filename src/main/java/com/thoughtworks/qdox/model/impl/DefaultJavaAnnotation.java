@@ -44,12 +44,12 @@ public class DefaultJavaAnnotation extends AbstractJavaModel
      * This map contains the parsed AnnotationValue for each property and allows access to the full parse tree,
      * including typerefs and expressions.
      */
-    private final Map<String, AnnotationValue> properties = new LinkedHashMap<String, AnnotationValue>();
+    private Map<String, AnnotationValue> properties = new LinkedHashMap<String, AnnotationValue>();
 
     /**
      * Annotation properties as Parameters
      */
-    private final Map<String, Object> namedParameters = new LinkedHashMap<String, Object>();
+    private Map<String, Object> namedParameters = new LinkedHashMap<String, Object>();
 
     public DefaultJavaAnnotation( JavaClass type, Map<String, Object> namedParameters )
     {
@@ -77,6 +77,16 @@ public class DefaultJavaAnnotation extends AbstractJavaModel
         namedParameters.put( name, value.getParameterValue() );
     }
 
+    /**
+     * Replace the property maps by immutable ones, see {@link AbstractBaseJavaEntity#freeze()}.
+     */
+    void freeze()
+    {
+        properties = FrozenList.of( properties );
+        namedParameters = FrozenList.of( namedParameters );
+        DefaultJavaType.freezeType( type );
+    }
+
     /** {@inheritDoc} */
     public JavaClass getType()
     {
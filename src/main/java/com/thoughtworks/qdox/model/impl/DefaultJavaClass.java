@@ -20,14 +20,19 @@ package com.thoughtworks.qdox.model.impl;
  */
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.thoughtworks.qdox.library.AbstractClassLibrary;
 import com.thoughtworks.qdox.library.ClassLibrary;
+import com.thoughtworks.qdox.library.TypeHierarchy;
 import com.thoughtworks.qdox.model.BeanProperty;
 import com.thoughtworks.qdox.model.DocletTag;
 import com.thoughtworks.qdox.model.JavaClass;
@@ -76,6 +81,12 @@ public class DefaultJavaClass
     // sourceless class can use this property
     private JavaPackage javaPackage;
 
+    // tags of this class and its ancestors by name, valid as long as the library wasn't modified
+    private transient volatile InheritedTags inheritedTags;
+
+    // methods of this class and its ancestors by signature, valid as long as the library wasn't modified
+    private transient volatile MethodTable methodTable;
+
     protected DefaultJavaClass()
     {
     }
@@ -189,15 +200,16 @@ public class DefaultJavaClass
     }
 
     /** {@inheritDoc} */
+    @SuppressWarnings( { "unchecked", "rawtypes" } )
     public List<JavaType> getImplements()
     {
-        return new LinkedList<JavaType>( implementz );
+        return FrozenList.isFrozen( implementz ) ? (List) implementz : new LinkedList<JavaType>( implementz );
     }
 
     /** {@inheritDoc} */
     public List<JavaClass> getInterfaces()
     {
-        return new LinkedList<JavaClass>( implementz );
+        return FrozenList.isFrozen( implementz ) ? implementz : new LinkedList<JavaClass>( implementz );
     }
 
     /** {@inheritDoc} */
@@ -234,6 +246,7 @@ public class DefaultJavaClass
     public void addMethod( JavaMethod meth )
     {
         methods.add( meth );
+        classChanged();
     }
 
     public void setSuperClass( JavaType type )
@@ -243,11 +256,67 @@ public class DefaultJavaClass
             throw new IllegalArgumentException( "enums cannot extend other classes" );
         }
         superClass = type;
+        inheritedTags = null;
+        classChanged();
     }
 
     public void setImplementz( List<JavaClass> implementz )
     {
         this.implementz = implementz;
+        inheritedTags = null;
+        classChanged();
+    }
+
+    // a class which is still being built isn't part of any derived data yet, so it can't make it stale
+    private void classChanged()
+    {
+        AbstractClassLibrary library = getAbstractClassLibrary();
+        if ( library != null && ( methodTable != null || library.getCurrentTypeHierarchy() != null ) )
+        {
+            library.classChanged();
+        }
+    }
+
+    private AbstractClassLibrary getAbstractClassLibrary()
+    {
+        JavaSource source = getSource();
+        ClassLibrary library = ( source == null ? null : source.getJavaClassLibrary() );
+        return ( library instanceof AbstractClassLibrary ? (AbstractClassLibrary) library : null );
+    }
+
+    // only use the hierarchy index once it has been built, a single isA shouldn't index the whole library
+    private TypeHierarchy getCurrentTypeHierarchy()
+    {
+        AbstractClassLibrary library = getAbstractClassLibrary();
+        TypeHierarchy hierarchy = ( library == null ? null : library.getCurrentTypeHierarchy() );
+        return ( hierarchy != null && hierarchy.contains( this ) ? hierarchy : null );
+    }
+
+    @Override
+    public void setTags( List<DocletTag> tagList )
+    {
+        super.setTags( tagList );
+        inheritedTags = null;
+    }
+
+    @Override
+    void freeze()
+    {
+        super.freeze();
+        constructors = FrozenList.of( constructors );
+        freezeEntities( constructors );
+        methods = FrozenList.of( methods );
+        freezeEntities( methods );
+        fields = FrozenList.of( fields );
+        freezeEntities( fields );
+        classes = FrozenList.of( classes );
+        freezeEntities( classes );
+        initializers = FrozenList.of( initializers );
+        implementz = FrozenList.of( implementz );
+        DefaultJavaType.freezeTypes( implementz );
+        typeParameters = FrozenList.of( typeParameters );
+        DefaultJavaType.freezeTypes( typeParameters );
+        DefaultJavaType.freezeType( superClass );
     }
 
     /** {@inheritDoc} */
@@ -408,7 +477,7 @@ public class DefaultJavaClass
     {
         if ( superclasses )
         {
-            return new LinkedList<JavaMethod>( getMethodsFromSuperclassAndInterfaces( this, this ).values() );
+            return new LinkedList<JavaMethod>( getMethodTable().values() );
         }
         else
         {
@@ -416,6 +485,40 @@ public class DefaultJavaClass
         }
     }
 
+    /**
+     * The methods of this class and its ancestors by their declaration signature.
+     * The table is computed once and reused until the library of this class is modified.
+     * 
+     * @return the method table, never <code>null</code>
+     */
+    Map<String, JavaMethod> getMethodTable()
+    {
+        AbstractClassLibrary library = getAbstractClassLibrary();
+        if ( library == null )
+        {
+            return getMethodsFromSuperclassAndInterfaces( this, this );
+        }
+        long modificationCount = library.getModificationCount();
+        MethodTable table = methodTable;
+        if ( table == null || table.modificationCount != modificationCount )
+        {
+            table = new MethodTable( getMethodsFromSuperclassAndInterfaces( this, this ), modificationCount );
+            methodTable = table;
+        }
+        return table.methods;
+    }
+
+    // reuse the method table of the ancestor, unless the hierarchy is cyclic
+    private static Map<String, JavaMethod> getInheritedMethods( JavaClass rootClass, JavaClass clazz )
+    {
+        JavaClass realClass = ( clazz instanceof DefaultJavaType ? ( (DefaultJavaType) clazz ).resolveRealClass() : clazz );
+        if ( realClass instanceof DefaultJavaClass && !realClass.equals( rootClass ) )
+        {
+            return ( (DefaultJavaClass) realClass ).getMethodTable();
+        }
+        return getMethodsFromSuperclassAndInterfaces( rootClass, clazz );
+    }
+
     private static Map<String, JavaMethod> getMethodsFromSuperclassAndInterfaces( JavaClass rootClass,
                                                                                   JavaClass callingClazz )
     {
@@ -435,8 +538,7 @@ public class DefaultJavaClass
         JavaClass superclass = callingClazz.getSuperJavaClass();
         if ( superclass != null )
         {
-            Map<String, JavaMethod> superClassMethods =
-                getMethodsFromSuperclassAndInterfaces( callingClazz, superclass );
+            Map<String, JavaMethod> superClassMethods = getInheritedMethods( callingClazz, superclass );
             for ( Map.Entry<String, JavaMethod> methodEntry : superClassMethods.entrySet() )
             {
                 if ( !result.containsKey( methodEntry.getKey() ) )
@@ -458,7 +560,7 @@ public class DefaultJavaClass
 
         for ( JavaClass clazz : callingClazz.getInterfaces() )
         {
-            Map<String, JavaMethod> interfaceMethods = getMethodsFromSuperclassAndInterfaces( callingClazz, clazz );
+            Map<String, JavaMethod> interfaceMethods = getInheritedMethods( callingClazz, clazz );
             for ( Map.Entry<String, JavaMethod> methodEntry : interfaceMethods.entrySet() )
             {
                 if ( !result.containsKey( methodEntry.getKey() ) )
@@ -655,6 +757,11 @@ public class DefaultJavaClass
         {
             return true;
         }
+        TypeHierarchy hierarchy = getCurrentTypeHierarchy();
+        if ( hierarchy != null )
+        {
+            return hierarchy.isA( this, fullClassName );
+        }
         for ( JavaClass implementz : getInterfaces() )
         {
             if ( implementz.isA( fullClassName ) )
@@ -683,6 +790,11 @@ public class DefaultJavaClass
         }
         else if ( javaClass != null )
         {
+            TypeHierarchy hierarchy = getCurrentTypeHierarchy();
+            if ( hierarchy != null )
+            {
+                return hierarchy.isA( this, javaClass.getFullyQualifiedName() );
+            }
             // ask our interfaces
             for ( JavaClass intrfc : getInterfaces() )
             {
@@ -773,6 +885,19 @@ public class DefaultJavaClass
     /** {@inheritDoc} */
     public List<JavaClass> getDerivedClasses()
     {
+        AbstractClassLibrary library = getAbstractClassLibrary();
+        if ( library != null )
+        {
+            List<JavaClass> result = library.getTypeHierarchy().getSubtypes( this );
+            for ( Iterator<JavaClass> iter = result.iterator(); iter.hasNext(); )
+            {
+                if ( iter.next() == this )
+                {
+                    iter.remove();
+                }
+            }
+            return result;
+        }
         List<JavaClass> result = new LinkedList<JavaClass>();
         for ( JavaClass clazz : getSource().getJavaClassLibrary().getJavaClasses() )
         {
@@ -788,7 +913,26 @@ public class DefaultJavaClass
     @Override
 	public List<DocletTag> getTagsByName( String name, boolean superclasses )
     {
-        return getTagsRecursive( this, name, superclasses );
+        if ( !superclasses )
+        {
+            return getTagsByName( name );
+        }
+        // an ancestor might have been added to the library since the tags were collected
+        AbstractClassLibrary library = getAbstractClassLibrary();
+        long modificationCount = ( library == null ? -1 : library.getModificationCount() );
+        InheritedTags tags = inheritedTags;
+        if ( tags == null || tags.modificationCount != modificationCount )
+        {
+            tags = new InheritedTags( modificationCount );
+            inheritedTags = tags;
+        }
+        List<DocletTag> result = tags.tagsByName.get( name );
+        if ( result == null )
+        {
+            result = Collections.unmodifiableList( getTagsRecursive( this, name, true ) );
+            tags.tagsByName.put( name, result );
+        }
+        return new LinkedList<DocletTag>( result );
     }
 
     private List<DocletTag> getTagsRecursive( JavaClass javaClass, String name, boolean superclasses )
@@ -868,4 +1012,29 @@ public class DefaultJavaClass
         return getSource().getJavaClassLibrary();
     }
 
-}
\ No newline at end of file
+    private static final class MethodTable
+    {
+        private final Map<String, JavaMethod> methods;
+
+        private final long modificationCount;
+
+        MethodTable( Map<String, JavaMethod> methods, long modificationCount )
+        {
+            this.methods = Collections.unmodifiableMap( methods );
+            this.modificationCount = modificationCount;
+        }
+    }
+
+    private static final class InheritedTags
+    {
+        private final Map<String, List<DocletTag>> tagsByName = new ConcurrentHashMap<String, List<DocletTag>>();
+
+        private final long modificationCount;
+
+        InheritedTags( long modificationCount )
+        {
+            this.modificationCount = modificationCount;
+        }
+    }
+
+}
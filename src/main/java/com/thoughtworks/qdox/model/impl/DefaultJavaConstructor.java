@@ -26,6 +26,14 @@ public class DefaultJavaConstructor
         this.typeParameters = typeParameters;
     }
 
+    @Override
+    void freeze()
+    {
+        super.freeze();
+        typeParameters = FrozenList.of( typeParameters );
+        DefaultJavaType.freezeTypes( typeParameters );
+    }
+
     /** {@inheritDoc} */
     public List<JavaTypeVariable<JavaConstructor>> getTypeParameters()
     {
@@ -27,6 +27,9 @@ public abstract class DefaultJavaExecutable
     private List<JavaClass> exceptions = Collections.emptyList();
     private boolean varArgs;
     private String sourceCode;
+    private SourceText sourceText;
+    private int sourceCodeStart;
+    private int sourceCodeEnd;
 
     /** {@inheritDoc} */
     public List<JavaParameter> getParameters()
@@ -48,13 +51,14 @@ public abstract class DefaultJavaExecutable
     /** {@inheritDoc} */
     public List<JavaClass> getExceptions()
     {
-        return new LinkedList<JavaClass>( exceptions );
+        return FrozenList.isFrozen( exceptions ) ? exceptions : new LinkedList<JavaClass>( exceptions );
     }
 
     /** {@inheritDoc} */
+    @SuppressWarnings( { "unchecked", "rawtypes" } )
     public List<JavaType> getExceptionTypes()
     {
-        return new LinkedList<JavaType>( exceptions );
+        return FrozenList.isFrozen( exceptions ) ? (List) exceptions : new LinkedList<JavaType>( exceptions );
     }
 
     /** {@inheritDoc} */
@@ -74,6 +78,16 @@ public abstract class DefaultJavaExecutable
         this.exceptions = exceptions;
     }
 
+    @Override
+    void freeze()
+    {
+        super.freeze();
+        parameters = FrozenList.of( parameters );
+        freezeEntities( parameters );
+        exceptions = FrozenList.of( exceptions );
+        DefaultJavaType.freezeTypes( exceptions );
+    }
+
     protected boolean signatureMatches( List<JavaType> parameterTypes, boolean varArgs )
     {
         List<JavaType> parameterTypeList;
@@ -148,12 +162,33 @@ public abstract class DefaultJavaExecutable
     /** {@inheritDoc} */
     public String getSourceCode()
     {
+        if ( sourceText != null )
+        {
+            return sourceText.substring( sourceCodeStart, sourceCodeEnd );
+        }
     	return sourceCode;
     }
 
     public void setSourceCode( String sourceCode )
     {
     	this.sourceCode = sourceCode;
+    	this.sourceText = null;
+    }
+
+    /**
+     * Define the source code as a part of the source text, which is only read when it's requested.
+     * 
+     * @param sourceText the text of the source
+     * @param start the offset of the first character of the source code
+     * @param end the offset after the last character of the source code
+     * @since 2.2
+     */
+    public void setSourceCode( SourceText sourceText, int start, int end )
+    {
+        this.sourceCode = null;
+        this.sourceText = sourceText;
+        this.sourceCodeStart = start;
+        this.sourceCodeEnd = end;
     }
 
     public String getCallSignature()
@@ -111,6 +111,18 @@ public class DefaultJavaField
         this.enumConstantClass = enumConstantClass;
     }
 
+    @Override
+    void freeze()
+    {
+        super.freeze();
+        DefaultJavaType.freezeType( type );
+        enumConstantArguments = FrozenList.of( enumConstantArguments );
+        if ( enumConstantClass instanceof DefaultJavaClass )
+        {
+            ( (DefaultJavaClass) enumConstantClass ).freeze();
+        }
+    }
+
     /**
      * @see java.lang.reflect.Field#toString()
      */
@@ -111,6 +111,15 @@ public class DefaultJavaMethod extends DefaultJavaExecutable implements JavaMeth
         this.returns = returns;
     }
 
+    @Override
+    void freeze()
+    {
+        super.freeze();
+        typeParameters = FrozenList.of( typeParameters );
+        DefaultJavaType.freezeTypes( typeParameters );
+        DefaultJavaType.freezeType( returns );
+    }
+
     @Override
     public boolean equals( Object obj )
     {
@@ -19,6 +19,7 @@ package com.thoughtworks.qdox.model.impl;
  * under the License.
  */
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
@@ -76,6 +77,19 @@ public class DefaultJavaPackage extends AbstractBaseJavaEntity implements JavaPa
 		classes.add(clazz);
 	}
 
+    /**
+     * Replace the lists of this package by immutable, right-sized ones, see {@link DefaultJavaSource#freeze()}.
+     * A package stays open for the classes of sources which are added later, so its classes are only right-sized.
+     * 
+     * @since 2.2
+     */
+    @Override
+    public void freeze()
+    {
+        super.freeze();
+        classes = new ArrayList<JavaClass>( classes );
+    }
+
     /** {@inheritDoc} */
 	public Collection<JavaClass> getClasses() {
 	    //avoid infinitive  recursion
@@ -84,6 +84,13 @@ public class DefaultJavaParameter extends AbstractBaseJavaEntity implements Java
     {
         this.executable = executable;
     }
+
+    @Override
+    void freeze()
+    {
+        super.freeze();
+        DefaultJavaType.freezeType( type );
+    }
     
     /** {@inheritDoc} */
     @Override
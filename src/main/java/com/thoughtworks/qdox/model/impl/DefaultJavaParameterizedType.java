@@ -47,6 +47,13 @@ public class DefaultJavaParameterizedType extends DefaultJavaType implements Jav
     {
         this.actualArgumentTypes = actualArgumentTypes;
     }
+
+    @Override
+    void freeze()
+    {
+        actualArgumentTypes = FrozenList.of( actualArgumentTypes );
+        freezeTypes( actualArgumentTypes );
+    }
     
     /** {@inheritDoc} */
 	@Override
@@ -30,6 +30,7 @@ import com.thoughtworks.qdox.model.JavaClass;
 import com.thoughtworks.qdox.model.JavaModelUtils;
 import com.thoughtworks.qdox.model.JavaPackage;
 import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.type.ImportTable;
 import com.thoughtworks.qdox.writer.ModelWriter;
 import com.thoughtworks.qdox.writer.ModelWriterFactory;
 import com.thoughtworks.qdox.writer.impl.DefaultModelWriter;
@@ -40,7 +41,8 @@ public class DefaultJavaSource implements JavaSource, Serializable {
     private ModelWriterFactory modelWriterFactory;
     
     private JavaPackage pkg;
-    private final List<String> imports = new LinkedList<String>();
+    private List<String> imports = new LinkedList<String>();
+    private transient volatile ImportTable importTable;
     private List<JavaClass> classes = new LinkedList<JavaClass>();
     private URL url;
 
@@ -85,13 +87,45 @@ public class DefaultJavaSource implements JavaSource, Serializable {
         return imports;
     }
 
+    /**
+     * The imports compiled for type resolution, shared by all types of this source.
+     * 
+     * @return the import table, never <code>null</code>
+     * @since 2.2
+     */
+    public ImportTable getImportTable() {
+        ImportTable result = importTable;
+        ImportTable current = ( result == null ? new ImportTable( imports ) : result.update() );
+        if ( current != result ) {
+            importTable = current;
+        }
+        return current;
+    }
+
     public void addClass(JavaClass cls) {
         classes.add(cls);
     }
 
     /** {@inheritDoc} */
     public List<JavaClass> getClasses() {
-      return Collections.unmodifiableList( classes );
+      return FrozenList.isFrozen( classes ) ? classes : Collections.unmodifiableList( classes );
+    }
+
+    /**
+     * Replace the lists of this source and its classes by immutable, right-sized ones. Once the model is complete
+     * it's never modified, so this shrinks the retained heap of a library without changing its content.
+     * Adding to a frozen source or class fails with an {@link UnsupportedOperationException}.
+     * 
+     * @since 2.2
+     */
+    public void freeze() {
+        imports = FrozenList.of( imports );
+        importTable = null;
+        classes = FrozenList.of( classes );
+        AbstractBaseJavaEntity.freezeEntities( classes );
+        if ( pkg instanceof DefaultJavaPackage ) {
+            ( (DefaultJavaPackage) pkg ).freeze();
+        }
     }
 
     /** {@inheritDoc} */
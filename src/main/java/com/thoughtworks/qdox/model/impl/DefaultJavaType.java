@@ -90,6 +90,32 @@ public class DefaultJavaType implements JavaClass, JavaType, Serializable {
     {
         this( fullName, 0 );
     }
+
+    /**
+     * Replace the lists of this type by immutable, right-sized ones, see {@link AbstractBaseJavaEntity#freeze()}.
+     */
+    void freeze()
+    {
+    }
+
+    static void freezeType( JavaType type )
+    {
+        if ( type instanceof DefaultJavaType )
+        {
+            ( (DefaultJavaType) type ).freeze();
+        }
+    }
+
+    static void freezeTypes( List<? extends JavaType> types )
+    {
+        if ( types != null )
+        {
+            for ( JavaType type : types )
+            {
+                freezeType( type );
+            }
+        }
+    }
     
     /** {@inheritDoc} */
 	public String getBinaryName()
@@ -269,7 +295,7 @@ public class DefaultJavaType implements JavaClass, JavaType, Serializable {
         return getFullyQualifiedName().hashCode();
     }
     
-    private JavaClass resolveRealClass() 
+    JavaClass resolveRealClass() 
     {
         JavaClass result = null;
         String qualifiedName = isResolved() ? fullName : name;
@@ -280,6 +306,11 @@ public class DefaultJavaType implements JavaClass, JavaType, Serializable {
         else
         {
             result = typeResolver.getJavaClass( qualifiedName );
+            if ( result == null )
+            {
+                // not part of the library, like a type variable when there's no ClassNameLibrary
+                result = new DefaultJavaClass( qualifiedName );
+            }
         }
         return result;
     }
@@ -58,6 +58,13 @@ public class DefaultJavaTypeVariable<D extends JavaGenericDeclaration>
     {
         this.bounds = bounds;
     }
+
+    @Override
+    void freeze()
+    {
+        bounds = FrozenList.of( bounds );
+        freezeTypes( bounds );
+    }
     
     /** {@inheritDoc} */
     public D getGenericDeclaration()
@@ -55,6 +55,12 @@ public class DefaultJavaWildcardType extends DefaultJavaType
         this.boundType = boundType;
     }
 
+    @Override
+    void freeze()
+    {
+        freezeTypes( bounds );
+    }
+
     @Override
     public JavaType[] getUpperBounds()
     {
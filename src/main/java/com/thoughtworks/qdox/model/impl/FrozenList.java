@@ -0,0 +1,131 @@
+package com.thoughtworks.qdox.model.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list backed by a right-sized array, used by the frozen model. All empty lists share one instance and
+ * a single element is kept without an array.
+ */
+final class FrozenList<E>
+    extends AbstractList<E>
+    implements RandomAccess, Serializable
+{
+    private static final FrozenList<Object> EMPTY = new FrozenList<Object>( null, new Object[0] );
+
+    private final Object element;
+
+    private final Object[] elements;
+
+    private FrozenList( Object element, Object[] elements )
+    {
+        this.element = element;
+        this.elements = elements;
+    }
+
+    /**
+     * @param list the list to freeze, may be <code>null</code>
+     * @return an immutable copy of the list, or the list itself if it's already frozen
+     */
+    @SuppressWarnings( "unchecked" )
+    static <E> List<E> of( List<E> list )
+    {
+        if ( list == null || list instanceof FrozenList )
+        {
+            return list;
+        }
+        switch ( list.size() )
+        {
+            case 0:
+                return (List<E>) EMPTY;
+            case 1:
+                return new FrozenList<E>( list.get( 0 ), null );
+            default:
+                return new FrozenList<E>( null, list.toArray() );
+        }
+    }
+
+    /**
+     * @param list the list to check
+     * @return <code>true</code> if the list has been frozen, so it can be shared instead of copied
+     */
+    static boolean isFrozen( List<?> list )
+    {
+        return list instanceof FrozenList;
+    }
+
+    /**
+     * Maps keep their order, so only the empty and single entry maps are replaced.
+     *
+     * @param map the map to freeze
+     * @return an immutable map with the same entries as the map, or the map itself if it has more than one entry
+     */
+    static <K, V> Map<K, V> of( Map<K, V> map )
+    {
+        switch ( map.size() )
+        {
+            case 0:
+                return Collections.emptyMap();
+            case 1:
+                Map.Entry<K, V> entry = map.entrySet().iterator().next();
+                return Collections.singletonMap( entry.getKey(), entry.getValue() );
+            default:
+                return map;
+        }
+    }
+
+    @SuppressWarnings( "unchecked" )
+    @Override
+    public E get( int index )
+    {
+        if ( elements == null )
+        {
+            if ( index != 0 )
+            {
+                throw new IndexOutOfBoundsException( "Index: " + index + ", Size: 1" );
+            }
+            return (E) element;
+        }
+        return (E) elements[index];
+    }
+
+    @Override
+    public int size()
+    {
+        return elements == null ? 1 : elements.length;
+    }
+
+    @Override
+    public Object[] toArray()
+    {
+        return elements == null ? new Object[] { element } : elements.clone();
+    }
+
+    private Object readResolve()
+    {
+        return elements != null && elements.length == 0 ? EMPTY : this;
+    }
+}
@@ -0,0 +1,103 @@
+package com.thoughtworks.qdox.model.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Serializable;
+import java.lang.ref.SoftReference;
+import java.net.URL;
+
+/**
+ * The text of a source, which is read again from its URL when a part of it is requested. The text is only softly
+ * referenced, so it doesn't add to the retained heap of the model.
+ * 
+ * @since 2.2
+ */
+public class SourceText
+    implements Serializable
+{
+    private final URL url;
+
+    private final String encoding;
+
+    private transient SoftReference<String> text;
+
+    /**
+     * @param url the URL of the source
+     * @param encoding the encoding of the source, or <code>null</code> for the platform default
+     */
+    public SourceText( URL url, String encoding )
+    {
+        this.url = url;
+        this.encoding = encoding;
+    }
+
+    public URL getURL()
+    {
+        return url;
+    }
+
+    /**
+     * @param start the offset of the first character
+     * @param end the offset after the last character
+     * @return the text between the offsets, or <code>null</code> if the source can't be read or has become shorter
+     */
+    public String substring( int start, int end )
+    {
+        String result = text != null ? text.get() : null;
+        if ( result == null )
+        {
+            try
+            {
+                result = read();
+            }
+            catch ( IOException e )
+            {
+                return null;
+            }
+            text = new SoftReference<String>( result );
+        }
+        return end <= result.length() ? result.substring( start, end ) : null;
+    }
+
+    private String read()
+        throws IOException
+    {
+        Reader reader =
+            encoding != null ? new InputStreamReader( url.openStream(), encoding )
+                            : new InputStreamReader( url.openStream() );
+        try
+        {
+            StringBuilder result = new StringBuilder();
+            char[] buffer = new char[8192];
+            for ( int length; ( length = reader.read( buffer ) ) >= 0; )
+            {
+                result.append( buffer, 0, length );
+            }
+            return result.toString();
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.thoughtworks.qdox.model.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.thoughtworks.qdox.model.DocletTag;
+
+/**
+ * The tags of an entity grouped by name. An entity only has a few distinct tag names, so they're kept in an array
+ * which is scanned, instead of a hashed map.
+ */
+final class TagIndex
+{
+    // the tags the index was built for, the list of the entity may be changed in place
+    private final DocletTag[] tags;
+
+    private final String[] names;
+
+    private final List<DocletTag>[] tagsByName;
+
+    @SuppressWarnings( "unchecked" )
+    TagIndex( List<DocletTag> tags )
+    {
+        this.tags = tags.toArray( new DocletTag[tags.size()] );
+        List<String> nameList = new ArrayList<String>();
+        List<List<DocletTag>> tagLists = new ArrayList<List<DocletTag>>();
+        for ( DocletTag tag : tags )
+        {
+            int index = nameList.indexOf( tag.getName() );
+            if ( index < 0 )
+            {
+                index = nameList.size();
+                nameList.add( tag.getName() );
+                tagLists.add( new ArrayList<DocletTag>( 1 ) );
+            }
+            tagLists.get( index ).add( tag );
+        }
+        this.names = nameList.toArray( new String[nameList.size()] );
+        this.tagsByName = new List[names.length];
+        for ( int i = 0; i < names.length; i++ )
+        {
+            tagsByName[i] = Collections.unmodifiableList( tagLists.get( i ) );
+        }
+    }
+
+    /**
+     * @param tags the current tags of the entity
+     * @return {@code true} if this index was built for exactly these tags, in the same order
+     */
+    boolean isIndexOf( List<DocletTag> tags )
+    {
+        if ( tags.size() != this.tags.length )
+        {
+            return false;
+        }
+        int i = 0;
+        for ( DocletTag tag : tags )
+        {
+            if ( tag != this.tags[i++] )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    List<DocletTag> getTagsByName( String name )
+    {
+        for ( int i = 0; i < names.length; i++ )
+        {
+            if ( names[i].equals( name ) )
+            {
+                return tagsByName[i];
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    DocletTag getTagByName( String name )
+    {
+        for ( int i = 0; i < names.length; i++ )
+        {
+            if ( names[i].equals( name ) )
+            {
+                return tagsByName[i].get( 0 );
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,185 @@
+package com.thoughtworks.qdox.model.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Modifiers as the bits of an <code>int</code>, from the parser to the model. The modifiers known by
+ * {@link Modifier} have the same bits, so the access flags of a class file can be used as they are.
+ * <p>
+ * The names of a combination of modifiers are always listed in the same order, the one of
+ * {@link Modifier#toString(int)}, with the modifiers it doesn't know where the JLS suggests them. The lists are
+ * shared by all declarations with the same modifiers.
+ *
+ * @since 2.2
+ */
+public final class Modifiers
+{
+    public static final int PUBLIC = Modifier.PUBLIC;
+
+    public static final int PROTECTED = Modifier.PROTECTED;
+
+    public static final int PRIVATE = Modifier.PRIVATE;
+
+    public static final int ABSTRACT = Modifier.ABSTRACT;
+
+    public static final int STATIC = Modifier.STATIC;
+
+    public static final int FINAL = Modifier.FINAL;
+
+    public static final int TRANSIENT = Modifier.TRANSIENT;
+
+    public static final int VOLATILE = Modifier.VOLATILE;
+
+    public static final int SYNCHRONIZED = Modifier.SYNCHRONIZED;
+
+    public static final int NATIVE = Modifier.NATIVE;
+
+    public static final int STRICTFP = Modifier.STRICT;
+
+    /**
+     * Only set for classes read from a class file, which don't know if they were declared as interface otherwise.
+     */
+    public static final int INTERFACE = Modifier.INTERFACE;
+
+    // bits which aren't used by the access flags of a class file
+
+    public static final int DEFAULT = 0x10000;
+
+    public static final int SEALED = 0x20000;
+
+    public static final int NON_SEALED = 0x40000;
+
+    public static final int TRANSITIVE = 0x80000;
+
+    private static final int[] FLAGS = { PUBLIC, PROTECTED, PRIVATE, ABSTRACT, DEFAULT, STATIC, FINAL, SEALED,
+        NON_SEALED, TRANSIENT, VOLATILE, SYNCHRONIZED, NATIVE, STRICTFP, INTERFACE, TRANSITIVE };
+
+    private static final String[] NAMES = { "public", "protected", "private", "abstract", "default", "static", "final",
+        "sealed", "non-sealed", "transient", "volatile", "synchronized", "native", "strictfp", "interface",
+        "transitive" };
+
+    /**
+     * All modifiers, other bits are ignored.
+     */
+    public static final int ALL = all();
+
+    private static final ConcurrentMap<Integer, List<String>> LISTS = new ConcurrentHashMap<Integer, List<String>>();
+
+    private Modifiers()
+    {
+    }
+
+    private static int all()
+    {
+        int result = 0;
+        for ( int flag : FLAGS )
+        {
+            result |= flag;
+        }
+        return result;
+    }
+
+    /**
+     * @param name the name of a modifier, like it's written in a source
+     * @return the bit of the modifier
+     * @throws IllegalArgumentException if the name isn't a modifier
+     */
+    public static int valueOf( String name )
+    {
+        int result = flagOf( name );
+        if ( result == 0 )
+        {
+            throw new IllegalArgumentException( "Unknown modifier: " + name );
+        }
+        return result;
+    }
+
+    /**
+     * @param name any name
+     * @return the bit of the modifier, or <code>0</code> if the name isn't a modifier
+     */
+    public static int flagOf( String name )
+    {
+        for ( int i = 0; i < NAMES.length; i++ )
+        {
+            if ( NAMES[i].equals( name ) )
+            {
+                return FLAGS[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param names the names of modifiers
+     * @return the bits of all the modifiers
+     * @throws IllegalArgumentException if one of the names isn't a modifier
+     */
+    public static int valueOf( Collection<String> names )
+    {
+        int result = 0;
+        for ( String name : names )
+        {
+            result |= valueOf( name );
+        }
+        return result;
+    }
+
+    /**
+     * @param flags the bits of the modifiers
+     * @return the names of the modifiers, in their canonical order; the list can't be modified
+     */
+    public static List<String> toList( int flags )
+    {
+        flags &= ALL;
+        if ( flags == 0 )
+        {
+            return Collections.emptyList();
+        }
+        Integer key = Integer.valueOf( flags );
+        List<String> result = LISTS.get( key );
+        if ( result == null )
+        {
+            List<String> names = new ArrayList<String>( Integer.bitCount( flags ) );
+            for ( int i = 0; i < FLAGS.length; i++ )
+            {
+                if ( ( flags & FLAGS[i] ) != 0 )
+                {
+                    names.add( NAMES[i] );
+                }
+            }
+            result = Collections.unmodifiableList( names );
+            List<String> current = LISTS.putIfAbsent( key, result );
+            if ( current != null )
+            {
+                result = current;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,134 @@
+package com.thoughtworks.qdox.model.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A pool of names, like identifiers, package names, type names and imports, so equal names share one instance. A
+ * model of many sources keeps every name once instead of once per occurrence, and lookups by a pooled name can
+ * mostly be decided by identity.
+ * <p>
+ * A strong pool keeps its names as long as the pool is used, which fits a pool per library. A weak pool drops the
+ * names nothing else refers to anymore, which fits a pool shared by libraries which come and go. Both can be used
+ * by several threads at once.
+ *
+ * @since 2.2
+ */
+public final class NamePool
+{
+    // the weak maps are split by hash, so parsing threads rarely wait for each other
+    private static final int SEGMENTS = 16;
+
+    private final ConcurrentMap<String, String> names;
+
+    private final Map<String, WeakReference<String>>[] weakNames;
+
+    /**
+     * Creates a strong pool.
+     */
+    public NamePool()
+    {
+        this( false );
+    }
+
+    /**
+     * @param weak <code>true</code> if names which are only referred to by the pool can be garbage collected
+     */
+    @SuppressWarnings( "unchecked" )
+    public NamePool( boolean weak )
+    {
+        if ( weak )
+        {
+            names = null;
+            weakNames = new Map[SEGMENTS];
+            for ( int i = 0; i < SEGMENTS; i++ )
+            {
+                weakNames[i] = new WeakHashMap<String, WeakReference<String>>();
+            }
+        }
+        else
+        {
+            names = new ConcurrentHashMap<String, String>();
+            weakNames = null;
+        }
+    }
+
+    /**
+     * @return <code>true</code> if names which are only referred to by the pool can be garbage collected
+     */
+    public boolean isWeak()
+    {
+        return weakNames != null;
+    }
+
+    /**
+     * @param name the name, might be <code>null</code>
+     * @return the pooled name equal to the name, which is the name itself if it wasn't pooled yet
+     */
+    public String intern( String name )
+    {
+        if ( name == null )
+        {
+            return null;
+        }
+        if ( names != null )
+        {
+            String result = names.putIfAbsent( name, name );
+            return result != null ? result : name;
+        }
+        Map<String, WeakReference<String>> segment = weakNames[( name.hashCode() & 0x7fffffff ) % SEGMENTS];
+        synchronized ( segment )
+        {
+            WeakReference<String> reference = segment.get( name );
+            String result = reference != null ? reference.get() : null;
+            if ( result == null )
+            {
+                segment.put( name, new WeakReference<String>( name ) );
+                result = name;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * @return the number of pooled names, for a weak pool including those which are about to be dropped
+     */
+    public int size()
+    {
+        if ( names != null )
+        {
+            return names.size();
+        }
+        int result = 0;
+        for ( Map<String, WeakReference<String>> segment : weakNames )
+        {
+            synchronized ( segment )
+            {
+                result += segment.size();
+            }
+        }
+        return result;
+    }
+}
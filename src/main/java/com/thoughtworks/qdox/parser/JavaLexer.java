@@ -26,5 +26,19 @@ package com.thoughtworks.qdox.parser;
  */
 public interface JavaLexer extends Lexer, CommentScanner
 {
+    /**
+     * The offset of the body of the last code block, i.e. the first character after its opening brace
+     * 
+     * @return the character offset in the source, or {@code -1} if there was no code block yet
+     * @since 2.2
+     */
+    int getCodeBlockStart();
 
+    /**
+     * The end offset of the body of the last code block, i.e. the position of its closing brace
+     * 
+     * @return the character offset in the source, or {@code -1} if there was no code block yet
+     * @since 2.2
+     */
+    int getCodeBlockEnd();
 }
@@ -1,7 +1,8 @@
 package com.thoughtworks.qdox.parser.expression;
 
+import java.io.Serializable;
 
-public interface ElemValueDef {
+public interface ElemValueDef extends Serializable {
 
 	<U> U transform(ElemValueTransformer<U> transformer);
 }
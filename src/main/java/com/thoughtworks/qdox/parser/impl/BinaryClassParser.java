@@ -23,11 +23,9 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.util.Set;
-import java.util.StringTokenizer;
 
 import com.thoughtworks.qdox.builder.Builder;
+import com.thoughtworks.qdox.model.util.Modifiers;
 import com.thoughtworks.qdox.parser.structs.ClassDef;
 import com.thoughtworks.qdox.parser.structs.FieldDef;
 import com.thoughtworks.qdox.parser.structs.MethodDef;
@@ -106,7 +104,7 @@ public class BinaryClassParser
             }
         }
 
-        addModifiers( classDef.getModifiers(), clazz.getModifiers() );
+        classDef.setModifierFlags( clazz.getModifiers() & Modifiers.ALL );
 
         binaryBuilder.beginClass( classDef );
 
@@ -147,15 +145,6 @@ public class BinaryClassParser
         binaryBuilder.endClass();
     }
 
-    private static void addModifiers( Set<String> set, int modifier )
-    {
-        String modifierString = Modifier.toString( modifier );
-        for ( StringTokenizer stringTokenizer = new StringTokenizer( modifierString ); stringTokenizer.hasMoreTokens(); )
-        {
-            set.add( stringTokenizer.nextToken() );
-        }
-    }
-
     private void addField( Field field )
     {
         FieldDef fieldDef = new FieldDef( field.getName() );
@@ -163,7 +152,7 @@ public class BinaryClassParser
         fieldDef.setType( getTypeDef( fieldType ) );
         fieldDef.setDimensions( getDimension( fieldType ) );
         fieldDef.setEnumConstant( field.isEnumConstant() );
-        addModifiers( fieldDef.getModifiers(), field.getModifiers() );
+        fieldDef.setModifierFlags( field.getModifiers() & Modifiers.ALL );
         binaryBuilder.beginField( fieldDef );
         binaryBuilder.endField();
     }
@@ -176,7 +165,7 @@ public class BinaryClassParser
         int lastDot = member.getName().lastIndexOf( '.' );
         methodDef.setName( member.getName().substring( lastDot + 1 ) );
 
-        addModifiers( methodDef.getModifiers(), member.getModifiers() );
+        methodDef.setModifierFlags( member.getModifiers() & Modifiers.ALL );
         Class<?>[] exceptions;
         Class<?>[] parameterTypes;
         if ( member instanceof Method )
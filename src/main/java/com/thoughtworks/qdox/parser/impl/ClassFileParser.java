@@ -0,0 +1,1025 @@
+package com.thoughtworks.qdox.parser.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import com.thoughtworks.qdox.builder.Builder;
+import com.thoughtworks.qdox.model.util.Modifiers;
+import com.thoughtworks.qdox.parser.expression.ConstantDef;
+import com.thoughtworks.qdox.parser.expression.ElemValueDef;
+import com.thoughtworks.qdox.parser.expression.ElemValueListDef;
+import com.thoughtworks.qdox.parser.expression.FieldRefDef;
+import com.thoughtworks.qdox.parser.expression.TypeRefDef;
+import com.thoughtworks.qdox.parser.structs.AnnoDef;
+import com.thoughtworks.qdox.parser.structs.ClassDef;
+import com.thoughtworks.qdox.parser.structs.FieldDef;
+import com.thoughtworks.qdox.parser.structs.MethodDef;
+import com.thoughtworks.qdox.parser.structs.PackageDef;
+import com.thoughtworks.qdox.parser.structs.TypeDef;
+import com.thoughtworks.qdox.parser.structs.TypeVariableDef;
+import com.thoughtworks.qdox.parser.structs.WildcardTypeDef;
+
+/**
+ * Parses the bytes of a class file into calls to a {@link Builder}, without loading the class.
+ * <p>
+ * Unlike {@link BinaryClassParser} the generic signatures, the parameter names of the <code>MethodParameters</code>
+ * attribute and the annotations are kept. Synthetic members are skipped. Member classes are read from their own class
+ * files, which are located with the same classloader. Classes are always parsed from their top level class, so
+ * parsing a member class results in the source of its top level class.
+ * </p>
+ * 
+ * @since 2.2
+ */
+public class ClassFileParser
+{
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int ACC_VARARGS = 0x0080;
+
+    private static final int ACC_INTERFACE = 0x0200;
+
+    private static final int ACC_ABSTRACT = 0x0400;
+
+    private static final int ACC_SYNTHETIC = 0x1000;
+
+    private static final int ACC_ANNOTATION = 0x2000;
+
+    private static final int ACC_ENUM = 0x4000;
+
+    private final ClassLoader classLoader;
+
+    private final String className;
+
+    private final Builder builder;
+
+    /**
+     * @param classLoader the classloader to read the class files with
+     * @param className the binary name of the class
+     * @param builder the builder
+     */
+    public ClassFileParser( ClassLoader classLoader, String className, Builder builder )
+    {
+        this.classLoader = classLoader;
+        this.className = className;
+        this.builder = builder;
+    }
+
+    /**
+     * The class files are read completely before the first call to the builder, so nothing is built if they can't be
+     * read.
+     * 
+     * @return <code>true</code> if the class has been built, <code>false</code> if its class file doesn't exist or
+     *         can't be read
+     */
+    public boolean parse()
+    {
+        try
+        {
+            ClassFile classFile = readClassFile( className );
+            if ( classFile == null )
+            {
+                return false;
+            }
+            while ( classFile.outerName != null )
+            {
+                ClassFile outerClassFile = readClassFile( classFile.outerName );
+                if ( outerClassFile == null )
+                {
+                    return false;
+                }
+                classFile = outerClassFile;
+            }
+            readMemberClasses( classFile );
+
+            int packageEnd = classFile.name.lastIndexOf( '.' );
+            if ( packageEnd > 0 )
+            {
+                builder.addPackage( new PackageDef( classFile.name.substring( 0, packageEnd ) ) );
+            }
+            addClass( classFile );
+            return true;
+        }
+        catch ( IOException e )
+        {
+            return false;
+        }
+        catch ( RuntimeException e )
+        {
+            // malformed class file
+            return false;
+        }
+    }
+
+    private ClassFile readClassFile( String name )
+        throws IOException
+    {
+        InputStream in = classLoader.getResourceAsStream( name.replace( '.', '/' ) + ".class" );
+        if ( in == null )
+        {
+            return null;
+        }
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream( Math.max( in.available(), 1024 ) );
+            byte[] buffer = new byte[8192];
+            for ( int count = in.read( buffer ); count >= 0; count = in.read( buffer ) )
+            {
+                bytes.write( buffer, 0, count );
+            }
+            return new ClassFile( bytes.toByteArray() );
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    private void readMemberClasses( ClassFile classFile )
+        throws IOException
+    {
+        for ( String memberName : classFile.memberNames )
+        {
+            ClassFile memberClassFile = readClassFile( memberName );
+            if ( memberClassFile != null && ( memberClassFile.accessFlags & ACC_SYNTHETIC ) == 0 )
+            {
+                readMemberClasses( memberClassFile );
+                classFile.memberClasses.add( memberClassFile );
+            }
+        }
+    }
+
+    private void addClass( ClassFile classFile )
+    {
+        int accessFlags = classFile.accessFlags;
+        ClassDef classDef = new ClassDef( classFile.simpleName );
+        if ( ( accessFlags & ACC_ANNOTATION ) != 0 )
+        {
+            classDef.setType( ClassDef.ANNOTATION_TYPE );
+        }
+        else if ( ( accessFlags & ACC_ENUM ) != 0 )
+        {
+            classDef.setType( ClassDef.ENUM );
+        }
+        else if ( ( accessFlags & ACC_INTERFACE ) != 0 )
+        {
+            classDef.setType( ClassDef.INTERFACE );
+        }
+
+        List<TypeDef> interfaces;
+        TypeDef superClass;
+        if ( classFile.signature != null )
+        {
+            SignatureReader signature = new SignatureReader( classFile.signature );
+            classDef.setTypeParameters( signature.readTypeParameters() );
+            superClass = signature.readType();
+            interfaces = new ArrayList<TypeDef>();
+            while ( signature.hasMore() )
+            {
+                interfaces.add( signature.readType() );
+            }
+        }
+        else
+        {
+            superClass = ( classFile.superName == null ? null : new TypeDef( classFile.superName ) );
+            interfaces = new ArrayList<TypeDef>( classFile.interfaceNames.size() );
+            for ( String interfaceName : classFile.interfaceNames )
+            {
+                interfaces.add( new TypeDef( interfaceName ) );
+            }
+        }
+        if ( ClassDef.INTERFACE.equals( classDef.getType() ) )
+        {
+            classDef.getExtends().addAll( interfaces );
+        }
+        else if ( !ClassDef.ANNOTATION_TYPE.equals( classDef.getType() ) )
+        {
+            classDef.getImplements().addAll( interfaces );
+            if ( superClass != null )
+            {
+                classDef.getExtends().add( superClass );
+            }
+        }
+
+        // the same modifiers as Class.getModifiers()
+        classDef.setModifierFlags( accessFlags & ~( ACC_SUPER | ACC_SYNTHETIC ) & Modifiers.ALL );
+
+        addAnnotations( classFile.annotations );
+        builder.beginClass( classDef );
+
+        for ( Member method : classFile.methods )
+        {
+            if ( "<init>".equals( method.name ) )
+            {
+                addAnnotations( method.annotations );
+                builder.beginConstructor();
+                MethodDef methodDef = createMethodDef( method, classFile.simpleName, true );
+                builder.endConstructor( methodDef );
+            }
+        }
+        for ( Member method : classFile.methods )
+        {
+            if ( !method.name.startsWith( "<" ) )
+            {
+                addAnnotations( method.annotations );
+                builder.beginMethod();
+                MethodDef methodDef = createMethodDef( method, method.name, false );
+                if ( ( accessFlags & ACC_INTERFACE ) != 0
+                    && ( method.accessFlags & ( ACC_ABSTRACT | Modifier.STATIC | Modifier.PRIVATE ) ) == 0 )
+                {
+                    methodDef.setModifierFlags( methodDef.getModifierFlags() | Modifiers.DEFAULT );
+                }
+                builder.endMethod( methodDef );
+            }
+        }
+
+        for ( Member field : classFile.fields )
+        {
+            FieldDef fieldDef = new FieldDef( field.name );
+            if ( field.signature != null )
+            {
+                fieldDef.setType( new SignatureReader( field.signature ).readType() );
+            }
+            else
+            {
+                fieldDef.setType( new SignatureReader( field.descriptor ).readType() );
+            }
+            fieldDef.setEnumConstant( ( field.accessFlags & ACC_ENUM ) != 0 );
+            fieldDef.setModifierFlags( field.accessFlags & Modifier.fieldModifiers() & Modifiers.ALL );
+            addAnnotations( field.annotations );
+            builder.beginField( fieldDef );
+            builder.endField();
+        }
+
+        for ( ClassFile memberClass : classFile.memberClasses )
+        {
+            addClass( memberClass );
+        }
+
+        builder.endClass();
+    }
+
+    private MethodDef createMethodDef( Member method, String name, boolean constructor )
+    {
+        MethodDef methodDef = new MethodDef();
+        methodDef.setName( name );
+        methodDef.setConstructor( constructor );
+        methodDef.setModifierFlags( method.accessFlags & Modifier.methodModifiers() & Modifiers.ALL );
+
+        SignatureReader descriptor = new SignatureReader( method.descriptor );
+        List<TypeDef> parameterTypes = descriptor.readParameterTypes();
+        TypeDef returnType = descriptor.readType();
+        List<TypeDef> exceptions = null;
+        if ( method.signature != null )
+        {
+            SignatureReader signature = new SignatureReader( method.signature );
+            methodDef.setTypeParams( signature.readTypeParameters() );
+            List<TypeDef> genericParameterTypes = signature.readParameterTypes();
+            // the signature doesn't contain implicit parameters, like the outer instance of an inner class
+            int offset = parameterTypes.size() - genericParameterTypes.size();
+            if ( offset >= 0 )
+            {
+                for ( int i = 0; i < genericParameterTypes.size(); i++ )
+                {
+                    parameterTypes.set( offset + i, genericParameterTypes.get( i ) );
+                }
+            }
+            returnType = signature.readType();
+            if ( signature.hasMore() )
+            {
+                exceptions = new ArrayList<TypeDef>();
+                while ( signature.hasMore() )
+                {
+                    exceptions.add( signature.readType() );
+                }
+            }
+        }
+        if ( exceptions == null )
+        {
+            exceptions = new ArrayList<TypeDef>( method.exceptionNames.size() );
+            for ( String exceptionName : method.exceptionNames )
+            {
+                exceptions.add( new TypeDef( exceptionName ) );
+            }
+        }
+        if ( !constructor )
+        {
+            methodDef.setReturnType( returnType );
+        }
+        methodDef.getExceptions().addAll( exceptions );
+
+        // like the signature, the parameter annotations might not contain the implicit parameters
+        int annotationOffset = 0;
+        if ( method.parameterAnnotations != null )
+        {
+            annotationOffset = Math.max( 0, parameterTypes.size() - method.parameterAnnotations.size() );
+        }
+        for ( int i = 0; i < parameterTypes.size(); i++ )
+        {
+            String parameterName = null;
+            if ( method.parameterNames != null && i < method.parameterNames.length )
+            {
+                parameterName = method.parameterNames[i];
+            }
+            FieldDef parameter = new FieldDef( parameterName != null ? parameterName : "p" + i );
+            TypeDef parameterType = parameterTypes.get( i );
+            if ( i == parameterTypes.size() - 1 && ( method.accessFlags & ACC_VARARGS ) != 0
+                && parameterType.getDimensions() > 0 )
+            {
+                parameterType.setDimensions( parameterType.getDimensions() - 1 );
+                parameter.setVarArgs( true );
+            }
+            parameter.setType( parameterType );
+            if ( method.parameterAnnotations != null && i >= annotationOffset
+                && i - annotationOffset < method.parameterAnnotations.size() )
+            {
+                addAnnotations( method.parameterAnnotations.get( i - annotationOffset ) );
+            }
+            builder.addParameter( parameter );
+        }
+        return methodDef;
+    }
+
+    private void addAnnotations( List<AnnoDef> annotations )
+    {
+        for ( AnnoDef annotation : annotations )
+        {
+            builder.addAnnotation( annotation );
+        }
+    }
+
+    /**
+     * The parts of a class file which are part of the model
+     */
+    private static final class ClassFile
+    {
+        private final byte[] bytes;
+
+        private final int[] offsets;
+
+        private final Object[] constants;
+
+        private int position;
+
+        private int accessFlags;
+
+        private String name;
+
+        private String simpleName;
+
+        private String outerName;
+
+        private String superName;
+
+        private String signature;
+
+        private final List<String> interfaceNames = new ArrayList<String>();
+
+        private List<AnnoDef> annotations = Collections.emptyList();
+
+        private final List<Member> fields = new ArrayList<Member>();
+
+        private final List<Member> methods = new ArrayList<Member>();
+
+        private final List<String> memberNames = new ArrayList<String>();
+
+        private final List<ClassFile> memberClasses = new ArrayList<ClassFile>();
+
+        private ClassFile( byte[] bytes )
+        {
+            this.bytes = bytes;
+            if ( readInt() != 0xCAFEBABE )
+            {
+                throw new IllegalArgumentException( "Not a class file" );
+            }
+            position += 4; // minor and major version
+
+            int constantCount = readUnsignedShort();
+            offsets = new int[constantCount];
+            constants = new Object[constantCount];
+            for ( int i = 1; i < constantCount; i++ )
+            {
+                offsets[i] = position + 1;
+                int tag = bytes[position++];
+                switch ( tag )
+                {
+                    case 1: // Utf8
+                        position += 2 + readUnsignedShort( position );
+                        break;
+                    case 5: // Long
+                    case 6: // Double
+                        position += 8;
+                        i++;
+                        break;
+                    case 3: // Integer
+                    case 4: // Float
+                    case 9: // Fieldref
+                    case 10: // Methodref
+                    case 11: // InterfaceMethodref
+                    case 12: // NameAndType
+                    case 17: // Dynamic
+                    case 18: // InvokeDynamic
+                        position += 4;
+                        break;
+                    case 15: // MethodHandle
+                        position += 3;
+                        break;
+                    case 7: // Class
+                    case 8: // String
+                    case 16: // MethodType
+                    case 19: // Module
+                    case 20: // Package
+                        position += 2;
+                        break;
+                    default:
+                        throw new IllegalArgumentException( "Unknown constant tag " + tag );
+                }
+            }
+
+            accessFlags = readUnsignedShort();
+            name = readClassName();
+            superName = readClassName();
+            for ( int count = readUnsignedShort(); count > 0; count-- )
+            {
+                interfaceNames.add( readClassName() );
+            }
+            int lastDot = name.lastIndexOf( '.' );
+            simpleName = name.substring( lastDot + 1 );
+
+            for ( int count = readUnsignedShort(); count > 0; count-- )
+            {
+                Member field = readMember();
+                if ( field != null )
+                {
+                    fields.add( field );
+                }
+            }
+            for ( int count = readUnsignedShort(); count > 0; count-- )
+            {
+                Member method = readMember();
+                if ( method != null && !"<clinit>".equals( method.name ) )
+                {
+                    methods.add( method );
+                }
+            }
+            for ( int count = readUnsignedShort(); count > 0; count-- )
+            {
+                String attributeName = readUtf8();
+                int length = readInt();
+                int end = position + length;
+                if ( "Signature".equals( attributeName ) )
+                {
+                    signature = readUtf8();
+                }
+                else if ( "InnerClasses".equals( attributeName ) )
+                {
+                    readInnerClasses();
+                }
+                else if ( "RuntimeVisibleAnnotations".equals( attributeName )
+                    || "RuntimeInvisibleAnnotations".equals( attributeName ) )
+                {
+                    annotations = readAnnotations( annotations );
+                }
+                position = end;
+            }
+        }
+
+        private void readInnerClasses()
+        {
+            for ( int count = readUnsignedShort(); count > 0; count-- )
+            {
+                String innerName = readClassName();
+                String outer = readClassName();
+                int innerNameIndex = readUnsignedShort();
+                int innerFlags = readUnsignedShort();
+                if ( outer == null || innerNameIndex == 0 )
+                {
+                    // a local or anonymous class
+                    continue;
+                }
+                if ( innerName.equals( name ) )
+                {
+                    // the same modifiers as Class.getModifiers() of a member class
+                    outerName = outer;
+                    simpleName = getUtf8( innerNameIndex );
+                    accessFlags = innerFlags | ( accessFlags & ( ACC_SYNTHETIC | ACC_ANNOTATION | ACC_ENUM ) );
+                }
+                else if ( outer.equals( name ) && ( innerFlags & ACC_SYNTHETIC ) == 0 )
+                {
+                    memberNames.add( innerName );
+                }
+            }
+        }
+
+        private Member readMember()
+        {
+            Member member = new Member();
+            member.accessFlags = readUnsignedShort();
+            member.name = readUtf8();
+            member.descriptor = readUtf8();
+            for ( int count = readUnsignedShort(); count > 0; count-- )
+            {
+                String attributeName = readUtf8();
+                int length = readInt();
+                int end = position + length;
+                if ( "Signature".equals( attributeName ) )
+                {
+                    member.signature = readUtf8();
+                }
+                else if ( "Exceptions".equals( attributeName ) )
+                {
+                    for ( int exceptionCount = readUnsignedShort(); exceptionCount > 0; exceptionCount-- )
+                    {
+                        member.exceptionNames.add( readClassName() );
+                    }
+                }
+                else if ( "MethodParameters".equals( attributeName ) )
+                {
+                    member.parameterNames = readParameterNames();
+                }
+                else if ( "RuntimeVisibleAnnotations".equals( attributeName )
+                    || "RuntimeInvisibleAnnotations".equals( attributeName ) )
+                {
+                    member.annotations = readAnnotations( member.annotations );
+                }
+                else if ( "RuntimeVisibleParameterAnnotations".equals( attributeName )
+                    || "RuntimeInvisibleParameterAnnotations".equals( attributeName ) )
+                {
+                    member.parameterAnnotations = readParameterAnnotations( member.parameterAnnotations );
+                }
+                position = end;
+            }
+            return ( member.accessFlags & ACC_SYNTHETIC ) == 0 ? member : null;
+        }
+
+        private String[] readParameterNames()
+        {
+            // synthetic and mandated parameters are part of the descriptor, so they keep their position
+            String[] parameterNames = new String[bytes[position++] & 0xFF];
+            for ( int i = 0; i < parameterNames.length; i++ )
+            {
+                int nameIndex = readUnsignedShort();
+                position += 2; // access flags
+                parameterNames[i] = ( nameIndex == 0 ? null : getUtf8( nameIndex ) );
+            }
+            return parameterNames;
+        }
+
+        private List<List<AnnoDef>> readParameterAnnotations( List<List<AnnoDef>> parameterAnnotations )
+        {
+            int parameterCount = bytes[position++] & 0xFF;
+            List<List<AnnoDef>> result = new ArrayList<List<AnnoDef>>( parameterCount );
+            for ( int i = 0; i < parameterCount; i++ )
+            {
+                List<AnnoDef> previous = Collections.emptyList();
+                if ( parameterAnnotations != null && i < parameterAnnotations.size() )
+                {
+                    previous = parameterAnnotations.get( i );
+                }
+                result.add( readAnnotations( previous ) );
+            }
+            return result;
+        }
+
+        private List<AnnoDef> readAnnotations( List<AnnoDef> previous )
+        {
+            int count = readUnsignedShort();
+            if ( count == 0 )
+            {
+                return previous;
+            }
+            List<AnnoDef> result = new ArrayList<AnnoDef>( previous.size() + count );
+            result.addAll( previous );
+            for ( ; count > 0; count-- )
+            {
+                result.add( readAnnotation() );
+            }
+            return result;
+        }
+
+        private AnnoDef readAnnotation()
+        {
+            AnnoDef annotation = new AnnoDef( new SignatureReader( readUtf8() ).readType() );
+            for ( int count = readUnsignedShort(); count > 0; count-- )
+            {
+                String elementName = readUtf8();
+                annotation.getArgs().put( elementName, readElementValue() );
+            }
+            return annotation;
+        }
+
+        private ElemValueDef readElementValue()
+        {
+            char tag = (char) bytes[position++];
+            switch ( tag )
+            {
+                case 'B':
+                case 'S':
+                case 'I':
+                    return new ConstantDef( getConstant( readUnsignedShort() ).toString(), Integer.class );
+                case 'J':
+                    return new ConstantDef( getConstant( readUnsignedShort() ) + "L", Integer.class );
+                case 'F':
+                    return new ConstantDef( getConstant( readUnsignedShort() ) + "f", Float.class );
+                case 'D':
+                    return new ConstantDef( getConstant( readUnsignedShort() ) + "d", Float.class );
+                case 'Z':
+                    return new ConstantDef( ( (Integer) getConstant( readUnsignedShort() ) ).intValue() != 0 ? "true"
+                                    : "false", Boolean.class );
+                case 'C':
+                    char c = (char) ( (Integer) getConstant( readUnsignedShort() ) ).intValue();
+                    return new ConstantDef( quote( String.valueOf( c ), '\'' ), Character.class );
+                case 's':
+                    return new ConstantDef( quote( readUtf8(), '"' ), String.class );
+                case 'e':
+                    TypeDef enumType = new SignatureReader( readUtf8() ).readType();
+                    return new FieldRefDef( enumType.getName() + '.' + readUtf8() );
+                case 'c':
+                    String descriptor = readUtf8();
+                    return new TypeRefDef( "V".equals( descriptor ) ? new TypeDef( "void" )
+                                    : new SignatureReader( descriptor ).readType() );
+                case '@':
+                    return readAnnotation();
+                case '[':
+                    int count = readUnsignedShort();
+                    List<ElemValueDef> values = new ArrayList<ElemValueDef>( count );
+                    for ( ; count > 0; count-- )
+                    {
+                        values.add( readElementValue() );
+                    }
+                    return new ElemValueListDef( values );
+                default:
+                    throw new IllegalArgumentException( "Unknown element value tag " + tag );
+            }
+        }
+
+        private Object getConstant( int index )
+        {
+            Object result = constants[index];
+            if ( result == null )
+            {
+                int offset = offsets[index];
+                switch ( bytes[offset - 1] )
+                {
+                    case 1:
+                        result = readUtf8( offset );
+                        break;
+                    case 3:
+                        result = Integer.valueOf( readInt( offset ) );
+                        break;
+                    case 4:
+                        result = Float.valueOf( Float.intBitsToFloat( readInt( offset ) ) );
+                        break;
+                    case 5:
+                        result = Long.valueOf( readLong( offset ) );
+                        break;
+                    case 6:
+                        result = Double.valueOf( Double.longBitsToDouble( readLong( offset ) ) );
+                        break;
+                    case 7:
+                        result = getUtf8( readUnsignedShort( offset ) ).replace( '/', '.' );
+                        break;
+                    default:
+                        throw new IllegalArgumentException( "Unexpected constant at " + index );
+                }
+                constants[index] = result;
+            }
+            return result;
+        }
+
+        private String getUtf8( int index )
+        {
+            return (String) getConstant( index );
+        }
+
+        private String readUtf8()
+        {
+            return getUtf8( readUnsignedShort() );
+        }
+
+        private String readClassName()
+        {
+            int index = readUnsignedShort();
+            return index == 0 ? null : (String) getConstant( index );
+        }
+
+        private String readUtf8( int offset )
+        {
+            int length = readUnsignedShort( offset );
+            int start = offset + 2;
+            int end = start + length;
+            char[] chars = new char[length];
+            int charCount = 0;
+            for ( int i = start; i < end; )
+            {
+                int b = bytes[i++] & 0xFF;
+                if ( b < 0x80 )
+                {
+                    chars[charCount++] = (char) b;
+                }
+                else if ( b < 0xE0 )
+                {
+                    chars[charCount++] = (char) ( ( ( b & 0x1F ) << 6 ) | ( bytes[i++] & 0x3F ) );
+                }
+                else
+                {
+                    chars[charCount++] =
+                        (char) ( ( ( b & 0x0F ) << 12 ) | ( ( bytes[i++] & 0x3F ) << 6 ) | ( bytes[i++] & 0x3F ) );
+                }
+            }
+            return new String( chars, 0, charCount );
+        }
+
+        private int readUnsignedShort()
+        {
+            int result = readUnsignedShort( position );
+            position += 2;
+            return result;
+        }
+
+        private int readUnsignedShort( int offset )
+        {
+            return ( ( bytes[offset] & 0xFF ) << 8 ) | ( bytes[offset + 1] & 0xFF );
+        }
+
+        private int readInt()
+        {
+            int result = readInt( position );
+            position += 4;
+            return result;
+        }
+
+        private int readInt( int offset )
+        {
+            return ( ( bytes[offset] & 0xFF ) << 24 ) | ( ( bytes[offset + 1] & 0xFF ) << 16 )
+                | ( ( bytes[offset + 2] & 0xFF ) << 8 ) | ( bytes[offset + 3] & 0xFF );
+        }
+
+        private long readLong( int offset )
+        {
+            return ( (long) readInt( offset ) << 32 ) | ( readInt( offset + 4 ) & 0xFFFFFFFFL );
+        }
+    }
+
+    /**
+     * A field or a method
+     */
+    private static final class Member
+    {
+        private int accessFlags;
+
+        private String name;
+
+        private String descriptor;
+
+        private String signature;
+
+        private final List<String> exceptionNames = new ArrayList<String>( 0 );
+
+        private String[] parameterNames;
+
+        private List<AnnoDef> annotations = Collections.emptyList();
+
+        private List<List<AnnoDef>> parameterAnnotations;
+    }
+
+    /**
+     * Reads descriptors and generic signatures, see JVMS 4.3 and 4.7.9.1
+     */
+    private static final class SignatureReader
+    {
+        private final String signature;
+
+        private int position;
+
+        private SignatureReader( String signature )
+        {
+            this.signature = signature;
+        }
+
+        private boolean hasMore()
+        {
+            return position < signature.length();
+        }
+
+        private List<TypeVariableDef> readTypeParameters()
+        {
+            if ( signature.charAt( position ) != '<' )
+            {
+                return null;
+            }
+            position++;
+            List<TypeVariableDef> result = new LinkedList<TypeVariableDef>();
+            while ( signature.charAt( position ) != '>' )
+            {
+                int colon = signature.indexOf( ':', position );
+                TypeVariableDef typeVariable = new TypeVariableDef( signature.substring( position, colon ) );
+                position = colon;
+                List<TypeDef> bounds = new LinkedList<TypeDef>();
+                while ( signature.charAt( position ) == ':' )
+                {
+                    position++;
+                    char next = signature.charAt( position );
+                    if ( next == 'L' || next == 'T' || next == '[' )
+                    {
+                        TypeDef bound = readType();
+                        // an implicit bound, <T> is stored as <T extends Object>
+                        if ( bounds.isEmpty() && "java.lang.Object".equals( bound.getName() )
+                            && bound.getDimensions() == 0 && signature.charAt( position ) != ':' )
+                        {
+                            continue;
+                        }
+                        bounds.add( bound );
+                    }
+                }
+                if ( !bounds.isEmpty() )
+                {
+                    typeVariable.setBounds( bounds );
+                }
+                result.add( typeVariable );
+            }
+            position++;
+            return result;
+        }
+
+        private List<TypeDef> readParameterTypes()
+        {
+            position++; // (
+            List<TypeDef> result = new ArrayList<TypeDef>();
+            while ( signature.charAt( position ) != ')' )
+            {
+                result.add( readType() );
+            }
+            position++;
+            return result;
+        }
+
+        /**
+         * Read a type, the result of a method or a thrown type
+         */
+        private TypeDef readType()
+        {
+            int dimensions = 0;
+            char c = signature.charAt( position++ );
+            while ( c == '[' )
+            {
+                dimensions++;
+                c = signature.charAt( position++ );
+            }
+            switch ( c )
+            {
+                case 'B':
+                    return new TypeDef( "byte", dimensions );
+                case 'C':
+                    return new TypeDef( "char", dimensions );
+                case 'D':
+                    return new TypeDef( "double", dimensions );
+                case 'F':
+                    return new TypeDef( "float", dimensions );
+                case 'I':
+                    return new TypeDef( "int", dimensions );
+                case 'J':
+                    return new TypeDef( "long", dimensions );
+                case 'S':
+                    return new TypeDef( "short", dimensions );
+                case 'Z':
+                    return new TypeDef( "boolean", dimensions );
+                case 'V':
+                    return new TypeDef( "void", dimensions );
+                case '^':
+                    return readType();
+                case 'T':
+                    int end = signature.indexOf( ';', position );
+                    TypeDef typeVariable = new TypeDef( signature.substring( position, end ), dimensions );
+                    position = end + 1;
+                    return typeVariable;
+                case 'L':
+                    return readClassType( dimensions );
+                default:
+                    throw new IllegalArgumentException( "Unexpected '" + c + "' in " + signature );
+            }
+        }
+
+        private TypeDef readClassType( int dimensions )
+        {
+            StringBuilder name = new StringBuilder();
+            List<TypeDef> arguments = null;
+            for ( char c = signature.charAt( position++ ); c != ';'; c = signature.charAt( position++ ) )
+            {
+                switch ( c )
+                {
+                    case '/':
+                        name.append( '.' );
+                        break;
+                    case '.':
+                        // the member class of a parameterized class, only its own arguments are kept
+                        name.append( '$' );
+                        arguments = null;
+                        break;
+                    case '<':
+                        arguments = new LinkedList<TypeDef>();
+                        while ( signature.charAt( position ) != '>' )
+                        {
+                            arguments.add( readTypeArgument() );
+                        }
+                        position++;
+                        break;
+                    default:
+                        name.append( c );
+                }
+            }
+            TypeDef result = new TypeDef( name.toString(), dimensions );
+            if ( arguments != null )
+            {
+                result.setActualArgumentTypes( arguments );
+            }
+            return result;
+        }
+
+        private TypeDef readTypeArgument()
+        {
+            switch ( signature.charAt( position ) )
+            {
+                case '*':
+                    position++;
+                    return new WildcardTypeDef();
+                case '+':
+                    position++;
+                    return new WildcardTypeDef( readType(), "extends" );
+                case '-':
+                    position++;
+                    return new WildcardTypeDef( readType(), "super" );
+                default:
+                    return readType();
+            }
+        }
+    }
+
+    private static String quote( String value, char quote )
+    {
+        StringBuilder result = new StringBuilder( value.length() + 2 ).append( quote );
+        for ( int i = 0; i < value.length(); i++ )
+        {
+            char c = value.charAt( i );
+            switch ( c )
+            {
+                case '\\':
+                    result.append( "\\\\" );
+                    break;
+                case '\n':
+                    result.append( "\\n" );
+                    break;
+                case '\r':
+                    result.append( "\\r" );
+                    break;
+                case '\t':
+                    result.append( "\\t" );
+                    break;
+                case '\b':
+                    result.append( "\\b" );
+                    break;
+                case '\f':
+                    result.append( "\\f" );
+                    break;
+                default:
+                    if ( c == quote )
+                    {
+                        result.append( '\\' ).append( c );
+                    }
+                    else if ( c < 0x20 || c > 0x7E )
+                    {
+                        result.append( String.format( "\\u%04x", (int) c ) );
+                    }
+                    else
+                    {
+                        result.append( c );
+                    }
+            }
+        }
+        return result.append( quote ).toString();
+    }
+}
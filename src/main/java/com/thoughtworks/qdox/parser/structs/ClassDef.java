@@ -24,6 +24,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
+import com.thoughtworks.qdox.model.util.Modifiers;
+
 public class ClassDef extends LocatedDef {
     
     public static final String CLASS = "class";
@@ -33,7 +35,7 @@ public class ClassDef extends LocatedDef {
     public static final String ANNOTATION_TYPE = "@interface";
     
     private String name = "";
-    private Set<String> modifiers = new LinkedHashSet<String>();
+    private final ModifierSet modifiers = new ModifierSet();
     private List<TypeVariableDef> typeParams = new LinkedList<TypeVariableDef>();
     private Set<TypeDef> extendz = new LinkedHashSet<TypeDef>();
     private Set<TypeDef> implementz = new LinkedHashSet<TypeDef>();
@@ -83,7 +85,8 @@ public class ClassDef extends LocatedDef {
 
     public void setModifiers( Set<String> modifiers )
     {
-        this.modifiers = modifiers;
+        this.modifiers.clear();
+        this.modifiers.addAll( modifiers );
     }
 
     public Set<String> getModifiers()
@@ -91,6 +94,24 @@ public class ClassDef extends LocatedDef {
         return modifiers;
     }
 
+    /**
+     * @param modifierFlags the bits of the {@link Modifiers}
+     * @since 2.2
+     */
+    public void setModifierFlags( int modifierFlags )
+    {
+        modifiers.setFlags( modifierFlags );
+    }
+
+    /**
+     * @return the bits of the {@link Modifiers}
+     * @since 2.2
+     */
+    public int getModifierFlags()
+    {
+        return modifiers.getFlags();
+    }
+
     public void setType( String type )
     {
         this.type = type;
@@ -1,21 +1,41 @@
 package com.thoughtworks.qdox.parser.structs;
 
-import java.util.LinkedHashSet;
 import java.util.Set;
 
+import com.thoughtworks.qdox.model.util.Modifiers;
+
 public class CompactConstructorDef extends LocatedDef {
 
-    private Set<String> modifiers = new LinkedHashSet<String>();
+    private final ModifierSet modifiers = new ModifierSet();
     private String body;
+    private int bodyStart = -1;
+    private int bodyEnd = -1;
 
     public void setModifiers(Set<String> modifiers) {
-        this.modifiers = modifiers;
+        this.modifiers.clear();
+        this.modifiers.addAll(modifiers);
     }
 
     public Set<String> getModifiers() {
         return modifiers;
     }
 
+    /**
+     * @param modifierFlags the bits of the {@link Modifiers}
+     * @since 2.2
+     */
+    public void setModifierFlags(int modifierFlags) {
+        modifiers.setFlags(modifierFlags);
+    }
+
+    /**
+     * @return the bits of the {@link Modifiers}
+     * @since 2.2
+     */
+    public int getModifierFlags() {
+        return modifiers.getFlags();
+    }
+
     public void setBody(String body) {
         this.body = body;
     }
@@ -24,4 +44,32 @@ public class CompactConstructorDef extends LocatedDef {
         return body;
     }
 
+    /**
+     * @param bodyStart the offset of the first character of the body in the source
+     */
+    public void setBodyStart(int bodyStart) {
+        this.bodyStart = bodyStart;
+    }
+
+    /**
+     * @return the offset of the first character of the body in the source, otherwise {@code -1}
+     */
+    public int getBodyStart() {
+        return bodyStart;
+    }
+
+    /**
+     * @param bodyEnd the offset after the last character of the body in the source
+     */
+    public void setBodyEnd(int bodyEnd) {
+        this.bodyEnd = bodyEnd;
+    }
+
+    /**
+     * @return the offset after the last character of the body in the source, otherwise {@code -1}
+     */
+    public int getBodyEnd() {
+        return bodyEnd;
+    }
+
 }
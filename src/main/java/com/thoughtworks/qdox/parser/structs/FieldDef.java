@@ -19,9 +19,10 @@ package com.thoughtworks.qdox.parser.structs;
  * under the License.
  */
 
-import java.util.LinkedHashSet;
 import java.util.Set;
 
+import com.thoughtworks.qdox.model.util.Modifiers;
+
 /**
  * Used for both fields and parameters
  */
@@ -33,7 +34,7 @@ public class FieldDef
 
     private TypeDef type;
 
-    private Set<String> modifiers = new LinkedHashSet<String>();
+    private final ModifierSet modifiers = new ModifierSet();
 
     private int dimensions;
 
@@ -137,7 +138,8 @@ public class FieldDef
      */
     public void setModifiers( Set<String> modifiers )
     {
-        this.modifiers = modifiers;
+        this.modifiers.clear();
+        this.modifiers.addAll( modifiers );
     }
 
     /**
@@ -148,6 +150,24 @@ public class FieldDef
         return modifiers;
     }
 
+    /**
+     * @param modifierFlags the bits of the {@link Modifiers}
+     * @since 2.2
+     */
+    public void setModifierFlags( int modifierFlags )
+    {
+        modifiers.setFlags( modifierFlags );
+    }
+
+    /**
+     * @return the bits of the {@link Modifiers}
+     * @since 2.2
+     */
+    public int getModifierFlags()
+    {
+        return modifiers.getFlags();
+    }
+
     /**
      * @return <code>true</code> if this field is an enum constant, otherwise <code>false</code>
      */
@@ -19,7 +19,9 @@ package com.thoughtworks.qdox.parser.structs;
  * under the License.
  */
 
-public class LocatedDef {
+import java.io.Serializable;
+
+public class LocatedDef implements Serializable {
 	
 	private int lineNumber;
 	private int columnNumber;
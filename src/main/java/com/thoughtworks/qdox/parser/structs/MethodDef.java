@@ -23,16 +23,20 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
+import com.thoughtworks.qdox.model.util.Modifiers;
+
 public class MethodDef extends LocatedDef {
 
     private String name = "";
     private List<TypeVariableDef> typeParams;
     private TypeDef returnType;
-    private Set<String> modifiers = new LinkedHashSet<String>();
+    private final ModifierSet modifiers = new ModifierSet();
     private Set<TypeDef> exceptions = new LinkedHashSet<TypeDef>();
     private boolean constructor = false;
     private int dimensions;
     private String body;
+    private int bodyStart = -1;
+    private int bodyEnd = -1;
     
     @Override
     public String toString()
@@ -73,13 +77,30 @@ public class MethodDef extends LocatedDef {
 	}
 
 	public void setModifiers(Set<String> modifiers) {
-		this.modifiers = modifiers;
+		this.modifiers.clear();
+		this.modifiers.addAll(modifiers);
 	}
 
 	public Set<String> getModifiers() {
 		return modifiers;
 	}
 
+	/**
+	 * @param modifierFlags the bits of the {@link Modifiers}
+	 * @since 2.2
+	 */
+	public void setModifierFlags(int modifierFlags) {
+		modifiers.setFlags(modifierFlags);
+	}
+
+	/**
+	 * @return the bits of the {@link Modifiers}
+	 * @since 2.2
+	 */
+	public int getModifierFlags() {
+		return modifiers.getFlags();
+	}
+
 	public void setConstructor(boolean constructor) {
 		this.constructor = constructor;
 	}
@@ -96,6 +117,34 @@ public class MethodDef extends LocatedDef {
 		return body;
 	}
 
+    /**
+     * @param bodyStart the offset of the first character of the body in the source
+     */
+    public void setBodyStart(int bodyStart) {
+        this.bodyStart = bodyStart;
+    }
+
+    /**
+     * @return the offset of the first character of the body in the source, otherwise {@code -1}
+     */
+    public int getBodyStart() {
+        return bodyStart;
+    }
+
+    /**
+     * @param bodyEnd the offset after the last character of the body in the source
+     */
+    public void setBodyEnd(int bodyEnd) {
+        this.bodyEnd = bodyEnd;
+    }
+
+    /**
+     * @return the offset after the last character of the body in the source, otherwise {@code -1}
+     */
+    public int getBodyEnd() {
+        return bodyEnd;
+    }
+
 	public void setDimensions(int dimensions) {
 		this.dimensions = dimensions;
 	}
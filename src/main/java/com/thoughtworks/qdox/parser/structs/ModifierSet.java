@@ -0,0 +1,177 @@
+package com.thoughtworks.qdox.parser.structs;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.thoughtworks.qdox.model.util.Modifiers;
+
+/**
+ * The modifiers of a definition, kept as the bits of {@link Modifiers}. It can still be used as a set of names,
+ * which are iterated in their canonical order. Names which aren't modifiers are kept as well, after the modifiers.
+ *
+ * @since 2.2
+ */
+public class ModifierSet
+    extends AbstractSet<String>
+    implements Serializable
+{
+    private int flags;
+
+    // only created once a name is added which isn't a modifier, which the parser never does
+    private List<String> otherNames;
+
+    public ModifierSet()
+    {
+    }
+
+    public ModifierSet( int flags )
+    {
+        this.flags = flags;
+    }
+
+    public int getFlags()
+    {
+        return flags;
+    }
+
+    public void setFlags( int flags )
+    {
+        this.flags = flags;
+    }
+
+    /**
+     * @return the names which aren't modifiers, in the order they were added; the list can't be modified
+     */
+    public List<String> getOtherNames()
+    {
+        if ( otherNames == null )
+        {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList( otherNames );
+    }
+
+    @Override
+    public int size()
+    {
+        return Integer.bitCount( flags & Modifiers.ALL ) + ( otherNames != null ? otherNames.size() : 0 );
+    }
+
+    @Override
+    public boolean contains( Object o )
+    {
+        return Modifiers.toList( flags ).contains( o ) || ( otherNames != null && otherNames.contains( o ) );
+    }
+
+    @Override
+    public boolean add( String name )
+    {
+        int flag = Modifiers.flagOf( name );
+        if ( flag == 0 )
+        {
+            if ( otherNames == null )
+            {
+                otherNames = new ArrayList<String>();
+            }
+            else if ( otherNames.contains( name ) )
+            {
+                return false;
+            }
+            return otherNames.add( name );
+        }
+        boolean result = ( flags & flag ) == 0;
+        flags |= flag;
+        return result;
+    }
+
+    @Override
+    public boolean remove( Object o )
+    {
+        if ( !( o instanceof String ) )
+        {
+            return false;
+        }
+        int flag = Modifiers.flagOf( (String) o );
+        if ( flag == 0 )
+        {
+            return otherNames != null && otherNames.remove( o );
+        }
+        boolean result = ( flags & flag ) != 0;
+        flags &= ~flag;
+        return result;
+    }
+
+    @Override
+    public void clear()
+    {
+        flags = 0;
+        otherNames = null;
+    }
+
+    @Override
+    public Iterator<String> iterator()
+    {
+        final List<String> names;
+        if ( otherNames == null )
+        {
+            names = Modifiers.toList( flags );
+        }
+        else
+        {
+            names = new ArrayList<String>( Modifiers.toList( flags ) );
+            names.addAll( otherNames );
+        }
+        return new Iterator<String>()
+        {
+            private int index;
+
+            public boolean hasNext()
+            {
+                return index < names.size();
+            }
+
+            public String next()
+            {
+                if ( !hasNext() )
+                {
+                    throw new NoSuchElementException();
+                }
+                return names.get( index++ );
+            }
+
+            public void remove()
+            {
+                if ( index == 0 )
+                {
+                    throw new IllegalStateException();
+                }
+                ModifierSet.this.remove( names.get( index - 1 ) );
+            }
+        };
+    }
+}
@@ -1,9 +1,10 @@
 package com.thoughtworks.qdox.parser.structs;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.LinkedList;
 
-public class RecordFieldsDef {
+public class RecordFieldsDef implements Serializable {
     private List<FieldDef> fields = new LinkedList<FieldDef>();
 
     public void addField(FieldDef field) {
@@ -19,9 +19,10 @@ package com.thoughtworks.qdox.parser.structs;
  * under the License.
  */
 
+import java.io.Serializable;
 import java.util.List;
 
-public class TypeDef {
+public class TypeDef implements Serializable {
 
     private String name;
     private int dimensions;
@@ -19,9 +19,10 @@ package com.thoughtworks.qdox.parser.structs;
  * under the License.
  */
 
+import java.io.Serializable;
 import java.util.List;
 
-public class TypeVariableDef {
+public class TypeVariableDef implements Serializable {
 
 	private String name;
 	private List<TypeDef> bounds;
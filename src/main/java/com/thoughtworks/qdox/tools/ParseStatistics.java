@@ -0,0 +1,292 @@
+package com.thoughtworks.qdox.tools;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Collects the measurements of a {@link QDoxTester} run: throughput, the distribution of the parse latency per file,
+ * the allocated bytes per file and the slowest files. Only the latencies and the slowest files are kept, so a corpus of
+ * millions of files can be measured. The measurements can be written per file as CSV while they're recorded and as a
+ * JSON summary afterwards.
+ *
+ * @since 2.2
+ */
+public class ParseStatistics {
+
+    private static final Comparator<FileMeasurement> BY_NANOS = new Comparator<FileMeasurement>() {
+        public int compare(FileMeasurement o1, FileMeasurement o2) {
+            return o1.nanos < o2.nanos ? -1 : (o1.nanos == o2.nanos ? 0 : 1);
+        }
+    };
+
+    private final int slowestFileCount;
+
+    private final PriorityQueue<FileMeasurement> slowestFiles;
+
+    private long[] latencies = new long[1024];
+
+    private int fileCount;
+
+    private int failureCount;
+
+    private int errorCount;
+
+    private long byteCount;
+
+    private long allocatedBytes;
+
+    // files for which the allocated bytes couldn't be measured
+    private int unmeasuredAllocations;
+
+    private long wallNanos;
+
+    private PrintWriter csv;
+
+    /**
+     * @param slowestFileCount the number of slowest files to keep
+     */
+    public ParseStatistics(int slowestFileCount) {
+        this.slowestFileCount = slowestFileCount;
+        this.slowestFiles = new PriorityQueue<FileMeasurement>(Math.max(1, slowestFileCount), BY_NANOS);
+    }
+
+    /**
+     * Write a line per file as it's recorded, with the columns <code>id,result,bytes,nanos,allocatedBytes</code>.
+     *
+     * @param csv the writer, a header is written immediately
+     */
+    public synchronized void setCsv(PrintWriter csv) {
+        this.csv = csv;
+        csv.println("id,result,bytes,nanos,allocatedBytes");
+    }
+
+    /**
+     * @param id the id of the file as reported
+     * @param result <code>success</code>, <code>failure</code> or <code>error</code>
+     * @param bytes the size of the file
+     * @param nanos the time to parse the file
+     * @param allocatedBytes the bytes allocated to parse the file, or <code>-1</code> if unknown
+     */
+    public synchronized void record(String id, String result, long bytes, long nanos, long allocatedBytes) {
+        if (fileCount == latencies.length) {
+            latencies = Arrays.copyOf(latencies, fileCount * 2);
+        }
+        latencies[fileCount++] = nanos;
+        if ("failure".equals(result)) {
+            failureCount++;
+        } else if ("error".equals(result)) {
+            errorCount++;
+        }
+        byteCount += bytes;
+        if (allocatedBytes < 0) {
+            unmeasuredAllocations++;
+        } else {
+            this.allocatedBytes += allocatedBytes;
+        }
+        if (slowestFileCount > 0 && (slowestFiles.size() < slowestFileCount || slowestFiles.peek().nanos < nanos)) {
+            slowestFiles.add(new FileMeasurement(id, bytes, nanos));
+            if (slowestFiles.size() > slowestFileCount) {
+                slowestFiles.poll();
+            }
+        }
+        if (csv != null) {
+            csv.print(csvValue(id));
+            csv.print(',');
+            csv.print(result);
+            csv.print(',');
+            csv.print(bytes);
+            csv.print(',');
+            csv.print(nanos);
+            csv.print(',');
+            csv.println(allocatedBytes);
+        }
+    }
+
+    /**
+     * @param nanos the wall clock time of a run, which is added to the total
+     */
+    public synchronized void addWallTime(long nanos) {
+        wallNanos += nanos;
+    }
+
+    public synchronized int getFileCount() {
+        return fileCount;
+    }
+
+    public synchronized int getFailureCount() {
+        return failureCount;
+    }
+
+    public synchronized int getErrorCount() {
+        return errorCount;
+    }
+
+    public synchronized long getByteCount() {
+        return byteCount;
+    }
+
+    public synchronized double getFilesPerSecond() {
+        return wallNanos == 0 ? 0 : fileCount * 1e9 / wallNanos;
+    }
+
+    public synchronized double getMegabytesPerSecond() {
+        return wallNanos == 0 ? 0 : byteCount * 1e9 / wallNanos / (1024 * 1024);
+    }
+
+    /**
+     * @return the average bytes allocated to parse a file, or <code>-1</code> if the JVM can't measure allocations
+     */
+    public synchronized long getAllocatedBytesPerFile() {
+        int measured = fileCount - unmeasuredAllocations;
+        return measured == 0 ? -1 : allocatedBytes / measured;
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return the parse latency of a file at this percentile in nanoseconds, using the nearest rank
+     */
+    public synchronized long getLatencyPercentile(double percentile) {
+        if (fileCount == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, fileCount);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * fileCount);
+        return sorted[Math.min(fileCount, Math.max(1, rank)) - 1];
+    }
+
+    /**
+     * @return the slowest files, slowest first
+     */
+    public synchronized List<FileMeasurement> getSlowestFiles() {
+        List<FileMeasurement> result = new ArrayList<FileMeasurement>(slowestFiles);
+        Collections.sort(result, Collections.reverseOrder(BY_NANOS));
+        return result;
+    }
+
+    /**
+     * @param out the writer for the summary as a JSON object
+     */
+    public synchronized void writeJson(PrintWriter out) {
+        out.println("{");
+        out.println("  \"files\": " + fileCount + ",");
+        out.println("  \"failures\": " + failureCount + ",");
+        out.println("  \"errors\": " + errorCount + ",");
+        out.println("  \"bytes\": " + byteCount + ",");
+        out.println("  \"wallNanos\": " + wallNanos + ",");
+        out.println("  \"filesPerSecond\": " + getFilesPerSecond() + ",");
+        out.println("  \"megabytesPerSecond\": " + getMegabytesPerSecond() + ",");
+        out.println("  \"p50Nanos\": " + getLatencyPercentile(50) + ",");
+        out.println("  \"p99Nanos\": " + getLatencyPercentile(99) + ",");
+        out.println("  \"allocatedBytesPerFile\": " + getAllocatedBytesPerFile() + ",");
+        out.print("  \"slowestFiles\": [");
+        List<FileMeasurement> slowest = getSlowestFiles();
+        for (int i = 0; i < slowest.size(); i++) {
+            FileMeasurement file = slowest.get(i);
+            out.println(i == 0 ? "" : ",");
+            out.print("    { \"id\": " + jsonString(file.getId()) + ", \"bytes\": " + file.getBytes() + ", \"nanos\": "
+                + file.getNanos() + " }");
+        }
+        out.println(slowest.isEmpty() ? "]" : "\n  ]");
+        out.println("}");
+        out.flush();
+    }
+
+    /**
+     * @param out the writer for the summary as text
+     */
+    public synchronized void writeSummary(PrintWriter out) {
+        out.println("-- Throughput -----------");
+        out.println(String.format("Files/sec : %.1f", getFilesPerSecond()));
+        out.println(String.format("MB/sec    : %.2f", getMegabytesPerSecond()));
+        out.println(String.format("p50       : %.3f ms", getLatencyPercentile(50) / 1e6));
+        out.println(String.format("p99       : %.3f ms", getLatencyPercentile(99) / 1e6));
+        long allocated = getAllocatedBytesPerFile();
+        out.println("Alloc/file: " + (allocated < 0 ? "n/a" : allocated + " bytes"));
+        List<FileMeasurement> slowest = getSlowestFiles();
+        if (!slowest.isEmpty()) {
+            out.println("Slowest   :");
+            for (FileMeasurement file : slowest) {
+                out.println(String.format("  %.3f ms %s", file.getNanos() / 1e6, file.getId()));
+            }
+        }
+        out.println("-------------------------");
+        out.flush();
+    }
+
+    private static String csvValue(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String jsonString(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * The size and parse latency of a single file.
+     */
+    public static final class FileMeasurement {
+
+        private final String id;
+
+        private final long bytes;
+
+        private final long nanos;
+
+        FileMeasurement(String id, long bytes, long nanos) {
+            this.id = id;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+}
@@ -19,25 +19,45 @@ package com.thoughtworks.qdox.tools;
  * under the License.
  */
 
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayReader;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
 import java.util.Enumeration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
-import com.thoughtworks.qdox.JavaProjectBuilder;
 import com.thoughtworks.qdox.directorywalker.DirectoryScanner;
 import com.thoughtworks.qdox.directorywalker.FileVisitor;
 import com.thoughtworks.qdox.directorywalker.SuffixFilter;
+import com.thoughtworks.qdox.library.SourceLibrary;
 import com.thoughtworks.qdox.parser.ParseException;
 
 /**
  * Tool for testing that QDox can parse Java source code.
+ * <p>
+ * The files of a directory, zip or jar are parsed by a pool of worker threads. Every check returns once all its files
+ * have been parsed, and the {@link Reporter} is called by one thread at a time. Each file is parsed into its own
+ * minimal library, so nothing is kept between files. While parsing, the size, latency and allocated bytes of each file
+ * are recorded by the {@link ParseStatistics}.
  *
  * @author Joe Walnes
  */
@@ -51,90 +71,351 @@ public class QDoxTester {
         void error(String id, Throwable throwable);
     }
 
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    // false once it turned out the jdk.management module isn't available
+    private static volatile boolean allocationsMeasurable = true;
+
     private final Reporter reporter;
 
+    private final int threads;
+
+    private final ParseStatistics statistics;
+
+    private final Charset encoding = Charset.defaultCharset();
+
+    /**
+     * Create a tester which checks the files one by one on the calling thread.
+     *
+     * @param reporter the reporter
+     */
     public QDoxTester(Reporter reporter) {
+        this(reporter, 1, new ParseStatistics(0));
+    }
+
+    /**
+     * @param reporter the reporter
+     * @param threads the number of threads which parse the files of a directory, zip or jar
+     * @param statistics the statistics to record the measurements of every file
+     * @since 2.2
+     */
+    public QDoxTester(Reporter reporter, int threads, ParseStatistics statistics) {
         this.reporter = reporter;
+        this.threads = Math.max(1, threads);
+        this.statistics = statistics;
     }
 
-    public void checkZipOrJarFile(File file) throws IOException {
-        ZipFile zipFile = new ZipFile(file);
-        Enumeration<? extends ZipEntry> entries = zipFile.entries();
-        while (entries.hasMoreElements()) {
-            ZipEntry zipEntry = entries.nextElement();
-            if( zipEntry.isDirectory() )
-            {
-                continue;
-            }
-            InputStream inputStream = zipFile.getInputStream(zipEntry);
-            try {
-                verify(file.getName() + "!" + zipEntry.getName(), inputStream);
-            } finally {
-                inputStream.close();
+    /**
+     * @return the measurements of the files checked so far
+     * @since 2.2
+     */
+    public ParseStatistics getStatistics() {
+        return statistics;
+    }
+
+    public void checkZipOrJarFile(final File file) throws IOException {
+        final ZipFile zipFile = new ZipFile(file);
+        try {
+            Run run = new Run();
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry zipEntry = entries.nextElement();
+                if( zipEntry.isDirectory() )
+                {
+                    continue;
+                }
+                run.submit(new Runnable() {
+                    public void run() {
+                        String id = file.getName() + "!" + zipEntry.getName();
+                        byte[] content;
+                        try {
+                            InputStream inputStream = zipFile.getInputStream(zipEntry);
+                            try {
+                                content = read(inputStream);
+                            } finally {
+                                inputStream.close();
+                            }
+                        } catch (IOException e) {
+                            report(id, "error", 0, 0, -1, e);
+                            return;
+                        }
+                        verify(id, content);
+                    }
+                });
             }
+            run.await();
+        } finally {
+            zipFile.close();
         }
     }
 
     public void checkDirectory(File dir) {
         DirectoryScanner directoryScanner = new DirectoryScanner(dir);
         directoryScanner.addFilter(new SuffixFilter(".java"));
+        final Run run = new Run();
+        // the files are submitted while the directory is walked, so the whole tree is never listed at once
         directoryScanner.scan(new FileVisitor() {
-            public void visitFile(File file) {
-                try {
-                    checkJavaFile(file);
-                } catch (IOException e) {
-                    // ?
-                }
+            public void visitFile(final File file) {
+                run.submit(new Runnable() {
+                    public void run() {
+                        try {
+                            verify(file);
+                        } catch (IOException e) {
+                            report(file.getName(), "error", 0, 0, -1, e);
+                        }
+                    }
+                });
             }
         });
+        run.await();
     }
 
     public void checkJavaFile(File file) throws IOException {
+        long start = System.nanoTime();
+        try {
+            verify(file);
+        } finally {
+            statistics.addWallTime(System.nanoTime() - start);
+        }
+    }
+
+    private void verify(File file) throws IOException {
         InputStream inputStream = new FileInputStream(file);
+        byte[] content;
         try {
-            verify(file.getName(), inputStream);
+            content = read(inputStream);
         } finally {
             inputStream.close();
         }
+        verify(file.getName(), content);
     }
 
-    private void verify(String id, InputStream inputStream) {
+    private void verify(String id, byte[] content) {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        Throwable failure = null;
         try {
-            JavaProjectBuilder builder = new JavaProjectBuilder();
-            builder.addSource(new BufferedReader(new InputStreamReader(inputStream)));
-            reporter.success(id);
-        } catch (ParseException parseException) {
-            reporter.parseFailure(id, parseException.getLine(), parseException.getColumn(), parseException.getMessage());
-        } catch (Exception otherException) {
-            reporter.error(id, otherException);
+            CharBuffer chars = encoding.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE).decode(ByteBuffer.wrap(content));
+            // a library of its own without any parent, so nothing is kept and no classloaders are set up per file
+            new SourceLibrary(null).addSource(new CharArrayReader(chars.array(), chars.arrayOffset(), chars.limit()));
+        } catch (Exception e) {
+            failure = e;
+        }
+        long nanos = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes();
+        long allocated = (allocatedBefore < 0 || allocatedAfter < 0) ? -1 : allocatedAfter - allocatedBefore;
+        if (failure == null) {
+            report(id, "success", content.length, nanos, allocated, null);
+        } else if (failure instanceof ParseException) {
+            report(id, "failure", content.length, nanos, allocated, failure);
+        } else {
+            report(id, "error", content.length, nanos, allocated, failure);
+        }
+    }
+
+    private void report(String id, String result, long bytes, long nanos, long allocated, Throwable failure) {
+        statistics.record(id, result, bytes, nanos, allocated);
+        synchronized (reporter) {
+            if (failure == null) {
+                reporter.success(id);
+            } else if (failure instanceof ParseException) {
+                ParseException parseException = (ParseException) failure;
+                reporter.parseFailure(id, parseException.getLine(), parseException.getColumn(), parseException.getMessage());
+            } else {
+                reporter.error(id, failure);
+            }
+        }
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, or <code>-1</code> if the JVM can't tell
+     */
+    private static long allocatedBytes() {
+        if (allocationsMeasurable) {
+            try {
+                return threadAllocatedBytes();
+            } catch (NoClassDefFoundError e) {
+                // jdk.management is an optional dependency of the module, e.g. missing from a jlinked runtime
+                allocationsMeasurable = false;
+            }
+        }
+        return -1;
+    }
+
+    private static long threadAllocatedBytes() {
+        if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+            if (threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+                return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] read(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        byte[] buffer = new byte[8192];
+        int length;
+        while ((length = inputStream.read(buffer)) >= 0) {
+            out.write(buffer, 0, length);
         }
+        return out.toByteArray();
     }
 
+    /**
+     * The files of a single check. With one thread they are checked as they're submitted, otherwise by a pool which
+     * accepts only a few files per thread in advance, so a corpus isn't queued up in memory as a whole.
+     */
+    private final class Run {
+
+        private final long start = System.nanoTime();
+
+        private final ExecutorService executor;
+
+        private final Semaphore queued;
+
+        // thrown by the reporter, rethrown on the calling thread once the other files have been checked
+        private volatile RuntimeException failure;
+
+        Run() {
+            if (threads > 1) {
+                executor = Executors.newFixedThreadPool(threads, WORKER_FACTORY);
+                queued = new Semaphore(threads * 4);
+            } else {
+                executor = null;
+                queued = null;
+            }
+        }
+
+        void submit(final Runnable task) {
+            if (executor == null) {
+                task.run();
+                return;
+            }
+            queued.acquireUninterruptibly();
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        if (failure == null) {
+                            failure = e;
+                        }
+                    } finally {
+                        queued.release();
+                    }
+                }
+            });
+        }
+
+        void await() {
+            if (executor != null) {
+                executor.shutdown();
+                boolean interrupted = false;
+                while (!executor.isTerminated()) {
+                    try {
+                        executor.awaitTermination(1, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            statistics.addWallTime(System.nanoTime() - start);
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private static final ThreadFactory WORKER_FACTORY = new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "qdox-tester-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
     public static void main(String[] args) throws IOException {
-        if (args.length == 0) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int slowest = 10;
+        File csvFile = null;
+        File jsonFile = null;
+        int i = 0;
+        try {
+            for (; i < args.length && args[i].startsWith("-"); i++) {
+                if ("-threads".equals(args[i])) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if ("-slowest".equals(args[i])) {
+                    slowest = Integer.parseInt(args[++i]);
+                } else if ("-csv".equals(args[i])) {
+                    csvFile = new File(args[++i]);
+                } else if ("-json".equals(args[i])) {
+                    jsonFile = new File(args[++i]);
+                } else {
+                    i = args.length;
+                }
+            }
+        } catch (RuntimeException e) {
+            // a missing or invalid value
+            i = args.length;
+        }
+        if (i >= args.length) {
             System.err.println("Tool that verifies that QDox can parse some Java source.");
             System.err.println();
-            System.err.println("Usage: java " + QDoxTester.class.getName() + " src1 [src2] [src3]...");
+            System.err.println("Usage: java " + QDoxTester.class.getName() + " [options] src1 [src2] [src3]...");
             System.err.println();
             System.err.println("Each src can be a single .java file, or a directory/zip/jar containing multiple source files");
+            System.err.println();
+            System.err.println("Options:");
+            System.err.println("  -threads <n>   number of threads parsing the files, the number of processors by default");
+            System.err.println("  -slowest <n>   number of slowest files to report, 10 by default");
+            System.err.println("  -csv <file>    write the size, parse time and allocated bytes of every file as CSV");
+            System.err.println("  -json <file>   write the summary, including throughput and latency percentiles, as JSON");
             System.exit(-1);
         }
 
+        ParseStatistics statistics = new ParseStatistics(slowest);
+        PrintWriter csv = null;
+        if (csvFile != null) {
+            csv = new PrintWriter(new OutputStreamWriter(new FileOutputStream(csvFile), "UTF-8"));
+            statistics.setCsv(csv);
+        }
         ConsoleReporter reporter = new ConsoleReporter(System.out);
-        QDoxTester qDoxTester = new QDoxTester(reporter);
-        for (int i = 0; i < args.length; i++) {
-            File file = new File(args[i]);
-            if (file.isDirectory()) {
-                qDoxTester.checkDirectory(file);
-            } else if (file.getName().endsWith(".java")) {
-                qDoxTester.checkJavaFile(file);
-            } else if (file.getName().endsWith(".jar") || file.getName().endsWith(".zip")) {
-                qDoxTester.checkZipOrJarFile(file);
-            } else {
-                System.err.println("Unknown input <" + file.getName() + ">. Should be zip, jar, java or directory");
+        QDoxTester qDoxTester = new QDoxTester(reporter, threads, statistics);
+        try {
+            for (; i < args.length; i++) {
+                File file = new File(args[i]);
+                if (file.isDirectory()) {
+                    qDoxTester.checkDirectory(file);
+                } else if (file.getName().endsWith(".java")) {
+                    qDoxTester.checkJavaFile(file);
+                } else if (file.getName().endsWith(".jar") || file.getName().endsWith(".zip")) {
+                    qDoxTester.checkZipOrJarFile(file);
+                } else {
+                    System.err.println("Unknown input <" + file.getName() + ">. Should be zip, jar, java or directory");
+                }
+            }
+        } finally {
+            if (csv != null) {
+                csv.close();
             }
         }
         reporter.writeSummary();
+        statistics.writeSummary(new PrintWriter(System.out));
+        if (jsonFile != null) {
+            PrintWriter json = new PrintWriter(new OutputStreamWriter(new FileOutputStream(jsonFile), "UTF-8"));
+            try {
+                statistics.writeJson(json);
+            } finally {
+                json.close();
+            }
+        }
     }
 
     private static class ConsoleReporter implements Reporter {
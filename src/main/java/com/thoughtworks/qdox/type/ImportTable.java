@@ -0,0 +1,100 @@
+package com.thoughtworks.qdox.type;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The imports of a source, compiled once for type resolution: a hash table from simple name to import and the
+ * ordered list of on-demand packages and static import owners. Static imports are treated like the other imports.
+ *
+ * @since 2.2
+ */
+public final class ImportTable
+{
+    private final Collection<String> source;
+
+    private final int size;
+
+    private final Set<String> imports = new HashSet<String>();
+
+    // the first import by its last segment, in declaration order
+    private final Map<String, String> singleTypeImports = new HashMap<String, String>();
+
+    // prefixes of the on-demand imports, including the trailing dot
+    private final List<String> onDemandImports;
+
+    /**
+     * @param imports the imports as declared in the source, can start with <code>static </code>
+     */
+    public ImportTable( Collection<String> imports )
+    {
+        this.source = imports;
+        this.size = imports.size();
+        List<String> onDemand = new ArrayList<String>();
+        for ( String imprt : imports )
+        {
+            if ( imprt.startsWith( "static " ) )
+            {
+                imprt = imprt.substring( 7 );
+            }
+            this.imports.add( imprt );
+
+            int dotIndex = imprt.lastIndexOf( '.' );
+            String simpleName = imprt.substring( dotIndex + 1 );
+            if ( "*".equals( simpleName ) )
+            {
+                if ( dotIndex >= 0 )
+                {
+                    onDemand.add( imprt.substring( 0, dotIndex + 1 ) );
+                }
+            }
+            else if ( !singleTypeImports.containsKey( simpleName ) )
+            {
+                singleTypeImports.put( simpleName, imprt );
+            }
+        }
+        this.onDemandImports = Collections.unmodifiableList( onDemand );
+    }
+
+    /**
+     * Imports can only be added to a source, so a table is current as long as the number of imports didn't change.
+     * 
+     * @return this table if it's still current, otherwise a table compiled from the current imports
+     */
+    public ImportTable update()
+    {
+        return source.size() == size ? this : new ImportTable( source );
+    }
+
+    /**
+     * @param name the name
+     * @return <code>true</code> if exactly this name is imported, otherwise <code>false</code>
+     */
+    public boolean containsImport( String name )
+    {
+        return imports.contains( name );
+    }
+
+    /**
+     * @param simpleName the simple name of a type
+     * @return the first import ending with this name, otherwise <code>null</code>
+     */
+    public String getSingleTypeImport( String simpleName )
+    {
+        return singleTypeImports.get( simpleName );
+    }
+
+    /**
+     * @return the packages and static import owners imported on demand, each followed by a dot
+     */
+    public List<String> getOnDemandImports()
+    {
+        return onDemandImports;
+    }
+}
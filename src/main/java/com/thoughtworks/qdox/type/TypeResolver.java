@@ -2,13 +2,16 @@ package com.thoughtworks.qdox.type;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.thoughtworks.qdox.library.AbstractClassLibrary;
 import com.thoughtworks.qdox.library.ClassLibrary;
+import com.thoughtworks.qdox.library.MetricsListener;
 import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.util.NamePool;
 
 /**
  * A per JavaClass resolver of types
@@ -20,7 +23,8 @@ public class TypeResolver
 {
     private static final Set<String> PRIMITIVE_TYPES = new HashSet<String>();
 
-    private final Map<String, String> resolvedTypeCache = new HashMap<String, String>();
+    // an empty name marks a type which couldn't be resolved
+    private volatile ResolvedTypes resolvedTypes = new ResolvedTypes( 0 );
 
     private final String pckg;
     
@@ -29,6 +33,9 @@ public class TypeResolver
     private final ClassLibrary classLibrary;
     
     private final Collection<String> imports;
+
+    // compiled on first use, unless it's shared by the source
+    private volatile ImportTable importTable;
     
     static {
         PRIMITIVE_TYPES.add("boolean");
@@ -42,12 +49,14 @@ public class TypeResolver
         PRIMITIVE_TYPES.add("void");
     }
 
-    private TypeResolver( String pckg, String declaringClass, ClassLibrary classLibrary, Collection<String> imports )
+    private TypeResolver( String pckg, String declaringClass, ClassLibrary classLibrary, Collection<String> imports,
+                          ImportTable importTable )
     {
         this.pckg = pckg;
         this.declaringClass = declaringClass;
         this.classLibrary = classLibrary;
-        this.imports = imports != null ? imports : Collections.<String>emptyList();
+        this.imports = imports != null || importTable != null ? imports : Collections.<String>emptyList();
+        this.importTable = importTable;
     }
     
     /**
@@ -60,7 +69,22 @@ public class TypeResolver
      */
     public static TypeResolver byPackageName( String binaryName, ClassLibrary classLibrary, Collection<String> imports )
     {
-        return new TypeResolver( binaryName, null, classLibrary, imports );
+        return new TypeResolver( binaryName, null, classLibrary, imports, null );
+    }
+
+    /**
+     * Type resolver in case there's no declaring class, using the compiled imports of the source
+     * 
+     * @param binaryName the binary name of the package
+     * @param classLibrary the class library
+     * @param importTable the compiled imports
+     * @return the typeResolver
+     * @since 2.2
+     */
+    public static TypeResolver byPackageNameAndImports( String binaryName, ClassLibrary classLibrary,
+                                                        ImportTable importTable )
+    {
+        return new TypeResolver( binaryName, null, classLibrary, null, importTable );
     }
     
     /**
@@ -74,7 +98,23 @@ public class TypeResolver
     {
         int dotIndex = binaryName.lastIndexOf( '.' );
         String pckg = dotIndex > 0 ? binaryName.substring( 0, dotIndex ) : null;   
-        return new TypeResolver( pckg, binaryName, classLibrary, imports );
+        return new TypeResolver( pckg, binaryName, classLibrary, imports, null );
+    }
+
+    /**
+     * 
+     * @param binaryName the class in which context a type is used.
+     * @param classLibrary the class library
+     * @param importTable the compiled imports of the source
+     * @return the typeResolver
+     * @since 2.2
+     */
+    public static TypeResolver byClassNameAndImports( String binaryName, ClassLibrary classLibrary,
+                                                      ImportTable importTable )
+    {
+        int dotIndex = binaryName.lastIndexOf( '.' );
+        String pckg = dotIndex > 0 ? binaryName.substring( 0, dotIndex ) : null;   
+        return new TypeResolver( pckg, binaryName, classLibrary, null, importTable );
     }
     
     public JavaClass resolveJavaClass( String typeName )
@@ -89,7 +129,17 @@ public class TypeResolver
 
     public String resolveType( String typeName )
     {
+        MetricsListener metricsListener = null;
+        NamePool namePool = null;
+        if ( classLibrary instanceof AbstractClassLibrary )
+        {
+            metricsListener = ( (AbstractClassLibrary) classLibrary ).getMetricsListener();
+            namePool = ( (AbstractClassLibrary) classLibrary ).getNamePool();
+        }
+        long start = metricsListener != null ? System.nanoTime() : 0;
+        Map<String, String> resolvedTypeCache = getResolvedTypeCache();
         String result = resolvedTypeCache.get( typeName );
+        boolean cached = result != null;
         if ( result == null )
         {
             if ( declaringClass != null )
@@ -121,11 +171,44 @@ public class TypeResolver
 
             if ( result != null )
             {
+                // the types of all sources refer to the same instance of a resolved name
+                if ( namePool != null )
+                {
+                    result = namePool.intern( result );
+                }
                 resolvedTypeCache.put( typeName, result );
             }
+            else if ( classLibrary instanceof AbstractClassLibrary )
+            {
+                resolvedTypeCache.put( typeName, "" );
+            }
+        }
+        if ( result != null && result.isEmpty() )
+        {
+            result = null;
+        }
+        if ( metricsListener != null )
+        {
+            metricsListener.typeResolved( typeName, result, cached, System.nanoTime() - start );
         }
         return result;
     }
+
+    // the cached names are valid as long as the library doesn't change
+    private Map<String, String> getResolvedTypeCache()
+    {
+        ResolvedTypes result = resolvedTypes;
+        if ( classLibrary instanceof AbstractClassLibrary )
+        {
+            long modificationCount = ( (AbstractClassLibrary) classLibrary ).getModificationCount();
+            if ( result.modificationCount != modificationCount )
+            {
+                result = new ResolvedTypes( modificationCount );
+                resolvedTypes = result;
+            }
+        }
+        return result.types;
+    }
     
     /**
      * Resolves a type name
@@ -165,19 +248,21 @@ public class TypeResolver
                 outerName = typeName.substring( 0, dotpos );
             }
 
-            // Check single-type-import with fully qualified name
-            resolvedName = resolveImportedType( typeName, nestedName, true );
+            ImportTable importTable = getImportTable();
 
-            if ( resolvedName != null )
+            // Check single-type-import with fully qualified name
+            if ( importTable.containsImport( typeName ) )
             {
+                resolvedName = resolveSingleTypeImport( typeName );
                 break lookup;
             }
 
             // Check single-type-import with outer name
-            resolvedName = resolveImportedType( outerName, nestedName, false );
-
-            if ( resolvedName != null )
+            String imprt = importTable.getSingleTypeImport( outerName );
+            if ( imprt != null )
             {
+                resolvedName = resolveSingleTypeImport( imprt.equals( outerName ) ? imprt
+                                : imprt.substring( 0, imprt.length() - outerName.length() ) + nestedName );
                 break lookup;
             }
 
@@ -218,47 +303,35 @@ public class TypeResolver
             }
 
             // Check type-import-on-demand
-            resolvedName = resolveImportedType( "*", nestedName, false );
-
-            if ( resolvedName != null )
+            for ( String onDemandImport : importTable.getOnDemandImports() )
             {
-                break lookup;
+                resolvedName = resolveFullyQualifiedType( onDemandImport + nestedName );
+                if ( resolvedName != null )
+                {
+                    break lookup;
+                }
             }
         }
 
         return resolvedName;
     }
 
-    private String resolveImportedType( String importSpec, String typeName, boolean fullMatch )
+    // a single-type-import is used even if the library doesn't know the type
+    private String resolveSingleTypeImport( String candidateName )
     {
-        String resolvedName = null;
-        String dotSuffix = "." + importSpec;
+        String resolvedName = resolveFullyQualifiedType( candidateName );
+        return resolvedName != null ? resolvedName : candidateName;
+    }
 
-        for ( String imprt : imports )
+    private ImportTable getImportTable()
+    {
+        ImportTable result = importTable;
+        ImportTable current = ( result == null ? new ImportTable( imports ) : result.update() );
+        if ( current != result )
         {
-            // static imports can refer to inner classes
-            if ( imprt.startsWith( "static " ) )
-            {
-                imprt = imprt.substring( 7 );
-            }
-            if ( imprt.equals( importSpec ) || ( !fullMatch && imprt.endsWith( dotSuffix ) ) )
-            {
-                String candidateName = imprt.equals(importSpec) ? imprt
-                                : imprt.substring(0, imprt.length() - importSpec.length()) + typeName;
-
-                resolvedName = resolveFullyQualifiedType( candidateName );
-                if ( resolvedName == null && !"*".equals( importSpec ) )
-                {
-                    resolvedName = candidateName;
-                }
-                if ( resolvedName != null )
-                {
-                    break;
-                }
-            }
+            importTable = current;
         }
-
-        return resolvedName;
+        return current;
     }
 
     private String resolveFromLibrary(String typeName) {
@@ -284,4 +357,16 @@ public class TypeResolver
         }
         return null;
     }
+
+    private static final class ResolvedTypes
+    {
+        private final Map<String, String> types = new ConcurrentHashMap<String, String>();
+
+        private final long modificationCount;
+
+        ResolvedTypes( long modificationCount )
+        {
+            this.modificationCount = modificationCount;
+        }
+    }
 }
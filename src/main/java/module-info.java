@@ -1,5 +1,7 @@
 module com.thoughtworks.qdox {
 	requires java.desktop; // java.beans.Introspector
+	requires static jdk.management; // com.sun.management.ThreadMXBean, only measured if available
+	requires static jdk.jfr; // com.thoughtworks.qdox.library.jfr
 	
 	exports com.thoughtworks.qdox;
 	exports com.thoughtworks.qdox.model;
@@ -1,9 +1,16 @@
 package com.thoughtworks.qdox;
 
+import com.thoughtworks.qdox.directorywalker.FileVisitor;
+import com.thoughtworks.qdox.library.AbstractClassLibrary;
 import com.thoughtworks.qdox.library.ClassLibraryBuilder;
 import com.thoughtworks.qdox.library.ErrorHandler;
 import com.thoughtworks.qdox.library.OrderedClassLibraryBuilder;
+import com.thoughtworks.qdox.library.SourceCodeMode;
+import com.thoughtworks.qdox.library.TypeHierarchy;
 import com.thoughtworks.qdox.model.*;
+import com.thoughtworks.qdox.model.impl.DefaultJavaClass;
+import com.thoughtworks.qdox.model.impl.DefaultJavaMethod;
+import com.thoughtworks.qdox.model.util.NamePool;
 import com.thoughtworks.qdox.model.util.SerializationUtils;
 import com.thoughtworks.qdox.parser.ParseException;
 import com.thoughtworks.qdox.testdata.PropertyClass;
@@ -15,6 +22,8 @@ import org.junit.jupiter.api.Test;
 import java.io.*;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.mockito.Mockito.*;
 
@@ -155,6 +164,51 @@ public class JavaProjectBuilderTest {
         Assertions.assertNotNull(builder.getClassByName("com.blah.subpackage.Cheese"));
     }
 
+    @Test
+    public void testParallelSourceTreeKeepsSequentialOrder() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            createFile("target/test-source/com/blah/generated/Gen" + i + ".java", "com.blah.generated", "Gen" + i);
+        }
+        builder.addSourceTree(new File("target/test-source"));
+
+        JavaProjectBuilder parallelBuilder = new JavaProjectBuilder();
+        parallelBuilder.addSourceTree(new File("target/test-source"), 4);
+
+        List<String> expected = new ArrayList<String>();
+        for (JavaClass cls : builder.getClasses()) {
+            expected.add(cls.getFullyQualifiedName());
+        }
+        List<String> actual = new ArrayList<String>();
+        for (JavaClass cls : parallelBuilder.getClasses()) {
+            actual.add(cls.getFullyQualifiedName());
+        }
+        Assertions.assertEquals(53, actual.size());
+        Assertions.assertEquals(expected, actual);
+        Assertions.assertEquals(builder.getSources().size(), parallelBuilder.getSources().size());
+    }
+
+    @Test
+    public void testParallelSourceTreeReportsParseErrors() throws Exception {
+        createFile("target/test-source/com/blah/Bad.java", "com.blah", "@%! BAD {}}}}");
+        final List<ParseException> parseExceptions = new ArrayList<ParseException>();
+        builder.setErrorHandler(new ErrorHandler() {
+            public void handle(ParseException parseException) {
+                parseExceptions.add(parseException);
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            builder.addSourceTree(new File("target/test-source"), mock(FileVisitor.class), executor);
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertEquals(1, parseExceptions.size());
+        Assertions.assertNotNull(builder.getClassByName("com.blah.subpackage.Cheese"));
+    }
+
     @Test
     public void testRecordFile() throws Exception {
         JavaSource source = builder.addSource(new File("target/test-source/com/blah/Thing.java"));
@@ -467,6 +521,63 @@ public class JavaProjectBuilderTest {
         Assertions.assertEquals(0, derivedClassesOfArrayList.size());
     }
 
+    @Test
+    public void testDerivedClassesFollowAddedSources() {
+        builder.addSource(new StringReader("public interface Collection {}"));
+        builder.addSource(new StringReader("public class AbstractList implements Collection {}"));
+
+        JavaClass collection = builder.getClassByName("Collection");
+        JavaClass abstractList = builder.getClassByName("AbstractList");
+        AbstractClassLibrary library = (AbstractClassLibrary) collection.getJavaClassLibrary();
+        Assertions.assertEquals(1, collection.getDerivedClasses().size());
+        Assertions.assertSame(library.getTypeHierarchy(), library.getCurrentTypeHierarchy());
+        Assertions.assertTrue(abstractList.isA(collection));
+        Assertions.assertTrue(abstractList.isA("Collection"));
+        Assertions.assertFalse(collection.isA(abstractList));
+
+        builder.addSource(new StringReader("public class ArrayList extends AbstractList {}"));
+        Assertions.assertNull(library.getCurrentTypeHierarchy());
+        Assertions.assertEquals(2, collection.getDerivedClasses().size());
+        Assertions.assertTrue(builder.getClassByName("ArrayList").isA(collection));
+
+        ((DefaultJavaClass) abstractList).setImplementz(Collections.<JavaClass>emptyList());
+        Assertions.assertEquals(0, collection.getDerivedClasses().size());
+        Assertions.assertFalse(abstractList.isA("Collection"));
+    }
+
+    @Test
+    public void testTypeHierarchyIsCurrentAfterResolvingSupertypes() {
+        builder.addSource(new StringReader("public class MyList extends java.util.ArrayList implements java.io.Closeable {}"));
+
+        AbstractClassLibrary library = (AbstractClassLibrary) builder.getClassByName("MyList").getJavaClassLibrary();
+        TypeHierarchy hierarchy = library.getTypeHierarchy();
+        Assertions.assertSame(hierarchy, library.getTypeHierarchy());
+        Assertions.assertSame(hierarchy, library.getCurrentTypeHierarchy());
+    }
+
+    @Test
+    public void testInheritedMethodsFollowChanges() {
+        builder.addSource(new StringReader("public class Base { public void a() {} private void hidden() {} }"));
+        builder.addSource(new StringReader("public class Sub extends Base { public void b() {} }"));
+
+        JavaClass base = builder.getClassByName("Base");
+        JavaClass sub = builder.getClassByName("Sub");
+        List<JavaMethod> methods = sub.getMethods(true);
+        Assertions.assertEquals("a", methods.get(1).getName());
+        Assertions.assertEquals(methods, sub.getMethods(true));
+        Assertions.assertSame(methods.get(1), sub.getMethods(true).get(1));
+
+        DefaultJavaMethod c = new DefaultJavaMethod("c");
+        c.setModifiers(Collections.singletonList("public"));
+        ((DefaultJavaClass) base).addMethod(c);
+        Assertions.assertEquals(methods.size() + 1, sub.getMethods(true).size());
+
+        builder.addSource(new StringReader("public interface Named { String getName(); }"));
+        builder.addSource(new StringReader("public class Other extends Sub implements Named { public String getName() { return null; } }"));
+        Assertions.assertEquals(methods.size() + 2, builder.getClassByName("Other").getMethods(true).size());
+        Assertions.assertNotNull(builder.getClassByName("Other").getBeanProperty("name", true));
+    }
+
     @Test
     public void testSourcePropertyClass() throws IOException {
         builder.addSource(new File("src/test/java/com/thoughtworks/qdox/testdata/PropertyClass.java"));
@@ -586,6 +697,151 @@ public class JavaProjectBuilderTest {
 
     }
 
+    @Test
+    public void testSnapshotParsesSourcesOnDemand() throws Exception {
+        File file = new File("target/test-source/snapshot.qdx");
+        File sourceA = new File("target/test-source/snapshot/A.java");
+        sourceA.getParentFile().mkdirs();
+        Writer writer = new FileWriter(sourceA);
+        try {
+            writer.write("package p;\n\n/** Alpha */\npublic class A {\n  class Inner {}\n  public void m() {}\n}");
+        }
+        finally {
+            writer.close();
+        }
+        builder.addSource(sourceA);
+        builder.addSource(new StringReader("package p; class B extends A {}"));
+        builder.addSource(new StringReader("package q; class C {}"));
+        builder.save(file);
+
+        JavaProjectBuilder newBuilder = JavaProjectBuilder.load(file);
+        JavaClass a = newBuilder.getClassByName("p.A");
+        Assertions.assertEquals("Alpha", a.getComment());
+        Assertions.assertEquals(4, a.getLineNumber());
+        Assertions.assertNotNull(newBuilder.getClassByName("p.A$Inner"));
+        // listing a package parses its remaining sources
+        List<String> classNames = new ArrayList<String>();
+        for (JavaClass cls : newBuilder.getPackageByName("p").getClasses()) {
+            classNames.add(cls.getFullyQualifiedName());
+        }
+        Assertions.assertTrue(classNames.contains("p.B"));
+        Assertions.assertEquals(a, newBuilder.getClassByName("p.B").getSuperJavaClass());
+        Assertions.assertEquals(3, new HashSet<JavaSource>(newBuilder.getSources()).size());
+    }
+
+    @Test
+    public void testLoadSerializedClassLibraryBuilder() throws Exception {
+        File file = new File("target/test-source/legacy.obj");
+        ClassLibraryBuilder libraryBuilder = new OrderedClassLibraryBuilder();
+        libraryBuilder.appendSource(new StringReader("package p; class A {}"));
+        ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file));
+        try {
+            out.writeObject(libraryBuilder);
+        }
+        finally {
+            out.close();
+        }
+
+        Assertions.assertNotNull(JavaProjectBuilder.load(file).getClassByName("p.A"));
+    }
+
+    @Test
+    public void testSourceCodeModes() throws Exception {
+        File source = new File("target/test-source/sourcecode/S.java");
+        source.getParentFile().mkdirs();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(source), "UTF-8");
+        try {
+            writer.write("package p;\r\n/** \u00e9t\u00e9 */\r\npublic abstract class S {\r\n"
+                + "  S() { super(); }\r\n"
+                + "  abstract void a();\r\n"
+                + "  String m() { return \"}\u00e9{\" + '}'; /* } */ }\r\n"
+                + "  record R(int x) { R { if (x < 0) { throw new IllegalArgumentException(); } } }\r\n"
+                + "}\r\n");
+        }
+        finally {
+            writer.close();
+        }
+
+        JavaClass retained = new JavaProjectBuilder().setEncoding("UTF-8").addSource(source).getClassByName("S");
+        JavaClass skipped = new JavaProjectBuilder().setEncoding("UTF-8").setSourceCodeMode(SourceCodeMode.SKIP)
+            .addSource(source).getClassByName("S");
+        JavaClass lazy = new JavaProjectBuilder().setEncoding("UTF-8").setSourceCodeMode(SourceCodeMode.LAZY)
+            .addSource(source).getClassByName("S");
+
+        Assertions.assertEquals(" return \"}\u00e9{\" + '}'; /* } */ ", retained.getMethodBySignature("m", null).getSourceCode());
+        Assertions.assertNull(skipped.getMethodBySignature("m", null).getSourceCode());
+        Assertions.assertNull(skipped.getConstructors().get(0).getSourceCode());
+        Assertions.assertEquals("", skipped.getMethodBySignature("a", null).getSourceCode());
+        Assertions.assertEquals("\u00e9t\u00e9", skipped.getComment());
+        for (int i = 0; i < retained.getMethods().size(); i++) {
+            Assertions.assertEquals(retained.getMethods().get(i).getSourceCode(), lazy.getMethods().get(i).getSourceCode());
+        }
+        Assertions.assertEquals(retained.getConstructors().get(0).getSourceCode(), lazy.getConstructors().get(0).getSourceCode());
+        Assertions.assertEquals(retained.getNestedClassByName("R").getConstructors().get(0).getSourceCode(),
+                                lazy.getNestedClassByName("R").getConstructors().get(0).getSourceCode());
+    }
+
+    @Test
+    public void testLazySourceCodeOfSourceTree() throws Exception {
+        JavaProjectBuilder retained = new JavaProjectBuilder();
+        retained.addSourceTree(new File("src/main/java/com/thoughtworks/qdox/model"));
+        JavaProjectBuilder lazy = new JavaProjectBuilder().setSourceCodeMode(SourceCodeMode.LAZY);
+        lazy.addSourceTree(new File("src/main/java/com/thoughtworks/qdox/model"));
+
+        for (JavaClass cls : retained.getClasses()) {
+            JavaClass lazyClass = lazy.getClassByName(cls.getBinaryName());
+            for (int i = 0; i < cls.getMethods().size(); i++) {
+                Assertions.assertEquals(cls.getMethods().get(i).getSourceCode(), lazyClass.getMethods().get(i).getSourceCode());
+            }
+            for (int i = 0; i < cls.getConstructors().size(); i++) {
+                Assertions.assertEquals(cls.getConstructors().get(i).getSourceCode(), lazyClass.getConstructors().get(i).getSourceCode());
+            }
+        }
+    }
+
+    @Test
+    public void testLazyJavadocEqualsParsedJavadoc() throws Exception {
+        String source = "package p;\n"
+            + "/** first @deprecated */\n"
+            + "/**\n * Second\n * @author someone\n */\n"
+            + "public class C {\n"
+            + "    /** @see Other#field */\n"
+            + "    int field;\n"
+            + "    /**\n     * Method\n     * @param a the a\n     * @return the result\n     */\n"
+            + "    int m(int a) { return a; }\n"
+            + "    void undocumented() {}\n"
+            + "    /** Nested */\n"
+            + "    class N {}\n"
+            + "}\n";
+        JavaClass parsed = new JavaProjectBuilder().addSource(new StringReader(source)).getClassByName("C");
+        JavaClass lazy = new JavaProjectBuilder().setLazyJavadoc(true).addSource(new StringReader(source)).getClassByName("C");
+
+        List<JavaAnnotatedElement> parsedElements = new ArrayList<JavaAnnotatedElement>();
+        List<JavaAnnotatedElement> lazyElements = new ArrayList<JavaAnnotatedElement>();
+        for (JavaClass cls : new JavaClass[] { parsed, lazy }) {
+            List<JavaAnnotatedElement> elements = cls == parsed ? parsedElements : lazyElements;
+            elements.add(cls);
+            elements.addAll(cls.getFields());
+            elements.addAll(cls.getMethods());
+            elements.addAll(cls.getNestedClasses());
+        }
+        Assertions.assertEquals("Second", lazy.getComment());
+        Assertions.assertEquals(parsedElements.size(), lazyElements.size());
+        for (int i = 0; i < parsedElements.size(); i++) {
+            Assertions.assertEquals(parsedElements.get(i).getComment(), lazyElements.get(i).getComment());
+            List<DocletTag> parsedTags = parsedElements.get(i).getTags();
+            List<DocletTag> lazyTags = lazyElements.get(i).getTags();
+            Assertions.assertEquals(parsedTags.size(), lazyTags.size());
+            for (int j = 0; j < parsedTags.size(); j++) {
+                Assertions.assertEquals(parsedTags.get(j).getName(), lazyTags.get(j).getName());
+                Assertions.assertEquals(parsedTags.get(j).getValue(), lazyTags.get(j).getValue());
+                Assertions.assertEquals(parsedTags.get(j).getLineNumber(), lazyTags.get(j).getLineNumber());
+                Assertions.assertSame(lazyElements.get(i), lazyTags.get(j).getContext());
+            }
+        }
+        Assertions.assertEquals("a the a", lazy.getMethods().get(0).getTagByName("param").getValue());
+    }
+
     @Test
     public void testSuperClassOfAnInterfaceReturnsNull() {
         String in = "package x; interface I {}";
@@ -798,6 +1054,8 @@ public class JavaProjectBuilderTest {
         Assertions.assertEquals("y", c.get(0).getValue());
         Assertions.assertEquals("x", c.get(1).getValue());
 
+        Assertions.assertEquals(c, y.getTagsByName("c", true));
+
         JavaMethod i = y.getMethodBySignature("i", null);
         List<DocletTag> m = i.getTagsByName("m", true);
         Assertions.assertEquals(2, m.size());
@@ -808,6 +1066,19 @@ public class JavaProjectBuilderTest {
         Assertions.assertEquals("f", s.getValue());
     }
 
+    @Test
+    public void testTagInheritanceOfSuperclassAddedLater() {
+        builder.addSource(new StringReader("/** @foo c */ class C extends P {}"));
+        JavaClass c = builder.getClassByName("C");
+        Assertions.assertEquals(1, c.getTagsByName("foo", true).size());
+
+        builder.addSource(new StringReader("/** @foo p */ class P {}"));
+        List<DocletTag> foo = c.getTagsByName("foo", true);
+        Assertions.assertEquals(2, foo.size());
+        Assertions.assertEquals("c", foo.get(0).getValue());
+        Assertions.assertEquals("p", foo.get(1).getValue());
+    }
+
     @Test
     public void testJiraQdox27() {
         String sourceCode = ""
@@ -2077,6 +2348,65 @@ public class JavaProjectBuilderTest {
         Assertions.assertNotNull(builder.getClassByName("com.foo.Bar"));
     }
 
+    @Test
+    public void testFreeze() {
+        String source = "package com.foo;\n"
+            + "import java.util.List;\n"
+            + "/** @author joe */\n"
+            + "@Deprecated public abstract class Bar<T extends Comparable<T>> implements Runnable, Cloneable {\n"
+            + "  private final List<Map<String, T>> values;\n"
+            + "  public Bar(int size) throws IllegalArgumentException { values = null; }\n"
+            + "  public abstract <E> List<E> find(@Deprecated String name, int... ids) throws java.io.IOException;\n"
+            + "  static class Inner {}\n"
+            + "}";
+        builder.addSource(new StringReader(source));
+        JavaClass bar = builder.getClassByName("com.foo.Bar");
+        String codeBlock = bar.getSource().getCodeBlock();
+
+        builder.freeze();
+
+        Assertions.assertEquals(codeBlock, bar.getSource().getCodeBlock());
+        Assertions.assertEquals("joe", bar.getTagByName("author").getValue());
+        Assertions.assertEquals(Arrays.asList("public", "abstract"), bar.getModifiers());
+        Assertions.assertEquals("java.lang.Runnable", bar.getInterfaces().get(0).getFullyQualifiedName());
+        Assertions.assertSame(bar.getInterfaces(), bar.getInterfaces());
+        Assertions.assertEquals(1, bar.getNestedClasses().size());
+        JavaMethod find = bar.getMethods().get(0);
+        Assertions.assertEquals("java.io.IOException", find.getExceptions().get(0).getFullyQualifiedName());
+        Assertions.assertEquals(2, find.getParameters().size());
+        Assertions.assertEquals("java.util.List<E>", find.getReturnType().getGenericFullyQualifiedName());
+        Assertions.assertThrows(UnsupportedOperationException.class, new org.junit.jupiter.api.function.Executable() {
+            public void execute() {
+                ((DefaultJavaClass) bar).addMethod(new DefaultJavaMethod("other"));
+            }
+        });
+
+        // sources added afterwards can still join a package of the frozen model
+        builder.addSource(new StringReader("package com.foo; public class Baz {}"));
+        Assertions.assertTrue(builder.getPackageByName("com.foo").getClasses().contains(builder.getClassByName("com.foo.Baz")));
+    }
+
+    @Test
+    public void testNamePool() {
+        builder.setNamePool(new NamePool());
+        JavaSource first = builder.addSource(new StringReader("package com.foo;\n"
+            + "import java.util.List;\n"
+            + "/** @author joe */\n"
+            + "public class Bar { List<String> values; }"));
+        JavaSource second = builder.addSource(new StringReader("package com.foo;\n"
+            + "import java.util.List;\n"
+            + "/** @author jane */\n"
+            + "public class Baz { List<String> values; }"));
+
+        Assertions.assertSame(first.getImports().get(0), second.getImports().get(0));
+        Assertions.assertSame(first.getPackageName(), second.getPackageName());
+        JavaClass bar = first.getClasses().get(0);
+        JavaClass baz = second.getClasses().get(0);
+        Assertions.assertSame(bar.getTags().get(0).getName(), baz.getTags().get(0).getName());
+        Assertions.assertSame(bar.getFields().get(0).getName(), baz.getFields().get(0).getName());
+        Assertions.assertEquals("java.util.List", baz.getFields().get(0).getType().getFullyQualifiedName());
+    }
+
     @Test
     public void testCommentedOutClass() throws IOException {
         builder.addSource(new File("src/test/resources/com/thoughtworks/qdox/testdata/CommentedClass.java"));
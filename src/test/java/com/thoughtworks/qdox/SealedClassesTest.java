@@ -4,6 +4,10 @@ import org.junit.jupiter.api.Test;
 
 import java.io.StringReader;
 
+import com.thoughtworks.qdox.model.JavaClass;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 /**
  * Examples from <a href="https://docs.oracle.com/en/java/javase/16/language/sealed-classes-and-interfaces.html">https://docs.oracle.com/en/java/javase/16/language/sealed-classes-and-interfaces.html</a>
  * @author Robert Scholte
@@ -39,4 +43,16 @@ public class SealedClassesTest
         String source = "public non-sealed interface Polygon extends Shape { }";
         builder.addSource( new StringReader(source) );
     }
+
+    @Test
+    public void permittedSubclassesAreNotImplemented() {
+        String source = "public sealed interface Shape permits Shape.Circle, Shape.Square {\r\n"
+            + "    record Circle(double radius) implements Shape {}\r\n"
+            + "    record Square(double side) implements Shape {}\r\n"
+            + "}";
+        builder.addSource( new StringReader(source) );
+        JavaClass circle = builder.getClassByName( "Shape$Circle" );
+        assertEquals( 1, circle.getImplements().size() );
+        assertEquals( "Shape", circle.getImplements().get( 0 ).getFullyQualifiedName() );
+    }
 }
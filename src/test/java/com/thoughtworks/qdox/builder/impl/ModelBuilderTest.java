@@ -525,6 +525,33 @@ public class ModelBuilderTest {
         Assertions.assertEquals("blah", result.getModifiers().get(1));
     }
 
+    @Test
+    public void testRecordComponentWithModifiers() {
+        ClassDef cls = new ClassDef("Point");
+        cls.setType(ClassDef.RECORD);
+        builder.beginClass(cls);
+        builder.beginConstructor();
+        MethodDef header = new MethodDef();
+        header.setName("Point");
+        header.setConstructor(true);
+        builder.endConstructor(header);
+
+        FieldDef component = new FieldDef();
+        component.setName("x");
+        component.setType(new TypeDef("int"));
+        component.getModifiers().add("final");
+        component.getModifiers().add("blah");
+        RecordFieldsDef components = new RecordFieldsDef();
+        components.addField(component);
+        builder.endRecord(components);
+
+        JavaField result = builder.getSource().getClasses().get(0).getFieldByName("x");
+        Assertions.assertEquals(3, result.getModifiers().size());
+        Assertions.assertEquals("private", result.getModifiers().get(0));
+        Assertions.assertEquals("final", result.getModifiers().get(1));
+        Assertions.assertEquals("blah", result.getModifiers().get(2));
+    }
+
     @Test
     public void testFieldNoArray() {
         builder.beginClass(new ClassDef());
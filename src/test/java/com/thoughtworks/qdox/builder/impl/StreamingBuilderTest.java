@@ -0,0 +1,278 @@
+package com.thoughtworks.qdox.builder.impl;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.builder.DefaultStreamHandler;
+import com.thoughtworks.qdox.builder.StreamContext;
+import com.thoughtworks.qdox.library.ErrorHandler;
+import com.thoughtworks.qdox.library.SourceLibrary;
+import com.thoughtworks.qdox.parser.ParseException;
+import com.thoughtworks.qdox.parser.structs.ClassDef;
+import com.thoughtworks.qdox.parser.structs.FieldDef;
+import com.thoughtworks.qdox.parser.structs.MethodDef;
+
+public class StreamingBuilderTest
+{
+    private static class RecordingHandler
+        extends DefaultStreamHandler
+    {
+        private final List<String> events = new ArrayList<String>();
+
+        private StreamContext context;
+
+        @Override
+        public void beginSource( StreamContext context )
+        {
+            this.context = context;
+            events.add( "beginSource " + context.getUrl() );
+        }
+
+        @Override
+        public void endSource()
+        {
+            events.add( "endSource" );
+        }
+
+        @Override
+        public void beginClass( ClassDef def )
+        {
+            events.add( "beginClass " + context.getClassName() );
+        }
+
+        @Override
+        public void endClass()
+        {
+            events.add( "endClass " + context.getClassName() );
+        }
+
+        @Override
+        public void beginField( FieldDef def )
+        {
+            events.add( "field " + def.getName() + " " + context.resolveType( def.getType().getName() ) );
+        }
+
+        @Override
+        public void endMethod( MethodDef def )
+        {
+            events.add( "method " + def.getName() + " " + context.resolveType( def.getReturnType().getName() ) );
+        }
+    }
+
+    @Test
+    public void testDeclarationsWithResolvedNames()
+    {
+        JavaProjectBuilder builder = new JavaProjectBuilder();
+        builder.addSource( new StringReader( "package p; public class Other {}" ) );
+        RecordingHandler handler = new RecordingHandler();
+        builder.streamSource( new StringReader( "package p;\n"
+            + "import java.util.List;\n"
+            + "public class A {\n"
+            + "  List<String> list;\n"
+            + "  Other other;\n"
+            + "  Inner inner;\n"
+            + "  static class Inner {\n"
+            + "    Map.Entry<String, String> entry() { return null; }\n"
+            + "  }\n"
+            + "}" ), handler );
+
+        List<String> expected = new ArrayList<String>();
+        expected.add( "beginSource null" );
+        expected.add( "beginClass p.A" );
+        expected.add( "field list java.util.List" );
+        expected.add( "field other p.Other" );
+        // nothing is kept of streamed sources, so their own classes aren't known
+        expected.add( "field inner null" );
+        expected.add( "beginClass p.A$Inner" );
+        expected.add( "method entry null" );
+        expected.add( "endClass p.A$Inner" );
+        expected.add( "endClass p.A" );
+        expected.add( "endSource" );
+        Assertions.assertEquals( expected, handler.events );
+        Assertions.assertEquals( "p", handler.context.getPackageName() );
+        Assertions.assertEquals( "[java.util.List]", handler.context.getImports().toString() );
+    }
+
+    @Test
+    public void testNothingIsRetained()
+    {
+        JavaProjectBuilder builder = new JavaProjectBuilder();
+        builder.streamSource( new StringReader( "package p; public class A {}" ), new RecordingHandler() );
+        Assertions.assertTrue( builder.getSources().isEmpty() );
+        Assertions.assertTrue( builder.getClasses().isEmpty() );
+    }
+
+    @Test
+    public void testParseErrorStillEndsSource()
+    {
+        final List<ParseException> errors = new ArrayList<ParseException>();
+        JavaProjectBuilder builder = new JavaProjectBuilder();
+        builder.setErrorHandler( new ErrorHandler()
+        {
+            public void handle( ParseException parseException )
+            {
+                errors.add( parseException );
+            }
+        } );
+        RecordingHandler handler = new RecordingHandler();
+        builder.streamSource( new StringReader( "package p; public class A { int }" ), handler );
+        builder.streamSource( new StringReader( "package p; public class B {}" ), handler );
+
+        Assertions.assertEquals( 1, errors.size() );
+        Assertions.assertEquals( "[beginSource null, beginClass p.A, endSource, beginSource null, beginClass p.B, endClass p.B, endSource]",
+                                 handler.events.toString() );
+    }
+
+    @Test
+    public void testFailingHandlerReleasesParser()
+        throws Exception
+    {
+        JavaProjectBuilder builder = new JavaProjectBuilder();
+        try
+        {
+            builder.streamSource( new StringReader( "package p; public class A {}" ), new DefaultStreamHandler()
+            {
+                @Override
+                public void beginSource( StreamContext context )
+                {
+                    throw new IllegalStateException( "rejected" );
+                }
+            } );
+            Assertions.fail( "the exception of the handler should be thrown" );
+        }
+        catch ( IllegalStateException e )
+        {
+            Assertions.assertEquals( "rejected", e.getMessage() );
+        }
+
+        Field threadParser = SourceLibrary.class.getDeclaredField( "REUSABLE_PARSER" );
+        threadParser.setAccessible( true );
+        Object parser = ( (ThreadLocal<?>) threadParser.get( null ) ).get();
+        Field inUse = parser.getClass().getDeclaredField( "inUse" );
+        inUse.setAccessible( true );
+        Assertions.assertFalse( inUse.getBoolean( parser ) );
+    }
+
+    @Test
+    public void testSourceFolderParsedWhileStreaming()
+        throws Exception
+    {
+        File directory = new File( "target/test-source/streamingbuilder-folder" );
+        File folder = new File( directory, "folder" );
+        File other = new File( folder, "q/Outer.java" );
+        File streamed = new File( directory, "p/A.java" );
+        StringBuilder outer = new StringBuilder( "package q; public class Outer { public static class Inner {} }" );
+        StringBuilder a = new StringBuilder( "package p; import q.Outer; public class A { Outer.Inner inner; String after; }" );
+        // Outer.java covers the rest of A.java, which is larger so they'd fit in the same buffer
+        for ( int i = 0; i < 100; i++ )
+        {
+            outer.append( "\n// padding" );
+            a.append( "\n// padding\n// padding" );
+        }
+        write( other, outer.toString() );
+        write( streamed, a.toString() );
+
+        try
+        {
+            JavaProjectBuilder builder = new JavaProjectBuilder();
+            builder.addSourceFolder( folder );
+            RecordingHandler handler = new RecordingHandler();
+            // resolving the nested class parses Outer.java on this thread, in the middle of A.java
+            builder.streamSource( streamed, handler );
+
+            List<String> expected = new ArrayList<String>();
+            expected.add( "beginSource " + streamed.toURI().toURL() );
+            expected.add( "beginClass p.A" );
+            expected.add( "field inner q.Outer$Inner" );
+            expected.add( "field after java.lang.String" );
+            expected.add( "endClass p.A" );
+            expected.add( "endSource" );
+            Assertions.assertEquals( expected, handler.events );
+        }
+        finally
+        {
+            other.delete();
+            other.getParentFile().delete();
+            folder.delete();
+            streamed.delete();
+            streamed.getParentFile().delete();
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void testStreamSourceJar()
+        throws Exception
+    {
+        File directory = new File( "target/test-source/streamingbuilder" );
+        directory.mkdirs();
+        File jar = new File( directory, "a-sources.jar" );
+        ZipOutputStream out = new ZipOutputStream( new FileOutputStream( jar ) );
+        try
+        {
+            out.putNextEntry( new ZipEntry( "p/" ) );
+            out.putNextEntry( new ZipEntry( "p/A.java" ) );
+            out.write( "package p; public class A { B b; }".getBytes( StandardCharsets.UTF_8 ) );
+            out.putNextEntry( new ZipEntry( "p/B.java" ) );
+            out.write( "package p; public class B {}".getBytes( StandardCharsets.UTF_8 ) );
+            out.putNextEntry( new ZipEntry( "META-INF/MANIFEST.MF" ) );
+            out.write( "Manifest-Version: 1.0\n".getBytes( StandardCharsets.UTF_8 ) );
+        }
+        finally
+        {
+            out.close();
+        }
+
+        try
+        {
+            JavaProjectBuilder builder = new JavaProjectBuilder();
+            RecordingHandler handler = new RecordingHandler();
+            builder.streamSourceJar( jar, handler );
+
+            String url = "jar:" + jar.toURI().toURL() + "!/p/";
+            List<String> expected = new ArrayList<String>();
+            expected.add( "beginSource " + url + "A.java" );
+            expected.add( "beginClass p.A" );
+            // the other sources of the jar aren't known
+            expected.add( "field b null" );
+            expected.add( "endClass p.A" );
+            expected.add( "endSource" );
+            expected.add( "beginSource " + url + "B.java" );
+            expected.add( "beginClass p.B" );
+            expected.add( "endClass p.B" );
+            expected.add( "endSource" );
+            Assertions.assertEquals( expected, handler.events );
+        }
+        finally
+        {
+            jar.delete();
+            directory.delete();
+        }
+    }
+
+    private static void write( File file, String content )
+        throws Exception
+    {
+        file.getParentFile().mkdirs();
+        FileOutputStream out = new FileOutputStream( file );
+        try
+        {
+            out.write( content.getBytes( StandardCharsets.UTF_8 ) );
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+}
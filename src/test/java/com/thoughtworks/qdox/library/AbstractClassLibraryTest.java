@@ -8,8 +8,18 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class AbstractClassLibraryTest {
 
@@ -166,4 +176,167 @@ public class AbstractClassLibraryTest {
         Assertions.assertNull(filledChildClassLibrary.getJavaModules());
         Assertions.assertNull(emptyChildClassLibrary.getJavaModules());
     }
+
+    @Test
+    public void testChangesArePushedToDescendants()
+    {
+        long parentCount = parentClassLibrary.getModificationCount();
+        long filledCount = filledChildClassLibrary.getModificationCount();
+        filledChildClassLibrary.classChanged();
+        Assertions.assertEquals(parentCount, parentClassLibrary.getModificationCount());
+        Assertions.assertNotEquals(filledCount, filledChildClassLibrary.getModificationCount());
+
+        filledCount = filledChildClassLibrary.getModificationCount();
+        long emptyCount = emptyChildClassLibrary.getModificationCount();
+        parentClassLibrary.classReferencesChanged();
+        Assertions.assertNotEquals(parentCount, parentClassLibrary.getModificationCount());
+        Assertions.assertNotEquals(filledCount, filledChildClassLibrary.getModificationCount());
+        Assertions.assertNotEquals(emptyCount, emptyChildClassLibrary.getModificationCount());
+
+        // resolving a class doesn't change what a name resolves to, but it changes the type hierarchy
+        filledCount = filledChildClassLibrary.getModificationCount();
+        TypeHierarchy hierarchy = filledChildClassLibrary.getTypeHierarchy();
+        parentClassLibrary.getJavaClass( "ParentClass" );
+        Assertions.assertEquals(filledCount, filledChildClassLibrary.getModificationCount());
+        Assertions.assertNull(filledChildClassLibrary.getCurrentTypeHierarchy());
+        Assertions.assertNotSame(hierarchy, filledChildClassLibrary.getTypeHierarchy());
+    }
+
+    @Test
+    public void testConcurrentLookupsResolveEveryClassOnce() throws Exception
+    {
+        final ConcurrentHashMap<String, AtomicInteger> resolveCount = new ConcurrentHashMap<String, AtomicInteger>();
+        final AbstractClassLibrary countingLibrary = new AbstractClassLibrary()
+        {
+            @Override
+            protected JavaClass resolveJavaClass( String name )
+            {
+                AtomicInteger count = new AtomicInteger();
+                AtomicInteger previous = resolveCount.putIfAbsent( name, count );
+                ( previous != null ? previous : count ).incrementAndGet();
+                Thread.yield();
+                return new DefaultJavaClass( name );
+            }
+            @Override
+            protected JavaPackage resolveJavaPackage( String name )
+            {
+                return null;
+            }
+            @Override
+            protected boolean containsClassReference( String name )
+            {
+                return false;
+            }
+        };
+
+        final int threads = 8;
+        final int names = 500;
+        final CyclicBarrier barrier = new CyclicBarrier( threads );
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        List<Future<List<JavaClass>>> futures = new ArrayList<Future<List<JavaClass>>>();
+        for ( int t = 0; t < threads; t++ )
+        {
+            final int offset = t;
+            futures.add( executor.submit( new Callable<List<JavaClass>>()
+            {
+                public List<JavaClass> call() throws Exception
+                {
+                    barrier.await();
+                    List<JavaClass> result = new ArrayList<JavaClass>( names );
+                    for ( int i = 0; i < names; i++ )
+                    {
+                        // every thread starts at a different name, but all threads ask for all names
+                        countingLibrary.getJavaClass( "com.foo.Class" + ( ( i + offset * 7 ) % names ) );
+                    }
+                    for ( int i = 0; i < names; i++ )
+                    {
+                        result.add( countingLibrary.getJavaClass( "com.foo.Class" + i ) );
+                    }
+                    return result;
+                }
+            } ) );
+        }
+        List<JavaClass> first = futures.get( 0 ).get( 30, TimeUnit.SECONDS );
+        for ( Future<List<JavaClass>> future : futures )
+        {
+            List<JavaClass> classes = future.get( 30, TimeUnit.SECONDS );
+            for ( int i = 0; i < names; i++ )
+            {
+                Assertions.assertSame( first.get( i ), classes.get( i ) );
+            }
+        }
+        executor.shutdown();
+
+        Assertions.assertEquals( names, resolveCount.size() );
+        for ( AtomicInteger count : resolveCount.values() )
+        {
+            Assertions.assertEquals( 1, count.get() );
+        }
+        Assertions.assertEquals( names, countingLibrary.getJavaClasses().size() );
+        Assertions.assertEquals( 1, countingLibrary.getJavaPackages().size() );
+    }
+
+    @Test
+    public void testConcurrentLookupsOfMutuallyReferencingClasses() throws Exception
+    {
+        final CyclicBarrier resolving = new CyclicBarrier( 2 );
+        final AbstractClassLibrary referencingLibrary = new AbstractClassLibrary()
+        {
+            private final ThreadLocal<Boolean> nested = new ThreadLocal<Boolean>();
+
+            @Override
+            protected JavaClass resolveJavaClass( String name )
+            {
+                if ( nested.get() == null )
+                {
+                    // both threads are resolving their class before looking up the other one
+                    nested.set( Boolean.TRUE );
+                    try
+                    {
+                        resolving.await( 10, TimeUnit.SECONDS );
+                        getJavaClass( "com.foo.A".equals( name ) ? "com.foo.B" : "com.foo.A" );
+                    }
+                    catch ( Exception e )
+                    {
+                        throw new RuntimeException( e );
+                    }
+                    finally
+                    {
+                        nested.remove();
+                    }
+                }
+                return new DefaultJavaClass( name );
+            }
+            @Override
+            protected JavaPackage resolveJavaPackage( String name )
+            {
+                return null;
+            }
+            @Override
+            protected boolean containsClassReference( String name )
+            {
+                return false;
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool( 2 );
+        List<Future<JavaClass>> futures = new ArrayList<Future<JavaClass>>();
+        for ( final String name : new String[] { "com.foo.A", "com.foo.B" } )
+        {
+            futures.add( executor.submit( new Callable<JavaClass>()
+            {
+                public JavaClass call()
+                {
+                    return referencingLibrary.getJavaClass( name );
+                }
+            } ) );
+        }
+        JavaClass a = futures.get( 0 ).get( 30, TimeUnit.SECONDS );
+        JavaClass b = futures.get( 1 ).get( 30, TimeUnit.SECONDS );
+        executor.shutdown();
+
+        Assertions.assertSame( a, referencingLibrary.getJavaClass( "com.foo.A" ) );
+        Assertions.assertSame( b, referencingLibrary.getJavaClass( "com.foo.B" ) );
+        Assertions.assertEquals( 2, referencingLibrary.getJavaClasses().size() );
+    }
 }
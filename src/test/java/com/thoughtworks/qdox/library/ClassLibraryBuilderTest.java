@@ -5,6 +5,10 @@ import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.thoughtworks.qdox.model.JavaSource;
 
 public abstract class ClassLibraryBuilderTest {
 
@@ -65,6 +69,54 @@ public abstract class ClassLibraryBuilderTest {
 //        assertSame( libraryBuilder, result );
 //    }
 
+    @Test
+    public final void testMetricsListener()
+    {
+        final List<SourceMetrics> sources = new ArrayList<SourceMetrics>();
+        final List<String> types = new ArrayList<String>();
+        final List<String> classes = new ArrayList<String>();
+        MetricsListener listener = new MetricsListener()
+        {
+            public void sourceParsed( SourceMetrics metrics )
+            {
+                sources.add( metrics );
+            }
+
+            public void typeResolved( String typeName, String resolvedName, boolean cached, long nanos )
+            {
+                types.add( typeName + "=" + resolvedName );
+            }
+
+            public void classResolved( AbstractClassLibrary library, String binaryName, boolean found, long nanos )
+            {
+                if ( found )
+                {
+                    classes.add( library.getClass().getSimpleName() + ":" + binaryName );
+                }
+            }
+
+            public void classReferenceChecked( AbstractClassLibrary library, String binaryName, boolean cached )
+            {
+            }
+        };
+        ClassLibraryBuilder libraryBuilder = getClassLibraryBuilder();
+        libraryBuilder.appendDefaultClassLoaders();
+        Assertions.assertSame(libraryBuilder, libraryBuilder.setMetricsListener( listener ));
+
+        JavaSource source = libraryBuilder.addSource( new StringReader( "package x;\n/** A list */\nclass A { List<String> list; }" ) );
+        Assertions.assertEquals(1, sources.size());
+        Assertions.assertEquals(1, sources.get( 0 ).getComments());
+        Assertions.assertEquals(-1, sources.get( 0 ).getBytes());
+        Assertions.assertTrue(sources.get( 0 ).getTokens() > 10);
+
+        Assertions.assertEquals("List<java.lang.String>", source.getClasses().get( 0 ).getFields().get( 0 ).getType().getGenericFullyQualifiedName());
+        Assertions.assertTrue(types.contains( "String=java.lang.String" ), types.toString());
+        Assertions.assertTrue(types.contains( "List=null" ), types.toString());
+
+        libraryBuilder.getClassLibrary().getJavaClass( "java.util.List" );
+        Assertions.assertTrue(classes.contains( "ClassLoaderLibrary:java.util.List" ), classes.toString());
+    }
+
     @Test
     public final void testGetClassLibrary()
     {
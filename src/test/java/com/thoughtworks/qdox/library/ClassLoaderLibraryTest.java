@@ -37,6 +37,22 @@ public class ClassLoaderLibraryTest {
         Assertions.assertNull(classLoaderLibrary.getJavaClass("java.util.GoatCrusher"));
     }
 
+    @Test
+    public void testClassPathIndex() throws Exception {
+        classLoaderLibrary.addDefaultLoader();
+        classLoaderLibrary.setClassPathIndex(new ClassPathIndex().addPlatformClasses());
+        Assertions.assertTrue(classLoaderLibrary.hasClassReference("java.lang.String"));
+        Assertions.assertTrue(classLoaderLibrary.hasClassReference("java.util.Map$Entry"));
+        Assertions.assertFalse(classLoaderLibrary.hasClassReference("java.util.GoatCrusher"));
+        Assertions.assertNotNull(classLoaderLibrary.getJavaClass("java.util.Collection"));
+        // loadable, but not part of the index
+        Assertions.assertFalse(classLoaderLibrary.hasClassReference(getClass().getName()));
+        Assertions.assertNull(classLoaderLibrary.getJavaClass(getClass().getName()));
+
+        classLoaderLibrary.setClassPathIndex(null);
+        Assertions.assertTrue(classLoaderLibrary.hasClassReference(getClass().getName()));
+    }
+
     @Test
     public void testModuleInfo()
     {
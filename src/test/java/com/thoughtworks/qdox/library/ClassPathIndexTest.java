@@ -0,0 +1,129 @@
+package com.thoughtworks.qdox.library;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class ClassPathIndexTest {
+
+    private File root;
+
+    private File jar;
+
+    private File cacheFile;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        root = new File("target/test-source/classpathindex");
+        jar = new File(root, "lib.jar");
+        writeJar(jar, "p/A.class", "p/A$B.class", "p/package-info.class", "module-info.class",
+                 "META-INF/versions/11/p/C.class", "META-INF/MANIFEST.MF", "p/a.properties");
+        File classFile = new File(root, "classes/q/D.class");
+        classFile.getParentFile().mkdirs();
+        classFile.createNewFile();
+        cacheFile = new File(root, "cache/classpath.idx");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        delete(root);
+    }
+
+    @Test
+    public void testClassNames() throws Exception {
+        ClassPathIndex index = new ClassPathIndex();
+        index.addClassPath(jar.getPath() + File.pathSeparator + new File(root, "classes").getPath()
+            + File.pathSeparator + new File(root, "missing.jar").getPath());
+
+        Assertions.assertTrue(index.contains("p.A"));
+        Assertions.assertTrue(index.contains("p.A$B"));
+        Assertions.assertTrue(index.contains("p.C"));
+        Assertions.assertTrue(index.contains("q.D"));
+        Assertions.assertFalse(index.contains("p.A.B"));
+        Assertions.assertFalse(index.contains("p.package-info"));
+        Assertions.assertFalse(index.contains("module-info"));
+        Assertions.assertEquals(4, index.size());
+        Assertions.assertEquals(2, index.getScanCount());
+    }
+
+    @Test
+    public void testPlatformClasses() throws Exception {
+        ClassPathIndex index = new ClassPathIndex().addPlatformClasses();
+
+        Assertions.assertTrue(index.contains("java.lang.Object"));
+        Assertions.assertTrue(index.contains("java.util.Map$Entry"));
+        Assertions.assertFalse(index.contains("java.util.GoatCrusher"));
+    }
+
+    @Test
+    public void testCachedJarIsNotScannedAgain() throws Exception {
+        ClassPathIndex index = new ClassPathIndex(cacheFile).addClassPathEntry(jar);
+        index.store();
+        Assertions.assertEquals(1, index.getScanCount());
+
+        ClassPathIndex cached = new ClassPathIndex(cacheFile).addClassPathEntry(jar);
+        Assertions.assertEquals(0, cached.getScanCount());
+        Assertions.assertEquals(1, cached.getCacheHitCount());
+        Assertions.assertTrue(cached.contains("p.A$B"));
+        Assertions.assertEquals(index.size(), cached.size());
+    }
+
+    @Test
+    public void testChangedJarIsScannedAgain() throws Exception {
+        new ClassPathIndex(cacheFile).addClassPathEntry(jar).store();
+        writeJar(jar, "p/E.class");
+        jar.setLastModified(jar.lastModified() + 2000);
+
+        ClassPathIndex index = new ClassPathIndex(cacheFile).addClassPathEntry(jar);
+        Assertions.assertEquals(1, index.getScanCount());
+        Assertions.assertEquals(0, index.getCacheHitCount());
+        Assertions.assertTrue(index.contains("p.E"));
+        Assertions.assertFalse(index.contains("p.A"));
+    }
+
+    @Test
+    public void testCorruptCacheFileIsIgnored() throws Exception {
+        cacheFile.getParentFile().mkdirs();
+        FileOutputStream out = new FileOutputStream(cacheFile);
+        try {
+            out.write("corrupt".getBytes("UTF-8"));
+        }
+        finally {
+            out.close();
+        }
+
+        ClassPathIndex index = new ClassPathIndex(cacheFile).addClassPathEntry(jar);
+        Assertions.assertEquals(1, index.getScanCount());
+        Assertions.assertTrue(index.contains("p.A"));
+    }
+
+    private static void writeJar(File file, String... entries) throws Exception {
+        file.getParentFile().mkdirs();
+        ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file));
+        try {
+            for (String entry : entries) {
+                out.putNextEntry(new ZipEntry(entry));
+                out.closeEntry();
+            }
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
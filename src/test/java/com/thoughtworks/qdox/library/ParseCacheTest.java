@@ -0,0 +1,353 @@
+package com.thoughtworks.qdox.library;
+
+import com.thoughtworks.qdox.builder.Builder;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaField;
+import com.thoughtworks.qdox.model.JavaMethod;
+import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.parser.expression.ConstantDef;
+import com.thoughtworks.qdox.parser.expression.CreatorDef;
+import com.thoughtworks.qdox.parser.expression.ElemValueDef;
+import com.thoughtworks.qdox.parser.expression.ExpressionDef;
+import com.thoughtworks.qdox.parser.expression.FieldRefDef;
+import com.thoughtworks.qdox.parser.structs.AnnoDef;
+import com.thoughtworks.qdox.parser.structs.ClassDef;
+import com.thoughtworks.qdox.parser.structs.FieldDef;
+import com.thoughtworks.qdox.parser.structs.MethodDef;
+import com.thoughtworks.qdox.parser.structs.TypeDef;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+public class ParseCacheTest {
+
+    private static final int LAYOUT = 1291530009;
+
+    private static final String SOURCE = "package p;\n"
+        + "import java.util.*;\n"
+        + "/**\n"
+        + " * The cached class\n"
+        + " * @author someone\n"
+        + " */\n"
+        + "@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n"
+        + "public abstract class Cached<T extends Comparable<? super T>> extends AbstractList<T> implements RandomAccess {\n"
+        + "  public static final int SIZE = 1 << 4;\n"
+        + "  private Map<String, List<T>> index = new HashMap<>(), other;\n"
+        + "  @Range(min = -1 << 2 | 3, max = (int) (SIZE * 2.0f) > 0 ? Integer.MAX_VALUE : ~0, name = \"a\" + 'b', flag = !true && SIZE >= 1)\n"
+        + "  int ranged;\n"
+        + "  static { System.out.println(); }\n"
+        + "  protected Cached(int size) throws IllegalArgumentException { }\n"
+        + "  /** @return the first */\n"
+        + "  @Deprecated public <E extends T> E first(E... values) { return values[0]; }\n"
+        + "  enum Color { RED(\"r\"), GREEN(\"g\") { }; Color(String c) {} }\n"
+        + "  record Point(int x, @Deprecated int y) implements java.io.Serializable { Point { } }\n"
+        + "}\n";
+
+    private File sourceFile;
+
+    private ParseCache cache;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        sourceFile = new File("target/test-source/parsecache/p/Cached.java");
+        write(sourceFile, SOURCE);
+        cache = new ParseCache(new File("target/test-source/parsecache-entries"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        delete(new File("target/test-source/parsecache"));
+        delete(cache.getDirectory());
+    }
+
+    @Test
+    public void testRestoredSourceEqualsParsedSource() throws Exception {
+        JavaSource parsed = newLibrary().addSource(sourceFile);
+        Assertions.assertEquals(0, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+
+        JavaSource restored = newLibrary().addSource(sourceFile);
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+
+        Assertions.assertEquals(parsed.getURL(), restored.getURL());
+        Assertions.assertEquals(parsed.getImports(), restored.getImports());
+        Assertions.assertEquals(parsed.getCodeBlock(), restored.getCodeBlock());
+        JavaClass parsedClass = parsed.getClassByName("Cached");
+        JavaClass restoredClass = restored.getClassByName("Cached");
+        Assertions.assertEquals(parsedClass.getComment(), restoredClass.getComment());
+        Assertions.assertEquals(parsedClass.getTagByName("author").getValue(), restoredClass.getTagByName("author").getValue());
+        Assertions.assertEquals(parsedClass.getLineNumber(), restoredClass.getLineNumber());
+        Assertions.assertEquals(parsedClass.getGenericFullyQualifiedName(), restoredClass.getGenericFullyQualifiedName());
+        Assertions.assertEquals(parsedClass.getAnnotations().toString(), restoredClass.getAnnotations().toString());
+        Assertions.assertEquals(parsedClass.getInitializers().size(), restoredClass.getInitializers().size());
+        Assertions.assertEquals(parsedClass.getNestedClasses().size(), restoredClass.getNestedClasses().size());
+        for (int i = 0; i < parsedClass.getFields().size(); i++) {
+            JavaField parsedField = parsedClass.getFields().get(i);
+            JavaField restoredField = restoredClass.getFields().get(i);
+            Assertions.assertEquals(parsedField.getCodeBlock(), restoredField.getCodeBlock());
+            Assertions.assertEquals(parsedField.getInitializationExpression(), restoredField.getInitializationExpression());
+            Assertions.assertEquals(parsedField.getAnnotations().toString(), restoredField.getAnnotations().toString());
+        }
+        JavaMethod restoredMethod = restoredClass.getMethods().get(0);
+        Assertions.assertEquals(parsedClass.getMethods().get(0).getDeclarationSignature(true), restoredMethod.getDeclarationSignature(true));
+        Assertions.assertEquals(parsedClass.getMethods().get(0).getSourceCode(), restoredMethod.getSourceCode());
+        Assertions.assertEquals(parsedClass.getNestedClassByName("Color").getEnumConstants().get(0).getEnumConstantArguments().toString(),
+                                restoredClass.getNestedClassByName("Color").getEnumConstants().get(0).getEnumConstantArguments().toString());
+        Assertions.assertEquals(parsedClass.getNestedClassByName("Point").getCodeBlock(),
+                                restoredClass.getNestedClassByName("Point").getCodeBlock());
+    }
+
+    @Test
+    public void testChangedFileIsParsedAgain() throws Exception {
+        newLibrary().addSource(sourceFile);
+        write(sourceFile, "package p; public class Cached { int changed; }");
+        sourceFile.setLastModified(sourceFile.lastModified() + 2000);
+
+        JavaSource source = newLibrary().addSource(sourceFile);
+        Assertions.assertEquals(0, cache.getHitCount());
+        Assertions.assertEquals(2, cache.getMissCount());
+        Assertions.assertNotNull(source.getClassByName("Cached").getFieldByName("changed"));
+    }
+
+    @Test
+    public void testOtherEncodingIsParsedAgain() throws Exception {
+        newLibrary().addSource(sourceFile);
+        SourceLibrary library = newLibrary();
+        library.setEncoding("ISO-8859-1");
+        library.addSource(sourceFile);
+        Assertions.assertEquals(0, cache.getHitCount());
+        Assertions.assertEquals(2, cache.getMissCount());
+
+        library = newLibrary();
+        library.setEncoding("ISO-8859-1");
+        library.addSource(sourceFile);
+        Assertions.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testCorruptEntryIsParsedAgain() throws Exception {
+        newLibrary().addSource(sourceFile);
+        for (File entry : cache.getDirectory().listFiles()) {
+            write(entry, "corrupt");
+        }
+
+        JavaSource source = newLibrary().addSource(sourceFile);
+        Assertions.assertEquals(0, cache.getHitCount());
+        Assertions.assertEquals(1, source.getClasses().size());
+    }
+
+    @Test
+    public void testModifierNamesWhichArentModifiersAreRestored() throws Exception {
+        SourceLibrary library = newLibrary();
+        Builder parsed = library.getModelBuilder(sourceFile.toURI().toURL());
+        ParseCache.Recorder recorder = cache.record(sourceFile, library.getEncoding(), parsed);
+        ClassDef cls = new ClassDef("Cached");
+        cls.getModifiers().add("public");
+        cls.getModifiers().add("custom");
+        recorder.beginClass(cls);
+        FieldDef field = new FieldDef("field");
+        field.setType(new TypeDef("int"));
+        field.getModifiers().add("blah2");
+        field.getModifiers().add("static");
+        field.getModifiers().add("blah");
+        recorder.beginField(field);
+        recorder.endField();
+        recorder.beginMethod();
+        MethodDef method = new MethodDef();
+        method.setName("method");
+        method.setReturnType(new TypeDef("void"));
+        method.getModifiers().add("other");
+        recorder.endMethod(method);
+        recorder.endClass();
+        recorder.store();
+
+        Builder restored = library.getModelBuilder(sourceFile.toURI().toURL());
+        Assertions.assertTrue(cache.replay(sourceFile, library.getEncoding(), restored));
+        JavaClass parsedClass = parsed.getSource().getClassByName("Cached");
+        JavaClass restoredClass = restored.getSource().getClassByName("Cached");
+        Assertions.assertEquals(Arrays.asList("public", "custom"), restoredClass.getModifiers());
+        Assertions.assertEquals(parsedClass.getModifiers(), restoredClass.getModifiers());
+        Assertions.assertEquals(Arrays.asList("static", "blah2", "blah"), restoredClass.getFields().get(0).getModifiers());
+        Assertions.assertEquals(parsedClass.getFields().get(0).getModifiers(), restoredClass.getFields().get(0).getModifiers());
+        Assertions.assertEquals(parsedClass.getMethods().get(0).getModifiers(), restoredClass.getMethods().get(0).getModifiers());
+        Assertions.assertEquals(parsed.getSource().getCodeBlock(), restored.getSource().getCodeBlock());
+    }
+
+    @Test
+    public void testTruncatedEntryDoesNotReachTheBuilder() throws Exception {
+        newLibrary().addSource(sourceFile);
+        File entry = cache.getDirectory().listFiles()[0];
+        DataInputStream in = new DataInputStream(new FileInputStream(entry));
+        ByteArrayOutputStream truncated = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(truncated);
+        try {
+            out.writeInt(in.readInt());
+            out.writeInt(in.readInt());
+            out.writeInt(in.readInt());
+            out.writeUTF(in.readUTF());
+            out.writeUTF(in.readUTF());
+            out.writeLong(in.readLong());
+            out.writeLong(in.readLong());
+            byte[] records = new byte[in.readInt()];
+            in.readFully(records);
+            // the first half of the calls can still be decoded
+            out.writeInt(records.length / 2);
+            out.write(records, 0, records.length / 2);
+        }
+        finally {
+            in.close();
+        }
+        Files.write(entry.toPath(), truncated.toByteArray());
+
+        Builder builder = Mockito.mock(Builder.class);
+        Assertions.assertFalse(cache.replay(sourceFile, newLibrary().getEncoding(), builder));
+        Mockito.verifyNoInteractions(builder);
+    }
+
+    @Test
+    public void testLayoutOfTheRecordedClasses() {
+        // a field of a recorded class has been added, removed or changed: write and read it in ParseCache,
+        // bump its VERSION and update this value
+        Assertions.assertEquals(LAYOUT, ParseCache.getLayout());
+    }
+
+    @Test
+    public void testEveryValueTypeIsRestored() throws Exception {
+        SourceLibrary library = newLibrary();
+        ParseCache.Recorder recorder = cache.record(sourceFile, library.getEncoding(), Mockito.mock(Builder.class));
+        AnnoDef annotation = new AnnoDef(new TypeDef("Values"));
+        annotation.setLineNumber(3);
+        for (Class<?> valueType : ParseCache.getValueTypes()) {
+            annotation.getArgs().put(valueType.getSimpleName(), newValue(valueType));
+        }
+        recorder.addAnnotation(annotation);
+        recorder.store();
+
+        Builder builder = Mockito.mock(Builder.class);
+        Assertions.assertTrue(cache.replay(sourceFile, library.getEncoding(), builder));
+        ArgumentCaptor<AnnoDef> captor = ArgumentCaptor.forClass(AnnoDef.class);
+        Mockito.verify(builder).addAnnotation(captor.capture());
+        assertRestored(annotation, captor.getValue(), "annotation");
+    }
+
+    private static ElemValueDef newValue(Class<?> type) throws Exception {
+        if (type == CreatorDef.class) {
+            CreatorDef creator = new CreatorDef();
+            creator.setCreatedName("Created");
+            creator.setArguments(new LinkedList<ExpressionDef>(Arrays.asList(new ConstantDef("1", Integer.class))));
+            creator.setClassBody("{ }");
+            return creator;
+        }
+        Constructor<?> constructor = type.getConstructors()[0];
+        for (Constructor<?> candidate : type.getConstructors()) {
+            if (candidate.getParameterCount() > constructor.getParameterCount()) {
+                constructor = candidate;
+            }
+        }
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        Object[] arguments = new Object[parameterTypes.length];
+        for (int i = 0; i < arguments.length; i++) {
+            if (parameterTypes[i] == String.class) {
+                arguments[i] = "value" + i;
+            }
+            else if (parameterTypes[i] == Class.class) {
+                arguments[i] = Character.class;
+            }
+            else if (parameterTypes[i] == TypeDef.class) {
+                arguments[i] = new TypeDef("java.util.List", 1);
+            }
+            else if (parameterTypes[i] == List.class) {
+                arguments[i] = new LinkedList<ElemValueDef>(Arrays.asList(new FieldRefDef("list" + i)));
+            }
+            else {
+                arguments[i] = new ConstantDef(Integer.toString(i), Integer.class);
+            }
+        }
+        return (ElemValueDef) constructor.newInstance(arguments);
+    }
+
+    // compares the fields, as the definitions don't implement equals
+    private static void assertRestored(Object expected, Object actual, String path) throws Exception {
+        if (expected == null || actual == null || expected.getClass().getName().startsWith("java.lang.")) {
+            Assertions.assertEquals(expected, actual, path);
+            return;
+        }
+        if (expected instanceof List) {
+            Assertions.assertTrue(actual instanceof List, path);
+            List<?> expectedList = (List<?>) expected;
+            List<?> actualList = (List<?>) actual;
+            Assertions.assertEquals(expectedList.size(), actualList.size(), path);
+            for (int i = 0; i < expectedList.size(); i++) {
+                assertRestored(expectedList.get(i), actualList.get(i), path + "[" + i + "]");
+            }
+            return;
+        }
+        if (expected instanceof Map) {
+            Assertions.assertTrue(actual instanceof Map, path);
+            Map<?, ?> expectedMap = (Map<?, ?>) expected;
+            Map<?, ?> actualMap = (Map<?, ?>) actual;
+            Assertions.assertEquals(new ArrayList<Object>(expectedMap.keySet()), new ArrayList<Object>(actualMap.keySet()), path);
+            for (Object key : expectedMap.keySet()) {
+                assertRestored(expectedMap.get(key), actualMap.get(key), path + "." + key);
+            }
+            return;
+        }
+        Assertions.assertEquals(expected.getClass(), actual.getClass(), path);
+        for (Class<?> c = expected.getClass(); c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    field.setAccessible(true);
+                    assertRestored(field.get(expected), field.get(actual), path + "." + field.getName());
+                }
+            }
+        }
+    }
+
+    private SourceLibrary newLibrary() {
+        SourceLibrary library = new SourceLibrary(new ClassNameLibrary());
+        library.setParseCache(cache);
+        return library;
+    }
+
+    private static void write(File file, String content) throws Exception {
+        file.getParentFile().mkdirs();
+        Writer writer = new FileWriter(file);
+        try {
+            writer.write(content);
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,143 @@
+package com.thoughtworks.qdox.library;
+
+import com.thoughtworks.qdox.builder.impl.ModelBuilder;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.impl.DefaultDocletTagFactory;
+import com.thoughtworks.qdox.parser.impl.JFlexLexer;
+import com.thoughtworks.qdox.parser.impl.Parser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+public class PlatformLibraryTest {
+
+    private static final File CACHE_FILE = new File("target/platform-index/platform.idx");
+
+    private static PlatformIndex platformIndex;
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        platformIndex = PlatformIndex.getInstance(CACHE_FILE);
+    }
+
+    @Test
+    public void testPlatformClassesAreBuiltFromTheIndex() {
+        ClassLoaderLibrary classLoaderLibrary = new ClassLoaderLibrary(new ClassNameLibrary());
+        classLoaderLibrary.addDefaultLoader();
+        PlatformLibrary library = new PlatformLibrary(classLoaderLibrary, platformIndex);
+
+        JavaClass hashMap = library.getJavaClass("java.util.HashMap");
+        Assertions.assertSame(library, hashMap.getJavaClassLibrary());
+        Assertions.assertEquals("java.util.AbstractMap<K,V>", hashMap.getSuperClass().getGenericFullyQualifiedName());
+        Assertions.assertSame(library, hashMap.getSuperJavaClass().getJavaClassLibrary());
+        Assertions.assertTrue(hashMap.isA("java.util.Map"));
+
+        JavaClass entry = library.getJavaClass("java.util.Map$Entry");
+        Assertions.assertSame(library, entry.getJavaClassLibrary());
+        Assertions.assertTrue(entry.isInterface());
+
+        Assertions.assertTrue(library.hasClassReference("java.lang.Thread$State"));
+        Assertions.assertNotNull(library.getJavaPackage("java.util.concurrent"));
+
+        ClassLoaderLibrary reference = new ClassLoaderLibrary(new ClassNameLibrary());
+        reference.addDefaultLoader();
+        for (String name : new String[] { "java.lang.String", "java.lang.annotation.Retention",
+            "java.util.concurrent.TimeUnit", "java.util.stream.Collectors" }) {
+            Assertions.assertEquals(reference.getJavaClass(name).getCodeBlock(),
+                                    library.getJavaClass(name).getCodeBlock(), name);
+        }
+    }
+
+    @Test
+    public void testSourceEventsAreRecordedOrIgnored() throws Exception {
+        PlatformIndex.Recorder recorder = new PlatformIndex.Recorder();
+        recorder.beginIndexRecord();
+        String source = "package p;\n"
+            + "import java.util.List;\n"
+            + "/** A point. @since 1 */\n"
+            + "public record Point(int x, java.util.List<String> names) implements java.lang.Comparable<Point> {\n"
+            + "    static { }\n"
+            + "    public Point { }\n"
+            + "    public int compareTo(p.Point other) { return 0; }\n"
+            + "}";
+        Assertions.assertTrue(new Parser(new JFlexLexer(new StringReader(source)), recorder).parse());
+        recorder.endIndexRecord();
+        recorder.beginIndexRecord();
+        Assertions.assertTrue(new Parser(new JFlexLexer(new StringReader("module m { requires java.sql; exports p; }")), recorder).parse());
+        recorder.discardIndexRecord();
+        PlatformIndex index = recorder.toIndex("test");
+
+        ModelBuilder builder = new ModelBuilder(new ClassNameLibrary(), new DefaultDocletTagFactory());
+        Assertions.assertTrue(index.build("p.Point", builder));
+        JavaClass point = builder.getSource().getClassByName("Point");
+        Assertions.assertTrue(point.isRecord());
+        Assertions.assertEquals("java.lang.Comparable", point.getImplements().get(0).getFullyQualifiedName());
+        Assertions.assertEquals(2, point.getFields().size());
+        Assertions.assertEquals("names", point.getFields().get(1).getName());
+        Assertions.assertEquals(1, point.getInitializers().size());
+        Assertions.assertTrue(point.getInitializers().get(0).isStatic());
+        Assertions.assertTrue(point.getConstructors().get(0).isPublic());
+    }
+
+    @Test
+    public void testOtherClassesAreLeftToTheParent() {
+        ClassLoaderLibrary classLoaderLibrary = new ClassLoaderLibrary(new ClassNameLibrary());
+        classLoaderLibrary.addDefaultLoader();
+        PlatformLibrary library = new PlatformLibrary(classLoaderLibrary, platformIndex);
+
+        JavaClass testClass = library.getJavaClass(PlatformLibraryTest.class.getName());
+        Assertions.assertSame(classLoaderLibrary, testClass.getJavaClassLibrary());
+        Assertions.assertFalse(platformIndex.contains(PlatformLibraryTest.class.getName()));
+    }
+
+    @Test
+    public void testIndexIsReadFromTheCacheFile() throws Exception {
+        Assertions.assertSame(platformIndex, PlatformIndex.getInstance(CACHE_FILE));
+        Assertions.assertTrue(CACHE_FILE.isFile());
+
+        File copy = new File(CACHE_FILE.getParentFile(), "copy.idx");
+        Files.copy(CACHE_FILE.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        PlatformIndex loaded = PlatformIndex.getInstance(copy);
+        Assertions.assertNotSame(platformIndex, loaded);
+        Assertions.assertEquals(platformIndex.size(), loaded.size());
+        Assertions.assertEquals(platformIndex.getPlatform(), loaded.getPlatform());
+        Assertions.assertEquals(copy.length(), CACHE_FILE.length());
+
+        PlatformLibrary library = new PlatformLibrary(new ClassNameLibrary(), loaded);
+        Assertions.assertEquals(new PlatformLibrary(new ClassNameLibrary(), platformIndex).getJavaClass("java.util.List").getCodeBlock(),
+                                library.getJavaClass("java.util.List").getCodeBlock());
+    }
+
+    @Test
+    public void testOrderedClassLibraryBuilder() {
+        OrderedClassLibraryBuilder builder = new OrderedClassLibraryBuilder();
+        builder.setPlatformIndex(platformIndex);
+        builder.appendDefaultClassLoaders();
+        builder.appendSource(new StringReader("package p; public class A extends java.util.ArrayList<String> {}"));
+
+        JavaClass a = builder.getClassLibrary().getJavaClass("p.A");
+        Assertions.assertTrue(a.getSuperJavaClass().getJavaClassLibrary() instanceof PlatformLibrary);
+        Assertions.assertTrue(builder.getClassLibrary().getJavaClass(PlatformLibraryTest.class.getName()).getJavaClassLibrary() instanceof ClassLoaderLibrary);
+    }
+
+    @Test
+    public void testSortedClassLibraryBuilder() {
+        SortedClassLibraryBuilder builder = new SortedClassLibraryBuilder();
+        builder.appendDefaultClassLoaders();
+        builder.appendSource(new StringReader("package p; public class A extends java.util.ArrayList<String> {}"));
+        JavaClass a = builder.getClassLibrary().getJavaClass("p.A");
+        Assertions.assertTrue(a.getSuperJavaClass().getJavaClassLibrary() instanceof ClassLoaderLibrary);
+
+        builder = new SortedClassLibraryBuilder();
+        builder.appendDefaultClassLoaders();
+        builder.setPlatformIndex(platformIndex);
+        builder.appendSource(new StringReader("package p; public class A extends java.util.ArrayList<String> {}"));
+        a = builder.getClassLibrary().getJavaClass("p.A");
+        Assertions.assertTrue(a.getSuperJavaClass().getJavaClassLibrary() instanceof PlatformLibrary);
+    }
+}
@@ -4,17 +4,30 @@ import com.thoughtworks.qdox.model.JavaClass;
 import com.thoughtworks.qdox.model.JavaModule;
 import com.thoughtworks.qdox.model.JavaModuleDescriptor;
 import com.thoughtworks.qdox.model.JavaModuleDescriptor.*;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.io.FileWriter;
 import java.io.StringReader;
+import java.io.Writer;
 import java.util.Iterator;
+import java.util.Set;
 
 public class SourceFolderLibraryTest
 {
     private SourceFolderLibrary library = new SourceFolderLibrary( null );
 
+    private File sourceFolder = new File( "target/test-source/sourcefolderlibrary" );
+
+    @AfterEach
+    public void tearDown()
+    {
+        library.setSourceFolderMode( SourceFolderMode.LOOKUP );
+        delete( sourceFolder );
+    }
+
     @Test
     public void testClassisFolder() {
         JavaModule directModule = library.addSourceFolder( new File("src/test/resources/qdox-140") ); 
@@ -110,4 +123,152 @@ public class SourceFolderLibraryTest
         // the following (non-existing) FQCN is called e.g. from TypeResolver
         Assertions.assertFalse(library.hasClassReference( "com.thoughtworks.qdox.testdata.DefaultCtor$Integer" ));
     }
+
+    @Test
+    public void testSourceFileIsParsedOnce() throws Exception
+    {
+        write( "p/Outer.java", "package p; public class Outer { public static class A {} public static class B {} }" );
+        library.addSourceFolder( sourceFolder );
+
+        Assertions.assertTrue( library.hasClassReference( "p.Outer$A" ) );
+        Assertions.assertFalse( library.hasClassReference( "p.Outer$C" ) );
+        JavaClass a = library.getJavaClass( "p.Outer$A" );
+        JavaClass b = library.getJavaClass( "p.Outer$B" );
+        JavaClass outer = library.getJavaClass( "p.Outer" );
+
+        Assertions.assertEquals( 1, library.getParseCount() );
+        Assertions.assertSame( outer.getSource(), a.getSource() );
+        Assertions.assertSame( outer.getSource(), b.getSource() );
+        Assertions.assertSame( a, outer.getNestedClassByName( "A" ) );
+    }
+
+    @Test
+    public void testIndexedLookups() throws Exception
+    {
+        write( "p/A.java", "package p; public class A {}" );
+        write( "p/q/B.java", "package p.q; public class B {}" );
+        write( "p/package-info.java", "package p;" );
+        write( "p/a.properties", "" );
+        library.addSourceFolder( sourceFolder );
+        library.addSourceFolder( new File( sourceFolder, "missing" ) );
+        library.setSourceFolderMode( SourceFolderMode.INDEX );
+
+        Assertions.assertTrue( library.hasClassReference( "p.A" ) );
+        long calls = library.getFileSystemCallCount();
+        Assertions.assertTrue( library.hasClassReference( "p.q.B" ) );
+        for ( int i = 0; i < 10; i++ )
+        {
+            Assertions.assertFalse( library.hasClassReference( "p.Missing" + i ) );
+        }
+        Assertions.assertFalse( library.hasClassReference( "p.package-info" ) );
+        Assertions.assertEquals( "p.q.B", library.getJavaClass( "p.q.B" ).getFullyQualifiedName() );
+        Assertions.assertEquals( calls, library.getFileSystemCallCount() );
+
+        write( "p/C.java", "package p; public class C {}" );
+        Assertions.assertFalse( library.hasClassReference( "p.C" ) );
+        library.refresh();
+        Assertions.assertTrue( library.hasClassReference( "p.C" ) );
+    }
+
+    @Test
+    public void testLookupsWithoutIndex() throws Exception
+    {
+        write( "p/A.java", "package p; public class A {}" );
+        library.addSourceFolder( sourceFolder );
+
+        long calls = library.getFileSystemCallCount();
+        for ( int i = 0; i < 10; i++ )
+        {
+            Assertions.assertFalse( library.hasClassReference( "p.Missing" + i ) );
+        }
+        Assertions.assertEquals( calls + 10, library.getFileSystemCallCount() );
+    }
+
+    @Test
+    public void testWatchedSourceFolder() throws Exception
+    {
+        write( "p/A.java", "package p; public class A {}" );
+        library.addSourceFolder( sourceFolder );
+        library.setSourceFolderMode( SourceFolderMode.WATCH );
+        Assertions.assertTrue( library.hasClassReference( "p.A" ) );
+        Assertions.assertFalse( library.hasClassReference( "p.C" ) );
+
+        write( "p/C.java", "package p; public class C {}" );
+        long timeout = System.currentTimeMillis() + 30000;
+        while ( !library.hasClassReference( "p.C" ) && System.currentTimeMillis() < timeout )
+        {
+            Thread.sleep( 50 );
+        }
+        Assertions.assertNotNull( library.getJavaClass( "p.C" ) );
+    }
+
+    @Test
+    public void testWatcherStopsWhenClosed() throws Exception
+    {
+        write( "p/A.java", "package p; public class A {}" );
+        Thread watcher = startWatcher( library );
+        library.close();
+        Assertions.assertEquals( SourceFolderMode.INDEX, library.getSourceFolderMode() );
+        watcher.join( 30000 );
+        Assertions.assertFalse( watcher.isAlive() );
+        Assertions.assertTrue( library.hasClassReference( "p.A" ) );
+    }
+
+    @Test
+    public void testWatcherStopsWhenLibraryIsCollected() throws Exception
+    {
+        write( "p/A.java", "package p; public class A {}" );
+        Thread watcher = startWatcher( new SourceFolderLibrary( null ) );
+        long timeout = System.currentTimeMillis() + 30000;
+        while ( watcher.isAlive() && System.currentTimeMillis() < timeout )
+        {
+            System.gc();
+            watcher.join( 100 );
+        }
+        Assertions.assertFalse( watcher.isAlive() );
+    }
+
+    private Thread startWatcher( SourceFolderLibrary watchedLibrary )
+    {
+        Set<Thread> before = Thread.getAllStackTraces().keySet();
+        watchedLibrary.addSourceFolder( sourceFolder );
+        watchedLibrary.setSourceFolderMode( SourceFolderMode.WATCH );
+        Assertions.assertTrue( watchedLibrary.hasClassReference( "p.A" ) );
+        for ( Thread thread : Thread.getAllStackTraces().keySet() )
+        {
+            if ( "qdox-source-folder-watcher".equals( thread.getName() ) && !before.contains( thread ) )
+            {
+                return thread;
+            }
+        }
+        throw new AssertionError( "no watcher thread" );
+    }
+
+    private void write( String path, String content ) throws Exception
+    {
+        File file = new File( sourceFolder, path );
+        file.getParentFile().mkdirs();
+        Writer writer = new FileWriter( file );
+        try
+        {
+            writer.write( content );
+        }
+        finally
+        {
+            writer.close();
+        }
+    }
+
+    private static void delete( File file )
+    {
+        File[] children = file.listFiles();
+        if ( children != null )
+        {
+            for ( File child : children )
+            {
+                delete( child );
+            }
+        }
+        file.delete();
+    }
 }
@@ -0,0 +1,170 @@
+package com.thoughtworks.qdox.library;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.model.JavaClass;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class SourceJarLibraryTest
+{
+    private File directory = new File( "target/test-source/sourcejarlibrary" );
+
+    @AfterEach
+    public void tearDown()
+    {
+        File[] files = directory.listFiles();
+        if ( files != null )
+        {
+            for ( File file : files )
+            {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testClassesAreResolvedFromTheJar()
+        throws Exception
+    {
+        File jar = writeJar( "a-sources.jar", false,
+                             "p/A.java", "package p;\n/** the a */\npublic class A extends B { public int size() { return 1; } static class Inner {} }",
+                             "p/B.java", "package p; public class B {}",
+                             "p/package-info.java", "package p;",
+                             "META-INF/versions/9/p/C.java", "package p; public class C {}",
+                             "p/resource.txt", "text" );
+        SourceJarLibrary library = new SourceJarLibrary( new ClassNameLibrary() );
+        library.addSourceJar( jar );
+
+        JavaClass a = library.getJavaClass( "p.A" );
+        Assertions.assertSame( library, a.getJavaClassLibrary() );
+        Assertions.assertEquals( "the a", a.getComment() );
+        Assertions.assertEquals( "return 1;", a.getMethods().get( 0 ).getSourceCode().trim() );
+        Assertions.assertSame( library, a.getSuperJavaClass().getJavaClassLibrary() );
+        Assertions.assertTrue( library.hasClassReference( "p.A$Inner" ) );
+        Assertions.assertSame( a.getSource(), library.getJavaClass( "p.A$Inner" ).getSource() );
+        Assertions.assertFalse( library.hasClassReference( "p.A$Missing" ) );
+        Assertions.assertFalse( library.hasClassReference( "p.C" ) );
+        Assertions.assertFalse( library.hasClassReference( "p.package-info" ) );
+
+        URL url = a.getSource().getURL();
+        Assertions.assertEquals( "jar:" + jar.toURI().toURL() + "!/p/A.java", url.toExternalForm() );
+        InputStream stream = url.openStream();
+        try
+        {
+            Assertions.assertEquals( 'p', stream.read() );
+        }
+        finally
+        {
+            stream.close();
+        }
+    }
+
+    @Test
+    public void testStoredEntries()
+        throws Exception
+    {
+        File jar = writeJar( "stored-sources.jar", true, "p/A.java", "package p; public class A { int i; }" );
+        SourceJarLibrary library = new SourceJarLibrary( new ClassNameLibrary() );
+        library.addSourceJar( jar );
+        Assertions.assertNotNull( library.getJavaClass( "p.A" ).getFieldByName( "i" ) );
+    }
+
+    @Test
+    public void testFirstJarWins()
+        throws Exception
+    {
+        SourceJarLibrary library = new SourceJarLibrary( new ClassNameLibrary() );
+        library.addSourceJar( writeJar( "first-sources.jar", false, "p/A.java", "package p; public class A { int first; }" ) );
+        library.addSourceJar( writeJar( "second-sources.jar", false, "p/A.java", "package p; public class A { int second; }",
+                                        "q/B.java", "package q; public class B {}" ) );
+        Assertions.assertNotNull( library.getJavaClass( "p.A" ).getFieldByName( "first" ) );
+        Assertions.assertTrue( library.hasClassReference( "q.B" ) );
+        Assertions.assertEquals( 2, library.getSourceJars().size() );
+    }
+
+    @Test
+    public void testNoJar()
+        throws Exception
+    {
+        File file = new File( directory, "no.jar" );
+        directory.mkdirs();
+        FileOutputStream out = new FileOutputStream( file );
+        out.write( "package p; public class A {}".getBytes( StandardCharsets.UTF_8 ) );
+        out.close();
+        try
+        {
+            new SourceJarLibrary( null ).addSourceJar( file );
+            Assertions.fail( "IOException expected" );
+        }
+        catch ( IOException e )
+        {
+            // expected
+        }
+    }
+
+    @Test
+    public void testClassLibraryBuilders()
+        throws Exception
+    {
+        File jar = writeJar( "builder-sources.jar", false, "p/B.java", "package p; public class B {}" );
+
+        ClassLibraryBuilder sorted = new SortedClassLibraryBuilder();
+        sorted.appendSourceJar( jar );
+        sorted.appendSource( new StringReader( "package p; public class A extends B {}" ) );
+        Assertions.assertTrue( sorted.getClassLibrary().getJavaClass( "p.A" ).getSuperJavaClass().getJavaClassLibrary() instanceof SourceJarLibrary );
+
+        ClassLibraryBuilder ordered = new OrderedClassLibraryBuilder();
+        ordered.appendSourceJar( jar );
+        Assertions.assertTrue( ordered.getClassLibrary() instanceof SourceJarLibrary );
+        Assertions.assertTrue( ordered.getClassLibrary().hasClassReference( "p.B" ) );
+
+        JavaProjectBuilder builder = new JavaProjectBuilder();
+        builder.addSourceJar( jar );
+        Assertions.assertEquals( "p.B", builder.getClassByName( "p.B" ).getFullyQualifiedName() );
+    }
+
+    private File writeJar( String name, boolean stored, String... entries )
+        throws IOException
+    {
+        directory.mkdirs();
+        File file = new File( directory, name );
+        ZipOutputStream out = new ZipOutputStream( new FileOutputStream( file ) );
+        try
+        {
+            for ( int i = 0; i < entries.length; i += 2 )
+            {
+                byte[] content = entries[i + 1].getBytes( StandardCharsets.UTF_8 );
+                ZipEntry entry = new ZipEntry( entries[i] );
+                if ( stored )
+                {
+                    CRC32 crc = new CRC32();
+                    crc.update( content );
+                    entry.setMethod( ZipEntry.STORED );
+                    entry.setSize( content.length );
+                    entry.setCrc( crc.getValue() );
+                }
+                out.putNextEntry( entry );
+                out.write( content );
+                out.closeEntry();
+            }
+        }
+        finally
+        {
+            out.close();
+        }
+        return file;
+    }
+}
@@ -1,13 +1,19 @@
 package com.thoughtworks.qdox.library;
 
+import com.thoughtworks.qdox.directorywalker.FileVisitor;
 import com.thoughtworks.qdox.model.JavaSource;
 import com.thoughtworks.qdox.parser.ParseException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
 
 import java.io.*;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class SourceLibraryTest {
     private SourceLibrary sourceLibrary;
@@ -104,6 +110,87 @@ public class SourceLibraryTest {
         Assertions.assertEquals("TEST-CHARS: \u00C4\u00D6\u00DC\u00E4\u00F6\u00FC\u00DF", src.getClassByName( "Latin1" ).getComment());
     }
 
+    // the decoder of the thread follows the encoding of the library
+    @Test
+    public void testEncodingChangedBetweenSources() throws Exception {
+        File utf8 = new File( "src/test/resources/com/thoughtworks/qdox/testdata/UTF8.java");
+        File latin1 = new File( "src/test/resources/com/thoughtworks/qdox/testdata/Latin1.java");
+        sourceLibrary.setEncoding( "UTF-8" );
+        Assertions.assertEquals("TEST-CHARS: \u00DF\u0131\u03A3\u042F\u05D0\u20AC", sourceLibrary.addSource( utf8 ).getClassByName( "UTF8" ).getComment());
+        sourceLibrary.setEncoding( "ISO-8859-1" );
+        Assertions.assertEquals("TEST-CHARS: \u00C4\u00D6\u00DC\u00E4\u00F6\u00FC\u00DF", sourceLibrary.addSource( latin1 ).getClassByName( "Latin1" ).getComment());
+        sourceLibrary.setEncoding( "UTF-8" );
+        Assertions.assertEquals("TEST-CHARS: \u00DF\u0131\u03A3\u042F\u05D0\u20AC", sourceLibrary.addSource( utf8 ).getClassByName( "UTF8" ).getComment());
+    }
+
+    @Test
+    public void testParseAfterReleasedThreadParser() throws Exception {
+        File file = new File( "src/test/resources/com/thoughtworks/qdox/testdata/UTF8.java");
+        sourceLibrary.setEncoding( "UTF-8" );
+        sourceLibrary.addSource( file );
+        SourceLibrary.releaseThreadParser();
+        JavaSource src = sourceLibrary.addSource( new File( "src/test/resources/com/thoughtworks/qdox/testdata/Latin1.java") );
+        Assertions.assertNotNull(src.getClassByName( "Latin1" ));
+    }
+
+    // the lexer and parser of the thread are reused
+    @Test
+    public void testParseAfterFailedParse() throws Exception {
+        try {
+            sourceLibrary.addSource( new StringReader( "package a; class Bad { void m( { /** @%! */ }}}}" ) );
+            Assertions.fail("Source should not be parsed");
+        }
+        catch(ParseException ex) {}
+        JavaSource src = sourceLibrary.addSource( new StringReader( "package b;\n/** Good */\npublic class Good {\n  /** @return one */\n  int m() { return 1; }\n}" ) );
+        Assertions.assertEquals("b", src.getPackageName());
+        Assertions.assertEquals("Good", src.getClassByName( "Good" ).getComment());
+        Assertions.assertEquals("one", src.getClassByName( "Good" ).getMethods().get( 0 ).getTagByName( "return" ).getValue());
+        Assertions.assertEquals("return 1;", src.getClassByName( "Good" ).getMethods().get( 0 ).getSourceCode().trim());
+    }
+
+    @Test
+    public void testMetricsOfFile() throws Exception {
+        final SourceMetrics[] result = new SourceMetrics[1];
+        sourceLibrary.setMetricsListener( new MetricsListener() {
+            public void sourceParsed( SourceMetrics metrics ) {
+                result[0] = metrics;
+            }
+            public void typeResolved( String typeName, String resolvedName, boolean cached, long nanos ) {}
+            public void classResolved( AbstractClassLibrary library, String binaryName, boolean found, long nanos ) {}
+            public void classReferenceChecked( AbstractClassLibrary library, String binaryName, boolean cached ) {}
+        } );
+        File file = new File( "src/test/resources/com/thoughtworks/qdox/testdata/UTF8.java");
+        sourceLibrary.setEncoding( "UTF-8" );
+        sourceLibrary.addSource( file );
+        Assertions.assertEquals(file.toURI().toURL(), result[0].getUrl());
+        Assertions.assertEquals(file.length(), result[0].getBytes());
+        Assertions.assertEquals(1, result[0].getComments());
+        Assertions.assertTrue(result[0].getLexNanos() > 0);
+        Assertions.assertTrue(result[0].getParseNanos() >= 0);
+        Assertions.assertEquals(result[0].getReadNanos() + result[0].getLexNanos() + result[0].getParseNanos() + result[0].getBuildNanos(), result[0].getTotalNanos());
+    }
+
+    @Test
+    public void testAddSourcesIsCancelledWhenInterrupted() throws Exception {
+        final File first = createFile("target/test-source/com/blah/First.java", "com.blah", "First");
+        final File second = createFile("target/test-source/com/blah/Second.java", "com.blah", "Second");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Thread.currentThread().interrupt();
+            Assertions.assertThrows(CancellationException.class, new Executable() {
+                public void execute() {
+                    sourceLibrary.addSources(Arrays.asList(first, second), executor, new FileVisitor() {
+                        public void visitFile(File file) {}
+                    });
+                }
+            });
+            Assertions.assertTrue(Thread.interrupted(), "the interrupt status should be restored");
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void testModuleInfo() throws Exception {
     	File file = new File( "src/test/resources/com/thoughtworks/qdox/testdata/module-info.java");
@@ -0,0 +1,64 @@
+package com.thoughtworks.qdox.library.jfr;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.model.JavaClass;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class JfrMetricsListenerTest
+{
+    @Test
+    public void testEvents() throws Exception
+    {
+        JavaProjectBuilder builder = new JavaProjectBuilder();
+        builder.setMetricsListener( new JfrMetricsListener() );
+
+        Path file = Files.createTempFile( "qdox", ".jfr" );
+        List<RecordedEvent> events;
+        try
+        {
+            Recording recording = new Recording();
+            recording.enable( "com.thoughtworks.qdox.SourceParse" );
+            recording.enable( "com.thoughtworks.qdox.TypeResolution" );
+            recording.enable( "com.thoughtworks.qdox.ClassResolution" );
+            recording.start();
+            builder.addSource( new StringReader( "package x;\n/** A list */\nclass A extends java.util.ArrayList<String> {}" ) );
+            JavaClass cls = builder.getClassByName( "x.A" );
+            Assertions.assertEquals( "java.util.ArrayList", cls.getSuperClass().getFullyQualifiedName() );
+            recording.stop();
+            recording.dump( file );
+            recording.close();
+            events = RecordingFile.readAllEvents( file );
+        }
+        finally
+        {
+            Files.delete( file );
+        }
+
+        Set<String> names = new HashSet<String>();
+        for ( RecordedEvent event : events )
+        {
+            names.add( event.getEventType().getName() );
+            if ( "com.thoughtworks.qdox.SourceParse".equals( event.getEventType().getName() ) )
+            {
+                Assertions.assertEquals( 1, event.getInt( "comments" ) );
+                Assertions.assertTrue( event.getInt( "tokens" ) > 10 );
+            }
+        }
+        Assertions.assertTrue( names.contains( "com.thoughtworks.qdox.SourceParse" ), names.toString() );
+        Assertions.assertTrue( names.contains( "com.thoughtworks.qdox.TypeResolution" ), names.toString() );
+        Assertions.assertTrue( names.contains( "com.thoughtworks.qdox.ClassResolution" ), names.toString() );
+    }
+}
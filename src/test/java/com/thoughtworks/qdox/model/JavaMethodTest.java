@@ -147,7 +147,8 @@ public abstract class JavaMethodTest<M extends JavaMethod> {
         setName(mth, "blah");
         setReturns(mth, newType("void"));
         setModifiers(mth, Arrays.asList(new String[]{"synchronized", "public", "final"}));
-        Assertions.assertEquals("public synchronized final void blah();\n", mth.getCodeBlock());
+        // since 2.2 the modifiers are listed in their canonical order instead of the declared one
+        Assertions.assertEquals("public final synchronized void blah();\n", mth.getCodeBlock());
     }
 
     @Test
@@ -46,6 +46,36 @@ public class AbstractJavaEntityTest {
         Assertions.assertEquals(0, entity.getTagsByName("non existent tag").size());
     }
 
+    @Test
+    public void testTagIndexFollowsTags() {
+        AbstractBaseJavaEntity entity = newAbstractJavaEntity();
+        DocletTag monkeyTag = mock(DocletTag.class);
+        when(monkeyTag.getName()).thenReturn( "monkey" );
+        DocletTag horseTag = mock(DocletTag.class);
+        when(horseTag.getName()).thenReturn( "horse" );
+
+        entity.setTags(Collections.singletonList(monkeyTag));
+        Assertions.assertEquals(entity.getTagsByName("monkey"), entity.getTagsByName("monkey"));
+        Assertions.assertSame(monkeyTag, entity.getTagByName("monkey"));
+
+        entity.setTags(Collections.singletonList(horseTag));
+        Assertions.assertNull(entity.getTagByName("monkey"));
+        Assertions.assertSame(horseTag, entity.getTagByName("horse"));
+
+        List<DocletTag> tags = new LinkedList<DocletTag>();
+        tags.add(horseTag);
+        entity.setTags(tags);
+        Assertions.assertEquals(1, entity.getTagsByName("horse").size());
+        tags.add(monkeyTag);
+        tags.add(horseTag);
+        Assertions.assertEquals(2, entity.getTagsByName("horse").size());
+        Assertions.assertSame(monkeyTag, entity.getTagByName("monkey"));
+
+        List<DocletTag> horseTags = entity.getTagsByName("horse");
+        horseTags.clear();
+        Assertions.assertEquals(2, entity.getTagsByName("horse").size());
+    }
+
     @Test
     public void testGetSingleTagByName() {
         AbstractBaseJavaEntity entity = newAbstractJavaEntity();
@@ -70,17 +70,17 @@ public class DefaultJavaClassIT
         JavaClass entryClass = library.getJavaClass( "java.util.Map$Entry" );
         BeanProperty valueBean = entryClass.getBeanProperty( "value" );
         Assertions.assertNotNull(valueBean);
-        Assertions.assertEquals("java.lang.Object", valueBean.getType().getFullyQualifiedName());
+        Assertions.assertEquals("V", valueBean.getType().getFullyQualifiedName());
         Assertions.assertNotNull(valueBean.getAccessor());
         
         Assertions.assertEquals("public abstract java.lang.Object java.util.Map$Entry.getValue()", Class.forName( "java.util.Map$Entry" ).getMethod("getValue").toString());
-        Assertions.assertEquals("public abstract java.lang.Object java.util.Map$Entry.getValue()", valueBean.getAccessor().toString());
+        Assertions.assertEquals("public abstract V java.util.Map$Entry.getValue()", valueBean.getAccessor().toString());
         Assertions.assertNotNull(valueBean.getMutator());
-        Assertions.assertEquals("public abstract java.lang.Object java.util.Map$Entry.setValue(java.lang.Object)", valueBean.getMutator().toString());
+        Assertions.assertEquals("public abstract V java.util.Map$Entry.setValue(V)", valueBean.getMutator().toString());
         
         BeanProperty keyBean = entryClass.getBeanProperty( "key" );
         Assertions.assertNotNull(keyBean.getAccessor());
-        Assertions.assertEquals("public abstract java.lang.Object java.util.Map$Entry.getKey()", keyBean.getAccessor().toString());
+        Assertions.assertEquals("public abstract K java.util.Map$Entry.getKey()", keyBean.getAccessor().toString());
         Assertions.assertNull(keyBean.getMutator());
     }
     
@@ -0,0 +1,42 @@
+package com.thoughtworks.qdox.model.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class ModifiersTest {
+
+    @Test
+    public void testNamesAreListedInCanonicalOrder() {
+        int flags = Modifiers.valueOf(Arrays.asList("final", "static", "public", "default"));
+        Assertions.assertEquals(Arrays.asList("public", "default", "static", "final"), Modifiers.toList(flags));
+    }
+
+    @Test
+    public void testListsAreShared() {
+        int flags = Modifiers.PRIVATE | Modifiers.FINAL;
+        Assertions.assertSame(Modifiers.toList(flags), Modifiers.toList(flags));
+        Assertions.assertSame(Collections.emptyList(), Modifiers.toList(0));
+    }
+
+    @Test
+    public void testAccessFlagsMatchReflection() {
+        int flags = Modifier.PUBLIC | Modifier.ABSTRACT | Modifier.INTERFACE;
+        Assertions.assertEquals(Arrays.asList("public", "abstract", "interface"), Modifiers.toList(flags));
+        Assertions.assertEquals(Modifier.toString(Modifier.PROTECTED | Modifier.STATIC | Modifier.FINAL | Modifier.VOLATILE),
+                                String.join(" ", Modifiers.toList(Modifier.PROTECTED | Modifier.STATIC | Modifier.FINAL | Modifier.VOLATILE)));
+    }
+
+    @Test
+    public void testUnknownBitsAreIgnored() {
+        Assertions.assertEquals(Collections.singletonList("sealed"), Modifiers.toList(Modifiers.SEALED | 0x1000));
+    }
+
+    @Test
+    public void testUnknownNameIsRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Modifiers.valueOf("blah"));
+    }
+}
@@ -0,0 +1,27 @@
+package com.thoughtworks.qdox.model.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class NamePoolTest {
+
+    @Test
+    public void testEqualNamesShareOneInstance() {
+        NamePool pool = new NamePool();
+        String name = pool.intern(new String("java.util.List"));
+        Assertions.assertSame(name, pool.intern(new String("java.util.List")));
+        Assertions.assertNotSame(name, pool.intern(new String("java.util.Map")));
+        Assertions.assertEquals(2, pool.size());
+        Assertions.assertNull(pool.intern(null));
+        Assertions.assertFalse(pool.isWeak());
+    }
+
+    @Test
+    public void testWeakPoolSharesNamesInUse() {
+        NamePool pool = new NamePool(true);
+        String name = pool.intern(new String("java.lang.String"));
+        Assertions.assertSame(name, pool.intern(new String("java.lang.String")));
+        Assertions.assertEquals(1, pool.size());
+        Assertions.assertTrue(pool.isWeak());
+    }
+}
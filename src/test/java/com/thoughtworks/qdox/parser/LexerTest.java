@@ -1072,4 +1072,66 @@ public class LexerTest {
         assertLex( Parser.BRACECLOSE, lexer );
         assertLex( 0, lexer );
     }
+
+    @Test
+    public void testBufferedInputLexesLikeReaderInput() throws Exception {
+        String in = "package p;\r\n"
+                + "/** caf\u00E9 */\r\n"
+                + "@Note(value = \"a\" + \"b\", list = {1, 2})\r\n"
+                + "public class X<T extends java.util.List<? super T>> {\r\n"
+                + "    int[] values = { 1, 2 }, other = new int[] { 3 };\r\n"
+                + "    String s = \"\\u00e4 \\\" }\" + 'c';\r\n"
+                + "    java.util.List<String> l = java.util.Collections.<String>emptyList();\r\n"
+                + "    enum E { A(\"x\") { void m() { } }, B }\r\n"
+                + "    void m() { if (true) { /* } */ } }\r\n"
+                + "}\r\n";
+        char[] buffer = (in + "trailing garbage").toCharArray();
+
+        Lexer expected = new JFlexLexer(new StringReader(in));
+        Lexer actual = new JFlexLexer(buffer, in.length());
+        int token;
+        do {
+            token = expected.lex();
+            Assertions.assertEquals(token, actual.lex());
+            Assertions.assertEquals(expected.text(), actual.text());
+            Assertions.assertEquals(expected.getLine(), actual.getLine());
+            if (";".equals(expected.text()) || "}".equals(expected.text())) {
+                Assertions.assertEquals(expected.getCodeBody(), actual.getCodeBody());
+            }
+        } while (token != 0);
+    }
+
+    @Test
+    public void testResetLexesLikeNewLexer() throws Exception {
+        String first = "class A { @B(c = { 1 }) void m() { } }";
+        String in = "package p;\r\n"
+                + "/** doc */\r\n"
+                + "@Note(value = \"a\")\r\n"
+                + "public class X {\r\n"
+                + "    int[] values = { 1, 2 };\r\n"
+                + "    void m() { if (true) { /* } */ } }\r\n"
+                + "}\r\n";
+
+        // abandon the first source in the middle of an annotation
+        JFlexLexer lexer = new JFlexLexer(new StringReader(first));
+        while (!"c".equals(lexer.text())) {
+            Assertions.assertNotEquals(0, lexer.lex());
+        }
+        lexer.reset(in.toCharArray(), in.length());
+        assertSameTokens(new JFlexLexer(new StringReader(in)), lexer);
+
+        lexer.reset(new StringReader(in));
+        assertSameTokens(new JFlexLexer(new StringReader(in)), lexer);
+    }
+
+    private void assertSameTokens(Lexer expected, Lexer actual) throws IOException {
+        int token;
+        do {
+            token = expected.lex();
+            Assertions.assertEquals(token, actual.lex());
+            Assertions.assertEquals(expected.text(), actual.text());
+            Assertions.assertEquals(expected.getLine(), actual.getLine());
+            Assertions.assertEquals(expected.getColumn(), actual.getColumn());
+        } while (token != 0);
+    }
 }
@@ -628,7 +628,8 @@ public class ParserTest {
         
         ClassDef cls = classCaptor.getValue();
         Assertions.assertEquals("MyClass", cls.getName());
-        Assertions.assertArrayEquals(new String[] {"public", "protected","private", "final", "abstract" }, cls.getModifiers().toArray( new String[0] ));
+        // canonical order instead of the declared one since 2.2
+        Assertions.assertArrayEquals(new String[] {"public", "protected","private", "abstract", "final" }, cls.getModifiers().toArray( new String[0] ));
     }
 
     @Test
@@ -923,7 +924,8 @@ public class ParserTest {
         MethodDef mth = captor.getValue();
         Assertions.assertEquals("doSomething", mth.getName());
         Assertions.assertEquals(new TypeDef("com.blah.Something"), mth.getReturnType());
-        Assertions.assertArrayEquals(new String[]{"public", "protected", "private", "abstract", "static", "final", "native", "synchronized", "volatile"}, mth.getModifiers().toArray(new String[0]));
+        // canonical order instead of the declared one since 2.2
+        Assertions.assertArrayEquals(new String[]{"public", "protected", "private", "abstract", "static", "final", "volatile", "synchronized", "native"}, mth.getModifiers().toArray(new String[0]));
     }
 
     @Test
@@ -0,0 +1,166 @@
+package com.thoughtworks.qdox.parser.impl;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.thoughtworks.qdox.library.ClassLoaderLibrary;
+import com.thoughtworks.qdox.model.JavaAnnotation;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaConstructor;
+import com.thoughtworks.qdox.model.JavaMethod;
+import com.thoughtworks.qdox.model.JavaParameter;
+import com.thoughtworks.qdox.model.expression.Constant;
+
+public class ClassFileParserTest
+{
+    private ClassLoaderLibrary library;
+
+    @BeforeEach
+    public void setUp()
+    {
+        library = new ClassLoaderLibrary( null );
+        library.addDefaultLoader();
+    }
+
+    @Test
+    public void testGenericSignatures()
+    {
+        JavaClass fixture = library.getJavaClass( Fixture.class.getName() );
+        Assertions.assertEquals( "Fixture", fixture.getName() );
+        Assertions.assertEquals( 1, fixture.getTypeParameters().size() );
+        Assertions.assertEquals( "T", fixture.getTypeParameters().get( 0 ).getName() );
+        Assertions.assertEquals( "java.util.Comparator<T>",
+                                 fixture.getImplements().get( 0 ).getGenericFullyQualifiedName() );
+        Assertions.assertEquals( "java.util.List<T>[]",
+                                 fixture.getFieldByName( "lists" ).getType().getGenericFullyQualifiedName() );
+
+        JavaConstructor constructor = fixture.getConstructors().get( 0 );
+        Assertions.assertEquals( "Fixture", constructor.getName() );
+        Assertions.assertEquals( "java.util.Map<java.lang.String,T>",
+                                 constructor.getParameters().get( 0 ).getType().getGenericFullyQualifiedName() );
+        Assertions.assertEquals( "java.io.IOException", constructor.getExceptions().get( 0 ).getFullyQualifiedName() );
+
+        JavaMethod first = fixture.getMethods().get( 0 );
+        Assertions.assertEquals( "first", first.getName() );
+        Assertions.assertEquals( "E", first.getTypeParameters().get( 0 ).getName() );
+        Assertions.assertEquals( "E", first.getReturns().getFullyQualifiedName() );
+        JavaParameter values = first.getParameters().get( 0 );
+        Assertions.assertTrue( values.isVarArgs() );
+        Assertions.assertEquals( "E", values.getType().getFullyQualifiedName() );
+        Assertions.assertEquals( "java.lang.Deprecated",
+                                 values.getAnnotations().get( 0 ).getType().getFullyQualifiedName() );
+    }
+
+    @Test
+    public void testModifiersAndMembers()
+    {
+        JavaClass fixture = library.getJavaClass( Fixture.class.getName() );
+        Assertions.assertTrue( fixture.isAbstract() );
+        Assertions.assertTrue( fixture.isStatic() );
+        Assertions.assertEquals( "java.lang.Deprecated", fixture.getAnnotations().get( 0 ).getType().getFullyQualifiedName() );
+        // only the declared members, no synthetic ones
+        Assertions.assertEquals( 3, fixture.getFields().size() );
+        Assertions.assertEquals( 3, fixture.getMethods().size() );
+        Assertions.assertEquals( 3, fixture.getNestedClasses().size() );
+
+        JavaClass color = fixture.getNestedClassByName( "Color" );
+        Assertions.assertTrue( color.isEnum() );
+        Assertions.assertEquals( 2, color.getEnumConstants().size() );
+        Assertions.assertTrue( fixture.getNestedClassByName( "Marker" ).isAnnotation() );
+        Assertions.assertTrue( fixture.getNestedClassByName( "Defaults" ).getMethods().get( 0 ).isDefault() );
+    }
+
+    @Test
+    public void testMemberClassIsParsedFromItsTopLevelClass()
+    {
+        JavaClass color = library.getJavaClass( Fixture.Color.class.getName() );
+        Assertions.assertEquals( "Color", color.getName() );
+        Assertions.assertEquals( Fixture.class.getName(), color.getDeclaringClass().getBinaryName() );
+        Assertions.assertEquals( ClassFileParserTest.class.getName(),
+                                 color.getDeclaringClass().getDeclaringClass().getBinaryName() );
+    }
+
+    @Test
+    public void testAnnotationValues()
+    {
+        JavaMethod color = library.getJavaClass( Fixture.class.getName() ).getMethodBySignature( "color", null );
+        JavaAnnotation marker = color.getAnnotations().get( 0 );
+        Assertions.assertEquals( "\"a\\\"b\"", marker.getNamedParameter( "value" ) );
+        Assertions.assertEquals( "a\"b", ( (Constant) marker.getProperty( "value" ) ).getValue() );
+        Assertions.assertEquals( Fixture.class.getName() + "$Color.GREEN", marker.getProperty( "color" ).getParameterValue() );
+        Assertions.assertEquals( "[java.lang.String.class, int[].class]", marker.getNamedParameter( "types" ).toString() );
+        Assertions.assertEquals( 3, ( (Constant) marker.getProperty( "count" ) ).getValue() );
+    }
+
+    @Test
+    public void testMissingClassFile()
+    {
+        Assertions.assertFalse( new ClassFileParser( getClass().getClassLoader(), "com.example.Missing", null ).parse() );
+    }
+
+    @Deprecated
+    public static abstract class Fixture<T extends Comparable<? super T>>
+        implements Comparator<T>
+    {
+        public static final String NAME = "fixture";
+
+        protected List<T>[] lists;
+
+        private int size;
+
+        public Fixture( Map<String, T> values )
+            throws IOException
+        {
+        }
+
+        @SafeVarargs
+        public final <E extends T> E first( @Deprecated E... values )
+        {
+            return values[0];
+        }
+
+        @Marker( value = "a\"b", color = Color.GREEN, types = { String.class, int[].class }, count = 3 )
+        public abstract Color color();
+
+        public Runnable task()
+        {
+            return new Runnable()
+            {
+                public void run()
+                {
+                    size++;
+                }
+            };
+        }
+
+        public enum Color
+        {
+            RED, GREEN
+        }
+
+        public @interface Marker
+        {
+            String value();
+
+            Color color();
+
+            Class<?>[] types();
+
+            int count();
+        }
+
+        interface Defaults
+        {
+            default int size()
+            {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.thoughtworks.qdox.tools;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class QDoxTesterTest {
+
+    private final File directory = new File("target/test-source/qdoxtester");
+
+    private final CollectingReporter reporter = new CollectingReporter();
+
+    @AfterEach
+    public void tearDown() {
+        delete(directory);
+    }
+
+    @Test
+    public void testDirectoryIsCheckedInParallel() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            write(new File(directory, "p/A" + i + ".java"), "package p; public class A" + i + " { void m() {} }");
+        }
+        write(new File(directory, "p/Broken.java"), "package p; public class Broken {");
+
+        StringWriter csv = new StringWriter();
+        ParseStatistics statistics = new ParseStatistics(3);
+        statistics.setCsv(new PrintWriter(csv, true));
+        QDoxTester tester = new QDoxTester(reporter, 4, statistics);
+        tester.checkDirectory(directory);
+
+        Assertions.assertEquals(50, reporter.successes.size());
+        Assertions.assertEquals(Collections.singletonList("Broken.java"), reporter.failures);
+        Assertions.assertTrue(reporter.errors.isEmpty());
+
+        Assertions.assertEquals(51, statistics.getFileCount());
+        Assertions.assertEquals(1, statistics.getFailureCount());
+        Assertions.assertEquals(0, statistics.getErrorCount());
+        Assertions.assertTrue(statistics.getByteCount() > 50 * 40);
+        Assertions.assertTrue(statistics.getFilesPerSecond() > 0);
+        Assertions.assertTrue(statistics.getLatencyPercentile(50) <= statistics.getLatencyPercentile(99));
+        Assertions.assertEquals(3, statistics.getSlowestFiles().size());
+        Assertions.assertTrue(statistics.getSlowestFiles().get(0).getNanos() >= statistics.getSlowestFiles().get(2).getNanos());
+        Assertions.assertEquals(statistics.getSlowestFiles().get(0).getNanos(), statistics.getLatencyPercentile(100));
+
+        String[] lines = csv.toString().split("\\r?\\n");
+        Assertions.assertEquals(52, lines.length);
+        Assertions.assertEquals("id,result,bytes,nanos,allocatedBytes", lines[0]);
+
+        StringWriter json = new StringWriter();
+        statistics.writeJson(new PrintWriter(json));
+        Assertions.assertTrue(json.toString().contains("\"files\": 51,"));
+        Assertions.assertTrue(json.toString().contains("\"failures\": 1,"));
+    }
+
+    @Test
+    public void testZipIsCheckedInParallel() throws Exception {
+        directory.mkdirs();
+        File zip = new File(directory, "sources.zip");
+        ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip));
+        try {
+            out.putNextEntry(new ZipEntry("p/"));
+            for (int i = 0; i < 20; i++) {
+                out.putNextEntry(new ZipEntry("p/A" + i + ".java"));
+                out.write(("package p; public class A" + i + " {}").getBytes(StandardCharsets.UTF_8));
+            }
+        } finally {
+            out.close();
+        }
+
+        QDoxTester tester = new QDoxTester(reporter, 3, new ParseStatistics(0));
+        tester.checkZipOrJarFile(zip);
+        Assertions.assertEquals(20, reporter.successes.size());
+        Assertions.assertTrue(reporter.successes.contains("sources.zip!p/A7.java"));
+        Assertions.assertEquals(20, tester.getStatistics().getFileCount());
+        Assertions.assertTrue(tester.getStatistics().getSlowestFiles().isEmpty());
+    }
+
+    @Test
+    public void testSingleThread() throws Exception {
+        File file = new File(directory, "A.java");
+        write(file, "public class A {}");
+        QDoxTester tester = new QDoxTester(reporter);
+        tester.checkJavaFile(file);
+        Assertions.assertEquals(Collections.singletonList("A.java"), reporter.successes);
+        Assertions.assertEquals(1, tester.getStatistics().getFileCount());
+    }
+
+    @Test
+    public void testCsvValuesAreQuoted() {
+        StringWriter csv = new StringWriter();
+        ParseStatistics statistics = new ParseStatistics(1);
+        statistics.setCsv(new PrintWriter(csv, true));
+        statistics.record("a,\"b\".java", "success", 10, 20, -1);
+        Assertions.assertTrue(csv.toString().contains("\"a,\"\"b\"\".java\",success,10,20,-1"));
+        Assertions.assertEquals(-1, statistics.getAllocatedBytesPerFile());
+    }
+
+    private static void write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        Writer writer = new FileWriter(file);
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    // not thread-safe, the tester calls one method at a time
+    private static class CollectingReporter implements QDoxTester.Reporter {
+
+        private final List<String> successes = new ArrayList<String>();
+
+        private final List<String> failures = new ArrayList<String>();
+
+        private final List<String> errors = new ArrayList<String>();
+
+        public void success(String id) {
+            successes.add(id);
+        }
+
+        public void parseFailure(String id, int line, int column, String reason) {
+            failures.add(id);
+        }
+
+        public void error(String id, Throwable throwable) {
+            errors.add(id);
+        }
+    }
+}
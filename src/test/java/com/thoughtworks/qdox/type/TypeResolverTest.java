@@ -1,12 +1,16 @@
 package com.thoughtworks.qdox.type;
 
 import com.thoughtworks.qdox.library.ClassLibrary;
+import com.thoughtworks.qdox.library.ClassLoaderLibrary;
+import com.thoughtworks.qdox.library.SourceLibrary;
+import com.thoughtworks.qdox.model.util.NamePool;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -35,6 +39,64 @@ public class TypeResolverTest
         Assertions.assertEquals(null, typeResolver.resolveType("Food"));
     }
     
+    @Test
+    public void testUnresolvedTypesAreCachedUntilLibraryChanges()
+    {
+        ClassLoaderLibrary classLoaderLibrary = new ClassLoaderLibrary( null );
+        SourceLibrary sourceLibrary = new SourceLibrary( classLoaderLibrary );
+        typeResolver = TypeResolver.byPackageName( "p", sourceLibrary, Collections.<String>emptyList() );
+
+        Assertions.assertNull( typeResolver.resolveType( "Missing" ) );
+        long misses = sourceLibrary.getClassReferenceMissCount();
+        Assertions.assertNull( typeResolver.resolveType( "Missing" ) );
+        Assertions.assertEquals( misses, sourceLibrary.getClassReferenceMissCount() );
+
+        // another resolver of the same library doesn't have to probe the library chain either
+        Assertions.assertNull( TypeResolver.byPackageName( "p", sourceLibrary, null ).resolveType( "Missing" ) );
+        Assertions.assertEquals( misses, sourceLibrary.getClassReferenceMissCount() );
+        Assertions.assertTrue( sourceLibrary.getClassReferenceHitCount() > 0 );
+
+        sourceLibrary.addSource( new StringReader( "package p; public class Missing {}" ) );
+        Assertions.assertEquals( "p.Missing", typeResolver.resolveType( "Missing" ) );
+
+        Assertions.assertNull( typeResolver.resolveType( "String" ) );
+        classLoaderLibrary.addClassLoader( getClass().getClassLoader() );
+        Assertions.assertEquals( "java.lang.String", typeResolver.resolveType( "String" ) );
+    }
+
+    @Test
+    public void testResolvedNamesArePooled()
+    {
+        ClassLoaderLibrary classLoaderLibrary = new ClassLoaderLibrary( null );
+        classLoaderLibrary.addClassLoader( getClass().getClassLoader() );
+        classLoaderLibrary.setNamePool( new NamePool() );
+
+        String name = TypeResolver.byPackageName( "p", classLoaderLibrary, null ).resolveType( "String" );
+        Assertions.assertEquals( "java.lang.String", name );
+        Assertions.assertSame( name, TypeResolver.byPackageName( "q", classLoaderLibrary, null ).resolveType( "String" ) );
+    }
+
+    @Test
+    public void testImportTableFollowsAddedImports()
+    {
+        when( classLibrary.hasClassReference( "foo.Bar" ) ).thenReturn( true );
+        when( classLibrary.hasClassReference( "baz.Qux" ) ).thenReturn( true );
+
+        List<String> imports = new ArrayList<String>();
+        imports.add( "static foo.Bar.*" );
+        ImportTable importTable = new ImportTable( imports );
+        typeResolver = TypeResolver.byPackageNameAndImports( null, classLibrary, importTable );
+        Assertions.assertNull( typeResolver.resolveType( "Qux" ) );
+        Assertions.assertSame( importTable, importTable.update() );
+
+        imports.add( "baz.Qux" );
+        imports.add( "other.Qux" );
+        Assertions.assertNotSame( importTable, importTable.update() );
+        Assertions.assertEquals( "baz.Qux", typeResolver.resolveType( "Qux" ) );
+        Assertions.assertEquals( "baz.Qux", importTable.update().getSingleTypeImport( "Qux" ) );
+        Assertions.assertEquals( Collections.singletonList( "foo.Bar." ), importTable.update().getOnDemandImports() );
+    }
+
     @Test
     public void testResolving()
     {